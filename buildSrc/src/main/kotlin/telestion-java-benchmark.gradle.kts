@@ -0,0 +1,35 @@
+///
+/// Define JMH benchmark conventions for Telestion Core projects.
+///
+/// The benchmarks live in the main source set and get generated by the JMH annotation processor.
+/// Projects applying this convention must declare the "jmh-core" and "jmh-generator-annprocess" dependencies.
+///
+
+plugins {
+    id("telestion-java")
+    id("java")
+}
+
+// machine-readable results of every run, named after the project version,
+// so regressions can be tracked between releases
+val jmhResultsDir = layout.buildDirectory.dir("results/jmh")
+
+// run all benchmarks with "./gradlew jmh"
+// or only the ones matching a regular expression with "./gradlew jmh -Pjmh.includes=HeaderInformation"
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks of the project"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+
+    val includes = providers.gradleProperty("jmh.includes").getOrElse(".*")
+    val resultFile = jmhResultsDir.get().file("results-${project.version}.json").asFile
+    args(includes, "-rf", "json", "-rff", resultFile.absolutePath)
+
+    outputs.file(resultFile)
+    // benchmarks must always run when requested
+    outputs.upToDateWhen { false }
+    doFirst {
+        resultFile.parentFile.mkdirs()
+    }
+}
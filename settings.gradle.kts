@@ -8,3 +8,4 @@ rootProject.name = "telestion-core"
 include("telestion-api")
 include("telestion-application")
 include("telestion-services")
+include("telestion-benchmarks")
@@ -1,5 +1,6 @@
 plugins {
     id("telestion-java-library")
+    id("java-test-fixtures")
 }
 
 // some meta information (important for packaging metadata)
@@ -12,14 +13,21 @@ tasks.withType<Test>().configureEach {
     systemProperty("junit.jupiter.displayname.generator.default", "de.wuespace.telestion.api.CamelCase")
 }
 
+// the test fixtures are shared with the tests of the other modules but not published
+val javaComponent = components["java"] as AdhocComponentWithVariants
+javaComponent.withVariantsFromConfiguration(configurations["testFixturesApiElements"]) { skip() }
+javaComponent.withVariantsFromConfiguration(configurations["testFixturesRuntimeElements"]) { skip() }
+
 dependencies {
     api(libs.jackson.core)
     api(libs.jackson.databind)
     api(libs.jackson.annotations)
+    implementation(libs.jackson.dataformat.cbor)
     api(libs.slf4j.api)
     api(libs.logback.classic)
     api(libs.logstash.logback.encoder)
     api(libs.vertx.core)
+    api(libs.vertx.circuitbreaker)
 
     testImplementation(libs.junit.jupiter.api)
     testImplementation(libs.hamcrest.core)
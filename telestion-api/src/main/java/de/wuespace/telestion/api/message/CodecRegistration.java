@@ -0,0 +1,52 @@
+package de.wuespace.telestion.api.message;
+
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Remembers on which {@link EventBus Vert.x event buses} a {@link MessageCodec} is already registered,
+ * so it can be registered lazily right before the first message is sent.
+ */
+final class CodecRegistration {
+
+	/**
+	 * @param codec the codec which should be registered on the event buses
+	 */
+	CodecRegistration(MessageCodec<?, ?> codec) {
+		this.codec = codec;
+	}
+
+	/**
+	 * Registers the codec on the {@link EventBus Vert.x event bus} if it is not already registered.
+	 *
+	 * @param eventBus the event bus that should know the codec
+	 */
+	void register(EventBus eventBus) {
+		var last = lastRegistered;
+		if (last != null && last.get() == eventBus) {
+			return;
+		}
+
+		synchronized (registered) {
+			if (registered.add(eventBus)) {
+				try {
+					eventBus.registerCodec(codec);
+				} catch (IllegalStateException e) {
+					// already registered by someone else on this event bus
+				}
+			}
+			lastRegistered = new WeakReference<>(eventBus);
+		}
+	}
+
+	private final MessageCodec<?, ?> codec;
+
+	private final Set<EventBus> registered = Collections.newSetFromMap(new WeakHashMap<>());
+
+	private volatile WeakReference<EventBus> lastRegistered;
+}
@@ -0,0 +1,281 @@
+package de.wuespace.telestion.api.message;
+
+import io.vertx.core.MultiMap;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <h2>Description</h2>
+ * A {@link MultiMap} view that lazily merges multiple {@link MultiMap Vert.x headers} in their given order.
+ * <p>
+ * Single values are read directly from the source maps.
+ * The merged content is only built if it is actually required,
+ * e.g. to list all values of a key, to iterate over all entries or to change the view.
+ * A view over exactly one source map is a copy-on-write view:
+ * it reads from the source until it is changed for the first time.
+ * <p>
+ * Changes of the view never affect the source maps.
+ * Changes of the source maps are visible in the view until it is merged.
+ * Like the other {@link MultiMap} implementations, the view is not thread-safe.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * var headers = MultiMapUtils.compose(defaultHeaders, frameHeaders);
+ * // no merged map is built for a single read
+ * var sequence = headers.get("sequence");
+ * }
+ * </pre>
+ *
+ * @see MultiMapUtils#compose(MultiMap...)
+ * @see MultiMapUtils#merge(MultiMap...)
+ */
+public final class CompositeMultiMap implements MultiMap {
+
+	/**
+	 * Creates a new view over the source maps.
+	 *
+	 * @param sources the maps that should be merged in their given order
+	 */
+	CompositeMultiMap(MultiMap... sources) {
+		this.sources = sources;
+	}
+
+	/**
+	 * Returns {@code true}, if the source maps are already merged into one map.
+	 *
+	 * @return {@code true} if the merged map is already built
+	 */
+	public boolean isMerged() {
+		return merged != null;
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// reading
+	///////////////////////////////////////////////////////////////////////////
+
+	@Override
+	public String get(CharSequence name) {
+		if (merged != null) {
+			return merged.get(name);
+		}
+
+		for (var source : sources) {
+			var value = source.get(name);
+			if (value != null) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String get(String name) {
+		return get((CharSequence) name);
+	}
+
+	@Override
+	public List<String> getAll(String name) {
+		return view().getAll(name);
+	}
+
+	@Override
+	public List<String> getAll(CharSequence name) {
+		return view().getAll(name);
+	}
+
+	@Override
+	public boolean contains(String name) {
+		return contains((CharSequence) name);
+	}
+
+	@Override
+	public boolean contains(CharSequence name) {
+		if (merged != null) {
+			return merged.contains(name);
+		}
+
+		for (var source : sources) {
+			if (source.contains(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		if (merged != null) {
+			return merged.isEmpty();
+		}
+
+		for (var source : sources) {
+			if (!source.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public Set<String> names() {
+		return view().names();
+	}
+
+	@Override
+	public int size() {
+		return view().size();
+	}
+
+	@Override
+	public Iterator<Map.Entry<String, String>> iterator() {
+		return view().iterator();
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// writing
+	///////////////////////////////////////////////////////////////////////////
+
+	@Override
+	public MultiMap add(String name, String value) {
+		mutable().add(name, value);
+		return this;
+	}
+
+	@Override
+	public MultiMap add(CharSequence name, CharSequence value) {
+		mutable().add(name, value);
+		return this;
+	}
+
+	@Override
+	public MultiMap add(String name, Iterable<String> values) {
+		mutable().add(name, values);
+		return this;
+	}
+
+	@Override
+	public MultiMap add(CharSequence name, Iterable<CharSequence> values) {
+		mutable().add(name, values);
+		return this;
+	}
+
+	@Override
+	public MultiMap addAll(MultiMap map) {
+		mutable().addAll(map);
+		return this;
+	}
+
+	@Override
+	public MultiMap addAll(Map<String, String> headers) {
+		mutable().addAll(headers);
+		return this;
+	}
+
+	@Override
+	public MultiMap set(String name, String value) {
+		mutable().set(name, value);
+		return this;
+	}
+
+	@Override
+	public MultiMap set(CharSequence name, CharSequence value) {
+		mutable().set(name, value);
+		return this;
+	}
+
+	@Override
+	public MultiMap set(String name, Iterable<String> values) {
+		mutable().set(name, values);
+		return this;
+	}
+
+	@Override
+	public MultiMap set(CharSequence name, Iterable<CharSequence> values) {
+		mutable().set(name, values);
+		return this;
+	}
+
+	@Override
+	public MultiMap setAll(MultiMap map) {
+		mutable().setAll(map);
+		return this;
+	}
+
+	@Override
+	public MultiMap setAll(Map<String, String> headers) {
+		mutable().setAll(headers);
+		return this;
+	}
+
+	@Override
+	public MultiMap remove(String name) {
+		mutable().remove(name);
+		return this;
+	}
+
+	@Override
+	public MultiMap remove(CharSequence name) {
+		mutable().remove(name);
+		return this;
+	}
+
+	@Override
+	public MultiMap clear() {
+		mutable().clear();
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return "%s[headers=%s]".formatted(getClass().getName(), view());
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * The maps that are merged in their given order.
+	 */
+	private final MultiMap[] sources;
+
+	/**
+	 * The merged content of the source maps or {@code null} if the source maps are not merged yet.
+	 */
+	private MultiMap merged;
+
+	/**
+	 * Returns a map that contains the merged content without building it if only one source map exists.
+	 */
+	private MultiMap view() {
+		if (merged == null && sources.length == 1) {
+			return sources[0];
+		}
+		return merge();
+	}
+
+	/**
+	 * Returns the merged map that can be changed safely.
+	 */
+	private MultiMap mutable() {
+		return merge();
+	}
+
+	/**
+	 * Merges all source maps in a single pass if it is not already done.
+	 */
+	private MultiMap merge() {
+		if (merged == null) {
+			var map = MultiMap.caseInsensitiveMultiMap();
+			for (var source : sources) {
+				map.addAll(source);
+			}
+			merged = map;
+		}
+		return merged;
+	}
+}
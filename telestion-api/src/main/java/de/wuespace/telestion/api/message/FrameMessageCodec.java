@@ -0,0 +1,105 @@
+package de.wuespace.telestion.api.message;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * <h2>Description</h2>
+ * A {@link MessageCodec Vert.x message codec} that transfers raw binary frames
+ * over the {@link EventBus Vert.x event bus} without copying them.
+ * <p>
+ * The default Vert.x codec copies every {@link Buffer} for local consumers.
+ * This codec passes the frame instance through as is,
+ * so a frame (or a {@link Buffer#slice() slice} of a larger frame) reaches the consumer
+ * without a single byte being copied or converted into JSON.
+ * Therefore, a frame must not be modified after it is sent.
+ * <p>
+ * For clustered delivery the frame is written length-prefixed:
+ * <pre>
+ * | int: frame length | frame |
+ * </pre>
+ * The receiving side gets a slice of the wire buffer.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * var options = FrameMessageCodec.attach(vertx, new DeliveryOptions());
+ * vertx.eventBus().publish("downlink", frame.slice(8, 72), options);
+ * }
+ * </pre>
+ * The {@link de.wuespace.telestion.api.verticle.trait.WithEventBus WithEventBus} traits use this codec
+ * in their {@code publishFrame()} and {@code sendFrame()} methods.
+ *
+ * @see de.wuespace.telestion.api.verticle.trait.WithEventBus
+ */
+public final class FrameMessageCodec implements MessageCodec<Buffer, Buffer> {
+
+	/**
+	 * The name under which the codec is registered on the {@link EventBus Vert.x event bus}.
+	 */
+	public static final String NAME = "telestion-frame";
+
+	/**
+	 * The shared codec instance.
+	 */
+	public static final FrameMessageCodec INSTANCE = new FrameMessageCodec();
+
+	/**
+	 * Registers the codec on the {@link EventBus Vert.x event bus} if it is not already registered.
+	 *
+	 * @param eventBus the event bus that should know the codec
+	 */
+	public static void register(EventBus eventBus) {
+		registration.register(eventBus);
+	}
+
+	/**
+	 * Registers the codec on the event bus of the {@link Vertx} instance if necessary
+	 * and selects it in a copy of the {@link DeliveryOptions}.
+	 * The given options are left untouched, so callers can reuse them for other messages.
+	 *
+	 * @param vertx   the Vert.x instance that sends the message
+	 * @param options the {@link DeliveryOptions} that should use the codec
+	 * @return a copy of the {@link DeliveryOptions} that selects the codec
+	 */
+	public static DeliveryOptions attach(Vertx vertx, DeliveryOptions options) {
+		register(vertx.eventBus());
+		return new DeliveryOptions(options).setCodecName(NAME);
+	}
+
+	private FrameMessageCodec() {
+	}
+
+	@Override
+	public void encodeToWire(Buffer buffer, Buffer frame) {
+		buffer.appendInt(frame.length()).appendBuffer(frame);
+	}
+
+	@Override
+	public Buffer decodeFromWire(int pos, Buffer buffer) {
+		var length = buffer.getInt(pos);
+		pos += 4;
+		return buffer.slice(pos, pos + length);
+	}
+
+	@Override
+	public Buffer transform(Buffer frame) {
+		// frames are read-only by contract, so the instance can be shared with local consumers
+		return frame;
+	}
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	@Override
+	public byte systemCodecID() {
+		return -1;
+	}
+
+	private static final CodecRegistration registration = new CodecRegistration(INSTANCE);
+}
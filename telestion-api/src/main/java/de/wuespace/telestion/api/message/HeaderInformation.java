@@ -1,13 +1,14 @@
 package de.wuespace.telestion.api.message;
 
 import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.Message;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
@@ -56,33 +57,42 @@ public class HeaderInformation implements MultiMap {
 
 	/**
 	 * Merges an array of {@link HeaderInformation} objects into one {@link HeaderInformation} object.
+	 * The headers are merged lazily, when the merged content is actually required.
 	 *
 	 * @param information multiple {@link HeaderInformation} objects you want to merge
 	 * @return the merged {@link HeaderInformation} object
+	 * @see MultiMapUtils#compose(MultiMap...)
 	 */
 	public static HeaderInformation merge(HeaderInformation... information) {
-		return merge(Arrays.stream(information));
+		var headers = new MultiMap[information.length];
+		for (int i = 0; i < information.length; i++) {
+			headers[i] = information[i].headers;
+		}
+		return new HeaderInformation(new CompositeMultiMap(headers));
 	}
 
 	/**
 	 * Merges a list of {@link HeaderInformation} objects into one {@link HeaderInformation} object.
+	 * The headers are merged lazily, when the merged content is actually required.
 	 *
 	 * @param list multiple {@link HeaderInformation} objects you want to merge
 	 * @return the merged {@link HeaderInformation} object
+	 * @see MultiMapUtils#compose(MultiMap...)
 	 */
 	public static HeaderInformation merge(List<HeaderInformation> list) {
-		return merge(list.stream());
+		return merge(list.toArray(HeaderInformation[]::new));
 	}
 
 	/**
 	 * Merges a stream of {@link HeaderInformation} objects into one {@link HeaderInformation} object.
+	 * The headers are merged lazily, when the merged content is actually required.
 	 *
 	 * @param stream a stream that contains multiple {@link HeaderInformation} objects you want to merge
 	 * @return the merged {@link HeaderInformation} object
+	 * @see MultiMapUtils#compose(MultiMap...)
 	 */
 	public static HeaderInformation merge(Stream<HeaderInformation> stream) {
-		var headers = stream.map(HeaderInformation::getHeaders);
-		return new HeaderInformation(MultiMapUtils.merge(headers));
+		return merge(stream.toArray(HeaderInformation[]::new));
 	}
 
 	/**
@@ -197,6 +207,128 @@ public class HeaderInformation implements MultiMap {
 		return attach(new DeliveryOptions());
 	}
 
+	///////////////////////////////////////////////////////////////////////////
+	// frame metadata
+	///////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * The header key that contains the type of raw binary frame.
+	 */
+	public static final String FRAME_TYPE = "frame-type";
+
+	/**
+	 * The header key that contains the length of a raw binary frame in bytes.
+	 */
+	public static final String FRAME_LENGTH = "frame-length";
+
+	/**
+	 * Describes a raw binary frame with its type and length.
+	 * Existing frame metadata is replaced, so an unknown type removes an existing type.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param type  the type of the frame, e.g. the name of the downlink packet, or {@code null} if it is unknown
+	 * @param frame the frame that is described
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 * @see de.wuespace.telestion.api.verticle.trait.WithEventBusPublish#publishFrame(String, Buffer, String, MultiMap...)
+	 */
+	public HeaderInformation setFrame(String type, Buffer frame) {
+		if (type != null) {
+			setValue(FRAME_TYPE, type);
+		} else {
+			headers.remove(FRAME_TYPE);
+		}
+		return setValue(FRAME_LENGTH, Integer.toString(frame.length()));
+	}
+
+	/**
+	 * Returns the type of the described raw binary frame.
+	 *
+	 * @return the frame type or {@link Optional#empty()} if none is assigned
+	 */
+	public Optional<String> getFrameType() {
+		return getString(FRAME_TYPE);
+	}
+
+	/**
+	 * Returns the length of the described raw binary frame in bytes.
+	 *
+	 * @return the frame length or {@code -1} if none is assigned
+	 */
+	public int getFrameLength() {
+		return getInt(FRAME_LENGTH, -1);
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// cache control
+	///////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * The header key that marks cached responses of the address as outdated.
+	 */
+	public static final String CACHE_INVALIDATE = "cache-invalidate";
+
+	/**
+	 * Marks the cached responses of the address as outdated.
+	 * On a request, the {@link de.wuespace.telestion.api.verticle.trait.RequestCache RequestCache} drops
+	 * the cached responses of the address and asks the responder again.
+	 * On a response, the response is not cached.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 */
+	public HeaderInformation setCacheInvalidate() {
+		return setValue(CACHE_INVALIDATE, Boolean.toString(true));
+	}
+
+	/**
+	 * Returns if the cached responses of the address are marked as outdated.
+	 *
+	 * @return {@code true} if the cached responses are outdated
+	 */
+	public boolean isCacheInvalidate() {
+		return getBoolean(CACHE_INVALIDATE, false);
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// deadline
+	///////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * The header key that contains the deadline of a request in milliseconds since the epoch.
+	 */
+	public static final String DEADLINE = "deadline";
+
+	/**
+	 * Sets the time after which nobody waits for the response of the request anymore.
+	 * Handlers can check the deadline with {@link #isDeadlineExceeded()} and skip expired work.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param deadline the deadline of the request
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 * @see de.wuespace.telestion.api.verticle.trait.ResilientRequester
+	 */
+	public HeaderInformation setDeadline(Instant deadline) {
+		return setValue(DEADLINE, Long.toString(deadline.toEpochMilli()));
+	}
+
+	/**
+	 * Returns the time after which nobody waits for the response of the request anymore.
+	 *
+	 * @return the deadline or {@link Optional#empty()} if none is assigned
+	 */
+	public Optional<Instant> getDeadline() {
+		return getLong(DEADLINE).map(Instant::ofEpochMilli);
+	}
+
+	/**
+	 * Returns if the deadline of the request has passed.
+	 *
+	 * @return {@code true} if the deadline has passed, {@code false} if it has not passed or none is assigned
+	 */
+	public boolean isDeadlineExceeded() {
+		return getDeadline().map(deadline -> !Instant.now().isBefore(deadline)).orElse(false);
+	}
+
 	///////////////////////////////////////////////////////////////////////////
 	// getters
 	///////////////////////////////////////////////////////////////////////////
@@ -233,7 +365,8 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#get(String)
 	 */
 	public String getString(String key, String defaultValue) {
-		return getString(key).orElse(defaultValue);
+		var value = headers.get(key);
+		return value != null ? value : defaultValue;
 	}
 
 	/**
@@ -245,7 +378,13 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#get(String)
 	 */
 	public Optional<Byte> getByte(String key) {
-		return getString(key).map(safeParse(Byte::parseByte));
+		var value = headers.get(key);
+		if (value == null) return Optional.empty();
+		try {
+			return Optional.of(Byte.parseByte(value));
+		} catch (NumberFormatException e) {
+			return Optional.empty();
+		}
 	}
 
 	/**
@@ -258,7 +397,13 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#get(String)
 	 */
 	public byte getByte(String key, byte defaultValue) {
-		return getByte(key).orElse(defaultValue);
+		var value = headers.get(key);
+		if (value == null) return defaultValue;
+		try {
+			return Byte.parseByte(value);
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
 	}
 
 	/**
@@ -270,7 +415,13 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#get(String)
 	 */
 	public Optional<Integer> getInt(String key) {
-		return getString(key).map(safeParse(Integer::parseInt));
+		var value = headers.get(key);
+		if (value == null) return Optional.empty();
+		try {
+			return Optional.of(Integer.parseInt(value));
+		} catch (NumberFormatException e) {
+			return Optional.empty();
+		}
 	}
 
 	/**
@@ -283,7 +434,13 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#get(String)
 	 */
 	public int getInt(String key, int defaultValue) {
-		return getInt(key).orElse(defaultValue);
+		var value = headers.get(key);
+		if (value == null) return defaultValue;
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
 	}
 
 	/**
@@ -295,7 +452,13 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#get(String)
 	 */
 	public Optional<Long> getLong(String key) {
-		return getString(key).map(safeParse(Long::parseLong));
+		var value = headers.get(key);
+		if (value == null) return Optional.empty();
+		try {
+			return Optional.of(Long.parseLong(value));
+		} catch (NumberFormatException e) {
+			return Optional.empty();
+		}
 	}
 
 	/**
@@ -308,7 +471,13 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#get(String)
 	 */
 	public long getLong(String key, long defaultValue) {
-		return getLong(key).orElse(defaultValue);
+		var value = headers.get(key);
+		if (value == null) return defaultValue;
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
 	}
 
 	/**
@@ -320,7 +489,13 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#get(String)
 	 */
 	public Optional<Float> getFloat(String key) {
-		return getString(key).map(safeParse(Float::parseFloat));
+		var value = headers.get(key);
+		if (value == null) return Optional.empty();
+		try {
+			return Optional.of(Float.parseFloat(value));
+		} catch (NumberFormatException e) {
+			return Optional.empty();
+		}
 	}
 
 	/**
@@ -333,7 +508,13 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#get(String)
 	 */
 	public float getFloat(String key, float defaultValue) {
-		return getFloat(key).orElse(defaultValue);
+		var value = headers.get(key);
+		if (value == null) return defaultValue;
+		try {
+			return Float.parseFloat(value);
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
 	}
 
 	/**
@@ -345,7 +526,13 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#get(String)
 	 */
 	public Optional<Double> getDouble(String key) {
-		return getString(key).map(safeParse(Double::parseDouble));
+		var value = headers.get(key);
+		if (value == null) return Optional.empty();
+		try {
+			return Optional.of(Double.parseDouble(value));
+		} catch (NumberFormatException e) {
+			return Optional.empty();
+		}
 	}
 
 	/**
@@ -358,7 +545,13 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#get(String)
 	 */
 	public double getDouble(String key, double defaultValue) {
-		return getDouble(key).orElse(defaultValue);
+		var value = headers.get(key);
+		if (value == null) return defaultValue;
+		try {
+			return Double.parseDouble(value);
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
 	}
 
 	/**
@@ -383,7 +576,8 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#get(String)
 	 */
 	public char getChar(String key, char defaultValue) {
-		return getChar(key).orElse(defaultValue);
+		var value = headers.get(key);
+		return value != null && value.length() == 1 ? value.charAt(0) : defaultValue;
 	}
 
 	/**
@@ -408,7 +602,8 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#get(String)
 	 */
 	public boolean getBoolean(String key, boolean defaultValue) {
-		return getBoolean(key).orElse(defaultValue);
+		var value = headers.get(key);
+		return value != null ? Boolean.parseBoolean(value) : defaultValue;
 	}
 
 	/**
@@ -441,7 +636,7 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#add(String, Iterable)
 	 */
 	public HeaderInformation add(String key, String... values) {
-		return add(key, Arrays.stream(values));
+		return addValues(key, Arrays.asList(values));
 	}
 
 	/**
@@ -454,7 +649,20 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#add(String, Iterable)
 	 */
 	public HeaderInformation add(String key, Byte... values) {
-		return add(key, Arrays.stream(values).map(String::valueOf));
+		return addValues(key, toStrings(values));
+	}
+
+	/**
+	 * Appends a {@code byte} value assigned to the key without boxing it.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param key   the key to which the value is assigned
+	 * @param value the new {@code byte} value that you want to append to the key
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 * @see MultiMap#add(String, String)
+	 */
+	public HeaderInformation add(String key, byte value) {
+		return addValue(key, Byte.toString(value));
 	}
 
 	/**
@@ -467,7 +675,20 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#add(String, Iterable)
 	 */
 	public HeaderInformation add(String key, Integer... values) {
-		return add(key, Arrays.stream(values).map(String::valueOf));
+		return addValues(key, toStrings(values));
+	}
+
+	/**
+	 * Appends a {@code int} value assigned to the key without boxing it.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param key   the key to which the value is assigned
+	 * @param value the new {@code int} value that you want to append to the key
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 * @see MultiMap#add(String, String)
+	 */
+	public HeaderInformation add(String key, int value) {
+		return addValue(key, Integer.toString(value));
 	}
 
 	/**
@@ -480,7 +701,20 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#add(String, Iterable)
 	 */
 	public HeaderInformation add(String key, Long... values) {
-		return add(key, Arrays.stream(values).map(String::valueOf));
+		return addValues(key, toStrings(values));
+	}
+
+	/**
+	 * Appends a {@code long} value assigned to the key without boxing it.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param key   the key to which the value is assigned
+	 * @param value the new {@code long} value that you want to append to the key
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 * @see MultiMap#add(String, String)
+	 */
+	public HeaderInformation add(String key, long value) {
+		return addValue(key, Long.toString(value));
 	}
 
 	/**
@@ -493,7 +727,20 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#add(String, Iterable)
 	 */
 	public HeaderInformation add(String key, Float... values) {
-		return add(key, Arrays.stream(values).map(String::valueOf));
+		return addValues(key, toStrings(values));
+	}
+
+	/**
+	 * Appends a {@code float} value assigned to the key without boxing it.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param key   the key to which the value is assigned
+	 * @param value the new {@code float} value that you want to append to the key
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 * @see MultiMap#add(String, String)
+	 */
+	public HeaderInformation add(String key, float value) {
+		return addValue(key, Float.toString(value));
 	}
 
 	/**
@@ -506,7 +753,20 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#add(String, Iterable)
 	 */
 	public HeaderInformation add(String key, Double... values) {
-		return add(key, Arrays.stream(values).map(String::valueOf));
+		return addValues(key, toStrings(values));
+	}
+
+	/**
+	 * Appends a {@code double} value assigned to the key without boxing it.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param key   the key to which the value is assigned
+	 * @param value the new {@code double} value that you want to append to the key
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 * @see MultiMap#add(String, String)
+	 */
+	public HeaderInformation add(String key, double value) {
+		return addValue(key, Double.toString(value));
 	}
 
 	/**
@@ -519,7 +779,20 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#add(String, Iterable)
 	 */
 	public HeaderInformation add(String key, Character... values) {
-		return add(key, Arrays.stream(values).map(String::valueOf));
+		return addValues(key, toStrings(values));
+	}
+
+	/**
+	 * Appends a {@code char} value assigned to the key without boxing it.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param key   the key to which the value is assigned
+	 * @param value the new {@code char} value that you want to append to the key
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 * @see MultiMap#add(String, String)
+	 */
+	public HeaderInformation add(String key, char value) {
+		return addValue(key, String.valueOf(value));
 	}
 
 	/**
@@ -532,7 +805,20 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#add(String, Iterable)
 	 */
 	public HeaderInformation add(String key, Boolean... values) {
-		return add(key, Arrays.stream(values).map(String::valueOf));
+		return addValues(key, toStrings(values));
+	}
+
+	/**
+	 * Appends a {@code boolean} value assigned to the key without boxing it.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param key   the key to which the value is assigned
+	 * @param value the new {@code boolean} value that you want to append to the key
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 * @see MultiMap#add(String, String)
+	 */
+	public HeaderInformation add(String key, boolean value) {
+		return addValue(key, Boolean.toString(value));
 	}
 
 	/**
@@ -610,7 +896,7 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#set(String, Iterable)
 	 */
 	public HeaderInformation set(String key, String... values) {
-		return set(key, Arrays.stream(values));
+		return setValues(key, Arrays.asList(values));
 	}
 
 	/**
@@ -623,7 +909,20 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#set(String, Iterable)
 	 */
 	public HeaderInformation set(String key, Byte... values) {
-		return set(key, Arrays.stream(values).map(String::valueOf));
+		return setValues(key, toStrings(values));
+	}
+
+	/**
+	 * Replaces the old allocation assigned to the key with a {@code byte} value without boxing it.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param key   the key to which the value is assigned
+	 * @param value the new {@code byte} value that replaces the old allocation
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 * @see MultiMap#set(String, String)
+	 */
+	public HeaderInformation set(String key, byte value) {
+		return setValue(key, Byte.toString(value));
 	}
 
 	/**
@@ -636,7 +935,20 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#set(String, Iterable)
 	 */
 	public HeaderInformation set(String key, Integer... values) {
-		return set(key, Arrays.stream(values).map(String::valueOf));
+		return setValues(key, toStrings(values));
+	}
+
+	/**
+	 * Replaces the old allocation assigned to the key with a {@code int} value without boxing it.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param key   the key to which the value is assigned
+	 * @param value the new {@code int} value that replaces the old allocation
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 * @see MultiMap#set(String, String)
+	 */
+	public HeaderInformation set(String key, int value) {
+		return setValue(key, Integer.toString(value));
 	}
 
 	/**
@@ -649,7 +961,20 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#set(String, Iterable)
 	 */
 	public HeaderInformation set(String key, Long... values) {
-		return set(key, Arrays.stream(values).map(String::valueOf));
+		return setValues(key, toStrings(values));
+	}
+
+	/**
+	 * Replaces the old allocation assigned to the key with a {@code long} value without boxing it.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param key   the key to which the value is assigned
+	 * @param value the new {@code long} value that replaces the old allocation
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 * @see MultiMap#set(String, String)
+	 */
+	public HeaderInformation set(String key, long value) {
+		return setValue(key, Long.toString(value));
 	}
 
 	/**
@@ -662,7 +987,20 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#set(String, Iterable)
 	 */
 	public HeaderInformation set(String key, Float... values) {
-		return set(key, Arrays.stream(values).map(String::valueOf));
+		return setValues(key, toStrings(values));
+	}
+
+	/**
+	 * Replaces the old allocation assigned to the key with a {@code float} value without boxing it.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param key   the key to which the value is assigned
+	 * @param value the new {@code float} value that replaces the old allocation
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 * @see MultiMap#set(String, String)
+	 */
+	public HeaderInformation set(String key, float value) {
+		return setValue(key, Float.toString(value));
 	}
 
 	/**
@@ -675,7 +1013,20 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#set(String, Iterable)
 	 */
 	public HeaderInformation set(String key, Double... values) {
-		return set(key, Arrays.stream(values).map(String::valueOf));
+		return setValues(key, toStrings(values));
+	}
+
+	/**
+	 * Replaces the old allocation assigned to the key with a {@code double} value without boxing it.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param key   the key to which the value is assigned
+	 * @param value the new {@code double} value that replaces the old allocation
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 * @see MultiMap#set(String, String)
+	 */
+	public HeaderInformation set(String key, double value) {
+		return setValue(key, Double.toString(value));
 	}
 
 	/**
@@ -688,7 +1039,20 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#set(String, Iterable)
 	 */
 	public HeaderInformation set(String key, Character... values) {
-		return set(key, Arrays.stream(values).map(String::valueOf));
+		return setValues(key, toStrings(values));
+	}
+
+	/**
+	 * Replaces the old allocation assigned to the key with a {@code char} value without boxing it.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param key   the key to which the value is assigned
+	 * @param value the new {@code char} value that replaces the old allocation
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 * @see MultiMap#set(String, String)
+	 */
+	public HeaderInformation set(String key, char value) {
+		return setValue(key, String.valueOf(value));
 	}
 
 	/**
@@ -701,7 +1065,20 @@ public class HeaderInformation implements MultiMap {
 	 * @see MultiMap#set(String, Iterable)
 	 */
 	public HeaderInformation set(String key, Boolean... values) {
-		return set(key, Arrays.stream(values).map(String::valueOf));
+		return setValues(key, toStrings(values));
+	}
+
+	/**
+	 * Replaces the old allocation assigned to the key with a {@code boolean} value without boxing it.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param key   the key to which the value is assigned
+	 * @param value the new {@code boolean} value that replaces the old allocation
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 * @see MultiMap#set(String, String)
+	 */
+	public HeaderInformation set(String key, boolean value) {
+		return setValue(key, Boolean.toString(value));
 	}
 
 	/**
@@ -878,67 +1255,96 @@ public class HeaderInformation implements MultiMap {
 	private final MultiMap headers;
 
 	/**
-	 * Intermediate step to append a stream of strings to the wrapped {@link MultiMap Vert.x headers}.
+	 * Intermediate step to append a list of strings to the wrapped {@link MultiMap Vert.x headers}.
 	 * Returns a reference to {@code this} for fluent design.
 	 *
 	 * @param key    the key to which the values should be assigned
-	 * @param stream stream of values to assign to the given key
+	 * @param values list of values to assign to the given key
 	 * @return a reference to {@code this}, so the API can be used fluently
 	 */
-	private HeaderInformation add(String key, Stream<String> stream) {
-		var list = stream.toList();
-
-		if (contains(key)) {
+	private HeaderInformation addValues(String key, List<String> values) {
+		if (logger.isDebugEnabled() && headers.contains(key)) {
 			var existing = getAll(key);
 			logger.debug("The header information object already contains values assigned to that key. " +
 							"Appending new values to existing values. Key: {}, Before: {}, Now: {}",
-					key, existing, Stream.of(existing, list).toList());
+					key, existing, Stream.concat(existing.stream(), values.stream()).toList());
+		}
+
+		headers.add(key, values);
+		return this;
+	}
+
+	/**
+	 * Intermediate step to append a single string to the wrapped {@link MultiMap Vert.x headers}
+	 * without wrapping it into a list first.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param key   the key to which the value should be assigned
+	 * @param value the value to assign to the given key
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 */
+	private HeaderInformation addValue(String key, String value) {
+		if (logger.isDebugEnabled() && headers.contains(key)) {
+			var existing = getAll(key);
+			logger.debug("The header information object already contains values assigned to that key. " +
+							"Appending new value to existing values. Key: {}, Before: {}, Now: {}",
+					key, existing, Stream.concat(existing.stream(), Stream.of(value)).toList());
 		}
 
-		headers.add(key, list);
+		headers.add(key, value);
 		return this;
 	}
 
 	/**
-	 * Intermediate step to replace a stream of strings with the old allocation
+	 * Intermediate step to replace a list of strings with the old allocation
 	 * in the wrapped {@link MultiMap Vert.x headers}.
 	 * Returns a reference to {@code this} for fluent design.
 	 *
 	 * @param key    the key to the values which should be replaced
-	 * @param stream stream of values which replace the current values assigned to the given key
+	 * @param values list of values which replace the current values assigned to the given key
 	 * @return a reference to {@code this}, so the API can be used fluently
 	 */
-	private HeaderInformation set(String key, Stream<String> stream) {
-		var list = stream.toList();
+	private HeaderInformation setValues(String key, List<String> values) {
+		if (logger.isDebugEnabled() && headers.contains(key)) {
+			logger.debug("The header information object already contains values assigned to that key. " +
+					"Overriding existing values with new values. Key: {}, Before: {}, Now: {}", key, getAll(key), values);
+		}
 
-		if (contains(key)) {
-			var existing = getAll(key);
+		headers.set(key, values);
+		return this;
+	}
+
+	/**
+	 * Intermediate step to replace the old allocation in the wrapped {@link MultiMap Vert.x headers}
+	 * with a single string without wrapping it into a list first.
+	 * Returns a reference to {@code this} for fluent design.
+	 *
+	 * @param key   the key to the values which should be replaced
+	 * @param value the value which replaces the current values assigned to the given key
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 */
+	private HeaderInformation setValue(String key, String value) {
+		if (logger.isDebugEnabled() && headers.contains(key)) {
 			logger.debug("The header information object already contains values assigned to that key. " +
-					"Overriding existing values with new values. Key: {}, Before: {}, Now: {}", key, existing, list);
+					"Overriding existing values with new value. Key: {}, Before: {}, Now: {}", key, getAll(key), value);
 		}
 
-		headers.set(key, list);
+		headers.set(key, value);
 		return this;
 	}
 
 	/**
-	 * Wraps the specified function into a {@link NumberFormatException} try-catch block
-	 * to prevent exception breakout in the parsing steps.
-	 * If the value cannot be parsed, {@code null} is returned instead.
+	 * Converts the values into their {@link String} representations with a plain loop.
 	 *
-	 * @param func the function that can throw a {@link NumberFormatException} during parsing
-	 * @param <T>  the type of the input to the function
-	 * @param <R>  the type of the result to the function
-	 * @return another function which wraps the given function into a {@link NumberFormatException} try-catch block
+	 * @param values the values to convert
+	 * @return a list with the {@link String} representations of the values
 	 */
-	private static <T, R> Function<T, R> safeParse(Function<T, R> func) {
-		return value -> {
-			try {
-				return func.apply(value);
-			} catch (NumberFormatException e) {
-				return null;
-			}
-		};
+	private static List<String> toStrings(Object[] values) {
+		var strings = new ArrayList<String>(values.length);
+		for (var value : values) {
+			strings.add(String.valueOf(value));
+		}
+		return strings;
 	}
 
 	private static final Logger logger = LoggerFactory.getLogger(HeaderInformation.class);
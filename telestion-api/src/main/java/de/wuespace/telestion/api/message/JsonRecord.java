@@ -6,7 +6,6 @@ import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.EncodeException;
-import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.spi.json.JsonCodec;
 import org.slf4j.Logger;
@@ -14,10 +13,13 @@ import org.slf4j.LoggerFactory;
 
 /**
  * <h2>Description</h2>
- * The base class for all records which are automatically encoded with the JsonMessageCodec.
+ * The base class for all records which are automatically encoded with the {@link JsonRecordMessageCodec}.
  * <p>
  * All subclasses have to be valid json classes. This means that they could be encoded by
  * {@link JsonCodec} which is backed by {@link io.vertx.core.json.jackson.JacksonCodec JacksonCodec}.
+ * <p>
+ * Decoding and encoding use the pre-resolved Jackson readers and writers of the {@link JsonRecordCodecRegistry}.
+ * Call {@link #prepare(Class[])} during startup to build them ahead of the first message.
  *
  * <h2>Usage</h2>
  * <pre>
@@ -224,7 +226,27 @@ public interface JsonRecord {
 	 *                         construct the specified {@link JsonRecord}
 	 */
 	static <T extends JsonRecord> T from(Buffer json, Class<T> type) throws DecodeException {
-		return Json.CODEC.fromBuffer(json, type);
+		return JsonRecordCodecRegistry.fromBuffer(json, type);
+	}
+
+	/**
+	 * Constructs a {@link JsonRecord} from a part of a buffer which contains an encoded JSON string,
+	 * e.g. the payload of a larger binary frame.
+	 * The bytes are parsed in place and are not copied out of the buffer.
+	 *
+	 * @param json   the buffer that contains the encoded JSON string
+	 * @param offset the index of the first byte of the encoded JSON string
+	 * @param length the number of bytes of the encoded JSON string
+	 * @param type   the class of the target {@link JsonRecord}
+	 * @param <T>    the type of the target {@link JsonRecord}
+	 * @return the decoded message
+	 * @throws DecodeException           if the part of the buffer does not contain the necessary information
+	 *                                   to successfully construct the specified {@link JsonRecord}
+	 * @throws IndexOutOfBoundsException if the part exceeds the bounds of the buffer
+	 */
+	static <T extends JsonRecord> T fromSlice(Buffer json, int offset, int length, Class<T> type)
+			throws DecodeException {
+		return JsonRecordCodecRegistry.fromSlice(json, offset, length, type);
 	}
 
 	/**
@@ -239,11 +261,14 @@ public interface JsonRecord {
 	 *                         construct the specified {@link JsonRecord}
 	 */
 	static <T extends JsonRecord> T from(String json, Class<T> type) throws DecodeException {
-		return Json.CODEC.fromString(json, type);
+		return JsonRecordCodecRegistry.fromString(json, type);
 	}
 
 	/**
 	 * Constructs a {@link JsonRecord} from a plain {@link Object}.
+	 * <p>
+	 * If the plain {@link Object} already is an instance of the target {@link JsonRecord},
+	 * it is returned as is, because {@link JsonRecord JSON records} are immutable.
 	 *
 	 * @param json the plain {@link Object} that contains the necessary information to construct
 	 *             the specified {@link JsonRecord}
@@ -254,11 +279,17 @@ public interface JsonRecord {
 	 *                         construct the specified {@link JsonRecord}
 	 */
 	static <T extends JsonRecord> T from(Object json, Class<T> type) throws DecodeException {
-		return Json.CODEC.fromValue(json, type);
+		if (type.isInstance(json)) {
+			return type.cast(json);
+		}
+		return JsonRecordCodecRegistry.fromValue(json, type);
 	}
 
 	/**
 	 * Constructs a {@link JsonRecord} from a Vert.x EventBus {@link Message} body.
+	 * <p>
+	 * Messages sent with the {@link JsonRecordMessageCodec} already contain the {@link JsonRecord} instance
+	 * and are not decoded again.
 	 *
 	 * @param message the message which body contains the necessary information to construct
 	 *                the specified {@link JsonRecord}
@@ -293,7 +324,7 @@ public interface JsonRecord {
 	 *                                  any {@link JsonRecord} property
 	 */
 	default JsonObject toJsonObject() throws IllegalArgumentException {
-		return JsonObject.mapFrom(this);
+		return JsonRecordCodecRegistry.toJsonObject(this);
 	}
 
 	/**
@@ -303,10 +334,10 @@ public interface JsonRecord {
 	 * @return a JSON string representing the {@link JsonRecord}
 	 * @throws EncodeException if the {@link JsonRecord} containing properties that cannot be represented
 	 *                         by JSON values
-	 * @see io.vertx.core.json.jackson.JacksonCodec#toString(Object, boolean)
+	 * @see JsonRecordCodecRegistry#toString(Object, boolean)
 	 */
 	default String toJsonString(boolean pretty) throws EncodeException {
-		return Json.CODEC.toString(this, pretty);
+		return JsonRecordCodecRegistry.toString(this, pretty);
 	}
 
 	/**
@@ -323,10 +354,10 @@ public interface JsonRecord {
 	 * @return a buffer representing the {@link JsonRecord}
 	 * @throws EncodeException if the {@link JsonRecord} containing properties that cannot be represented
 	 *                         by JSON values
-	 * @see io.vertx.core.json.jackson.JacksonCodec#toBuffer(Object, boolean)
+	 * @see JsonRecordCodecRegistry#toBuffer(Object, boolean)
 	 */
 	default Buffer toJsonBuffer(boolean pretty) throws EncodeException {
-		return Json.CODEC.toBuffer(this, pretty);
+		return JsonRecordCodecRegistry.toBuffer(this, pretty);
 	}
 
 	/**
@@ -340,6 +371,18 @@ public interface JsonRecord {
 	// others section
 	///////////////////////////////////////////////////////////////////////////
 
+	/**
+	 * Builds and caches the Jackson readers and writers for the given {@link JsonRecord} types,
+	 * so the first decoding or encoding of these types doesn't have to resolve them.
+	 *
+	 * @param types the {@link JsonRecord} types to prepare
+	 * @see JsonRecordCodecRegistry#prepare(Class[])
+	 */
+	@SafeVarargs
+	static void prepare(Class<? extends JsonRecord>... types) {
+		JsonRecordCodecRegistry.prepare(types);
+	}
+
 	/**
 	 * Returns the simple class name of the implementing subclass.
 	 *
@@ -0,0 +1,122 @@
+package de.wuespace.telestion.api.message;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.DecodeException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <h2>Description</h2>
+ * A {@link MessageCodec Vert.x message codec} that transfers a batch of {@link JsonRecord JSON records}
+ * in one message over the {@link EventBus Vert.x event bus}.
+ * <p>
+ * For local delivery the (unmodifiable) list is passed through as is.
+ * For clustered delivery every record is written like the {@link JsonRecordMessageCodec} does:
+ * <pre>
+ * | int: record count | record 1 | record 2 | ... |
+ * </pre>
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * var options = JsonRecordBatchMessageCodec.attach(vertx, new DeliveryOptions());
+ * vertx.eventBus().publish("positions", List.of(position1, position2), options);
+ * }
+ * </pre>
+ *
+ * @see de.wuespace.telestion.api.verticle.trait.BatchPublisher
+ * @see de.wuespace.telestion.api.verticle.trait.WithEventBusRegister#registerBatch(String,
+ * de.wuespace.telestion.api.verticle.trait.BatchHandler, Class)
+ */
+public final class JsonRecordBatchMessageCodec
+		implements MessageCodec<List<? extends JsonRecord>, List<? extends JsonRecord>> {
+
+	/**
+	 * The name under which the codec is registered on the {@link EventBus Vert.x event bus}.
+	 */
+	public static final String NAME = "telestion-json-record-batch";
+
+	/**
+	 * The shared codec instance.
+	 */
+	public static final JsonRecordBatchMessageCodec INSTANCE = new JsonRecordBatchMessageCodec();
+
+	/**
+	 * Registers the codec on the {@link EventBus Vert.x event bus} if it is not already registered.
+	 *
+	 * @param eventBus the event bus that should know the codec
+	 */
+	public static void register(EventBus eventBus) {
+		registration.register(eventBus);
+	}
+
+	/**
+	 * Registers the codec on the event bus of the {@link Vertx} instance if necessary
+	 * and selects it in a copy of the {@link DeliveryOptions}.
+	 * The given options are left untouched, so callers can reuse them for other messages.
+	 *
+	 * @param vertx   the Vert.x instance that sends the message
+	 * @param options the {@link DeliveryOptions} that should use the codec
+	 * @return a copy of the {@link DeliveryOptions} that selects the codec
+	 */
+	public static DeliveryOptions attach(Vertx vertx, DeliveryOptions options) {
+		register(vertx.eventBus());
+		return new DeliveryOptions(options).setCodecName(NAME);
+	}
+
+	private JsonRecordBatchMessageCodec() {
+	}
+
+	@Override
+	public void encodeToWire(Buffer buffer, List<? extends JsonRecord> records) {
+		buffer.appendInt(records.size());
+		for (var record : records) {
+			JsonRecordMessageCodec.INSTANCE.encodeToWire(buffer, record);
+		}
+	}
+
+	@Override
+	public List<? extends JsonRecord> decodeFromWire(int pos, Buffer buffer) {
+		var count = buffer.getInt(pos);
+		pos += 4;
+		// every record takes at least its two length fields, so a larger count cannot come from encodeToWire
+		if (count < 0 || count > (buffer.length() - pos) / 8) {
+			throw new DecodeException("Cannot decode a batch of " + count + " JSON records from "
+					+ (buffer.length() - pos) + " bytes");
+		}
+
+		var records = new ArrayList<JsonRecord>(count);
+		for (int i = 0; i < count; i++) {
+			records.add(JsonRecordMessageCodec.INSTANCE.decodeFromWire(pos, buffer));
+			// skip the class name and payload of the decoded record
+			var nameLength = buffer.getInt(pos);
+			pos += 4 + nameLength;
+			pos += 4 + buffer.getInt(pos);
+		}
+		return Collections.unmodifiableList(records);
+	}
+
+	@Override
+	public List<? extends JsonRecord> transform(List<? extends JsonRecord> records) {
+		// the batch and its records are immutable, so the instance can be shared with local consumers
+		return records;
+	}
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	@Override
+	public byte systemCodecID() {
+		return -1;
+	}
+
+	private static final CodecRegistration registration = new CodecRegistration(INSTANCE);
+}
@@ -0,0 +1,228 @@
+package de.wuespace.telestion.api.message;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.DatabindCodec;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * <h2>Description</h2>
+ * A registry that builds and caches a pre-resolved Jackson {@link ObjectReader} and {@link ObjectWriter}
+ * for every {@link JsonRecord} class the first time it is used.
+ * <p>
+ * The global {@link io.vertx.core.json.Json#CODEC Vert.x JSON codec} looks up the (de-)serializers
+ * of the type on every call.
+ * The cached readers and writers skip this lookup, which makes repeated decoding and encoding
+ * of the same record type considerably cheaper.
+ * <p>
+ * The readers and writers are derived from the {@link DatabindCodec#mapper() Vert.x object mapper}.
+ * Register custom Jackson modules on the Vert.x mapper before the first record is decoded or encoded.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * // resolve the readers and writers ahead of time, e.g. during verticle startup
+ * JsonRecord.prepare(Position.class, Velocity.class);
+ * }
+ * </pre>
+ *
+ * @see JsonRecord
+ */
+public final class JsonRecordCodecRegistry {
+
+	/**
+	 * Builds the readers and writers for the given types, so the first decoding or encoding
+	 * doesn't have to pay for it.
+	 *
+	 * @param types the types whose readers and writers should be built
+	 */
+	public static void prepare(Class<?>... types) {
+		for (var type : types) {
+			codecs.get(type);
+		}
+	}
+
+	/**
+	 * Returns the cached {@link ObjectReader} for the type.
+	 *
+	 * @param type the type the reader decodes
+	 * @return the cached {@link ObjectReader}
+	 */
+	public static ObjectReader reader(Class<?> type) {
+		return codecs.get(type).reader();
+	}
+
+	/**
+	 * Returns the cached {@link ObjectWriter} for the type.
+	 *
+	 * @param type   the type the writer encodes
+	 * @param pretty if {@code true} the writer properly formats its JSON output
+	 * @return the cached {@link ObjectWriter}
+	 */
+	public static ObjectWriter writer(Class<?> type, boolean pretty) {
+		var codec = codecs.get(type);
+		return pretty ? codec.prettyWriter() : codec.writer();
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// decoding section
+	///////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Decodes an object of the type from a buffer which contains an encoded JSON string.
+	 *
+	 * @see JsonRecord#from(Buffer, Class)
+	 */
+	public static <T> T fromBuffer(Buffer json, Class<T> type) throws DecodeException {
+		return fromSlice(json, 0, json.length(), type);
+	}
+
+	/**
+	 * Decodes an object of the type from a part of a buffer which contains an encoded JSON string.
+	 * The part is parsed through a slice that shares the memory of the buffer.
+	 *
+	 * @see JsonRecord#fromSlice(Buffer, int, int, Class)
+	 */
+	public static <T> T fromSlice(Buffer json, int offset, int length, Class<T> type) throws DecodeException {
+		if (offset < 0 || length < 0 || offset + length > json.length()) {
+			throw new IndexOutOfBoundsException(
+					"Slice [%d, %d) exceeds the buffer of length %d".formatted(offset, offset + length, json.length()));
+		}
+
+		var slice = offset == 0 && length == json.length() ? json : json.slice(offset, offset + length);
+		return fromParser(DatabindCodec.createParser(slice), type);
+	}
+
+	/**
+	 * Decodes an object of the type from a JSON {@link String}.
+	 *
+	 * @see JsonRecord#from(String, Class)
+	 */
+	public static <T> T fromString(String json, Class<T> type) throws DecodeException {
+		return fromParser(DatabindCodec.createParser(json), type);
+	}
+
+	/**
+	 * Decodes an object of the type from a plain {@link Object} like a {@link JsonObject} or a POJO.
+	 *
+	 * @see JsonRecord#from(Object, Class)
+	 */
+	public static <T> T fromValue(Object json, Class<T> type) throws DecodeException {
+		var value = json instanceof JsonObject object ? object.getMap()
+				: json instanceof JsonArray array ? array.getList()
+				: json;
+
+		try {
+			var buffer = new TokenBuffer(mapper, false);
+			mapper.writeValue(buffer, value);
+			try (var parser = buffer.asParser()) {
+				return reader(type).readValue(parser);
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			throw new DecodeException("Failed to decode: " + e.getMessage(), e);
+		}
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// encoding section
+	///////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Encodes the object into a {@link JsonObject}.
+	 *
+	 * @see JsonRecord#toJsonObject()
+	 */
+	public static JsonObject toJsonObject(Object value) throws IllegalArgumentException {
+		try {
+			var buffer = new TokenBuffer(mapper, false);
+			writer(value.getClass(), false).writeValue(buffer, value);
+			try (var parser = buffer.asParser()) {
+				Map<String, Object> map = mapReader.readValue(parser);
+				return new JsonObject(map);
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Encodes the object into a JSON {@link String}.
+	 *
+	 * @see JsonRecord#toJsonString(boolean)
+	 */
+	public static String toString(Object value, boolean pretty) throws EncodeException {
+		try {
+			return writer(value.getClass(), pretty).writeValueAsString(value);
+		} catch (JsonProcessingException e) {
+			throw new EncodeException("Failed to encode as JSON: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Encodes the object into a {@link Buffer} which contains a JSON string.
+	 *
+	 * @see JsonRecord#toJsonBuffer(boolean)
+	 */
+	public static Buffer toBuffer(Object value, boolean pretty) throws EncodeException {
+		try {
+			return Buffer.buffer(writer(value.getClass(), pretty).writeValueAsBytes(value));
+		} catch (JsonProcessingException e) {
+			throw new EncodeException("Failed to encode as JSON: " + e.getMessage(), e);
+		}
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private JsonRecordCodecRegistry() {
+	}
+
+	/**
+	 * Reads the value from the parser with the cached reader and ensures
+	 * that no trailing tokens are left like the {@link DatabindCodec} does.
+	 */
+	private static <T> T fromParser(JsonParser parser, Class<T> type) throws DecodeException {
+		try (parser) {
+			T value = reader(type).readValue(parser);
+			if (parser.nextToken() != null) {
+				throw new DecodeException("Unexpected trailing token");
+			}
+			return value;
+		} catch (IOException e) {
+			throw new DecodeException("Failed to decode: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * The pre-resolved readers and writers of one type.
+	 */
+	private record Codec(ObjectReader reader, ObjectWriter writer, ObjectWriter prettyWriter) {
+		static Codec of(Class<?> type) {
+			var writer = mapper.writerFor(type);
+			return new Codec(mapper.readerFor(type), writer, writer.withDefaultPrettyPrinter());
+		}
+	}
+
+	private static final ObjectMapper mapper = DatabindCodec.mapper();
+
+	private static final ObjectReader mapReader = mapper.readerFor(Map.class);
+
+	private static final ClassValue<Codec> codecs = new ClassValue<>() {
+		@Override
+		protected Codec computeValue(Class<?> type) {
+			return Codec.of(type);
+		}
+	};
+}
@@ -0,0 +1,178 @@
+package de.wuespace.telestion.api.message;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.jackson.VertxModule;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <h2>Description</h2>
+ * A {@link MessageCodec Vert.x message codec} that transfers {@link JsonRecord JSON records}
+ * over the {@link EventBus Vert.x event bus} without converting them into a {@link io.vertx.core.json.JsonObject}.
+ * <p>
+ * For local delivery the record instance is passed through as is,
+ * because all {@link JsonRecord JSON records} are immutable.
+ * For clustered delivery the record is written in a compact binary encoding:
+ * <pre>
+ * | int: class name length | class name (UTF-8) | int: payload length | payload (CBOR) |
+ * </pre>
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * var options = JsonRecordMessageCodec.attach(vertx, new DeliveryOptions());
+ * vertx.eventBus().publish("position", new Position(1.0, 2.0), options);
+ * }
+ * </pre>
+ * The {@link de.wuespace.telestion.api.verticle.trait.WithEventBus WithEventBus} traits use this codec
+ * automatically for every {@link JsonRecord} they send.
+ *
+ * @see de.wuespace.telestion.api.verticle.trait.WithEventBus
+ */
+public final class JsonRecordMessageCodec implements MessageCodec<JsonRecord, JsonRecord> {
+
+	/**
+	 * The name under which the codec is registered on the {@link EventBus Vert.x event bus}.
+	 */
+	public static final String NAME = "telestion-json-record";
+
+	/**
+	 * The shared codec instance.
+	 */
+	public static final JsonRecordMessageCodec INSTANCE = new JsonRecordMessageCodec();
+
+	/**
+	 * Registers the codec on the {@link EventBus Vert.x event bus} if it is not already registered.
+	 *
+	 * @param eventBus the event bus that should know the codec
+	 */
+	public static void register(EventBus eventBus) {
+		registration.register(eventBus);
+	}
+
+	/**
+	 * Registers the codec on the event bus of the {@link Vertx} instance if necessary
+	 * and selects it in a copy of the {@link DeliveryOptions}.
+	 * The given options are left untouched, so callers can reuse them for other messages.
+	 *
+	 * @param vertx   the Vert.x instance that sends the message
+	 * @param options the {@link DeliveryOptions} that should use the codec
+	 * @return a copy of the {@link DeliveryOptions} that selects the codec
+	 */
+	public static DeliveryOptions attach(Vertx vertx, DeliveryOptions options) {
+		register(vertx.eventBus());
+		return new DeliveryOptions(options).setCodecName(NAME);
+	}
+
+	private JsonRecordMessageCodec() {
+	}
+
+	@Override
+	public void encodeToWire(Buffer buffer, JsonRecord record) {
+		try {
+			var name = classNames.get(record.getClass());
+			var payload = writers.get(record.getClass()).writeValueAsBytes(record);
+			buffer.appendInt(name.length).appendBytes(name).appendInt(payload.length).appendBytes(payload);
+		} catch (IOException e) {
+			throw new EncodeException("Cannot encode JSON record " + record.className() + ": " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public JsonRecord decodeFromWire(int pos, Buffer buffer) {
+		var nameLength = buffer.getInt(pos);
+		pos += 4;
+		var name = buffer.getString(pos, pos + nameLength, StandardCharsets.UTF_8.name());
+		pos += nameLength;
+		var payloadLength = buffer.getInt(pos);
+		pos += 4;
+
+		try {
+			return readers.get(resolve(name)).readValue(buffer.getBytes(pos, pos + payloadLength));
+		} catch (IOException e) {
+			throw new DecodeException("Cannot decode JSON record " + name + ": " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public JsonRecord transform(JsonRecord record) {
+		// records are immutable, so the instance can be shared with local consumers
+		return record;
+	}
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	@Override
+	public byte systemCodecID() {
+		return -1;
+	}
+
+	/**
+	 * Resolves the {@link JsonRecord} class from its fully qualified name.
+	 *
+	 * @param name the fully qualified class name
+	 * @return the resolved {@link JsonRecord} class
+	 * @throws DecodeException if the class does not exist or is not a {@link JsonRecord}
+	 */
+	private static Class<?> resolve(String name) throws DecodeException {
+		return types.computeIfAbsent(name, key -> {
+			try {
+				// the name comes off the wire, so only initialize the class once it is known to be a record
+				var loader = Thread.currentThread().getContextClassLoader();
+				var type = Class.forName(key, false, loader);
+				if (!JsonRecord.class.isAssignableFrom(type)) {
+					throw new DecodeException("Class " + key + " is not a JSON record");
+				}
+				return Class.forName(key, true, loader);
+			} catch (ClassNotFoundException e) {
+				throw new DecodeException("Cannot find JSON record class " + key, e);
+			}
+		});
+	}
+
+	/**
+	 * The binary mapper that is configured like the Vert.x JSON mapper.
+	 */
+	private static final ObjectMapper mapper = CBORMapper.builder().addModule(new VertxModule()).build();
+
+	private static final ClassValue<byte[]> classNames = new ClassValue<>() {
+		@Override
+		protected byte[] computeValue(Class<?> type) {
+			return type.getName().getBytes(StandardCharsets.UTF_8);
+		}
+	};
+
+	private static final ClassValue<ObjectReader> readers = new ClassValue<>() {
+		@Override
+		protected ObjectReader computeValue(Class<?> type) {
+			return mapper.readerFor(type);
+		}
+	};
+
+	private static final ClassValue<ObjectWriter> writers = new ClassValue<>() {
+		@Override
+		protected ObjectWriter computeValue(Class<?> type) {
+			return mapper.writerFor(type);
+		}
+	};
+
+	private static final Map<String, Class<?>> types = new ConcurrentHashMap<>();
+
+	private static final CodecRegistration registration = new CodecRegistration(INSTANCE);
+}
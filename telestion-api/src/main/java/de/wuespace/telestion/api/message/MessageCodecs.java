@@ -0,0 +1,41 @@
+package de.wuespace.telestion.api.message;
+
+import io.vertx.core.eventbus.EventBus;
+
+/**
+ * <h2>Description</h2>
+ * Registers the Telestion {@link io.vertx.core.eventbus.MessageCodec message codecs}
+ * ({@link JsonRecordMessageCodec}, {@link JsonRecordBatchMessageCodec} and {@link FrameMessageCodec})
+ * on an {@link EventBus Vert.x event bus}.
+ * <p>
+ * Senders register the codecs lazily when they attach them to a message.
+ * A Vert.x instance which only consumes messages of a cluster never sends with the codecs,
+ * so it must register them up front to decode the messages it receives.
+ * {@link de.wuespace.telestion.api.verticle.TelestionVerticle TelestionVerticle} and the
+ * {@link de.wuespace.telestion.api.verticle.trait.WithEventBus WithEventBus} traits do this automatically.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * var vertx = Vertx.vertx();
+ * MessageCodecs.register(vertx.eventBus());
+ * }
+ * </pre>
+ */
+public final class MessageCodecs {
+
+	/**
+	 * Registers all Telestion message codecs on the {@link EventBus Vert.x event bus}
+	 * that are not already registered.
+	 *
+	 * @param eventBus the event bus that should know the codecs
+	 */
+	public static void register(EventBus eventBus) {
+		JsonRecordMessageCodec.register(eventBus);
+		JsonRecordBatchMessageCodec.register(eventBus);
+		FrameMessageCodec.register(eventBus);
+	}
+
+	private MessageCodecs() {
+	}
+}
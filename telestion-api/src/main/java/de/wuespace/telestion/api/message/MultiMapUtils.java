@@ -4,7 +4,6 @@ import io.vertx.core.MultiMap;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.Message;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -18,12 +17,25 @@ public class MultiMapUtils {
 	/**
 	 * Merges an array of multi-maps into one multimap
 	 * with the {@link MultiMap#addAll(MultiMap) addAll} function.
+	 * <p>
+	 * The returned multimap can always be changed without affecting the passed multi-maps.
+	 * If no multi-maps or only one multimap are passed, a copy-on-write view is returned,
+	 * which only allocates its own map when it is changed for the first time.
+	 * Otherwise, all multi-maps are merged in a single pass.
 	 *
 	 * @param maps multi-maps that you want to merge
 	 * @return a new multimap with the merged content of the other multi-maps
 	 */
 	public static MultiMap merge(MultiMap... maps) {
-		return merge(Arrays.stream(maps));
+		if (maps.length <= 1) {
+			return new CompositeMultiMap(maps.clone());
+		}
+
+		var finalMap = MultiMap.caseInsensitiveMultiMap();
+		for (var map : maps) {
+			finalMap.addAll(map);
+		}
+		return finalMap;
 	}
 
 	/**
@@ -31,10 +43,11 @@ public class MultiMapUtils {
 	 * with the {@link MultiMap#addAll(MultiMap) addAll} function.
 	 *
 	 * @param list multi-maps that you want to merge
-	 * @return a new multimap with the merged content of the other multi-maps
+	 * @return a multimap with the merged content of the other multi-maps
+	 * @see #merge(MultiMap...)
 	 */
 	public static MultiMap merge(List<MultiMap> list) {
-		return merge(list.stream());
+		return merge(list.toArray(MultiMap[]::new));
 	}
 
 	/**
@@ -42,12 +55,24 @@ public class MultiMapUtils {
 	 * with the {@link MultiMap#addAll(MultiMap) addAll} function.
 	 *
 	 * @param stream a stream that contains the multi-maps that you want to merge
-	 * @return a new multimap with the merged content of the other multi-maps
+	 * @return a multimap with the merged content of the other multi-maps
+	 * @see #merge(MultiMap...)
 	 */
 	public static MultiMap merge(Stream<MultiMap> stream) {
-		var finalMap = MultiMap.caseInsensitiveMultiMap();
-		stream.forEachOrdered(finalMap::addAll);
-		return finalMap;
+		return merge(stream.toArray(MultiMap[]::new));
+	}
+
+	/**
+	 * Creates a lazily merged view over an array of multi-maps.
+	 * The view only merges the multi-maps if the merged content is actually required.
+	 * In contrast to {@link #merge(MultiMap...)}, the returned view can always be changed.
+	 *
+	 * @param maps multi-maps that you want to merge
+	 * @return a lazily merged view over the multi-maps
+	 * @see CompositeMultiMap
+	 */
+	public static CompositeMultiMap compose(MultiMap... maps) {
+		return new CompositeMultiMap(maps.clone());
 	}
 
 	/**
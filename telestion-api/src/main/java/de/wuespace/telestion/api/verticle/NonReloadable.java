@@ -0,0 +1,32 @@
+package de.wuespace.telestion.api.verticle;
+
+import java.lang.annotation.*;
+
+/**
+ * <h2>Description</h2>
+ * Marks a configuration property that cannot be changed while the verticle is running,
+ * e.g. the port of a server or the path of a serial device.
+ * <p>
+ * If the configuration watch mode of the Telestion application detects a change of a marked property,
+ * it redeploys the verticle instead of passing the updated configuration
+ * to {@link TelestionVerticle#onConfigChange(TelestionConfiguration, TelestionConfiguration) onConfigChange}.
+ * Annotate the configuration type itself to redeploy the verticle on every change.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * public record Configuration(
+ *         @NonReloadable @JsonProperty int port,
+ *         @JsonProperty double threshold
+ * ) implements TelestionConfiguration {
+ * }
+ * }
+ * </pre>
+ *
+ * @see VerticleConfigStrategy#isReloadable(TelestionConfiguration, TelestionConfiguration)
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.RECORD_COMPONENT, ElementType.FIELD})
+public @interface NonReloadable {
+}
@@ -1,7 +1,11 @@
 package de.wuespace.telestion.api.verticle;
 
+import de.wuespace.telestion.api.message.MessageCodecs;
+import de.wuespace.telestion.api.verticle.trait.HandlerExecutor;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.json.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,16 +22,48 @@ import java.util.Objects;
  * Ludwig Richter (@fussel178)
  */
 public abstract class TelestionVerticle<T extends TelestionConfiguration> extends AbstractVerticle {
+	/**
+	 * Returns the local event bus address on which all instances of a deployment receive configuration updates.
+	 * The message body is the updated configuration as {@link JsonObject}.
+	 *
+	 * The verticles only listen on it if the configuration changes are {@link #enableConfigChanges(Vertx) enabled}.
+	 *
+	 * @param deploymentId the id of the deployment
+	 * @return the address for configuration updates of the deployment
+	 * @see #onConfigChange(TelestionConfiguration, TelestionConfiguration)
+	 */
+	public static String configChangeAddress(String deploymentId) {
+		return "telestion/config-change/" + deploymentId;
+	}
+
+	/**
+	 * Lets the verticles which start on the Vert.x instance from now on receive configuration updates
+	 * on their {@link #configChangeAddress(String) configuration change address}.
+	 * The Telestion application calls it before it deploys the verticles if it watches its configuration.
+	 *
+	 * @param vertx the Vert.x instance the verticles are deployed on
+	 */
+	public static void enableConfigChanges(Vertx vertx) {
+		vertx.sharedData().getLocalMap(SHARED_DATA).put(CONFIG_CHANGES, true);
+	}
+
 	/**
 	 * The default logger instance.
 	 */
 	protected final Logger logger = LoggerFactory.getLogger(getClass());
 	private VerticleConfigStrategy<T> config;
+	private JsonObject customDefaultConfig;
+	private MessageConsumer<JsonObject> configChangeConsumer;
 
 	@Override
 	public final void start(Promise<Void> startPromise) throws Exception {
-		//noinspection unchecked
-		this.config = new VerticleConfigStrategy<T>(super.config(), VerticleConfigStrategy.getConfigType(getClass()));
+		this.config = createConfigStrategy(super.config());
+		// consumers must be able to decode messages even if this Vert.x instance never sends with the codecs
+		MessageCodecs.register(vertx.eventBus());
+		if (Boolean.TRUE.equals(vertx.sharedData().getLocalMap(SHARED_DATA).get(CONFIG_CHANGES))) {
+			configChangeConsumer = vertx.eventBus().localConsumer(configChangeAddress(deploymentID()),
+					message -> changeConfig(message.body()));
+		}
 		// put general startup steps here
 		onStart(startPromise);
 	}
@@ -40,7 +76,21 @@ public abstract class TelestionVerticle<T extends TelestionConfiguration> extend
 	@Override
 	public final void stop(Promise<Void> stopPromise) throws Exception {
 		// put general cleanup steps here
-		onStop(stopPromise);
+		if (Objects.nonNull(configChangeConsumer)) {
+			configChangeConsumer.unregister();
+			configChangeConsumer = null;
+		}
+		var stopped = Promise.<Void>promise();
+		// the handlers may run until the verticle stopped
+		stopped.future().onComplete(result -> context.runOnContext(nothing -> {
+			HandlerExecutor.close(this);
+			stopPromise.handle(result);
+		}));
+		try {
+			onStop(stopped);
+		} catch (Exception e) {
+			stopped.tryFail(e);
+		}
 	}
 
 	// not used but blocked with final
@@ -107,6 +157,22 @@ public abstract class TelestionVerticle<T extends TelestionConfiguration> extend
 	public void onStop() throws Exception {
 	}
 
+	/**
+	 * Applies an updated configuration while the verticle is running.
+	 * <p>
+	 * This is called on the context of the verticle after the configuration of the running application changed,
+	 * if the configuration changes are {@link #enableConfigChanges(Vertx) enabled}.
+	 * When it is called, {@link #getConfig()} already returns the updated configuration.
+	 * Properties that cannot be changed while the verticle is running should be marked with {@link NonReloadable},
+	 * so the verticle is redeployed instead.
+	 *
+	 * @param old     the configuration the verticle used before
+	 * @param updated the updated configuration
+	 */
+	@SuppressWarnings("RedundantThrows")
+	public void onConfigChange(T old, T updated) throws Exception {
+	}
+
 	/**
 	 * @see VerticleConfigStrategy#getDefaultConfig()
 	 */
@@ -121,8 +187,8 @@ public abstract class TelestionVerticle<T extends TelestionConfiguration> extend
 	 * @param defaultConfig the new default verticle configuration
 	 */
 	public void setDefaultConfig(JsonObject defaultConfig) {
-		//noinspection unchecked
-		this.config = new VerticleConfigStrategy<T>(super.config(), defaultConfig, VerticleConfigStrategy.getConfigType(getClass()));
+		this.customDefaultConfig = defaultConfig;
+		this.config = createConfigStrategy(Objects.isNull(config) ? super.config() : config.getUntypedConfig());
 	}
 
 	/**
@@ -172,6 +238,38 @@ public abstract class TelestionVerticle<T extends TelestionConfiguration> extend
 		return super.config();
 	}
 
+	/**
+	 * Creates the config strategy for the untyped configuration
+	 * with the custom default configuration if one is set.
+	 */
+	@SuppressWarnings("unchecked")
+	private VerticleConfigStrategy<T> createConfigStrategy(JsonObject untypedConfig) {
+		Class<T> configType = VerticleConfigStrategy.getConfigType(getClass());
+		return Objects.isNull(customDefaultConfig)
+				? new VerticleConfigStrategy<>(untypedConfig, configType)
+				: new VerticleConfigStrategy<>(untypedConfig, customDefaultConfig, configType);
+	}
+
+	/**
+	 * Switches to the updated configuration and notifies the verticle about the change.
+	 * Invalid configurations are logged and ignored.
+	 */
+	private void changeConfig(JsonObject untypedConfig) {
+		var old = config;
+		try {
+			config = createConfigStrategy(untypedConfig);
+		} catch (IllegalArgumentException e) {
+			logger.error("Ignoring invalid configuration update {}", untypedConfig, e);
+			return;
+		}
+
+		try {
+			onConfigChange(old.getConfig(), config.getConfig());
+		} catch (Exception e) {
+			logger.error("Failed to apply configuration update {}", untypedConfig, e);
+		}
+	}
+
 	/**
 	 * Throws an error if the config strategy object is not available. This is the case if developers try to access the
 	 * configuration before the verticle is started.
@@ -184,4 +282,7 @@ public abstract class TelestionVerticle<T extends TelestionConfiguration> extend
 					" You can only access the config in onStart() or later.");
 		}
 	}
+
+	private static final String SHARED_DATA = "telestion";
+	private static final String CONFIG_CHANGES = "config-changes";
 }
@@ -1,13 +1,28 @@
 package de.wuespace.telestion.api.verticle;
 
+import de.wuespace.telestion.api.message.JsonRecordCodecRegistry;
+import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.JsonObject;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * A strategy to handle the configuration of .
+ * <p>
+ * The reflective lookups are cached per class:
+ * the configuration type of a verticle class is resolved once
+ * and the default configuration of a configuration type is constructed and encoded once.
+ * Because configurations are immutable {@link de.wuespace.telestion.api.message.JsonRecord JSON records},
+ * all strategies of the same configuration type share the same typed default configuration.
+ *
  * @param <T> the type of the configuration
  *
  * @author Ludwig Richter (@fussel178), Pablo Klaschka (@pklaschka)
@@ -26,8 +41,15 @@ public class VerticleConfigStrategy<T extends TelestionConfiguration> {
 	 * @param untypedConfig the untyped configuration
 	 * @param configType the type of the configuration
 	 */
+	@SuppressWarnings("unchecked")
 	public VerticleConfigStrategy(JsonObject untypedConfig, Class<T> configType) {
-		this(untypedConfig, getDefaultUntypedConfig(configType), configType);
+		assertConfigTypeNonNull(configType);
+
+		var metadata = defaults.get(configType);
+		this.untypedConfig = untypedConfig;
+		this.untypedDefaultConfig = metadata.untypedDefaultConfig();
+		this.defaultConfig = (T) metadata.defaultConfig();
+		this.config = combine(metadata.untypedDefaultConfig(), untypedConfig, configType);
 	}
 
 	/**
@@ -42,10 +64,8 @@ public class VerticleConfigStrategy<T extends TelestionConfiguration> {
 
 		this.untypedConfig = untypedConfig;
 		this.untypedDefaultConfig = untypedDefaultConfig;
-		this.defaultConfig = Objects.isNull(untypedDefaultConfig) ? null : untypedDefaultConfig.mapTo(configType);
-
-		var combined = new JsonObject().mergeIn(untypedDefaultConfig).mergeIn(untypedConfig);
-		this.config = combined.mapTo(configType);
+		this.defaultConfig = Objects.isNull(untypedDefaultConfig) ? null : decode(untypedDefaultConfig, configType);
+		this.config = combine(untypedDefaultConfig, untypedConfig, configType);
 	}
 
 	/**
@@ -57,15 +77,37 @@ public class VerticleConfigStrategy<T extends TelestionConfiguration> {
 	 */
 	@SuppressWarnings("unchecked")
 	public static <K extends TelestionConfiguration, T extends TelestionVerticle<K>> Class<K> getConfigType(Class<T> clazz) {
-		try {
-			var genericSuperclass = (ParameterizedType) clazz.getGenericSuperclass();
-			var configurationTypeArgument = genericSuperclass.getActualTypeArguments()[0];
-			var className = configurationTypeArgument.getTypeName();
-			Class<?> configClass = Class.forName(className);
-			return (Class<K>) configClass;
-		} catch (Exception e) {
-			return null;
+		return (Class<K>) configTypes.get(clazz).orElse(null);
+	}
+
+	/**
+	 * Checks if a running verticle can switch from the old to the updated configuration without a redeploy.
+	 * This is the case if no property marked with {@link NonReloadable} has changed
+	 * and the configuration type itself is not marked with {@link NonReloadable}.
+	 * @param old the configuration the verticle currently uses
+	 * @param updated the updated configuration
+	 * @return {@code true} if the verticle can apply the updated configuration while it is running
+	 * @param <T> the configuration type of the verticle class
+	 */
+	public static <T extends TelestionConfiguration> boolean isReloadable(T old, T updated) {
+		if (Objects.equals(old, updated)) {
+			return true;
 		}
+		if (Objects.isNull(old) || Objects.isNull(updated) || old.getClass() != updated.getClass()) {
+			return false;
+		}
+
+		var properties = nonReloadableProperties.get(old.getClass());
+		if (properties.isEmpty()) {
+			return false;
+		}
+
+		for (var property : properties.get()) {
+			if (!Objects.equals(property.apply(old), property.apply(updated))) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
@@ -74,9 +116,9 @@ public class VerticleConfigStrategy<T extends TelestionConfiguration> {
 	 * @return the default configuration of the verticle class. {@code null} if the configuration class has no default constructor.
 	 * @param <T> the configuration type of the verticle class
 	 */
-	private static <T extends TelestionConfiguration> JsonObject getDefaultUntypedConfig(Class<T> configType) {
+	private static JsonObject getDefaultUntypedConfig(Class<?> configType) {
 		try {
-			var defaultConfig = configType.getConstructor().newInstance();
+			var defaultConfig = (TelestionConfiguration) configType.getConstructor().newInstance();
 			return defaultConfig.toJsonObject();
 		} catch (NoSuchMethodException | InvocationTargetException | InstantiationException |
 				 IllegalAccessException | NullPointerException e) {
@@ -116,12 +158,13 @@ public class VerticleConfigStrategy<T extends TelestionConfiguration> {
 
 	/**
 	 * Get the default verticle configuration in a generic format.
+	 * The returned object is a copy, because the default configuration is shared between strategies.
 	 *
 	 * @return the default verticle configuration
 	 */
 	public JsonObject getUntypedDefaultConfig() {
 		assertConfigObjectNonNull(untypedDefaultConfig);
-		return untypedDefaultConfig;
+		return untypedDefaultConfig.copy();
 	}
 
 	/**
@@ -145,4 +188,134 @@ public class VerticleConfigStrategy<T extends TelestionConfiguration> {
 			throw new IllegalArgumentException("Config type must not be null");
 		}
 	}
+
+	/**
+	 * Merges the configuration into a copy of the default configuration and decodes the result.
+	 * Like {@link JsonObject#mergeIn(JsonObject)} only the top level keys are merged.
+	 */
+	private static <T> T combine(JsonObject untypedDefaultConfig, JsonObject untypedConfig, Class<T> configType) {
+		var combined = new LinkedHashMap<String, Object>();
+		if (Objects.nonNull(untypedDefaultConfig)) {
+			combined.putAll(untypedDefaultConfig.getMap());
+		}
+		if (Objects.nonNull(untypedConfig)) {
+			combined.putAll(untypedConfig.getMap());
+		}
+		return decode(new JsonObject(combined), configType);
+	}
+
+	/**
+	 * Decodes the configuration with the cached reader of the configuration type.
+	 *
+	 * @throws IllegalArgumentException if the configuration cannot be decoded like {@link JsonObject#mapTo(Class)}
+	 */
+	private static <T> T decode(JsonObject untypedConfig, Class<T> configType) {
+		try {
+			return JsonRecordCodecRegistry.fromValue(untypedConfig, configType);
+		} catch (DecodeException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Resolves the configuration type of a verticle class from its generic superclass.
+	 */
+	private static Optional<Class<?>> resolveConfigType(Class<?> clazz) {
+		try {
+			var genericSuperclass = (ParameterizedType) clazz.getGenericSuperclass();
+			var configurationTypeArgument = genericSuperclass.getActualTypeArguments()[0];
+			if (configurationTypeArgument instanceof Class<?> configClass) {
+				return Optional.of(configClass);
+			}
+			return Optional.of(Class.forName(configurationTypeArgument.getTypeName()));
+		} catch (Exception e) {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * The default configuration of a configuration type in its untyped and typed form.
+	 * Both are {@code null} if the configuration type has no default constructor.
+	 */
+	private record Defaults(JsonObject untypedDefaultConfig, Object defaultConfig) {
+		static Defaults of(Class<?> configType) {
+			var untypedDefaultConfig = getDefaultUntypedConfig(configType);
+			return Objects.isNull(untypedDefaultConfig)
+					? new Defaults(null, null)
+					: new Defaults(untypedDefaultConfig, decode(untypedDefaultConfig, configType));
+		}
+	}
+
+	/**
+	 * Returns the accessors of all properties marked with {@link NonReloadable}
+	 * or {@link Optional#empty()} if the whole configuration type is marked.
+	 */
+	private static Optional<List<Function<Object, Object>>> resolveNonReloadableProperties(Class<?> configType) {
+		if (configType.isAnnotationPresent(NonReloadable.class)) {
+			return Optional.empty();
+		}
+
+		try {
+			var properties = new ArrayList<Function<Object, Object>>();
+			if (configType.isRecord()) {
+				for (var component : configType.getRecordComponents()) {
+					if (component.isAnnotationPresent(NonReloadable.class)) {
+						properties.add(accessor(component.getAccessor()));
+					}
+				}
+			} else {
+				for (var type = configType; type != null; type = type.getSuperclass()) {
+					for (var field : type.getDeclaredFields()) {
+						if (field.isAnnotationPresent(NonReloadable.class)) {
+							field.setAccessible(true);
+							properties.add(config -> {
+								try {
+									return field.get(config);
+								} catch (IllegalAccessException e) {
+									throw new IllegalStateException(e);
+								}
+							});
+						}
+					}
+				}
+			}
+			return Optional.of(List.copyOf(properties));
+		} catch (RuntimeException e) {
+			// inaccessible properties cannot be compared, so every change requires a redeploy
+			return Optional.empty();
+		}
+	}
+
+	private static Function<Object, Object> accessor(Method method) {
+		method.setAccessible(true);
+		return config -> {
+			try {
+				return method.invoke(config);
+			} catch (IllegalAccessException | InvocationTargetException e) {
+				throw new IllegalStateException(e);
+			}
+		};
+	}
+
+	private static final ClassValue<Optional<List<Function<Object, Object>>>> nonReloadableProperties =
+			new ClassValue<>() {
+				@Override
+				protected Optional<List<Function<Object, Object>>> computeValue(Class<?> configType) {
+					return resolveNonReloadableProperties(configType);
+				}
+			};
+
+	private static final ClassValue<Optional<Class<?>>> configTypes = new ClassValue<>() {
+		@Override
+		protected Optional<Class<?>> computeValue(Class<?> clazz) {
+			return resolveConfigType(clazz);
+		}
+	};
+
+	private static final ClassValue<Defaults> defaults = new ClassValue<>() {
+		@Override
+		protected Defaults computeValue(Class<?> configType) {
+			return Defaults.of(configType);
+		}
+	};
 }
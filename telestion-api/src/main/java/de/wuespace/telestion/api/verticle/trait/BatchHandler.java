@@ -0,0 +1,17 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import de.wuespace.telestion.api.message.JsonRecord;
+
+import java.util.List;
+
+/**
+ * An event handler which accepts the decoded records of a batch message
+ * and returns nothing.
+ *
+ * @see WithEventBusRegister#registerBatch(String, BatchHandler, Class)
+ * @see BatchPublisher
+ */
+@FunctionalInterface
+public interface BatchHandler<T extends JsonRecord> {
+	void handle(List<T> batch);
+}
@@ -0,0 +1,274 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import de.wuespace.telestion.api.message.JsonRecord;
+import de.wuespace.telestion.api.message.JsonRecordBatchMessageCodec;
+import io.vertx.core.eventbus.DeliveryOptions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <h2>Description</h2>
+ * Collects {@link JsonRecord JSON records} per address and publishes them as one batch message
+ * on the {@link io.vertx.core.eventbus.EventBus Vert.x event bus}.
+ * <p>
+ * A batch is published if
+ * <ul>
+ *     <li>it reaches the maximum batch size,</li>
+ *     <li>its first record waited for the maximum latency or</li>
+ *     <li>it is {@link #flush(String) flushed} explicitly.</li>
+ * </ul>
+ * The batch is delivered as an unmodifiable list of records with the {@link JsonRecordBatchMessageCodec}.
+ * Receive it with {@link WithEventBusRegister#registerBatch(String, BatchHandler, Class) registerBatch}.
+ * <p>
+ * The batches are flushed by timers on the context of the verticle which created the publisher.
+ * Publish from that context only, e.g. not from a handler that a {@link HandlerExecutor} runs on a worker,
+ * or records can slip between two flushes.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * public class SensorVerticle extends TelestionVerticle<GenericConfiguration> implements WithEventBus, WithTiming {
+ *     private BatchPublisher<Sample> publisher;
+ *
+ *     @Override
+ *     public void onStart() {
+ *         publisher = BatchPublisher.create(this, 64, Duration.ofMillis(20));
+ *         register("sensor-raw", this::handle, Sample.class);
+ *     }
+ *
+ *     @Override
+ *     public void onStop() {
+ *         publisher.close();
+ *     }
+ *
+ *     private void handle(Sample sample) {
+ *         publisher.publish("sensor-samples", sample);
+ *     }
+ * }
+ * }
+ * </pre>
+ *
+ * @param <T> the type of the published records
+ * @see WithEventBusRegister#registerBatch(String, BatchHandler, Class)
+ */
+public final class BatchPublisher<T extends JsonRecord> {
+
+	/**
+	 * Creates a new batch publisher that publishes and schedules its flushes on the verticle.
+	 *
+	 * @param verticle   the verticle which publishes the batches and schedules the latency timers
+	 * @param maxSize    the maximum number of records in one batch
+	 * @param maxLatency the maximum time the first record of a batch waits before the batch is published
+	 * @param <T>        the type of the published records
+	 * @param <V>        the type of the verticle
+	 * @return the new batch publisher
+	 */
+	public static <T extends JsonRecord, V extends WithEventBusPublish & WithTiming> BatchPublisher<T> create(
+			V verticle,
+			int maxSize,
+			Duration maxLatency) {
+		return new BatchPublisher<>(verticle, verticle, maxSize, maxLatency);
+	}
+
+	/**
+	 * Collects the record and publishes the batch of the address if it reaches the maximum batch size.
+	 *
+	 * @param address the address the batch is published to
+	 * @param record  the record that should be published
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 */
+	public BatchPublisher<T> publish(String address, T record) {
+		if (closed) {
+			throw new IllegalStateException("The batch publisher is already closed");
+		}
+
+		var batch = batches.get(address);
+		if (batch == null) {
+			batch = new Batch<>(maxSize);
+			batches.put(address, batch);
+		}
+
+		if (batch.records.isEmpty()) {
+			batch.started = System.nanoTime();
+			batch.timer = timing.timeout(maxLatency, id -> {
+				batches.get(address).timer = null;
+				flush(address);
+			});
+		}
+
+		batch.records.add(record);
+		if (batch.records.size() >= maxSize) {
+			flush(address);
+		}
+		return this;
+	}
+
+	/**
+	 * Publishes the collected records of the address immediately.
+	 *
+	 * @param address the address whose batch should be published
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 */
+	public BatchPublisher<T> flush(String address) {
+		var batch = batches.get(address);
+		if (batch == null || batch.records.isEmpty()) {
+			return this;
+		}
+
+		if (batch.timer != null) {
+			batch.timer.cancel();
+			batch.timer = null;
+		}
+
+		var records = Collections.unmodifiableList(batch.records);
+		var latency = System.nanoTime() - batch.started;
+		batch.records = new ArrayList<>(maxSize);
+
+		record(records.size(), latency);
+		publisher.publish(address, records,
+				JsonRecordBatchMessageCodec.attach(publisher.getVertx(), new DeliveryOptions()));
+		return this;
+	}
+
+	/**
+	 * Publishes the collected records of all addresses immediately.
+	 *
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 */
+	public BatchPublisher<T> flush() {
+		for (var address : List.copyOf(batches.keySet())) {
+			flush(address);
+		}
+		return this;
+	}
+
+	/**
+	 * Publishes the remaining records and rejects new ones.
+	 * Call it when the verticle stops.
+	 */
+	public void close() {
+		flush();
+		closed = true;
+	}
+
+	/**
+	 * Returns the number of records that are collected but not published yet.
+	 *
+	 * @param address the address of the batch
+	 * @return the number of pending records
+	 */
+	public int pending(String address) {
+		var batch = batches.get(address);
+		return batch == null ? 0 : batch.records.size();
+	}
+
+	/**
+	 * Returns a snapshot of the batch size and flush latency metrics.
+	 *
+	 * @return the current metrics
+	 */
+	public Metrics metrics() {
+		return new Metrics(
+				publishedBatches,
+				publishedRecords,
+				maxBatchSize,
+				Duration.ofNanos(lastFlushLatency),
+				Duration.ofNanos(maxFlushLatency),
+				Duration.ofNanos(totalFlushLatency)
+		);
+	}
+
+	/**
+	 * The batch size and flush latency metrics of a {@link BatchPublisher}.
+	 * The flush latency is the time the first record of a batch waited until the batch was published.
+	 *
+	 * @param batches           the number of published batches
+	 * @param records           the number of published records
+	 * @param maxBatchSize      the size of the largest published batch
+	 * @param lastFlushLatency  the flush latency of the last published batch
+	 * @param maxFlushLatency   the highest flush latency of all published batches
+	 * @param totalFlushLatency the sum of the flush latencies of all published batches
+	 */
+	public record Metrics(
+			long batches,
+			long records,
+			int maxBatchSize,
+			Duration lastFlushLatency,
+			Duration maxFlushLatency,
+			Duration totalFlushLatency
+	) {
+		/**
+		 * @return the average number of records in a published batch
+		 */
+		public double averageBatchSize() {
+			return batches == 0 ? 0.0 : (double) records / batches;
+		}
+
+		/**
+		 * @return the average flush latency of all published batches
+		 */
+		public Duration averageFlushLatency() {
+			return batches == 0 ? Duration.ZERO : totalFlushLatency.dividedBy(batches);
+		}
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private BatchPublisher(WithEventBusPublish publisher, WithTiming timing, int maxSize, Duration maxLatency) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("The maximum batch size must be at least 1, but was " + maxSize);
+		}
+		if (maxLatency.toMillis() < 1) {
+			throw new IllegalArgumentException("The maximum latency must be at least 1ms, but was " + maxLatency);
+		}
+
+		this.publisher = publisher;
+		this.timing = timing;
+		this.maxSize = maxSize;
+		this.maxLatency = maxLatency;
+	}
+
+	private void record(int size, long latency) {
+		publishedBatches++;
+		publishedRecords += size;
+		maxBatchSize = Math.max(maxBatchSize, size);
+		lastFlushLatency = latency;
+		maxFlushLatency = Math.max(maxFlushLatency, latency);
+		totalFlushLatency += latency;
+	}
+
+	/**
+	 * The collected records of one address.
+	 */
+	private static final class Batch<T> {
+		Batch(int capacity) {
+			this.records = new ArrayList<>(capacity);
+		}
+
+		List<T> records;
+		long started;
+		Timing timer;
+	}
+
+	private final WithEventBusPublish publisher;
+	private final WithTiming timing;
+	private final int maxSize;
+	private final Duration maxLatency;
+	private final Map<String, Batch<T>> batches = new HashMap<>();
+
+	private boolean closed;
+
+	private long publishedBatches;
+	private long publishedRecords;
+	private int maxBatchSize;
+	private long lastFlushLatency;
+	private long maxFlushLatency;
+	private long totalFlushLatency;
+}
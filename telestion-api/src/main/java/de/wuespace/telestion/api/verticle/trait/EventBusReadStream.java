@@ -0,0 +1,244 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import de.wuespace.telestion.api.message.JsonRecord;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.ArrayDeque;
+
+/**
+ * <h2>Description</h2>
+ * A {@link ReadStream} that receives the {@link JsonRecord JSON records} sent to an event bus address
+ * and buffers them in a bounded queue until the consumer has demand for them.
+ * <p>
+ * If the buffer is full, the {@link OverflowPolicy} decides which record is dropped.
+ * Every received message is acknowledged when its record is delivered or dropped,
+ * so an {@link EventBusWriteStream} on the other side only sends as much as the consumer can take.
+ * With {@link OverflowPolicy#BLOCK_PRODUCER} this acknowledgement is the only flow control:
+ * records which wait for it are buffered beyond the capacity, because their producers are already blocked
+ * by their limit of records in flight. Records which don't wait for an acknowledgement are dropped instead.
+ * <p>
+ * The consumer of the stream is registered on the context which creates it, so the records arrive and
+ * are acknowledged there. Change the demand with {@link #pause()}, {@link #fetch(long)} and {@link #resume()}
+ * only from that context, because the buffer and the demand are not synchronized.
+ *
+ * @param <T> the type of the received records
+ * @see WithEventBusStream
+ */
+public final class EventBusReadStream<T extends JsonRecord> implements ReadStream<T> {
+
+	/**
+	 * The buffer capacity that is used if none is specified.
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	/**
+	 * The overflow policy that is used if none is specified.
+	 */
+	public static final OverflowPolicy DEFAULT_POLICY = OverflowPolicy.DROP_OLDEST;
+
+	/**
+	 * The buffer and delivery counters of an {@link EventBusReadStream}.
+	 *
+	 * @param address   the address the stream receives from
+	 * @param queued    the number of currently buffered records
+	 * @param dropped   the number of records dropped by the overflow policy
+	 * @param delivered the number of records delivered to the handler
+	 */
+	public record Metrics(String address, int queued, long dropped, long delivered) {
+	}
+
+	EventBusReadStream(Vertx vertx, String address, Class<T> type, int capacity, OverflowPolicy policy) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The buffer capacity must be at least 1, but was " + capacity);
+		}
+
+		this.address = address;
+		this.type = type;
+		this.capacity = capacity;
+		this.policy = policy;
+		this.queue = new ArrayDeque<>(Math.min(capacity, DEFAULT_CAPACITY));
+		this.consumer = vertx.eventBus().consumer(address, this::receive);
+	}
+
+	/**
+	 * @return the address the stream receives from
+	 */
+	public String address() {
+		return address;
+	}
+
+	/**
+	 * Returns a snapshot of the buffer and delivery counters.
+	 *
+	 * @return the current metrics
+	 */
+	public Metrics metrics() {
+		return new Metrics(address, queue.size(), dropped, delivered);
+	}
+
+	@Override
+	public EventBusReadStream<T> exceptionHandler(Handler<Throwable> handler) {
+		this.exceptionHandler = handler;
+		return this;
+	}
+
+	@Override
+	public EventBusReadStream<T> handler(Handler<T> handler) {
+		this.handler = handler;
+		drain();
+		return this;
+	}
+
+	@Override
+	public EventBusReadStream<T> pause() {
+		demand = 0L;
+		return this;
+	}
+
+	@Override
+	public EventBusReadStream<T> resume() {
+		return fetch(Long.MAX_VALUE);
+	}
+
+	@Override
+	public EventBusReadStream<T> fetch(long amount) {
+		if (amount < 0L) {
+			throw new IllegalArgumentException("The fetched amount must be positive, but was " + amount);
+		}
+
+		demand += amount;
+		if (demand < 0L) {
+			// overflow
+			demand = Long.MAX_VALUE;
+		}
+		drain();
+		return this;
+	}
+
+	@Override
+	public EventBusReadStream<T> endHandler(Handler<Void> endHandler) {
+		this.endHandler = endHandler;
+		return this;
+	}
+
+	/**
+	 * Unregisters the stream from the event bus, drops the remaining buffered records and ends the stream.
+	 *
+	 * @return a future that completes when the stream is unregistered
+	 */
+	public Future<Void> close() {
+		while (!queue.isEmpty()) {
+			acknowledge(queue.poll().message());
+		}
+
+		return consumer.unregister().onComplete(result -> {
+			if (endHandler != null) {
+				endHandler.handle(null);
+			}
+		});
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private void receive(Message<Object> message) {
+		T record;
+		try {
+			record = JsonRecord.from(message, type);
+		} catch (DecodeException | IllegalArgumentException e) {
+			acknowledge(message);
+			if (exceptionHandler != null) {
+				exceptionHandler.handle(e);
+			}
+			return;
+		}
+
+		if (queue.isEmpty() && demand > 0L && handler != null && !draining) {
+			deliver(record, message);
+			return;
+		}
+
+		if (queue.size() >= capacity) {
+			switch (policy) {
+				case DROP_OLDEST -> drop(queue.pollFirst().message());
+				case SAMPLE -> drop(queue.pollLast().message());
+				case DROP_NEWEST -> {
+					drop(message);
+					return;
+				}
+				case BLOCK_PRODUCER -> {
+					// a producer without credit cannot be blocked
+					if (message.replyAddress() == null) {
+						drop(message);
+						return;
+					}
+				}
+			}
+		}
+
+		queue.addLast(new Pending<>(record, message));
+	}
+
+	private void drain() {
+		if (draining) {
+			return;
+		}
+
+		draining = true;
+		try {
+			while (demand > 0L && handler != null && !queue.isEmpty()) {
+				var pending = queue.pollFirst();
+				deliver(pending.record(), pending.message());
+			}
+		} finally {
+			draining = false;
+		}
+	}
+
+	private void deliver(T record, Message<Object> message) {
+		if (demand != Long.MAX_VALUE) {
+			demand--;
+		}
+		delivered++;
+		acknowledge(message);
+		handler.handle(record);
+	}
+
+	private void drop(Message<Object> message) {
+		dropped++;
+		acknowledge(message);
+	}
+
+	private static void acknowledge(Message<Object> message) {
+		if (message.replyAddress() != null) {
+			message.reply(null);
+		}
+	}
+
+	private record Pending<T>(T record, Message<Object> message) {
+	}
+
+	private final String address;
+	private final Class<T> type;
+	private final int capacity;
+	private final OverflowPolicy policy;
+	private final ArrayDeque<Pending<T>> queue;
+	private final MessageConsumer<Object> consumer;
+
+	private Handler<T> handler;
+	private Handler<Throwable> exceptionHandler;
+	private Handler<Void> endHandler;
+
+	private long demand = Long.MAX_VALUE;
+	private boolean draining;
+
+	private long dropped;
+	private long delivered;
+}
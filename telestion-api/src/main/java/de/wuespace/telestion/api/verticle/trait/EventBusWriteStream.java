@@ -0,0 +1,172 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import de.wuespace.telestion.api.message.JsonRecord;
+import de.wuespace.telestion.api.message.JsonRecordMessageCodec;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.streams.WriteStream;
+
+import java.time.Duration;
+
+/**
+ * <h2>Description</h2>
+ * A {@link WriteStream} that sends {@link JsonRecord JSON records} to an event bus address
+ * and limits the number of records which are not yet acknowledged by the consumer.
+ * <p>
+ * An {@link EventBusReadStream} acknowledges a record when it delivers or drops it.
+ * If too many records are in flight, {@link #writeQueueFull()} returns {@code true}
+ * and the {@link #drainHandler(Handler) drain handler} is called once half of them are acknowledged.
+ * This is exactly the contract {@link io.vertx.core.streams.Pipe pipes} rely on.
+ * <p>
+ * A consumer may hold back the acknowledgement as long as it has no demand, so the writes don't time out
+ * unless a {@link #setWriteTimeout(Duration) write timeout} is set.
+ * <p>
+ * The records in flight are counted down when their acknowledgements arrive on the context which created
+ * the stream. Write to the stream and set its handlers from that context only, or the count can get lost.
+ *
+ * @param <T> the type of the sent records
+ * @see WithEventBusStream
+ */
+public final class EventBusWriteStream<T extends JsonRecord> implements WriteStream<T> {
+
+	/**
+	 * The maximum number of records in flight that is used if none is specified.
+	 */
+	public static final int DEFAULT_MAX_IN_FLIGHT = 64;
+
+	/**
+	 * The write timeout that disables the timeout of the writes.
+	 */
+	public static final Duration NO_WRITE_TIMEOUT = Duration.ZERO;
+
+	EventBusWriteStream(Vertx vertx, String address, int maxInFlight) {
+		this.vertx = vertx;
+		this.address = address;
+		setWriteQueueMaxSize(maxInFlight);
+	}
+
+	/**
+	 * @return the address the stream sends to
+	 */
+	public String address() {
+		return address;
+	}
+
+	/**
+	 * @return the number of sent records that are not acknowledged yet
+	 */
+	public int inFlight() {
+		return inFlight;
+	}
+
+	@Override
+	public EventBusWriteStream<T> exceptionHandler(Handler<Throwable> handler) {
+		this.exceptionHandler = handler;
+		return this;
+	}
+
+	@Override
+	public Future<Void> write(T data) {
+		if (endPromise != null) {
+			return Future.failedFuture(new IllegalStateException("The stream is already ended"));
+		}
+
+		inFlight++;
+		var options = JsonRecordMessageCodec.attach(vertx, new DeliveryOptions().setSendTimeout(sendTimeout));
+		return vertx.eventBus().request(address, data, options)
+				.<Void>mapEmpty()
+				.onComplete(this::acknowledged);
+	}
+
+	@Override
+	public void write(T data, Handler<AsyncResult<Void>> handler) {
+		write(data).onComplete(handler);
+	}
+
+	@Override
+	public void end(Handler<AsyncResult<Void>> handler) {
+		if (endPromise == null) {
+			endPromise = Promise.promise();
+			if (inFlight == 0) {
+				endPromise.complete();
+			}
+		}
+
+		if (handler != null) {
+			endPromise.future().onComplete(handler);
+		}
+	}
+
+	@Override
+	public EventBusWriteStream<T> setWriteQueueMaxSize(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("The maximum records in flight must be at least 1, but was " + maxSize);
+		}
+
+		this.maxInFlight = maxSize;
+		return this;
+	}
+
+	/**
+	 * Sets the time after which a write fails if the consumer hasn't acknowledged the record.
+	 *
+	 * @param timeout the write timeout or {@link #NO_WRITE_TIMEOUT} to wait for the acknowledgement forever
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 */
+	public EventBusWriteStream<T> setWriteTimeout(Duration timeout) {
+		if (timeout.isNegative()) {
+			throw new IllegalArgumentException("The write timeout must not be negative, but was " + timeout);
+		}
+
+		// the event bus always schedules a reply timeout, so the disabled timeout never elapses instead
+		this.sendTimeout = timeout.isZero() ? Long.MAX_VALUE : Math.max(1L, timeout.toMillis());
+		return this;
+	}
+
+	@Override
+	public boolean writeQueueFull() {
+		return inFlight >= maxInFlight;
+	}
+
+	@Override
+	public EventBusWriteStream<T> drainHandler(Handler<Void> handler) {
+		this.drainHandler = handler;
+		return this;
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private void acknowledged(AsyncResult<Void> result) {
+		inFlight--;
+
+		if (result.failed() && exceptionHandler != null) {
+			exceptionHandler.handle(result.cause());
+		}
+
+		// half of the allowed records are acknowledged, so writers can continue
+		if (inFlight == maxInFlight / 2 && drainHandler != null) {
+			drainHandler.handle(null);
+		}
+
+		if (inFlight == 0 && endPromise != null) {
+			endPromise.tryComplete();
+		}
+	}
+
+	private final Vertx vertx;
+	private final String address;
+
+	private int maxInFlight;
+	private long sendTimeout = Long.MAX_VALUE;
+	private int inFlight;
+
+	private Handler<Throwable> exceptionHandler;
+	private Handler<Void> drainHandler;
+	private Promise<Void> endPromise;
+}
@@ -0,0 +1,66 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import java.lang.annotation.*;
+
+/**
+ * <h2>Description</h2>
+ * Declares on which threads the handlers of a verticle run.
+ * <p>
+ * All handlers registered with the {@code register} methods of {@link WithEventBusRegister} use the
+ * {@link HandlerExecutor} described by the annotation, so blocking handlers don't need
+ * hand-written {@code executeBlocking} calls.
+ * Every handler registration runs at most {@link #maxConcurrency()} messages at once
+ * and queues at most {@link #maxQueued()} further messages.
+ * <p>
+ * Use {@link WithEventBusRegister#register(String, io.vertx.core.Handler, HandlerExecutor)}
+ * to choose the execution model of a single handler registration instead.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * @Execution(mode = ExecutionMode.WORKER, pool = "archive", poolSize = 4, maxConcurrency = 4)
+ * public class Archive extends TelestionVerticle<Configuration> implements WithEventBus {
+ *     @Override
+ *     public void onStart() {
+ *         register("archive/store", this::store, Sample.class);
+ *     }
+ *
+ *     private void store(Sample sample) {
+ *         // blocking file access
+ *     }
+ * }
+ * }
+ * </pre>
+ *
+ * @see ExecutionPolicy#of(Class)
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Execution {
+	/**
+	 * @return the threads the handlers run on
+	 */
+	ExecutionMode mode() default ExecutionMode.WORKER;
+
+	/**
+	 * @return the name of the shared worker pool
+	 */
+	String pool() default ExecutionPolicy.DEFAULT_POOL;
+
+	/**
+	 * @return the maximum number of threads in the worker pool
+	 */
+	int poolSize() default ExecutionPolicy.DEFAULT_POOL_SIZE;
+
+	/**
+	 * @return the maximum number of messages one handler registration runs at once
+	 */
+	int maxConcurrency() default ExecutionPolicy.DEFAULT_MAX_CONCURRENCY;
+
+	/**
+	 * @return the maximum number of messages one handler registration queues while all its slots are busy
+	 */
+	int maxQueued() default ExecutionPolicy.DEFAULT_MAX_QUEUED;
+}
@@ -0,0 +1,25 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+/**
+ * Decides on which threads a {@link HandlerExecutor} runs the message handlers.
+ *
+ * @see ExecutionPolicy
+ */
+public enum ExecutionMode {
+	/**
+	 * Runs the handlers directly on the context of the verticle, usually the event loop.
+	 * Handlers must not block.
+	 */
+	EVENT_LOOP,
+	/**
+	 * Runs the handlers on a named, shared worker pool of Vert.x.
+	 * Handlers may block, e.g. to access files.
+	 */
+	WORKER,
+	/**
+	 * Runs every handler call on its own virtual thread if the Java runtime supports them (Java 21 and later)
+	 * and on the worker pool otherwise.
+	 * Handlers may block without occupying a platform thread.
+	 */
+	VIRTUAL_THREAD
+}
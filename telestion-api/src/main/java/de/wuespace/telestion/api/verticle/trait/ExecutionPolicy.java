@@ -0,0 +1,108 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import java.util.Objects;
+
+/**
+ * Describes on which threads a {@link HandlerExecutor} runs the message handlers
+ * and how many messages one handler registration runs at once.
+ *
+ * @param mode           the threads the handlers run on
+ * @param pool           the name of the shared worker pool
+ * @param poolSize       the maximum number of threads in the worker pool
+ * @param maxConcurrency the maximum number of messages one handler registration runs at once
+ * @param maxQueued      the maximum number of messages one handler registration queues while all its slots are busy,
+ *                       further messages are rejected
+ * @see Execution
+ * @see HandlerExecutor
+ */
+public record ExecutionPolicy(
+		ExecutionMode mode,
+		String pool,
+		int poolSize,
+		int maxConcurrency,
+		int maxQueued
+) {
+
+	/**
+	 * The name of the default worker pool.
+	 */
+	public static final String DEFAULT_POOL = "telestion-handlers";
+
+	/**
+	 * The default maximum number of threads in the worker pool, which is the size of the Vert.x worker pool.
+	 */
+	public static final int DEFAULT_POOL_SIZE = 20;
+
+	/**
+	 * The default maximum number of messages one handler registration runs at once.
+	 */
+	public static final int DEFAULT_MAX_CONCURRENCY = 8;
+
+	/**
+	 * The default maximum number of messages one handler registration queues.
+	 */
+	public static final int DEFAULT_MAX_QUEUED = 1024;
+
+	/**
+	 * Runs the handlers directly on the context of the verticle.
+	 */
+	public static final ExecutionPolicy EVENT_LOOP = new ExecutionPolicy(ExecutionMode.EVENT_LOOP, DEFAULT_POOL,
+			DEFAULT_POOL_SIZE, DEFAULT_MAX_CONCURRENCY, DEFAULT_MAX_QUEUED);
+
+	public ExecutionPolicy {
+		Objects.requireNonNull(mode, "The execution mode must not be null");
+		Objects.requireNonNull(pool, "The worker pool name must not be null");
+		if (poolSize < 1 || maxConcurrency < 1 || maxQueued < 0) {
+			throw new IllegalArgumentException("The pool size and maximum concurrency must be positive "
+					+ "and the maximum number of queued messages must not be negative");
+		}
+	}
+
+	/**
+	 * @param pool     the name of the shared worker pool
+	 * @param poolSize the maximum number of threads in the worker pool
+	 * @return a policy which runs the handlers on the worker pool
+	 */
+	public static ExecutionPolicy worker(String pool, int poolSize) {
+		return new ExecutionPolicy(ExecutionMode.WORKER, pool, poolSize,
+				Math.min(poolSize, DEFAULT_MAX_CONCURRENCY), DEFAULT_MAX_QUEUED);
+	}
+
+	/**
+	 * @return a policy which runs the handlers on virtual threads
+	 */
+	public static ExecutionPolicy virtualThreads() {
+		return new ExecutionPolicy(ExecutionMode.VIRTUAL_THREAD, DEFAULT_POOL, DEFAULT_POOL_SIZE,
+				DEFAULT_MAX_CONCURRENCY, DEFAULT_MAX_QUEUED);
+	}
+
+	/**
+	 * Returns the policy declared by the {@link Execution} annotation of the verticle type.
+	 *
+	 * @param verticleType the type of the verticle
+	 * @return the declared policy or {@link #EVENT_LOOP} if the type is not annotated
+	 */
+	public static ExecutionPolicy of(Class<?> verticleType) {
+		return declaredPolicies.get(verticleType);
+	}
+
+	/**
+	 * @return a copy of the policy with other concurrency limits
+	 */
+	public ExecutionPolicy withConcurrency(int maxConcurrency, int maxQueued) {
+		return new ExecutionPolicy(mode, pool, poolSize, maxConcurrency, maxQueued);
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private static final ClassValue<ExecutionPolicy> declaredPolicies = new ClassValue<>() {
+		@Override
+		protected ExecutionPolicy computeValue(Class<?> type) {
+			var execution = type.getAnnotation(Execution.class);
+			return Objects.isNull(execution) ? EVENT_LOOP : new ExecutionPolicy(execution.mode(), execution.pool(),
+					execution.poolSize(), execution.maxConcurrency(), execution.maxQueued());
+		}
+	};
+}
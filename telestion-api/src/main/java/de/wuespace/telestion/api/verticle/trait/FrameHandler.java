@@ -0,0 +1,17 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import de.wuespace.telestion.api.message.HeaderInformation;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * An event handler which accepts a raw binary frame together with its headers
+ * and returns nothing.
+ * <p>
+ * The frame may be shared with other consumers and must not be modified.
+ *
+ * @see WithEventBus#registerFrame(String, FrameHandler)
+ */
+@FunctionalInterface
+public interface FrameHandler {
+	void handle(Buffer frame, HeaderInformation information);
+}
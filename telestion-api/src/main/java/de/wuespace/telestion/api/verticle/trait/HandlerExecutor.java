@@ -0,0 +1,345 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Verticle;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.core.eventbus.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <h2>Description</h2>
+ * Runs message handlers on the threads described by an {@link ExecutionPolicy}.
+ * <ul>
+ *     <li>With {@link ExecutionMode#WORKER}, the handlers run on a named, shared worker pool of Vert.x.</li>
+ *     <li>With {@link ExecutionMode#VIRTUAL_THREAD}, every handler call runs on its own virtual thread.
+ *     On Java runtimes without virtual threads, the handlers run on the worker pool instead.</li>
+ *     <li>With {@link ExecutionMode#EVENT_LOOP}, the handlers are not wrapped at all.</li>
+ * </ul>
+ * Every wrapped handler runs at most {@link ExecutionPolicy#maxConcurrency()} messages at once
+ * and queues further messages in the order of their arrival.
+ * If the queue is full or the executor is {@link #close() closed}, the message is rejected
+ * with the failure code {@value #REJECTED}.
+ * The queue depth and the counters of every handler are available through {@link #metrics()}.
+ * <p>
+ * The handlers run outside the context of the verticle,
+ * so they must synchronize access to the state they share with the rest of the verticle.
+ * Replying to messages and sending new ones is safe from any thread.
+ * <p>
+ * A handler executor keeps the state of its slots without locks, because the slots complete on the context
+ * of the verticle. Wrap handlers and read the metrics only from that context.
+ * <p>
+ * An executor from {@link #create(Verticle, ExecutionPolicy)} belongs to the caller,
+ * which must {@link #close() close} it when the verticle stops.
+ * The executor for the {@link Execution} annotation from {@link #of(Verticle)} is closed by
+ * {@link de.wuespace.telestion.api.verticle.TelestionVerticle TelestionVerticle} after it stopped.
+ * Other verticles must call {@link #close(Verticle)} in their {@code stop} method.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * public class Archive extends TelestionVerticle<Configuration> implements WithEventBus {
+ *     private HandlerExecutor executor;
+ *
+ *     @Override
+ *     public void onStart() {
+ *         executor = handlerExecutor(ExecutionPolicy.worker("archive", 4));
+ *         register("archive/store", this::store, executor);
+ *         register("archive/status", this::status);
+ *     }
+ *
+ *     @Override
+ *     public void onStop() {
+ *         executor.close();
+ *     }
+ * }
+ * }
+ * </pre>
+ *
+ * @see Execution
+ * @see WithEventBusRegister#handlerExecutor(ExecutionPolicy)
+ */
+public final class HandlerExecutor {
+
+	/**
+	 * The failure code of messages which are rejected, because the queue of their handler is full
+	 * or the executor is closed.
+	 */
+	public static final int REJECTED = 503;
+
+	/**
+	 * A snapshot of the state of a wrapped handler.
+	 *
+	 * @param active     the number of messages that are currently handled
+	 * @param queued     the number of messages that wait for a free slot
+	 * @param peakQueued the highest number of waiting messages so far
+	 * @param completed  the number of handled messages, including failed ones
+	 * @param failed     the number of messages whose handler threw an exception
+	 * @param rejected   the number of messages rejected, because the queue was full or the executor was closed
+	 */
+	public record Metrics(int active, int queued, int peakQueued, long completed, long failed, long rejected) {
+	}
+
+	/**
+	 * Creates a new handler executor for handlers of the verticle.
+	 *
+	 * @param verticle the verticle whose handlers are executed
+	 * @param policy   describes on which threads the handlers run
+	 * @return the new handler executor
+	 */
+	public static HandlerExecutor create(Verticle verticle, ExecutionPolicy policy) {
+		return new HandlerExecutor(verticle, policy);
+	}
+
+	/**
+	 * Returns the handler executor described by the {@link Execution} annotation of the verticle.
+	 * The executor is created once per verticle instance.
+	 *
+	 * @param verticle the verticle whose handlers are executed
+	 * @return the handler executor of the verticle
+	 */
+	public static HandlerExecutor of(Verticle verticle) {
+		var context = verticle.getVertx().getOrCreateContext();
+		HandlerExecutor executor = context.get(CONTEXT_KEY);
+		if (Objects.isNull(executor) || executor.verticle != verticle) {
+			executor = create(verticle, ExecutionPolicy.of(verticle.getClass()));
+			context.put(CONTEXT_KEY, executor);
+		}
+		return executor;
+	}
+
+	/**
+	 * Closes the handler executor described by the {@link Execution} annotation of the verticle,
+	 * if {@link #of(Verticle)} created it.
+	 * Must be called on the context of the verticle.
+	 *
+	 * @param verticle the verticle whose handlers are executed
+	 */
+	public static void close(Verticle verticle) {
+		var context = verticle.getVertx().getOrCreateContext();
+		HandlerExecutor executor = context.get(CONTEXT_KEY);
+		if (Objects.nonNull(executor) && executor.verticle == verticle) {
+			context.remove(CONTEXT_KEY);
+			executor.close();
+		}
+	}
+
+	/**
+	 * Wraps the handler, so it runs on the threads described by the policy with bounded concurrency.
+	 *
+	 * @param address the address the handler is registered on, which identifies the handler in the metrics
+	 * @param handler the handler of the messages
+	 * @return the wrapped handler or the handler itself with {@link ExecutionMode#EVENT_LOOP}
+	 */
+	public <T> Handler<Message<T>> wrap(String address, Handler<Message<T>> handler) {
+		if (policy.mode() == ExecutionMode.EVENT_LOOP) {
+			return handler;
+		}
+
+		var slot = new Slot<>(address, handler);
+		slots.put(address, slot);
+		return slot::dispatch;
+	}
+
+	/**
+	 * @return the policy of the executor
+	 */
+	public ExecutionPolicy policy() {
+		return policy;
+	}
+
+	/**
+	 * @return {@code true} if the handlers run on virtual threads
+	 */
+	public boolean isVirtual() {
+		return Objects.nonNull(virtualThreads);
+	}
+
+	/**
+	 * @return a snapshot of the state of the wrapped handlers by their address
+	 */
+	public Map<String, Metrics> metrics() {
+		var metrics = new LinkedHashMap<String, Metrics>();
+		slots.forEach((address, slot) -> metrics.put(address, slot.metrics()));
+		return Collections.unmodifiableMap(metrics);
+	}
+
+	/**
+	 * Closes the worker pool and the virtual thread executor.
+	 * Messages that are already handled complete anyway.
+	 * The queued messages and the messages which arrive afterwards are rejected.
+	 * Must be called on the context of the verticle.
+	 */
+	public void close() {
+		closed = true;
+		slots.values().forEach(Slot::rejectQueued);
+		if (Objects.nonNull(worker)) {
+			worker.close();
+		}
+		if (Objects.nonNull(virtualThreads)) {
+			virtualThreads.shutdown();
+		}
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * @return {@code true} if the executor was {@link #close() closed}
+	 */
+	boolean isClosed() {
+		return closed;
+	}
+
+	private HandlerExecutor(Verticle verticle, ExecutionPolicy policy) {
+		this.verticle = verticle;
+		this.policy = policy;
+		this.context = verticle.getVertx().getOrCreateContext();
+		this.logger = LoggerFactory.getLogger(verticle.getClass());
+
+		var virtual = policy.mode() == ExecutionMode.VIRTUAL_THREAD ? newVirtualThreadExecutor() : null;
+		if (policy.mode() == ExecutionMode.VIRTUAL_THREAD && Objects.isNull(virtual)) {
+			logger.info("Virtual threads are not available, running the handlers on the worker pool {}",
+					policy.pool());
+		}
+		this.virtualThreads = virtual;
+		this.worker = policy.mode() != ExecutionMode.EVENT_LOOP && Objects.isNull(virtual)
+				? verticle.getVertx().createSharedWorkerExecutor(policy.pool(), policy.poolSize())
+				: null;
+	}
+
+	/**
+	 * Runs the task outside the context and completes the returned future on the context.
+	 */
+	private Future<Void> execute(Runnable task) {
+		if (Objects.nonNull(worker)) {
+			return worker.executeBlocking(() -> {
+				task.run();
+				return null;
+			}, false);
+		}
+
+		var promise = Promise.<Void>promise();
+		virtualThreads.execute(() -> {
+			Throwable failure = null;
+			try {
+				task.run();
+			} catch (Throwable e) {
+				failure = e;
+			}
+			var cause = failure;
+			context.runOnContext(nothing -> {
+				if (Objects.isNull(cause)) {
+					promise.complete();
+				} else {
+					promise.fail(cause);
+				}
+			});
+		});
+		return promise.future();
+	}
+
+	/**
+	 * Creates an executor which starts a new virtual thread per task if the runtime supports them.
+	 * The project targets Java 17, so the Java 21 API is looked up at runtime.
+	 */
+	private static ExecutorService newVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException | UnsupportedOperationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * The concurrency limit and the queue of a wrapped handler.
+	 */
+	private final class Slot<T> {
+		Slot(String address, Handler<Message<T>> handler) {
+			this.address = address;
+			this.handler = handler;
+		}
+
+		void dispatch(Message<T> message) {
+			if (closed) {
+				// the worker pool and the virtual thread executor no longer accept tasks
+				reject(message, "closed");
+			} else if (active < policy.maxConcurrency()) {
+				active++;
+				run(message);
+			} else if (queue.size() < policy.maxQueued()) {
+				queue.addLast(message);
+				peakQueued = Math.max(peakQueued, queue.size());
+			} else {
+				logger.debug("Rejecting message on address {}, because {} messages are queued", address, queue.size());
+				reject(message, "overloaded");
+			}
+		}
+
+		void rejectQueued() {
+			for (var message = queue.pollFirst(); Objects.nonNull(message); message = queue.pollFirst()) {
+				reject(message, "closed");
+			}
+		}
+
+		Metrics metrics() {
+			return new Metrics(active, queue.size(), peakQueued, completed, failed, rejected);
+		}
+
+		private void reject(Message<T> message, String reason) {
+			rejected++;
+			message.fail(REJECTED, "The handler on address " + address + " is " + reason);
+		}
+
+		private void run(Message<T> message) {
+			execute(() -> handler.handle(message)).onComplete(result -> {
+				completed++;
+				if (result.failed()) {
+					failed++;
+					logger.error("Handler on address {} failed:", address, result.cause());
+				}
+
+				var next = queue.pollFirst();
+				if (Objects.isNull(next)) {
+					active--;
+				} else {
+					run(next);
+				}
+			});
+		}
+
+		private final String address;
+		private final Handler<Message<T>> handler;
+		private final ArrayDeque<Message<T>> queue = new ArrayDeque<>();
+
+		private int active;
+		private int peakQueued;
+		private long completed;
+		private long failed;
+		private long rejected;
+	}
+
+	private static final Object CONTEXT_KEY = new Object();
+
+	private final Verticle verticle;
+	private final ExecutionPolicy policy;
+	private final Context context;
+	private final Logger logger;
+	private final ExecutorService virtualThreads;
+	private final WorkerExecutor worker;
+	private final Map<String, Slot<?>> slots = new LinkedHashMap<>();
+
+	private boolean closed;
+}
@@ -0,0 +1,24 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import de.wuespace.telestion.api.message.JsonRecord;
+import io.vertx.core.MultiMap;
+
+/**
+ * Extracts the partition key of a message from its decoded body or its headers, e.g. the id of a spacecraft.
+ * Messages with equal keys are handled in order.
+ * The key must implement {@link Object#hashCode()} and may be {@code null}.
+ *
+ * @see WithEventBusRegister#registerPartitioned(String, KeyExtractor, MessageHandler, Class)
+ */
+@FunctionalInterface
+public interface KeyExtractor<V extends JsonRecord> {
+	Object extract(V body, MultiMap headers);
+
+	/**
+	 * @param name the name of the header which contains the key
+	 * @return a key extractor which uses the value of the header as key
+	 */
+	static <V extends JsonRecord> KeyExtractor<V> header(String name) {
+		return (body, headers) -> headers.get(name);
+	}
+}
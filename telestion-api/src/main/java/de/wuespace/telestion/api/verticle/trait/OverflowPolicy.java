@@ -0,0 +1,30 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+/**
+ * Decides what an {@link EventBusReadStream} does with a new message if its buffer is full.
+ *
+ * @see WithEventBusStream
+ */
+public enum OverflowPolicy {
+	/**
+	 * Drops the oldest buffered record to make room for the new one.
+	 */
+	DROP_OLDEST,
+	/**
+	 * Drops the new record and keeps the buffered ones.
+	 */
+	DROP_NEWEST,
+	/**
+	 * Blocks producers with credit until the consumer catches up.
+	 * Producers that write through an {@link EventBusWriteStream} only get new credit when their records
+	 * are delivered, so they are paused until the consumer has demand again and none of their records is lost.
+	 * Producers without credit, i.e. plain {@code send()} and {@code publish()} calls, cannot be blocked,
+	 * so their new records are dropped like with {@link #DROP_NEWEST}.
+	 */
+	BLOCK_PRODUCER,
+	/**
+	 * Replaces the newest buffered record with the new one,
+	 * so the consumer receives the latest sample once it catches up.
+	 */
+	SAMPLE
+}
@@ -0,0 +1,326 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import de.wuespace.telestion.api.message.JsonRecord;
+import io.vertx.core.Context;
+import io.vertx.core.Verticle;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * <h2>Description</h2>
+ * Distributes the messages of an address to a fixed number of lanes by the hash of their key
+ * and the lanes to all verticle instances that registered a partitioned handler on the address.
+ * <ul>
+ *     <li>One instance receives the messages and decodes them, so their order is kept.</li>
+ *     <li>A lane handles its messages one after another on the context of the instance that owns it,
+ *     so messages with equal keys are handled in order and different lanes in parallel.</li>
+ *     <li>Lanes are rebalanced when instances join or leave.
+ *     A lane moves to its new owner only between two messages, so the order of a key is kept.</li>
+ * </ul>
+ * The number of lanes and the key extractor of the first registration are used for all instances.
+ * If the receiving instance is undeployed, another instance receives the following messages.
+ * Messages sent in between may find no handler.
+ *
+ * @param <V> the type of the records
+ * @see WithEventBusRegister#registerPartitioned(String, int, KeyExtractor, ExtendedMessageHandler, Class)
+ */
+final class PartitionedConsumer<V extends JsonRecord> implements Shareable {
+
+	/**
+	 * The default number of lanes per address.
+	 */
+	static final int DEFAULT_LANES = 64;
+
+	/**
+	 * Registers the handler of the verticle as a new member of the partitioned consumer of the address.
+	 * Call it on the context of the verticle.
+	 */
+	@SuppressWarnings("unchecked")
+	static <V extends JsonRecord, T> PartitionedConsumer<V> join(
+			Verticle verticle,
+			String address,
+			int lanes,
+			KeyExtractor<V> keyExtractor,
+			ExtendedMessageHandler<V, T> handler,
+			Class<V> type) {
+		if (lanes < 1) {
+			throw new IllegalArgumentException("The number of lanes must be positive");
+		}
+
+		LocalMap<String, PartitionedConsumer<?>> consumers = verticle.getVertx().sharedData().getLocalMap(SHARED_MAP);
+		while (true) {
+			var consumer = consumers.computeIfAbsent(address,
+					key -> new PartitionedConsumer<>(verticle.getVertx(), address, lanes, keyExtractor, type));
+			if (consumer.type != type) {
+				throw new IllegalStateException("The partitioned handlers on address %s receive %s instead of %s"
+						.formatted(address, consumer.type.getName(), type.getName()));
+			}
+
+			var member = new Member<>(verticle, (ExtendedMessageHandler<V, Object>) handler);
+			if (((PartitionedConsumer<V>) consumer).join(member)) {
+				return (PartitionedConsumer<V>) consumer;
+			}
+			// the last member left in the meantime
+			consumers.remove(address, consumer);
+		}
+	}
+
+	/**
+	 * @return the partitioned consumer of the address or {@code null} if no handler is registered on it
+	 */
+	static PartitionedConsumer<?> of(Vertx vertx, String address) {
+		return vertx.sharedData().<String, PartitionedConsumer<?>>getLocalMap(SHARED_MAP).get(address);
+	}
+
+	/**
+	 * @return the number of registered verticle instances
+	 */
+	synchronized int members() {
+		return members.size();
+	}
+
+	/**
+	 * @return the number of lanes that every registered verticle instance owns, in the order of registration
+	 */
+	synchronized List<Integer> distribution() {
+		var distribution = new ArrayList<Integer>(members.size());
+		for (var member : members) {
+			var owned = 0;
+			for (var lane : lanes) {
+				owned += lane.owner() == member ? 1 : 0;
+			}
+			distribution.add(owned);
+		}
+		return distribution;
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private PartitionedConsumer(Vertx vertx, String address, int lanes, KeyExtractor<V> keyExtractor, Class<V> type) {
+		this.vertx = vertx;
+		this.address = address;
+		this.keyExtractor = keyExtractor;
+		this.type = type;
+		this.lanes = new ArrayList<>(lanes);
+		for (var i = 0; i < lanes; i++) {
+			this.lanes.add(new Lane());
+		}
+	}
+
+	private synchronized boolean join(Member<V> member) {
+		if (closed) {
+			return false;
+		}
+
+		members.add(member);
+		// the presence consumer is unregistered by Vert.x when the verticle is undeployed
+		member.presence = vertx.eventBus().<Void>localConsumer(PRESENCE_PREFIX + address + "/" + UUID.randomUUID(),
+				message -> {
+				});
+		member.presence.endHandler(nothing -> leave(member));
+
+		if (Objects.isNull(router)) {
+			route(member);
+		}
+		rebalance();
+		return true;
+	}
+
+	private synchronized void leave(Member<V> member) {
+		if (!members.remove(member)) {
+			return;
+		}
+
+		if (members.isEmpty()) {
+			closed = true;
+			vertx.sharedData().<String, PartitionedConsumer<?>>getLocalMap(SHARED_MAP).remove(address, this);
+			router.unregister();
+			router = null;
+			return;
+		}
+
+		if (router.member == member) {
+			router.unregister();
+			var next = members.get(0);
+			next.context.runOnContext(nothing -> {
+				synchronized (this) {
+					if (!closed && members.contains(next) && router.member == member) {
+						route(next);
+					}
+				}
+			});
+		}
+		rebalance();
+	}
+
+	/**
+	 * Receives the messages of the address on the context of the member. Call it on that context.
+	 */
+	private void route(Member<V> member) {
+		router = new Router(member, vertx.eventBus().<Object>consumer(address, this::dispatch));
+	}
+
+	/**
+	 * Assigns the lanes round-robin to the members.
+	 */
+	private void rebalance() {
+		for (var i = 0; i < lanes.size(); i++) {
+			lanes.get(i).assign(members.get(i % members.size()));
+		}
+	}
+
+	private void dispatch(Message<Object> message) {
+		JsonRecord.on(type, message, body -> {
+			Object key;
+			try {
+				key = keyExtractor.extract(body, message.headers());
+			} catch (RuntimeException e) {
+				logger.warn("Cannot extract the partition key of a message on address {}:", address, e);
+				return;
+			}
+
+			var hash = Objects.hashCode(key);
+			lanes.get(Math.floorMod(hash ^ (hash >>> 16), lanes.size())).add(new Item<>(body, message));
+		});
+	}
+
+	private record Item<V>(V body, Message<Object> message) {
+	}
+
+	private record Router(Member<?> member, MessageConsumer<Object> consumer) {
+		void unregister() {
+			consumer.unregister();
+		}
+	}
+
+	/**
+	 * A registered verticle instance with its context and handler.
+	 */
+	private static final class Member<V extends JsonRecord> {
+		Member(Verticle verticle, ExtendedMessageHandler<V, Object> handler) {
+			this.context = verticle.getVertx().getOrCreateContext();
+			this.handler = handler;
+			this.logger = LoggerFactory.getLogger(verticle.getClass());
+		}
+
+		private final Context context;
+		private final ExtendedMessageHandler<V, Object> handler;
+		private final Logger logger;
+		private MessageConsumer<Void> presence;
+	}
+
+	/**
+	 * The queue of a lane, which is handled by at most one drain at a time.
+	 */
+	private final class Lane {
+		synchronized Member<V> owner() {
+			return owner;
+		}
+
+		void add(Item<V> item) {
+			Member<V> target;
+			synchronized (this) {
+				queue.addLast(item);
+				target = schedule();
+			}
+			drainOn(target);
+		}
+
+		void assign(Member<V> owner) {
+			Member<V> target;
+			synchronized (this) {
+				this.owner = owner;
+				target = schedule();
+			}
+			drainOn(target);
+		}
+
+		/**
+		 * @return the member which should drain the lane or {@code null} if a drain is already scheduled
+		 */
+		private Member<V> schedule() {
+			if (draining || queue.isEmpty()) {
+				return null;
+			}
+			draining = true;
+			return owner;
+		}
+
+		private void drainOn(Member<V> member) {
+			if (Objects.nonNull(member)) {
+				member.context.runOnContext(nothing -> drain(member));
+			}
+		}
+
+		/**
+		 * Handles the queued messages on the context of the member until the lane moves to another member.
+		 */
+		private void drain(Member<V> member) {
+			for (var handled = 0; handled < DRAIN_BATCH; handled++) {
+				Item<V> item;
+				synchronized (this) {
+					item = owner == member ? queue.pollFirst() : null;
+					if (Objects.isNull(item)) {
+						draining = false;
+						if (owner == member) {
+							return;
+						}
+						// hand the lane over to its new owner
+						var target = schedule();
+						if (Objects.nonNull(target)) {
+							drainOn(target);
+						}
+						return;
+					}
+				}
+
+				try {
+					member.handler.handle(item.body(), item.message());
+				} catch (RuntimeException e) {
+					member.logger.error("Partitioned handler on address {} failed:", address, e);
+				}
+			}
+
+			// let other lanes and tasks of the context run before the next batch
+			Member<V> target;
+			synchronized (this) {
+				draining = false;
+				target = schedule();
+			}
+			drainOn(target);
+		}
+
+		private final ArrayDeque<Item<V>> queue = new ArrayDeque<>();
+		private Member<V> owner;
+		private boolean draining;
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(PartitionedConsumer.class);
+
+	private static final String SHARED_MAP = "telestion.partitioned-consumers";
+	private static final String PRESENCE_PREFIX = "__telestion.partitioned/";
+	private static final int DRAIN_BATCH = 64;
+
+	private final Vertx vertx;
+	private final String address;
+	private final KeyExtractor<V> keyExtractor;
+	private final Class<V> type;
+	private final List<Lane> lanes;
+	private final List<Member<V>> members = new ArrayList<>();
+
+	private Router router;
+	private boolean closed;
+}
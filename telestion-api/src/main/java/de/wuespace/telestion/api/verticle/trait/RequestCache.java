@@ -0,0 +1,313 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.wuespace.telestion.api.message.HeaderInformation;
+import de.wuespace.telestion.api.message.JsonRecord;
+import de.wuespace.telestion.api.message.MultiMapUtils;
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.DatabindCodec;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <h2>Description</h2>
+ * Coalesces identical requests and caches their responses.
+ * <ul>
+ *     <li>Requests with the same address, response type and body share one response future
+ *     while the first request is in flight. The bodies are compared in a canonical JSON form,
+ *     so the order of the properties doesn't matter.</li>
+ *     <li>Successful responses are cached for the {@link #ttl(String, Duration) time-to-live of the address}.
+ *     Without a time-to-live, requests are only coalesced.</li>
+ *     <li>The cache holds at most {@code maxEntries} responses and evicts the least recently used ones.</li>
+ *     <li>A request with the {@link HeaderInformation#CACHE_INVALIDATE cache-invalidate} header drops
+ *     the cached responses of the address and is always sent to the responder.
+ *     A response with this header is not cached.</li>
+ *     <li>After an invalidation, identical requests no longer share the responses of requests in flight,
+ *     and only the responses of requests sent after the invalidation are cached.</li>
+ * </ul>
+ * The request headers are not part of the comparison.
+ * Failed requests are not cached.
+ * <p>
+ * The responses complete on the context which sent the requests, and the cache updates its entries and
+ * statistics there without synchronization. So only request through the cache from the context of its verticle,
+ * not from a handler that a {@link HandlerExecutor} runs on another thread.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * public class Dashboard extends TelestionVerticle<GenericConfiguration> implements WithEventBus {
+ *     private RequestCache cache;
+ *
+ *     @Override
+ *     public void onStart() {
+ *         cache = requestCache(256).ttl("attitude", Duration.ofMillis(100));
+ *     }
+ *
+ *     private Future<Attitude> currentAttitude() {
+ *         return cache.request("attitude", new AttitudeRequest(), Attitude.class)
+ *                 .map(ResponseMessageWrapper::body);
+ *     }
+ * }
+ * }
+ * </pre>
+ *
+ * @see WithEventBusRequest#requestCache(int)
+ */
+public final class RequestCache {
+
+	/**
+	 * The default maximum number of cached responses.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+	/**
+	 * A snapshot of the counters of a request cache.
+	 *
+	 * @param hits      the number of requests answered from the cache
+	 * @param coalesced the number of requests which shared the response of an identical request in flight
+	 * @param misses    the number of requests sent to the responder
+	 * @param evictions the number of cached responses evicted, because the cache was full
+	 */
+	public record Statistics(long hits, long coalesced, long misses, long evictions) {
+	}
+
+	/**
+	 * Creates a new request cache which sends its requests with the verticle.
+	 *
+	 * @param verticle   the verticle which sends the requests
+	 * @param maxEntries the maximum number of cached responses
+	 * @return the new request cache
+	 */
+	public static RequestCache create(WithEventBusRequest verticle, int maxEntries) {
+		if (maxEntries < 0) {
+			throw new IllegalArgumentException("The maximum number of entries must not be negative");
+		}
+		return new RequestCache(verticle, maxEntries);
+	}
+
+	/**
+	 * Caches the responses of the address for the given time.
+	 *
+	 * @param address the address of the responder
+	 * @param ttl     the time-to-live of the responses or {@link Duration#ZERO} to only coalesce requests
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 */
+	public RequestCache ttl(String address, Duration ttl) {
+		ttls.put(address, ttl.toNanos());
+		return this;
+	}
+
+	/**
+	 * Caches the responses of all addresses without an explicit time-to-live for the given time.
+	 *
+	 * @param ttl the time-to-live of the responses or {@link Duration#ZERO} to only coalesce requests
+	 * @return a reference to {@code this}, so the API can be used fluently
+	 */
+	public RequestCache defaultTtl(Duration ttl) {
+		defaultTtl = ttl.toNanos();
+		return this;
+	}
+
+	/**
+	 * Like {@link WithEventBusRequest#request(String, Object, Class)}, but coalesces identical requests
+	 * and answers from the cache if possible.
+	 *
+	 * @param address      the address of the responder
+	 * @param request      the request body
+	 * @param responseType the type of the response to map to
+	 * @return the shared future of the response
+	 */
+	public <V extends JsonRecord, T extends JsonObject> Future<ResponseMessageWrapper<V, T>> request(
+			String address,
+			Object request,
+			Class<V> responseType) {
+		return request(address, request, responseType, new DeliveryOptions());
+	}
+
+	/**
+	 * Like {@link WithEventBusRequest#request(String, Object, Class, DeliveryOptions, MultiMap...)},
+	 * but coalesces identical requests and answers from the cache if possible.
+	 * If the request shares the response of an identical request, the options and headers are not used.
+	 *
+	 * @param address        the address of the responder
+	 * @param request        the request body
+	 * @param responseType   the type of the response to map to
+	 * @param options        the delivery options of the request
+	 * @param requestHeaders the headers that should be sent with the request message
+	 *                       (will usually be a {@link HeaderInformation} object)
+	 * @return the shared future of the response
+	 */
+	@SuppressWarnings("unchecked")
+	public <V extends JsonRecord, T extends JsonObject> Future<ResponseMessageWrapper<V, T>> request(
+			String address,
+			Object request,
+			Class<V> responseType,
+			DeliveryOptions options,
+			MultiMap... requestHeaders) {
+		var headers = MultiMapUtils.merge(requestHeaders);
+		var invalidating = HeaderInformation.from(headers).isCacheInvalidate();
+		if (invalidating) {
+			invalidate(address);
+		}
+
+		var key = new Key(address, responseType, canonical(request));
+
+		if (!invalidating) {
+			var cached = responses.get(key);
+			if (cached != null) {
+				if (System.nanoTime() - cached.expiresAt < 0) {
+					hits++;
+					return (Future<ResponseMessageWrapper<V, T>>) cached.response;
+				}
+				responses.remove(key);
+			}
+
+			var inFlight = pending.get(key);
+			if (inFlight != null) {
+				coalesced++;
+				return (Future<ResponseMessageWrapper<V, T>>) inFlight;
+			}
+		}
+
+		misses++;
+		var response = request instanceof JsonRecord record
+				? verticle.<V, T>request(address, record, responseType, options, headers)
+				: verticle.<V, T>request(address, request, responseType, options, headers);
+		pending.put(key, response);
+		var generation = generation(address);
+
+		response.onComplete(result -> {
+			pending.remove(key, response);
+			var ttl = ttls.getOrDefault(address, defaultTtl);
+			// the response may be stale if the address was invalidated while the request was in flight
+			if (result.succeeded() && ttl > 0 && maxEntries > 0 && generation == generation(address)
+					&& !HeaderInformation.from(result.result().message()).isCacheInvalidate()) {
+				responses.put(key, new Entry(response, System.nanoTime() + ttl));
+			}
+		});
+		return response;
+	}
+
+	/**
+	 * Drops the cached responses of the address.
+	 * Requests in flight still complete, but later requests don't share their responses
+	 * and their responses are not cached.
+	 *
+	 * @param address the address of the responder
+	 */
+	public void invalidate(String address) {
+		responses.keySet().removeIf(key -> key.address.equals(address));
+		pending.keySet().removeIf(key -> key.address.equals(address));
+		generations.merge(address, 1L, Long::sum);
+	}
+
+	/**
+	 * Drops all cached responses.
+	 * Requests in flight still complete, but later requests don't share their responses
+	 * and their responses are not cached.
+	 */
+	public void invalidateAll() {
+		responses.clear();
+		pending.clear();
+		invalidations++;
+	}
+
+	/**
+	 * @return the number of cached responses, including expired ones which are not evicted yet
+	 */
+	public int size() {
+		return responses.size();
+	}
+
+	/**
+	 * @return a snapshot of the counters of the cache
+	 */
+	public Statistics statistics() {
+		return new Statistics(hits, coalesced, misses, evictions);
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private RequestCache(WithEventBusRequest verticle, int maxEntries) {
+		this.verticle = verticle;
+		this.maxEntries = maxEntries;
+		this.responses = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				if (size() > RequestCache.this.maxEntries) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns a number which changes with every invalidation of the address.
+	 * Both counters only grow, so their sum changes whenever one of them changes.
+	 */
+	private long generation(String address) {
+		return invalidations + generations.getOrDefault(address, 0L);
+	}
+
+	/**
+	 * Converts the body into a string which is equal for equal bodies, e.g. with sorted JSON properties.
+	 */
+	private static String canonical(Object body) {
+		if (body == null) {
+			return "";
+		}
+		if (body instanceof String string) {
+			return "s:" + string;
+		}
+		if (body instanceof Buffer buffer) {
+			return "b:" + Base64.getEncoder().encodeToString(buffer.getBytes());
+		}
+
+		try {
+			return "j:" + canonicalWriter.writeValueAsString(DatabindCodec.mapper().convertValue(body, Object.class));
+		} catch (JsonProcessingException | IllegalArgumentException e) {
+			// bodies which cannot be converted are only equal to themselves
+			return "i:" + System.identityHashCode(body) + ":" + body;
+		}
+	}
+
+	private record Key(String address, Class<?> responseType, String body) {
+	}
+
+	private record Entry(Future<?> response, long expiresAt) {
+	}
+
+	private static final ObjectWriter canonicalWriter = DatabindCodec.mapper().writer()
+			.with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+	private final WithEventBusRequest verticle;
+	private final int maxEntries;
+
+	private final Map<Key, Entry> responses;
+	private final Map<Key, Future<?>> pending = new HashMap<>();
+	private final Map<String, Long> ttls = new HashMap<>();
+	private final Map<String, Long> generations = new HashMap<>();
+
+	private long defaultTtl = 0;
+	private long invalidations;
+
+	private long hits;
+	private long coalesced;
+	private long misses;
+	private long evictions;
+}
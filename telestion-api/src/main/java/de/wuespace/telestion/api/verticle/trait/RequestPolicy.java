@@ -0,0 +1,83 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import io.vertx.circuitbreaker.CircuitBreakerOptions;
+
+import java.time.Duration;
+
+/**
+ * Describes how a {@link ResilientRequester} sends its requests.
+ *
+ * @param attemptTimeout      the maximum time one attempt waits for its reply
+ * @param maxRetries          the maximum number of retries after a timeout or a missing responder
+ * @param initialBackoff      the maximum delay before the first retry, doubled for every further retry
+ * @param maxBackoff          the upper limit of the delay before a retry
+ * @param hedgePercentile     the latency percentile of the address after which a second attempt is sent,
+ *                            e.g. {@code 0.95}, or {@code 0} to disable hedged requests
+ * @param minHedgeDelay       the minimal delay before a second attempt is sent
+ * @param maxFailures         the number of failures after which the circuit breaker of an address opens
+ * @param resetTimeout        the time after which an open circuit breaker tries again
+ * @param notificationAddress the address the circuit breakers report their state to,
+ *                            e.g. for the {@code HystrixMetrics} verticle
+ * @see ResilientRequester
+ */
+public record RequestPolicy(
+		Duration attemptTimeout,
+		int maxRetries,
+		Duration initialBackoff,
+		Duration maxBackoff,
+		double hedgePercentile,
+		Duration minHedgeDelay,
+		int maxFailures,
+		Duration resetTimeout,
+		String notificationAddress
+) {
+
+	/**
+	 * The default policy with three attempts, hedged requests at the 95th percentile
+	 * and circuit breakers that report to the {@link CircuitBreakerOptions#DEFAULT_NOTIFICATION_ADDRESS default
+	 * notification address}.
+	 */
+	public static final RequestPolicy DEFAULT = new RequestPolicy(
+			Duration.ofSeconds(5),
+			2,
+			Duration.ofMillis(50),
+			Duration.ofSeconds(2),
+			0.95,
+			Duration.ofMillis(10),
+			CircuitBreakerOptions.DEFAULT_MAX_FAILURES,
+			Duration.ofMillis(CircuitBreakerOptions.DEFAULT_RESET_TIMEOUT),
+			CircuitBreakerOptions.DEFAULT_NOTIFICATION_ADDRESS
+	);
+
+	/**
+	 * @return a copy of the policy with another attempt timeout
+	 */
+	public RequestPolicy withAttemptTimeout(Duration attemptTimeout) {
+		return new RequestPolicy(attemptTimeout, maxRetries, initialBackoff, maxBackoff, hedgePercentile,
+				minHedgeDelay, maxFailures, resetTimeout, notificationAddress);
+	}
+
+	/**
+	 * @return a copy of the policy with other retry settings
+	 */
+	public RequestPolicy withRetries(int maxRetries, Duration initialBackoff, Duration maxBackoff) {
+		return new RequestPolicy(attemptTimeout, maxRetries, initialBackoff, maxBackoff, hedgePercentile,
+				minHedgeDelay, maxFailures, resetTimeout, notificationAddress);
+	}
+
+	/**
+	 * @return a copy of the policy with other hedging settings
+	 */
+	public RequestPolicy withHedging(double hedgePercentile, Duration minHedgeDelay) {
+		return new RequestPolicy(attemptTimeout, maxRetries, initialBackoff, maxBackoff, hedgePercentile,
+				minHedgeDelay, maxFailures, resetTimeout, notificationAddress);
+	}
+
+	/**
+	 * @return a copy of the policy with other circuit breaker settings
+	 */
+	public RequestPolicy withCircuitBreaker(int maxFailures, Duration resetTimeout, String notificationAddress) {
+		return new RequestPolicy(attemptTimeout, maxRetries, initialBackoff, maxBackoff, hedgePercentile,
+				minHedgeDelay, maxFailures, resetTimeout, notificationAddress);
+	}
+}
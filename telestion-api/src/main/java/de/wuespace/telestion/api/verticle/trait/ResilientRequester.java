@@ -0,0 +1,321 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import de.wuespace.telestion.api.message.HeaderInformation;
+import de.wuespace.telestion.api.message.JsonRecord;
+import de.wuespace.telestion.api.message.MultiMapUtils;
+import io.vertx.circuitbreaker.CircuitBreaker;
+import io.vertx.circuitbreaker.CircuitBreakerOptions;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.json.JsonObject;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <h2>Description</h2>
+ * Sends requests with timeouts, retries, hedging and circuit breakers as described by a {@link RequestPolicy}.
+ * <ul>
+ *     <li>Every request has a deadline. It is sent in the {@link HeaderInformation#DEADLINE deadline header},
+ *     so the responder can skip expired work with {@link HeaderInformation#isDeadlineExceeded()}.
+ *     If the request headers already contain an earlier deadline, e.g. from the message that is currently
+ *     handled, the earlier deadline is kept.</li>
+ *     <li>Attempts which time out or find no responder are retried with an exponential backoff and full jitter
+ *     until the retries are used up or the deadline has passed.</li>
+ *     <li>If an attempt takes longer than the configured latency percentile of the address,
+ *     a second attempt is sent and the first reply wins.
+ *     With point-to-point delivery, the second attempt usually reaches another responder instance.</li>
+ *     <li>Every address has its own {@link CircuitBreaker} which fails fast after too many failures
+ *     and reports its state to the notification address, e.g. for the {@code HystrixMetrics} verticle.</li>
+ * </ul>
+ * The retry and hedge timers and the replies update the latency windows and statistics on the context
+ * of the verticle which created the requester, so send the requests from that context as well.
+ * {@link #close() Close} the requester when the verticle stops to release its circuit breakers.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * public class Dashboard extends TelestionVerticle<GenericConfiguration> implements WithEventBus {
+ *     private ResilientRequester requester;
+ *
+ *     @Override
+ *     public void onStart() {
+ *         requester = resilientRequester(RequestPolicy.DEFAULT.withAttemptTimeout(Duration.ofMillis(200)));
+ *     }
+ *
+ *     @Override
+ *     public void onStop() {
+ *         requester.close();
+ *     }
+ *
+ *     private Future<Attitude> currentAttitude() {
+ *         return requester.request("attitude", new AttitudeRequest(), Attitude.class, Duration.ofSeconds(1))
+ *                 .map(ResponseMessageWrapper::body);
+ *     }
+ * }
+ * }
+ * </pre>
+ *
+ * @see WithEventBusRequest#resilientRequester(RequestPolicy)
+ */
+public final class ResilientRequester {
+
+	/**
+	 * A snapshot of the counters of a resilient requester.
+	 *
+	 * @param requests the number of requests
+	 * @param attempts the number of sent attempts, including retries and hedged attempts
+	 * @param retries  the number of retries
+	 * @param hedges   the number of hedged attempts
+	 */
+	public record Statistics(long requests, long attempts, long retries, long hedges) {
+	}
+
+	/**
+	 * Creates a new resilient requester which sends its requests with the verticle.
+	 *
+	 * @param verticle the verticle which sends the requests
+	 * @param policy   describes how the requests are sent
+	 * @return the new resilient requester
+	 */
+	public static ResilientRequester create(WithEventBusRequest verticle, RequestPolicy policy) {
+		return new ResilientRequester(verticle, policy);
+	}
+
+	/**
+	 * Sends a request and waits at most until the deadline for a successful reply.
+	 *
+	 * @param address        the address of the responder
+	 * @param request        the request body
+	 * @param timeout        the time after which the request fails, including all retries
+	 * @param requestHeaders the headers that should be sent with the request message
+	 *                       (will usually be a {@link HeaderInformation} object)
+	 * @return the future of the first successful reply
+	 */
+	public <T> Future<Message<T>> request(String address, Object request, Duration timeout, MultiMap... requestHeaders) {
+		requests++;
+		var headers = MultiMapUtils.merge(requestHeaders);
+		var deadline = Instant.now().plus(timeout);
+		var upstream = HeaderInformation.from(headers).getDeadline();
+		if (upstream.isPresent() && upstream.get().isBefore(deadline)) {
+			deadline = upstream.get();
+		}
+
+		return attempt(address, request, headers, deadline, 0);
+	}
+
+	/**
+	 * Like {@link #request(String, Object, Duration, MultiMap...)}, but the request fails after the
+	 * {@link RequestPolicy#attemptTimeout() attempt timeout} of every possible attempt.
+	 */
+	public <T> Future<Message<T>> request(String address, Object request, MultiMap... requestHeaders) {
+		return request(address, request, defaultTimeout(), requestHeaders);
+	}
+
+	/**
+	 * Like {@link #request(String, Object, Duration, MultiMap...)}, but maps the reply to a {@link JsonRecord}.
+	 *
+	 * @param responseType the type of the response to map to
+	 */
+	public <V extends JsonRecord, T extends JsonObject> Future<ResponseMessageWrapper<V, T>> request(
+			String address,
+			Object request,
+			Class<V> responseType,
+			Duration timeout,
+			MultiMap... requestHeaders) {
+		return ResponseMessageWrapper.compose(responseType, request(address, request, timeout, requestHeaders));
+	}
+
+	/**
+	 * Like {@link #request(String, Object, MultiMap...)}, but maps the reply to a {@link JsonRecord}.
+	 *
+	 * @param responseType the type of the response to map to
+	 */
+	public <V extends JsonRecord, T extends JsonObject> Future<ResponseMessageWrapper<V, T>> request(
+			String address,
+			Object request,
+			Class<V> responseType,
+			MultiMap... requestHeaders) {
+		return request(address, request, responseType, defaultTimeout(), requestHeaders);
+	}
+
+	/**
+	 * @return a snapshot of the counters of the requester
+	 */
+	public Statistics statistics() {
+		return new Statistics(requests, attempts, retries, hedges);
+	}
+
+	/**
+	 * Closes the circuit breakers of all addresses.
+	 */
+	public void close() {
+		targets.values().forEach(target -> target.breaker.close());
+		targets.clear();
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private ResilientRequester(WithEventBusRequest verticle, RequestPolicy policy) {
+		this.verticle = verticle;
+		this.policy = policy;
+	}
+
+	/**
+	 * Sends the attempt and schedules a retry if it fails with a retryable failure.
+	 */
+	private <T> Future<Message<T>> attempt(String address, Object request, MultiMap headers, Instant deadline,
+			int retry) {
+		if (!Instant.now().isBefore(deadline)) {
+			return Future.failedFuture(deadlineExceeded(address));
+		}
+
+		return this.<T>hedged(address, request, headers, deadline).recover(failure -> {
+			if (retry >= policy.maxRetries() || !isRetryable(failure)) {
+				return Future.failedFuture(failure);
+			}
+
+			var cap = Math.min(policy.maxBackoff().toMillis(), policy.initialBackoff().toMillis() << Math.min(retry, 30));
+			var backoff = ThreadLocalRandom.current().nextLong(Math.max(1, cap) + 1);
+			if (!Instant.now().plusMillis(backoff).isBefore(deadline)) {
+				return Future.failedFuture(failure);
+			}
+
+			retries++;
+			var promise = Promise.<Message<T>>promise();
+			verticle.getVertx().setTimer(Math.max(1, backoff), id ->
+					this.<T>attempt(address, request, headers, deadline, retry + 1).onComplete(promise));
+			return promise.future();
+		});
+	}
+
+	/**
+	 * Sends the attempt and a second one if the first one takes longer than the hedge delay of the address.
+	 */
+	private <T> Future<Message<T>> hedged(String address, Object request, MultiMap headers, Instant deadline) {
+		var target = target(address);
+		var delay = target.hedgeDelay;
+		if (policy.hedgePercentile() <= 0 || delay < 0) {
+			return single(target, request, headers, deadline);
+		}
+
+		var result = Promise.<Message<T>>promise();
+		var outstanding = new int[]{1};
+		Handler<AsyncResult<Message<T>>> complete = attempt -> {
+			outstanding[0]--;
+			if (attempt.succeeded()) {
+				result.tryComplete(attempt.result());
+			} else if (outstanding[0] == 0) {
+				result.tryFail(attempt.cause());
+			}
+		};
+
+		this.<T>single(target, request, headers, deadline).onComplete(complete);
+		var timer = verticle.getVertx().setTimer(Math.max(1, Duration.ofNanos(delay).toMillis()), id -> {
+			if (!result.future().isComplete() && Instant.now().isBefore(deadline)) {
+				outstanding[0]++;
+				hedges++;
+				this.<T>single(target, request, headers, deadline).onComplete(complete);
+			}
+		});
+		return result.future().onComplete(done -> verticle.getVertx().cancelTimer(timer));
+	}
+
+	/**
+	 * Sends one attempt through the circuit breaker of the address.
+	 */
+	private <T> Future<Message<T>> single(Target target, Object request, MultiMap headers, Instant deadline) {
+		var remaining = Duration.between(Instant.now(), deadline);
+		var timeout = Math.max(1, Math.min(policy.attemptTimeout().toMillis(), remaining.toMillis()));
+		var information = new HeaderInformation().addAll(headers).setDeadline(deadline);
+		var options = new DeliveryOptions().setSendTimeout(timeout);
+
+		return target.breaker.<Message<T>>execute(promise -> {
+			attempts++;
+			var started = System.nanoTime();
+			Future<Message<T>> reply = request instanceof JsonRecord record
+					? verticle.request(target.address, record, options, information)
+					: verticle.request(target.address, request, options, information);
+			reply.onSuccess(message -> target.record(System.nanoTime() - started)).onComplete(promise);
+		});
+	}
+
+	private Target target(String address) {
+		return targets.computeIfAbsent(address, Target::new);
+	}
+
+	private Duration defaultTimeout() {
+		return policy.attemptTimeout().multipliedBy(policy.maxRetries() + 1L);
+	}
+
+	private static boolean isRetryable(Throwable failure) {
+		return failure instanceof ReplyException exception
+				&& (exception.failureType() == ReplyFailure.TIMEOUT
+				|| exception.failureType() == ReplyFailure.NO_HANDLERS);
+	}
+
+	private static ReplyException deadlineExceeded(String address) {
+		return new ReplyException(ReplyFailure.TIMEOUT, "The deadline of the request to " + address + " has passed");
+	}
+
+	/**
+	 * The circuit breaker and the recent latencies of an address.
+	 */
+	private final class Target {
+		Target(String address) {
+			this.address = address;
+			this.breaker = CircuitBreaker.create(address, verticle.getVertx(), new CircuitBreakerOptions()
+					.setMaxFailures(policy.maxFailures())
+					.setResetTimeout(policy.resetTimeout().toMillis())
+					.setNotificationAddress(policy.notificationAddress())
+					// the attempts have their own timeouts and retries
+					.setTimeout(-1)
+					.setMaxRetries(0));
+		}
+
+		void record(long latency) {
+			latencies[(int) (recorded++ % LATENCY_WINDOW)] = latency;
+			if (recorded >= MIN_SAMPLES && recorded % MIN_SAMPLES == 0) {
+				var sorted = Arrays.copyOf(latencies, (int) Math.min(recorded, LATENCY_WINDOW));
+				Arrays.sort(sorted);
+				var index = (int) Math.min(sorted.length - 1, Math.ceil(policy.hedgePercentile() * sorted.length) - 1);
+				hedgeDelay = Math.max(policy.minHedgeDelay().toNanos(), sorted[Math.max(0, index)]);
+			}
+		}
+
+		private final String address;
+		private final CircuitBreaker breaker;
+		private final long[] latencies = new long[LATENCY_WINDOW];
+		private long recorded;
+
+		/**
+		 * The delay before a hedged attempt in nanoseconds or {@code -1} if not enough latencies are known.
+		 */
+		private long hedgeDelay = -1;
+	}
+
+	private static final int LATENCY_WINDOW = 128;
+	private static final int MIN_SAMPLES = 16;
+
+	private final WithEventBusRequest verticle;
+	private final RequestPolicy policy;
+	private final Map<String, Target> targets = new HashMap<>();
+
+	private long requests;
+	private long attempts;
+	private long retries;
+	private long hedges;
+}
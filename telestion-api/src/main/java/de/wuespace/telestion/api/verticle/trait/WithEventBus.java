@@ -29,5 +29,5 @@ import io.vertx.core.Verticle;
  * @author Pablo Klaschka (@pklaschka), Ludwig Richter (@fussel178)
  */
 public interface WithEventBus extends Verticle, WithEventBusPublish, WithEventBusSend, WithEventBusRequest,
-        WithEventBusRegister {
+        WithEventBusRegister, WithEventBusStream {
 }
@@ -1,14 +1,27 @@
 package de.wuespace.telestion.api.verticle.trait;
 
+import de.wuespace.telestion.api.message.FrameMessageCodec;
 import de.wuespace.telestion.api.message.HeaderInformation;
 import de.wuespace.telestion.api.message.JsonRecord;
+import de.wuespace.telestion.api.message.JsonRecordMessageCodec;
 import de.wuespace.telestion.api.message.MultiMapUtils;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Verticle;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.DeliveryOptions;
 
 /**
  * See {@link WithEventBus} (but only {@code publish()} methods)
+ * <p>
+ * {@link JsonRecord JSON records} are sent with the {@link JsonRecordMessageCodec},
+ * so local consumers receive the record instance without any JSON conversion.
+ * Raw binary frames are passed through the same way with the {@link FrameMessageCodec}.
+ * <p>
+ * Consumers of JSON records therefore must not expect a {@link io.vertx.core.json.JsonObject} body.
+ * Register them with a record type, e.g. {@link WithEventBusRegister#register(String, MessageHandler, Class)},
+ * or convert the body with {@link JsonRecord#from(io.vertx.core.eventbus.Message, Class)},
+ * which accepts both the record instance and its JSON representation.
+ * To deliver a {@link io.vertx.core.json.JsonObject} instead, send {@link JsonRecord#toJsonObject()}.
  */
 public interface WithEventBusPublish extends Verticle {
 	/**
@@ -48,14 +61,14 @@ public interface WithEventBusPublish extends Verticle {
 	 * @see io.vertx.core.eventbus.EventBus#publish(String, Object)
 	 */
 	default void publish(String address, JsonRecord message) {
-		publish(address, message.toJsonObject());
+		publish(address, message, new DeliveryOptions());
 	}
 
 	/**
 	 * @see io.vertx.core.eventbus.EventBus#publish(String, Object, DeliveryOptions)
 	 */
 	default void publish(String address, JsonRecord message, DeliveryOptions options) {
-		publish(address, message.toJsonObject(), options);
+		publish(address, (Object) message, JsonRecordMessageCodec.attach(getVertx(), options));
 	}
 
 	/**
@@ -64,7 +77,7 @@ public interface WithEventBusPublish extends Verticle {
 	 * @see io.vertx.core.eventbus.EventBus#publish(String, Object, DeliveryOptions)
 	 */
 	default void publish(String address, JsonRecord message, DeliveryOptions options, MultiMap... headers) {
-		publish(address, message.toJsonObject(), options, headers);
+		publish(address, (Object) message, JsonRecordMessageCodec.attach(getVertx(), options), headers);
 	}
 
 	/**
@@ -73,6 +86,28 @@ public interface WithEventBusPublish extends Verticle {
 	 * @see io.vertx.core.eventbus.EventBus#publish(String, Object)
 	 */
 	default void publish(String address, JsonRecord message, MultiMap... headers) {
-		publish(address, message.toJsonObject(), headers);
+		publish(address, message, new DeliveryOptions(), headers);
+	}
+
+	/**
+	 * Publishes a raw binary frame with the {@link FrameMessageCodec} and describes it
+	 * with its type and length in the {@link HeaderInformation#setFrame(String, Buffer) headers}.
+	 * The frame is neither copied nor converted into JSON for local consumers,
+	 * so it must not be modified after it is published.
+	 *
+	 * @param frame   the frame or a {@link Buffer#slice(int, int) slice} of a larger frame
+	 * @param type    the type of the frame or {@code null} if it is unknown
+	 * @param headers additional headers that should be sent with the frame
+	 *                (will usually be a {@link HeaderInformation} object)
+	 * @see io.vertx.core.eventbus.EventBus#publish(String, Object, DeliveryOptions)
+	 * @see WithEventBusRegister#registerFrame(String, FrameHandler)
+	 */
+	default void publishFrame(String address, Buffer frame, String type, MultiMap... headers) {
+		var information = new HeaderInformation();
+		for (var header : headers) {
+			information.addAll(header);
+		}
+		information.setFrame(type, frame);
+		publish(address, frame, FrameMessageCodec.attach(getVertx(), information.toOptions()));
 	}
 }
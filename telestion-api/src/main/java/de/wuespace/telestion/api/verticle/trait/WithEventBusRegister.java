@@ -1,22 +1,56 @@
 package de.wuespace.telestion.api.verticle.trait;
 
+import de.wuespace.telestion.api.message.HeaderInformation;
 import de.wuespace.telestion.api.message.JsonRecord;
+import de.wuespace.telestion.api.message.MessageCodecs;
 import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
 import io.vertx.core.Verticle;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * See {@link WithEventBus} (but only {@code register()} methods)
  */
 public interface WithEventBusRegister extends Verticle {
 	/**
+	 * If the verticle is annotated with {@link Execution}, the handler runs on the threads described by it.
+	 * The Telestion {@link MessageCodecs message codecs} are registered first,
+	 * so messages from senders in a cluster can be decoded.
+	 *
 	 * @see io.vertx.core.eventbus.EventBus#consumer(String, Handler)
 	 */
 	default <T> void register(String address, Handler<Message<T>> handler) {
-		getVertx().eventBus().consumer(address, handler);
+		MessageCodecs.register(getVertx().eventBus());
+		if (ExecutionPolicy.of(getClass()).mode() == ExecutionMode.EVENT_LOOP) {
+			getVertx().eventBus().consumer(address, handler);
+		} else {
+			register(address, handler, handlerExecutor());
+		}
 	}
 
 	/**
+	 * Like {@link #register(String, Handler)}, but the handler runs on the threads of the executor
+	 * regardless of the {@link Execution} annotation of the verticle.
+	 *
+	 * @param executor the executor which runs the handler
+	 * @see io.vertx.core.eventbus.EventBus#consumer(String, Handler)
+	 */
+	default <T> void register(String address, Handler<Message<T>> handler, HandlerExecutor executor) {
+		MessageCodecs.register(getVertx().eventBus());
+		getVertx().eventBus().consumer(address, executor.wrap(address, handler));
+	}
+
+	/**
+	 * Messages sent with the {@link de.wuespace.telestion.api.message.JsonRecordMessageCodec JsonRecordMessageCodec}
+	 * already contain the record instance and are passed to the handler without decoding.
+	 *
 	 * @param type the type of received message to map to
 	 * @see io.vertx.core.eventbus.EventBus#consumer(String, Handler)
 	 */
@@ -34,4 +68,180 @@ public interface WithEventBusRegister extends Verticle {
 			Class<V> type) {
 		this.<T>register(address, message -> JsonRecord.on(type, message, body -> handler.handle(body, message)));
 	}
+
+	/**
+	 * Like {@link #register(String, MessageHandler, Class)}, but the handler runs on the threads of the executor
+	 * regardless of the {@link Execution} annotation of the verticle.
+	 *
+	 * @param type     the type of received message to map to
+	 * @param executor the executor which runs the handler
+	 * @see io.vertx.core.eventbus.EventBus#consumer(String, Handler)
+	 */
+	default <V extends JsonRecord> void register(
+			String address,
+			MessageHandler<V> handler,
+			Class<V> type,
+			HandlerExecutor executor) {
+		register(address, message -> JsonRecord.on(type, message, handler::handle), executor);
+	}
+
+	/**
+	 * Like {@link #register(String, ExtendedMessageHandler, Class)}, but the handler runs on the threads
+	 * of the executor regardless of the {@link Execution} annotation of the verticle.
+	 *
+	 * @param type     the type of received message to map to
+	 * @param executor the executor which runs the handler
+	 * @see io.vertx.core.eventbus.EventBus#consumer(String, Handler)
+	 */
+	default <V extends JsonRecord, T> void register(
+			String address,
+			ExtendedMessageHandler<V, T> handler,
+			Class<V> type,
+			HandlerExecutor executor) {
+		this.<T>register(address, message -> JsonRecord.on(type, message, body -> handler.handle(body, message)),
+				executor);
+	}
+
+	/**
+	 * Receives the batches published by a {@link BatchPublisher} and passes the unpacked records to the handler.
+	 * Batches sent as {@link JsonArray} are decoded record by record.
+	 * Batches that cannot be decoded are logged and dropped.
+	 *
+	 * @param type the type of the records in the batch to map to
+	 * @see io.vertx.core.eventbus.EventBus#consumer(String, Handler)
+	 */
+	default <V extends JsonRecord> void registerBatch(String address, BatchHandler<V> handler, Class<V> type) {
+		this.<Object>register(address, message -> {
+			try {
+				handler.handle(unpackBatch(message.body(), type));
+			} catch (DecodeException | IllegalArgumentException e) {
+				LoggerFactory.getLogger(getClass())
+						.warn("Cannot convert batch on address {} to JSON records {}:", address, type.getName(), e);
+			}
+		});
+	}
+
+	/**
+	 * Receives raw binary frames and passes them to the handler without any decoding.
+	 * Frames sent with {@link WithEventBusPublish#publishFrame(String, Buffer, String, MultiMap...) publishFrame}
+	 * or {@link WithEventBusSend#sendFrame(String, Buffer, String, MultiMap...) sendFrame}
+	 * arrive as the same instance the sender passed and describe their type and length in the headers.
+	 * Messages which don't contain a {@link Buffer} are logged and dropped.
+	 *
+	 * @see io.vertx.core.eventbus.EventBus#consumer(String, Handler)
+	 * @see JsonRecord#fromSlice(Buffer, int, int, Class)
+	 */
+	default void registerFrame(String address, FrameHandler handler) {
+		this.<Object>register(address, message -> {
+			if (message.body() instanceof Buffer frame) {
+				handler.handle(frame, HeaderInformation.from(message));
+			} else {
+				LoggerFactory.getLogger(getClass())
+						.warn("Cannot receive frame on address {}, because the message contains no buffer: {}",
+								address, message.body());
+			}
+		});
+	}
+
+	/**
+	 * Registers a handler that handles messages with equal keys in order and messages with different keys
+	 * in parallel.
+	 * <p>
+	 * The messages are distributed by the hash of their key to a fixed number of lanes.
+	 * The lanes are spread over all instances that register a partitioned handler on the address,
+	 * e.g. the instances of a deployment with a higher {@code magnitude}, and are rebalanced when instances
+	 * are deployed or undeployed.
+	 * Every lane handles its messages one after another on the context of its instance.
+	 * The number of lanes and the key extractor of the first registration on the address are used.
+	 *
+	 * @param lanes        the number of lanes
+	 * @param keyExtractor extracts the key from the record or the headers of a message
+	 * @param type         the type of received message to map to
+	 * @see io.vertx.core.eventbus.EventBus#consumer(String, Handler)
+	 */
+	default <V extends JsonRecord, T> void registerPartitioned(
+			String address,
+			int lanes,
+			KeyExtractor<V> keyExtractor,
+			ExtendedMessageHandler<V, T> handler,
+			Class<V> type) {
+		PartitionedConsumer.join(this, address, lanes, keyExtractor, handler, type);
+	}
+
+	/**
+	 * Like {@link #registerPartitioned(String, int, KeyExtractor, ExtendedMessageHandler, Class)},
+	 * but with the default number of lanes.
+	 */
+	default <V extends JsonRecord, T> void registerPartitioned(
+			String address,
+			KeyExtractor<V> keyExtractor,
+			ExtendedMessageHandler<V, T> handler,
+			Class<V> type) {
+		registerPartitioned(address, PartitionedConsumer.DEFAULT_LANES, keyExtractor, handler, type);
+	}
+
+	/**
+	 * Like {@link #registerPartitioned(String, int, KeyExtractor, ExtendedMessageHandler, Class)},
+	 * but with the default number of lanes and a handler which only receives the record.
+	 */
+	default <V extends JsonRecord> void registerPartitioned(
+			String address,
+			KeyExtractor<V> keyExtractor,
+			MessageHandler<V> handler,
+			Class<V> type) {
+		this.<V, Object>registerPartitioned(address, keyExtractor, (body, message) -> handler.handle(body), type);
+	}
+
+	/**
+	 * Creates an executor which runs handlers on a worker pool or on virtual threads with bounded concurrency.
+	 *
+	 * @param policy describes on which threads the handlers run
+	 * @return the new handler executor
+	 * @see HandlerExecutor
+	 */
+	default HandlerExecutor handlerExecutor(ExecutionPolicy policy) {
+		return HandlerExecutor.create(this, policy);
+	}
+
+	/**
+	 * Returns the executor described by the {@link Execution} annotation of the verticle,
+	 * e.g. to read the queue depths of its handlers.
+	 * Verticles which don't extend {@link de.wuespace.telestion.api.verticle.TelestionVerticle TelestionVerticle}
+	 * must {@link HandlerExecutor#close(Verticle) close} it when they stop.
+	 *
+	 * @return the handler executor of the verticle
+	 * @see HandlerExecutor#of(Verticle)
+	 */
+	default HandlerExecutor handlerExecutor() {
+		return HandlerExecutor.of(this);
+	}
+
+	/**
+	 * Converts the body of a batch message into a list of records.
+	 * Records of the requested type are passed through without any conversion.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <V extends JsonRecord> List<V> unpackBatch(Object body, Class<V> type) {
+		var elements = body instanceof JsonArray array ? array.getList() : body;
+		if (!(elements instanceof List<?> list)) {
+			throw new IllegalArgumentException("Batch message body is no list: " + body);
+		}
+
+		var allOfType = true;
+		for (var element : list) {
+			if (!type.isInstance(element)) {
+				allOfType = false;
+				break;
+			}
+		}
+		if (allOfType) {
+			return (List<V>) list;
+		}
+
+		var records = new ArrayList<V>(list.size());
+		for (var element : list) {
+			records.add(JsonRecord.from(element, type));
+		}
+		return records;
+	}
 }
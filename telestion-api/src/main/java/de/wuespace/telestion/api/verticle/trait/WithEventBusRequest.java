@@ -2,6 +2,7 @@ package de.wuespace.telestion.api.verticle.trait;
 
 import de.wuespace.telestion.api.message.HeaderInformation;
 import de.wuespace.telestion.api.message.JsonRecord;
+import de.wuespace.telestion.api.message.JsonRecordMessageCodec;
 import de.wuespace.telestion.api.message.MultiMapUtils;
 import io.vertx.core.Future;
 import io.vertx.core.MultiMap;
@@ -12,6 +13,10 @@ import io.vertx.core.json.JsonObject;
 
 /**
  * See {@link WithEventBus} (but only {@code request()} methods)
+ * <p>
+ * {@link JsonRecord JSON records} are sent with the {@link JsonRecordMessageCodec},
+ * so local responders receive the record instance without any JSON conversion.
+ * Responders therefore must not expect a {@link JsonObject} body, see {@link WithEventBusPublish}.
  */
 public interface WithEventBusRequest extends Verticle {
 	/**
@@ -55,14 +60,14 @@ public interface WithEventBusRequest extends Verticle {
 	 * @see io.vertx.core.eventbus.EventBus#request(String, Object)
 	 */
 	default <T> Future<Message<T>> request(String address, JsonRecord message) {
-		return request(address, message.toJsonObject());
+		return request(address, message, new DeliveryOptions());
 	}
 
 	/**
 	 * @see io.vertx.core.eventbus.EventBus#request(String, Object, DeliveryOptions)
 	 */
 	default <T> Future<Message<T>> request(String address, JsonRecord message, DeliveryOptions options) {
-		return request(address, message.toJsonObject(), options);
+		return request(address, (Object) message, JsonRecordMessageCodec.attach(getVertx(), options));
 	}
 
 	/**
@@ -75,7 +80,7 @@ public interface WithEventBusRequest extends Verticle {
 			JsonRecord message,
 			DeliveryOptions options,
 			MultiMap... requestHeaders) {
-		return request(address, message.toJsonObject(), options, requestHeaders);
+		return request(address, (Object) message, JsonRecordMessageCodec.attach(getVertx(), options), requestHeaders);
 	}
 
 	/**
@@ -84,7 +89,7 @@ public interface WithEventBusRequest extends Verticle {
 	 * @see io.vertx.core.eventbus.EventBus#request(String, Object)
 	 */
 	default <T> Future<Message<T>> request(String address, JsonRecord message, MultiMap... requestHeaders) {
-		return request(address, message.toJsonObject(), requestHeaders);
+		return request(address, message, new DeliveryOptions(), requestHeaders);
 	}
 
 	/**
@@ -147,7 +152,7 @@ public interface WithEventBusRequest extends Verticle {
 			String address,
 			JsonRecord request,
 			Class<V> responseType) {
-		return request(address, request.toJsonObject(), responseType);
+		return ResponseMessageWrapper.compose(responseType, request(address, request));
 	}
 
 	/**
@@ -159,7 +164,7 @@ public interface WithEventBusRequest extends Verticle {
 			JsonRecord request,
 			Class<V> responseType,
 			DeliveryOptions options) {
-		return request(address, request.toJsonObject(), responseType, options);
+		return ResponseMessageWrapper.compose(responseType, request(address, request, options));
 	}
 
 	/**
@@ -174,7 +179,7 @@ public interface WithEventBusRequest extends Verticle {
 			Class<V> responseType,
 			DeliveryOptions options,
 			MultiMap... requestHeaders) {
-		return request(address, request.toJsonObject(), responseType, options, requestHeaders);
+		return ResponseMessageWrapper.compose(responseType, request(address, request, options, requestHeaders));
 	}
 
 	/**
@@ -188,6 +193,43 @@ public interface WithEventBusRequest extends Verticle {
 			JsonRecord request,
 			Class<V> responseType,
 			MultiMap... requestHeaders) {
-		return request(address, request.toJsonObject(), responseType, requestHeaders);
+		return ResponseMessageWrapper.compose(responseType, request(address, request, requestHeaders));
+	}
+
+	/**
+	 * Creates a cache which coalesces identical requests and caches their responses.
+	 *
+	 * @param maxEntries the maximum number of cached responses
+	 * @return the new request cache
+	 * @see RequestCache
+	 */
+	default RequestCache requestCache(int maxEntries) {
+		return RequestCache.create(this, maxEntries);
+	}
+
+	/**
+	 * Like {@link #requestCache(int)}, but with the {@link RequestCache#DEFAULT_MAX_ENTRIES default maximum number
+	 * of cached responses}.
+	 */
+	default RequestCache requestCache() {
+		return requestCache(RequestCache.DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * Creates a requester which sends requests with timeouts, retries, hedging and circuit breakers.
+	 *
+	 * @param policy describes how the requests are sent
+	 * @return the new resilient requester
+	 * @see ResilientRequester
+	 */
+	default ResilientRequester resilientRequester(RequestPolicy policy) {
+		return ResilientRequester.create(this, policy);
+	}
+
+	/**
+	 * Like {@link #resilientRequester(RequestPolicy)}, but with the {@link RequestPolicy#DEFAULT default policy}.
+	 */
+	default ResilientRequester resilientRequester() {
+		return resilientRequester(RequestPolicy.DEFAULT);
 	}
 }
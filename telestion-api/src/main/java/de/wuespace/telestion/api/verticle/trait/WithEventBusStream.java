@@ -0,0 +1,76 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import de.wuespace.telestion.api.message.JsonRecord;
+import io.vertx.core.Verticle;
+
+/**
+ * See {@link WithEventBus} (but only {@code readStream()} and {@code writeStream()} methods)
+ * <p>
+ * Exposes event bus addresses as flow-controlled {@link io.vertx.core.streams.ReadStream ReadStreams}
+ * and {@link io.vertx.core.streams.WriteStream WriteStreams}.
+ * Slow consumers like database writers only receive as many records as they request
+ * and the remaining records are buffered in a bounded queue instead of piling up inside Vert.x.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * public class DatabaseWriter extends TelestionVerticle<GenericConfiguration> implements WithEventBus {
+ *     @Override
+ *     public void onStart() {
+ *         var positions = readStream("positions", Position.class, 4096, OverflowPolicy.BLOCK_PRODUCER);
+ *         positions.pipeTo(databaseWriteStream);
+ *     }
+ * }
+ * }
+ * </pre>
+ *
+ * @see EventBusReadStream
+ * @see EventBusWriteStream
+ */
+public interface WithEventBusStream extends Verticle {
+
+	/**
+	 * Receives the records sent to the address as a {@link io.vertx.core.streams.ReadStream ReadStream}.
+	 *
+	 * @param address  the address to receive from
+	 * @param type     the type of received records to map to
+	 * @param capacity the maximum number of buffered records
+	 * @param policy   decides what happens with new records if the buffer is full
+	 * @return the flow-controlled read stream
+	 */
+	default <T extends JsonRecord> EventBusReadStream<T> readStream(
+			String address,
+			Class<T> type,
+			int capacity,
+			OverflowPolicy policy) {
+		return new EventBusReadStream<>(getVertx(), address, type, capacity, policy);
+	}
+
+	/**
+	 * Like {@link #readStream(String, Class, int, OverflowPolicy)}, but with the
+	 * {@link EventBusReadStream#DEFAULT_CAPACITY default capacity}
+	 * and the {@link EventBusReadStream#DEFAULT_POLICY default overflow policy}.
+	 */
+	default <T extends JsonRecord> EventBusReadStream<T> readStream(String address, Class<T> type) {
+		return readStream(address, type, EventBusReadStream.DEFAULT_CAPACITY, EventBusReadStream.DEFAULT_POLICY);
+	}
+
+	/**
+	 * Sends records to the address through a {@link io.vertx.core.streams.WriteStream WriteStream}.
+	 *
+	 * @param address     the address to send to
+	 * @param maxInFlight the maximum number of records which are not yet acknowledged by the consumer
+	 * @return the flow-controlled write stream
+	 */
+	default <T extends JsonRecord> EventBusWriteStream<T> writeStream(String address, int maxInFlight) {
+		return new EventBusWriteStream<>(getVertx(), address, maxInFlight);
+	}
+
+	/**
+	 * Like {@link #writeStream(String, int)}, but with the
+	 * {@link EventBusWriteStream#DEFAULT_MAX_IN_FLIGHT default number of records in flight}.
+	 */
+	default <T extends JsonRecord> EventBusWriteStream<T> writeStream(String address) {
+		return writeStream(address, EventBusWriteStream.DEFAULT_MAX_IN_FLIGHT);
+	}
+}
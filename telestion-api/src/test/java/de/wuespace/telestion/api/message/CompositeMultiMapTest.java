@@ -0,0 +1,59 @@
+package de.wuespace.telestion.api.message;
+
+import io.vertx.core.MultiMap;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CompositeMultiMapTest {
+
+	@Test
+	void shouldReadSingleValuesWithoutMerging() {
+		var composite = MultiMapUtils.compose(FIRST, SECOND);
+
+		assertThat(composite.get("sequence"), is("1"));
+		assertThat(composite.get("SENSOR"), is("17"));
+		assertThat(composite.contains("sensor"), is(true));
+		assertThat(composite.contains("unknown"), is(false));
+		assertThat(composite.isEmpty(), is(false));
+		assertThat(composite.isMerged(), is(false));
+	}
+
+	@Test
+	void shouldMergeIfAllValuesAreRead() {
+		var composite = MultiMapUtils.compose(FIRST, SECOND);
+
+		assertThat(composite.getAll("sequence"), contains("1", "2"));
+		assertThat(composite.names(), containsInAnyOrder("sequence", "sensor"));
+		assertThat(composite.size(), is(2));
+		assertThat(composite.isMerged(), is(true));
+	}
+
+	@Test
+	void shouldSeeChangesOfTheSourcesUntilMerged() {
+		var source = MultiMap.caseInsensitiveMultiMap();
+		var composite = MultiMapUtils.compose(source);
+
+		source.add("sequence", "1");
+
+		assertThat(composite.get("sequence"), is("1"));
+		assertThat(composite.getAll("sequence"), contains("1"));
+		assertThat(composite.isMerged(), is(false));
+	}
+
+	@Test
+	void shouldNotChangeTheSources() {
+		var composite = MultiMapUtils.compose(FIRST, SECOND);
+
+		composite.set("sequence", "3").remove("sensor");
+
+		assertThat(composite.getAll("sequence"), contains("3"));
+		assertThat(composite.contains("sensor"), is(false));
+		assertThat(FIRST.getAll("sequence"), contains("1"));
+		assertThat(SECOND.get("sensor"), is("17"));
+	}
+
+	public final MultiMap FIRST = MultiMap.caseInsensitiveMultiMap().add("sequence", "1");
+	public final MultiMap SECOND = MultiMap.caseInsensitiveMultiMap().add("sequence", "2").add("sensor", "17");
+}
@@ -0,0 +1,36 @@
+package de.wuespace.telestion.api.message;
+
+import io.vertx.core.buffer.Buffer;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class FrameMessageCodecTest {
+
+	@Test
+	void shouldPassTheFrameInstanceThroughLocally() {
+		assertThat(FrameMessageCodec.INSTANCE.transform(FRAME), is(sameInstance(FRAME)));
+	}
+
+	@Test
+	void shouldEncodeAndDecodeAFrameViaTheWire() {
+		var buffer = Buffer.buffer().appendString("prefix");
+		FrameMessageCodec.INSTANCE.encodeToWire(buffer, FRAME);
+
+		var decoded = FrameMessageCodec.INSTANCE.decodeFromWire("prefix".length(), buffer);
+
+		assertThat(decoded, is(FRAME));
+	}
+
+	@Test
+	void shouldEncodeOnlyTheSliceOfALargerFrame() {
+		var buffer = Buffer.buffer();
+		FrameMessageCodec.INSTANCE.encodeToWire(buffer, FRAME.slice(2, 5));
+
+		assertThat(buffer.length(), is(4 + 3));
+		assertThat(FrameMessageCodec.INSTANCE.decodeFromWire(0, buffer), is(Buffer.buffer(new byte[]{3, 4, 5})));
+	}
+
+	public final Buffer FRAME = Buffer.buffer(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+}
@@ -2,12 +2,14 @@ package de.wuespace.telestion.api.message;
 
 import de.wuespace.telestion.api.MockMessage;
 import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.DeliveryOptions;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -157,6 +159,47 @@ public class HeaderInformationTest {
 		}
 	}
 
+	@Nested
+	public class FrameTest {
+
+		@Test
+		void shouldDescribeAFrameWithTypeAndLength() {
+			var information = new HeaderInformation().setFrame("beacon", Buffer.buffer(new byte[12]));
+
+			assertThat(information.getFrameType(), is(Optional.of("beacon")));
+			assertThat(information.getFrameLength(), is(12));
+		}
+
+		@Test
+		void shouldReplaceExistingFrameMetadata() {
+			var information = new HeaderInformation()
+					.setFrame("beacon", Buffer.buffer(new byte[12]))
+					.setFrame("housekeeping", Buffer.buffer(new byte[3]));
+
+			assertThat(information.getAll(HeaderInformation.FRAME_TYPE), contains("housekeeping"));
+			assertThat(information.getFrameLength(), is(3));
+		}
+
+		@Test
+		void shouldRemoveTheTypeOfAFrameWithAnUnknownType() {
+			var information = new HeaderInformation()
+					.setFrame("beacon", Buffer.buffer(new byte[12]))
+					.setFrame(null, Buffer.buffer(new byte[3]));
+
+			assertThat(information.getFrameType(), is(Optional.empty()));
+			assertThat(information.getFrameLength(), is(3));
+		}
+
+		@Test
+		void shouldReturnDefaultsWithoutFrameMetadata() {
+			var information = new HeaderInformation().setFrame(null, Buffer.buffer());
+
+			assertThat(information.getFrameType(), is(Optional.empty()));
+			assertThat(information.getFrameLength(), is(0));
+			assertThat(new HeaderInformation().getFrameLength(), is(-1));
+		}
+	}
+
 	@Nested
 	public class GetterTest {
 
@@ -672,6 +715,63 @@ public class HeaderInformationTest {
 		}
 	}
 
+	@Nested
+	public class PrimitiveTest {
+
+		@Test
+		void shouldAddPrimitiveValuesToHeaders() {
+			var information = new HeaderInformation(filledMap("int", 1))
+					.add("byte", (byte) 54)
+					.add("int", 42)
+					.add("long", 42L)
+					.add("float", 3.14f)
+					.add("double", 3.14)
+					.add("char", 'T')
+					.add("bool", true);
+			var headers = information.getHeaders();
+
+			assertThat(headers.get("byte"), is("54"));
+			assertThat(headers.getAll("int"), contains("value0", "42"));
+			assertThat(headers.get("long"), is("42"));
+			assertThat(headers.get("float"), is("3.14"));
+			assertThat(headers.get("double"), is("3.14"));
+			assertThat(headers.get("char"), is("T"));
+			assertThat(headers.get("bool"), is("true"));
+		}
+
+		@Test
+		void shouldSetPrimitiveValuesOnHeaders() {
+			var information = new HeaderInformation(filledMap("int", 3))
+					.set("int", 42)
+					.set("char", 'W');
+			var headers = information.getHeaders();
+
+			assertThat(headers.getAll("int"), contains("42"));
+			assertThat(headers.getAll("char"), contains("W"));
+		}
+
+		@Test
+		void shouldReturnTheDefaultIfTheValueIsOutOfRange() {
+			var information = new HeaderInformation().add("value", 9_999_999_999L);
+
+			assertThat(information.getByte("value", (byte) -1), is((byte) -1));
+			assertThat(information.getInt("value", -1), is(-1));
+			assertThat(information.getInt("value").isEmpty(), is(true));
+			assertThat(information.getLong("value", -1L), is(9_999_999_999L));
+		}
+
+		@Test
+		void shouldReturnTheDefaultIfTheValueIsNotParsable() {
+			var information = new HeaderInformation(MultiMap.caseInsensitiveMultiMap().add("value", "not a number"));
+
+			assertThat(information.getInt("value", -1), is(-1));
+			assertThat(information.getLong("value", -1L), is(-1L));
+			assertThat(information.getFloat("value", -1f), is(-1f));
+			assertThat(information.getDouble("value", -1.0), is(-1.0));
+			assertThat(information.getDouble("value").isEmpty(), is(true));
+		}
+	}
+
 	@Nested
 	public class MultiMapTest {
 
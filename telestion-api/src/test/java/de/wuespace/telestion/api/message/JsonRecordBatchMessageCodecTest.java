@@ -0,0 +1,57 @@
+package de.wuespace.telestion.api.message;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonRecordBatchMessageCodecTest {
+
+	@Test
+	void shouldPassTheBatchInstanceThroughLocally() {
+		assertThat(JsonRecordBatchMessageCodec.INSTANCE.transform(BATCH), is(sameInstance(BATCH)));
+	}
+
+	@Test
+	void shouldEncodeAndDecodeABatchViaTheWire() {
+		var buffer = Buffer.buffer().appendString("prefix");
+		JsonRecordBatchMessageCodec.INSTANCE.encodeToWire(buffer, BATCH);
+
+		var decoded = JsonRecordBatchMessageCodec.INSTANCE.decodeFromWire("prefix".length(), buffer);
+
+		assertThat(decoded, is(BATCH));
+	}
+
+	@Test
+	void shouldEncodeAndDecodeAnEmptyBatch() {
+		var buffer = Buffer.buffer();
+		JsonRecordBatchMessageCodec.INSTANCE.encodeToWire(buffer, List.of());
+
+		assertThat(JsonRecordBatchMessageCodec.INSTANCE.decodeFromWire(0, buffer), is(empty()));
+	}
+
+	@Test
+	void shouldFailOnACountThatDoesNotFitIntoTheBuffer() {
+		var buffer = Buffer.buffer().appendInt(Integer.MAX_VALUE);
+
+		assertThrows(DecodeException.class, () -> JsonRecordBatchMessageCodec.INSTANCE.decodeFromWire(0, buffer));
+	}
+
+	@Test
+	void shouldFailOnANegativeCount() {
+		var buffer = Buffer.buffer().appendInt(-1);
+
+		assertThrows(DecodeException.class, () -> JsonRecordBatchMessageCodec.INSTANCE.decodeFromWire(0, buffer));
+	}
+
+	public record Sample(@JsonProperty long sequence, @JsonProperty double value) implements JsonRecord {
+	}
+
+	public final List<Sample> BATCH = List.of(new Sample(1, 0.5), new Sample(2, -1.25), new Sample(3, 42.0));
+}
@@ -0,0 +1,120 @@
+package de.wuespace.telestion.api.message;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonRecordCodecRegistryTest {
+
+	@Test
+	void shouldCacheTheReaderOfAType() {
+		JsonRecord.prepare(PositionMessage.class);
+
+		assertThat(JsonRecordCodecRegistry.reader(PositionMessage.class),
+				is(sameInstance(JsonRecordCodecRegistry.reader(PositionMessage.class))));
+	}
+
+	@Test
+	void shouldCacheTheWritersOfAType() {
+		var writer = JsonRecordCodecRegistry.writer(PositionMessage.class, false);
+		var prettyWriter = JsonRecordCodecRegistry.writer(PositionMessage.class, true);
+
+		assertThat(JsonRecordCodecRegistry.writer(PositionMessage.class, false), is(sameInstance(writer)));
+		assertThat(JsonRecordCodecRegistry.writer(PositionMessage.class, true), is(sameInstance(prettyWriter)));
+		assertThat(prettyWriter, is(not(sameInstance(writer))));
+	}
+
+	@Test
+	void shouldEncodeLikeTheVertxJsonCodec() {
+		assertThat(POSITION.toJsonString(), is(Json.CODEC.toString(POSITION, false)));
+		assertThat(POSITION.toJsonString(true), is(Json.CODEC.toString(POSITION, true)));
+		assertThat(POSITION.toJsonBuffer(), is(Json.CODEC.toBuffer(POSITION, false)));
+		assertThat(POSITION.toJsonObject(), is(JsonObject.mapFrom(POSITION)));
+	}
+
+	@Test
+	void shouldDecodeNestedValuesFromAJsonObject() {
+		var json = new JsonObject().put("x", 1.0).put("y", -2.5).put("tags", List.of("a", "b"));
+
+		assertThat(JsonRecord.from(json, PositionMessage.class), is(POSITION));
+	}
+
+	@Test
+	void shouldRejectTrailingTokens() {
+		var json = Buffer.buffer(POSITION.toJsonString() + " {}");
+
+		assertThrows(DecodeException.class, () -> JsonRecord.from(json, PositionMessage.class));
+	}
+
+	@Test
+	void shouldThrowADecodeExceptionOnIncompatibleValues() {
+		var json = new JsonObject().put("x", "not a number");
+
+		assertThrows(DecodeException.class, () -> JsonRecord.from(json, PositionMessage.class));
+	}
+
+	@Test
+	void shouldDecodeASliceOfALargerFrame() {
+		var payload = POSITION.toJsonString();
+		var frame = Buffer.buffer().appendString("head").appendString(payload).appendString("tail");
+
+		assertThat(JsonRecord.fromSlice(frame, 4, payload.length(), PositionMessage.class), is(POSITION));
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	void shouldDecodeASliceOfADirectBuffer() {
+		var payload = POSITION.toJsonString();
+		var frame = Buffer.buffer(Unpooled.directBuffer().writeBytes(("head" + payload).getBytes()));
+
+		assertThat(JsonRecord.fromSlice(frame, 4, payload.length(), PositionMessage.class), is(POSITION));
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	void shouldDecodeASliceOfABufferWithAReaderIndex() {
+		var payload = POSITION.toJsonString();
+		var bytes = Unpooled.wrappedBuffer(("head" + payload + "tail").getBytes());
+		// the indexes of a buffer are absolute and don't depend on the reader index of its memory
+		var frame = Buffer.buffer(bytes.readerIndex(2));
+
+		assertThat(JsonRecord.fromSlice(frame, 4, payload.length(), PositionMessage.class), is(POSITION));
+	}
+
+	@Test
+	void shouldDecodeASliceOfASlice() {
+		var payload = POSITION.toJsonString();
+		var frame = Buffer.buffer().appendString("header").appendString(payload).slice(2, 6 + payload.length());
+
+		assertThat(JsonRecord.fromSlice(frame, 4, payload.length(), PositionMessage.class), is(POSITION));
+	}
+
+	@Test
+	void shouldRejectSlicesOutOfBounds() {
+		var frame = POSITION.toJsonBuffer();
+
+		assertThrows(IndexOutOfBoundsException.class,
+				() -> JsonRecord.fromSlice(frame, 1, frame.length(), PositionMessage.class));
+		assertThrows(IndexOutOfBoundsException.class,
+				() -> JsonRecord.fromSlice(frame, -1, 2, PositionMessage.class));
+	}
+
+	public record PositionMessage(
+			@JsonProperty double x,
+			@JsonProperty double y,
+			@JsonProperty List<String> tags
+	) implements JsonRecord {
+	}
+
+	public final PositionMessage POSITION = new PositionMessage(1.0, -2.5, List.of("a", "b"));
+}
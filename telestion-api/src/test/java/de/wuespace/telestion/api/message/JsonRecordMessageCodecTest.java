@@ -0,0 +1,155 @@
+package de.wuespace.telestion.api.message;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.json.DecodeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonRecordMessageCodecTest {
+
+	@BeforeEach
+	void setUp() {
+		vertx = Vertx.vertx();
+	}
+
+	@AfterEach
+	void tearDown() {
+		vertx.close();
+	}
+
+	@Test
+	void shouldPassTheRecordInstanceThroughLocally() {
+		assertThat(JsonRecordMessageCodec.INSTANCE.transform(TELEMETRY), is(sameInstance(TELEMETRY)));
+	}
+
+	@Test
+	void shouldEncodeAndDecodeARecordViaTheWire() {
+		var buffer = Buffer.buffer();
+		JsonRecordMessageCodec.INSTANCE.encodeToWire(buffer, TELEMETRY);
+
+		var decoded = JsonRecordMessageCodec.INSTANCE.decodeFromWire(0, buffer);
+
+		assertThat(decoded, is(TELEMETRY));
+	}
+
+	@Test
+	void shouldDecodeFromAnOffsetInsideTheWireBuffer() {
+		var buffer = Buffer.buffer().appendString("prefix");
+		JsonRecordMessageCodec.INSTANCE.encodeToWire(buffer, TELEMETRY);
+
+		var decoded = JsonRecordMessageCodec.INSTANCE.decodeFromWire("prefix".length(), buffer);
+
+		assertThat(decoded, is(TELEMETRY));
+	}
+
+	@Test
+	void shouldFailOnUnknownRecordClasses() {
+		var name = "de.wuespace.telestion.DoesNotExist".getBytes();
+		var buffer = Buffer.buffer().appendInt(name.length).appendBytes(name).appendInt(0);
+
+		assertThrows(DecodeException.class, () -> JsonRecordMessageCodec.INSTANCE.decodeFromWire(0, buffer));
+	}
+
+	@Test
+	void shouldFailOnClassesThatAreNoRecords() {
+		var name = String.class.getName().getBytes();
+		var buffer = Buffer.buffer().appendInt(name.length).appendBytes(name).appendInt(0);
+
+		assertThrows(DecodeException.class, () -> JsonRecordMessageCodec.INSTANCE.decodeFromWire(0, buffer));
+	}
+
+	@Test
+	void shouldNotInitializeClassesThatAreNoRecords() {
+		var name = Initializing.class.getName().getBytes();
+		var buffer = Buffer.buffer().appendInt(name.length).appendBytes(name).appendInt(0);
+
+		assertThrows(DecodeException.class, () -> JsonRecordMessageCodec.INSTANCE.decodeFromWire(0, buffer));
+		assertThat(initialized.get(), is(false));
+	}
+
+	@Test
+	void shouldAttachTheCodecToDeliveryOptions() {
+		var options = JsonRecordMessageCodec.attach(vertx, new DeliveryOptions());
+
+		assertThat(options.getCodecName(), is(JsonRecordMessageCodec.NAME));
+	}
+
+	@Test
+	void shouldLeaveTheGivenDeliveryOptionsUntouched() {
+		var given = new DeliveryOptions().setSendTimeout(1234);
+
+		var options = JsonRecordMessageCodec.attach(vertx, given);
+
+		assertThat(options, is(not(sameInstance(given))));
+		assertThat(options.getSendTimeout(), is(1234L));
+		assertThat(given.getCodecName(), is(nullValue()));
+	}
+
+	@Test
+	void shouldRegisterTheCodecOnlyOnce() {
+		JsonRecordMessageCodec.register(vertx.eventBus());
+		JsonRecordMessageCodec.register(vertx.eventBus());
+	}
+
+	@Test
+	void shouldDeliverTheSameRecordInstanceOnTheLocalEventBus() throws Exception {
+		var received = new CompletableFuture<Object>();
+		vertx.eventBus().consumer("codec-test", message -> received.complete(message.body()));
+
+		vertx.eventBus().send("codec-test", TELEMETRY, JsonRecordMessageCodec.attach(vertx, new DeliveryOptions()));
+
+		var body = received.get(5, TimeUnit.SECONDS);
+		assertThat(body, is(sameInstance(TELEMETRY)));
+		assertThat(JsonRecord.from(body, TelemetryMessage.class), is(sameInstance(TELEMETRY)));
+	}
+
+	@Test
+	void shouldStillDecodeOtherRecordTypesFromTheRecordInstance() {
+		var decoded = JsonRecord.from((Object) TELEMETRY, SameTelemetryMessage.class);
+
+		assertThat(decoded, is(new SameTelemetryMessage(TELEMETRY.time(), TELEMETRY.values(), TELEMETRY.mode())));
+	}
+
+	public record TelemetryMessage(
+			@JsonProperty long time,
+			@JsonProperty List<Double> values,
+			@JsonProperty String mode
+	) implements JsonRecord {
+	}
+
+	public record SameTelemetryMessage(
+			@JsonProperty long time,
+			@JsonProperty List<Double> values,
+			@JsonProperty String mode
+	) implements JsonRecord {
+	}
+
+	public static final class Initializing {
+		static {
+			initialized.set(true);
+		}
+	}
+
+	public final TelemetryMessage TELEMETRY = new TelemetryMessage(
+			1_650_000_000_000L,
+			List.of(1.5, 2.25, -3.125, 4096.0),
+			"nominal"
+	);
+
+	private static final AtomicBoolean initialized = new AtomicBoolean();
+
+	private Vertx vertx;
+}
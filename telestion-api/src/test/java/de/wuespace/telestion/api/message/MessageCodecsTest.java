@@ -0,0 +1,61 @@
+package de.wuespace.telestion.api.message;
+
+import de.wuespace.telestion.api.verticle.NoConfiguration;
+import de.wuespace.telestion.api.verticle.TelestionVerticle;
+import de.wuespace.telestion.api.verticle.trait.WithEventBusRegister;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(VertxExtension.class)
+public class MessageCodecsTest {
+
+	@Test
+	void shouldRegisterAllCodecs(Vertx vertx) {
+		MessageCodecs.register(vertx.eventBus());
+		MessageCodecs.register(vertx.eventBus());
+
+		assertRegistered(vertx.eventBus());
+	}
+
+	@Test
+	void shouldRegisterTheCodecsWhenATelestionVerticleStarts(Vertx vertx, VertxTestContext testContext) {
+		vertx.deployVerticle(new TelestionVerticle<NoConfiguration>() {
+		}).onComplete(testContext.succeeding(id -> testContext.verify(() -> {
+			assertRegistered(vertx.eventBus());
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldRegisterTheCodecsWhenAConsumerIsRegistered(Vertx vertx, VertxTestContext testContext) {
+		vertx.deployVerticle(new Consumer()).onComplete(testContext.succeeding(id -> testContext.verify(() -> {
+			assertRegistered(vertx.eventBus());
+			testContext.completeNow();
+		})));
+	}
+
+	private static void assertRegistered(EventBus eventBus) {
+		var error = assertThrows(IllegalStateException.class,
+				() -> eventBus.registerCodec(JsonRecordMessageCodec.INSTANCE));
+		assertThat(error.getMessage(), containsString(JsonRecordMessageCodec.NAME));
+		assertThrows(IllegalStateException.class, () -> eventBus.registerCodec(JsonRecordBatchMessageCodec.INSTANCE));
+		assertThrows(IllegalStateException.class, () -> eventBus.registerCodec(FrameMessageCodec.INSTANCE));
+	}
+
+	private static final class Consumer extends AbstractVerticle implements WithEventBusRegister {
+		@Override
+		public void start() {
+			register("consumer", message -> {
+			});
+		}
+	}
+}
@@ -9,7 +9,7 @@ import java.util.List;
 import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.*;
 
 public class MultiMapUtilsTest {
 
@@ -46,6 +46,38 @@ public class MultiMapUtilsTest {
 		assertThat(merged.get(PARAM_3_KEY), is(PARAM_3_VALUE));
 	}
 
+	@Test
+	void shouldReturnANewMutableMultiMapIfNothingIsMerged() {
+		var merged = MultiMapUtils.merge();
+
+		assertThat(merged.isEmpty(), is(true));
+		assertThat(merged, is(not(sameInstance(MultiMapUtils.merge()))));
+		merged.set(PARAM_1_KEY, PARAM_1_VALUE);
+		assertThat(merged.get(PARAM_1_KEY), is(PARAM_1_VALUE));
+		assertThat(MultiMapUtils.merge().isEmpty(), is(true));
+	}
+
+	@Test
+	void shouldNotChangeTheOnlyMergedMultiMap() {
+		var source = MultiMap.caseInsensitiveMultiMap().add(PARAM_1_KEY, PARAM_1_VALUE);
+
+		var merged = MultiMapUtils.merge(source);
+		merged.add(PARAM_2_KEY, PARAM_2_VALUE);
+
+		assertThat(merged.get(PARAM_1_KEY), is(PARAM_1_VALUE));
+		assertThat(merged.get(PARAM_2_KEY), is(PARAM_2_VALUE));
+		assertThat(source.contains(PARAM_2_KEY), is(false));
+	}
+
+	@Test
+	void shouldKeepTheOrderOfTheMergedValues() {
+		var first = MultiMap.caseInsensitiveMultiMap().add("key", "first");
+		var second = MultiMap.caseInsensitiveMultiMap().add("key", "second");
+
+		assertThat(MultiMapUtils.merge(first, second).getAll("key"), contains("first", "second"));
+		assertThat(MultiMapUtils.compose(first, second).getAll("key"), contains("first", "second"));
+	}
+
 	@Test
 	void shouldExtractTheMultiMapFromAMessage() {
 		var message1 = new MockMessage<>("some-address", MULTI_MAP_1, new Object());
@@ -0,0 +1,106 @@
+package de.wuespace.telestion.api.verticle;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class VerticleConfigStrategyTest {
+
+	@Test
+	void shouldResolveTheConfigTypeOfAVerticle() {
+		assertThat(VerticleConfigStrategy.getConfigType(TestVerticle.class), is(TestConfiguration.class));
+		assertThat(VerticleConfigStrategy.getConfigType(RawVerticle.class), is(nullValue()));
+	}
+
+	@Test
+	void shouldFillTheConfigWithDefaultValues() {
+		var strategy = new VerticleConfigStrategy<>(new JsonObject().put("port", 9090), TestConfiguration.class);
+
+		assertThat(strategy.getConfig(), is(new TestConfiguration("localhost", 9090)));
+		assertThat(strategy.getDefaultConfig(), is(new TestConfiguration()));
+	}
+
+	@Test
+	void shouldShareTheDefaultConfigBetweenStrategies() {
+		var first = new VerticleConfigStrategy<>(new JsonObject(), TestConfiguration.class);
+		var second = new VerticleConfigStrategy<>(new JsonObject(), TestConfiguration.class);
+
+		assertThat(second.getDefaultConfig(), is(sameInstance(first.getDefaultConfig())));
+	}
+
+	@Test
+	void shouldNotLeakChangesOfTheUntypedDefaultConfig() {
+		var first = new VerticleConfigStrategy<>(new JsonObject(), TestConfiguration.class);
+		first.getUntypedDefaultConfig().put("host", "example.com");
+
+		var second = new VerticleConfigStrategy<>(new JsonObject(), TestConfiguration.class);
+
+		assertThat(second.getUntypedDefaultConfig().getString("host"), is("localhost"));
+		assertThat(second.getConfig().host(), is("localhost"));
+	}
+
+	@Test
+	void shouldPreferAnExplicitDefaultConfig() {
+		var defaults = new JsonObject().put("host", "example.com").put("port", 1);
+		var strategy = new VerticleConfigStrategy<>(new JsonObject().put("port", 2), defaults, TestConfiguration.class);
+
+		assertThat(strategy.getConfig(), is(new TestConfiguration("example.com", 2)));
+		assertThat(strategy.getDefaultConfig(), is(new TestConfiguration("example.com", 1)));
+	}
+
+	@Test
+	void shouldRejectIncompatibleConfigs() {
+		var untypedConfig = new JsonObject().put("port", "not a number");
+
+		assertThrows(IllegalArgumentException.class,
+				() -> new VerticleConfigStrategy<>(untypedConfig, TestConfiguration.class));
+	}
+
+	@Test
+	void shouldReloadChangesOfReloadableProperties() {
+		assertThat(VerticleConfigStrategy.isReloadable(
+				new ServerConfiguration(8080, 0.5), new ServerConfiguration(8080, 0.75)), is(true));
+		assertThat(VerticleConfigStrategy.isReloadable(
+				new ServerConfiguration(8080, 0.5), new ServerConfiguration(8080, 0.5)), is(true));
+	}
+
+	@Test
+	void shouldNotReloadChangesOfNonReloadableProperties() {
+		assertThat(VerticleConfigStrategy.isReloadable(
+				new ServerConfiguration(8080, 0.5), new ServerConfiguration(9090, 0.5)), is(false));
+	}
+
+	@Test
+	void shouldNotReloadChangesOfNonReloadableConfigTypes() {
+		assertThat(VerticleConfigStrategy.isReloadable(
+				new FixedConfiguration("a"), new FixedConfiguration("b")), is(false));
+		assertThat(VerticleConfigStrategy.isReloadable(
+				new FixedConfiguration("a"), new FixedConfiguration("a")), is(true));
+	}
+
+	public record ServerConfiguration(@NonReloadable @JsonProperty int port, @JsonProperty double threshold)
+			implements TelestionConfiguration {
+	}
+
+	@NonReloadable
+	public record FixedConfiguration(@JsonProperty String device) implements TelestionConfiguration {
+	}
+
+	public record TestConfiguration(@JsonProperty String host, @JsonProperty int port)
+			implements TelestionConfiguration {
+		public TestConfiguration() {
+			this("localhost", 8080);
+		}
+	}
+
+	public static class TestVerticle extends TelestionVerticle<TestConfiguration> {
+	}
+
+	@SuppressWarnings("rawtypes")
+	public static class RawVerticle extends TelestionVerticle {
+	}
+}
@@ -0,0 +1,129 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.api.message.JsonRecord;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(VertxExtension.class)
+public class BatchPublisherTest {
+
+	@BeforeEach
+	void setUp(Vertx vertx, VertxTestContext testContext) {
+		vertx.deployVerticle(verticle).onComplete(testContext.succeedingThenComplete());
+	}
+
+	@Test
+	void shouldPublishABatchIfItReachesTheMaximumSize(Vertx vertx, VertxTestContext testContext) {
+		var publisher = onContext(vertx, () -> {
+			var created = BatchPublisher.<Sample, TestVerticle>create(verticle, 3, Duration.ofHours(1));
+			created.publish(ADDRESS, SAMPLES.get(0)).publish(ADDRESS, SAMPLES.get(1)).publish(ADDRESS, SAMPLES.get(2));
+			return created;
+		});
+
+		Future.all(publisher, received.future()).onComplete(testContext.succeeding(published -> testContext.verify(() -> {
+			assertThat(received.future().result(), is(SAMPLES));
+			assertThat(publisher.result().pending(ADDRESS), is(0));
+			assertThat(publisher.result().metrics().batches(), is(1L));
+			assertThat(publisher.result().metrics().records(), is(3L));
+			assertThat(publisher.result().metrics().maxBatchSize(), is(3));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldPublishABatchAfterTheMaximumLatency(Vertx vertx, VertxTestContext testContext) {
+		var publisher = onContext(vertx, () -> BatchPublisher.<Sample, TestVerticle>create(verticle, 100,
+				Duration.ofMillis(20)).publish(ADDRESS, SAMPLES.get(0)));
+
+		Future.all(publisher, received.future()).onComplete(testContext.succeeding(published -> testContext.verify(() -> {
+			assertThat(received.future().result(), contains(SAMPLES.get(0)));
+			assertThat(publisher.result().metrics().maxFlushLatency(),
+					is(greaterThanOrEqualTo(Duration.ofMillis(20))));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldPublishTheRemainingRecordsOnClose(Vertx vertx, VertxTestContext testContext) {
+		var publisher = onContext(vertx, () -> {
+			var created = BatchPublisher.<Sample, TestVerticle>create(verticle, 100, Duration.ofHours(1));
+			created.publish(ADDRESS, SAMPLES.get(0)).publish(ADDRESS, SAMPLES.get(1));
+			created.close();
+			return created;
+		});
+
+		Future.all(publisher, received.future()).onComplete(testContext.succeeding(published -> testContext.verify(() -> {
+			assertThat(received.future().result(), contains(SAMPLES.get(0), SAMPLES.get(1)));
+			assertThrows(IllegalStateException.class, () -> publisher.result().publish(ADDRESS, SAMPLES.get(2)));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldUnpackBatchesSentAsJsonArray(Vertx vertx, VertxTestContext testContext) {
+		var array = new JsonArray().add(JsonObject.mapFrom(SAMPLES.get(0))).add(JsonObject.mapFrom(SAMPLES.get(1)));
+
+		vertx.eventBus().publish(ADDRESS, array);
+
+		received.future().onComplete(testContext.succeeding(batch -> testContext.verify(() -> {
+			assertThat(batch, contains(SAMPLES.get(0), SAMPLES.get(1)));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldRejectInvalidOptions() {
+		assertThrows(IllegalArgumentException.class,
+				() -> BatchPublisher.<Sample, TestVerticle>create(verticle, 0, Duration.ofMillis(10)));
+		assertThrows(IllegalArgumentException.class,
+				() -> BatchPublisher.<Sample, TestVerticle>create(verticle, 10, Duration.ZERO));
+	}
+
+	public class TestVerticle extends AbstractVerticle implements WithEventBus, WithTiming {
+		@Override
+		public void start() {
+			registerBatch(ADDRESS, received::tryComplete, Sample.class);
+		}
+	}
+
+	public record Sample(@JsonProperty long sequence, @JsonProperty double value) implements JsonRecord {
+	}
+
+	private static <T> Future<T> onContext(Vertx vertx, Callable<T> callable) {
+		var promise = Promise.<T>promise();
+		vertx.runOnContext(v -> {
+			try {
+				promise.complete(callable.call());
+			} catch (Exception e) {
+				promise.fail(e);
+			}
+		});
+		return promise.future();
+	}
+
+	public final String ADDRESS = "batch-test";
+
+	public final List<Sample> SAMPLES = List.of(new Sample(1, 0.5), new Sample(2, -1.25), new Sample(3, 42.0));
+
+	private final Promise<List<Sample>> received = Promise.promise();
+
+	private final TestVerticle verticle = new TestVerticle();
+}
@@ -0,0 +1,246 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.api.message.JsonRecord;
+import de.wuespace.telestion.api.message.JsonRecordMessageCodec;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryContext;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.junit5.RunTestOnContext;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(VertxExtension.class)
+public class EventBusStreamTest {
+
+	@RegisterExtension
+	final RunTestOnContext runTestOnContext = new RunTestOnContext();
+
+	@BeforeEach
+	void setUp(VertxTestContext testContext) {
+		vertx = runTestOnContext.vertx();
+		vertx.eventBus().addInboundInterceptor(this::countDelivery);
+		vertx.deployVerticle(verticle).onComplete(testContext.succeedingThenComplete());
+	}
+
+	@Test
+	void shouldDropTheOldestRecordsIfTheBufferIsFull(VertxTestContext testContext) {
+		var stream = pausedStream(OverflowPolicy.DROP_OLDEST);
+
+		sendSamples(5);
+		delivered(5).compose(delivered -> {
+			var records = received(3);
+			stream.resume();
+			return records;
+		}).onComplete(testContext.succeeding(records -> testContext.verify(() -> {
+			assertThat(records, contains(SAMPLES.get(2), SAMPLES.get(3), SAMPLES.get(4)));
+			assertThat(stream.metrics().dropped(), is(2L));
+			assertThat(stream.metrics().delivered(), is(3L));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldDropTheNewestRecordsIfTheBufferIsFull(VertxTestContext testContext) {
+		var stream = pausedStream(OverflowPolicy.DROP_NEWEST);
+
+		sendSamples(5);
+		delivered(5).compose(delivered -> {
+			var records = received(3);
+			stream.resume();
+			return records;
+		}).onComplete(testContext.succeeding(records -> testContext.verify(() -> {
+			assertThat(records, contains(SAMPLES.get(0), SAMPLES.get(1), SAMPLES.get(2)));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldKeepTheLatestSampleIfTheBufferIsFull(VertxTestContext testContext) {
+		var stream = pausedStream(OverflowPolicy.SAMPLE);
+
+		sendSamples(5);
+		delivered(5).compose(delivered -> {
+			var records = received(3);
+			stream.resume();
+			return records;
+		}).onComplete(testContext.succeeding(records -> testContext.verify(() -> {
+			assertThat(records, contains(SAMPLES.get(0), SAMPLES.get(1), SAMPLES.get(4)));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldDeliverOnlyTheFetchedRecords(VertxTestContext testContext) {
+		var stream = pausedStream(OverflowPolicy.DROP_OLDEST);
+
+		sendSamples(3);
+		delivered(3).compose(delivered -> {
+			var records = received(2);
+			stream.fetch(2);
+			return records;
+		}).onComplete(testContext.succeeding(records -> testContext.verify(() -> {
+			assertThat(records, contains(SAMPLES.get(0), SAMPLES.get(1)));
+			assertThat(stream.metrics().queued(), is(1));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldBlockTheWriterUntilTheConsumerHasDemand(VertxTestContext testContext) {
+		var stream = pausedStream(OverflowPolicy.BLOCK_PRODUCER);
+		var drained = Promise.<Void>promise();
+		EventBusWriteStream<Sample> writer = verticle.writeStream(ADDRESS, 2);
+		writer.drainHandler(drained::complete);
+		writer.write(SAMPLES.get(0));
+		writer.write(SAMPLES.get(1));
+
+		delivered(2).compose(delivered -> {
+			testContext.verify(() -> assertThat(writer.writeQueueFull(), is(true)));
+			var records = received(2);
+			stream.resume();
+			return Future.all(drained.future(), records);
+		}).onComplete(testContext.succeeding(done -> testContext.verify(() -> {
+			assertThat(writer.writeQueueFull(), is(false));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldDropRecordsWithoutCreditIfTheBufferIsFullWhenBlockingProducers(VertxTestContext testContext) {
+		var stream = pausedStream(OverflowPolicy.BLOCK_PRODUCER);
+		EventBusWriteStream<Sample> writer = verticle.writeStream(ADDRESS, 2);
+		writer.write(SAMPLES.get(0));
+		writer.write(SAMPLES.get(1));
+
+		delivered(2).compose(delivered -> {
+			sendSamples(5);
+			return delivered(7);
+		}).compose(delivered -> {
+			testContext.verify(() -> {
+				assertThat(stream.metrics().queued(), is(3));
+				assertThat(stream.metrics().dropped(), is(4L));
+			});
+			var records = received(3);
+			stream.resume();
+			return records;
+		}).onComplete(testContext.succeeding(records -> testContext.verify(() -> {
+			assertThat(records, contains(SAMPLES.get(0), SAMPLES.get(1), SAMPLES.get(0)));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldFailWritesAfterTheWriteTimeout(VertxTestContext testContext) {
+		pausedStream(OverflowPolicy.BLOCK_PRODUCER);
+		EventBusWriteStream<Sample> writer = verticle.writeStream(ADDRESS, 2);
+
+		writer.setWriteTimeout(Duration.ofMillis(50)).write(SAMPLES.get(0))
+				.onComplete(testContext.failing(failure -> testContext.verify(() -> {
+					assertThat(((ReplyException) failure).failureType(), is(ReplyFailure.TIMEOUT));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldPipeAReadStreamIntoAWriteStream(VertxTestContext testContext) {
+		EventBusReadStream<Sample> target = verticle.readStream("stream-target", Sample.class);
+		target.handler(this::receive);
+		EventBusReadStream<Sample> source = verticle.readStream(ADDRESS, Sample.class);
+		source.pipeTo(verticle.writeStream("stream-target", 2));
+
+		sendSamples(5);
+
+		received(5).onComplete(testContext.succeeding(records -> testContext.verify(() -> {
+			assertThat(records, is(SAMPLES));
+			assertThat(target.metrics().dropped(), is(0L));
+			testContext.completeNow();
+		})));
+	}
+
+	public static class TestVerticle extends AbstractVerticle implements WithEventBus {
+	}
+
+	public record Sample(@JsonProperty long sequence) implements JsonRecord {
+	}
+
+	private EventBusReadStream<Sample> pausedStream(OverflowPolicy policy) {
+		EventBusReadStream<Sample> stream = verticle.readStream(ADDRESS, Sample.class, 3, policy);
+		return stream.pause().handler(this::receive);
+	}
+
+	private void sendSamples(int count) {
+		var options = JsonRecordMessageCodec.attach(vertx, new DeliveryOptions());
+		for (int i = 0; i < count; i++) {
+			vertx.eventBus().send(ADDRESS, SAMPLES.get(i), options);
+		}
+	}
+
+	/**
+	 * @return a future that completes when the consumers on {@link #ADDRESS} got the count of messages in total
+	 */
+	private Future<Void> delivered(int count) {
+		expectedDeliveries = count;
+		deliveredPromise = Promise.promise();
+		if (deliveries >= count) {
+			deliveredPromise.complete();
+		}
+		return deliveredPromise.future();
+	}
+
+	/**
+	 * @return a future that completes with the received records when the count of records is received in total
+	 */
+	private Future<List<Sample>> received(int count) {
+		expectedRecords = count;
+		receivedPromise = Promise.promise();
+		if (received.size() >= count) {
+			receivedPromise.complete(received);
+		}
+		return receivedPromise.future();
+	}
+
+	private void countDelivery(DeliveryContext<Object> delivery) {
+		delivery.next();
+		if (ADDRESS.equals(delivery.message().address()) && ++deliveries == expectedDeliveries) {
+			deliveredPromise.complete();
+		}
+	}
+
+	private void receive(Sample sample) {
+		received.add(sample);
+		if (received.size() == expectedRecords) {
+			receivedPromise.complete(received);
+		}
+	}
+
+	private static final String ADDRESS = "stream-test";
+	private static final List<Sample> SAMPLES = IntStream.range(0, 5).mapToObj(Sample::new).toList();
+
+	private final TestVerticle verticle = new TestVerticle();
+	private final List<Sample> received = new ArrayList<>();
+
+	private Vertx vertx;
+	private int deliveries;
+	private int expectedDeliveries;
+	private Promise<Void> deliveredPromise;
+	private int expectedRecords;
+	private Promise<List<Sample>> receivedPromise;
+}
@@ -0,0 +1,88 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import de.wuespace.telestion.api.message.HeaderInformation;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(VertxExtension.class)
+public class FrameTest {
+
+	@BeforeEach
+	void setUp(Vertx vertx, VertxTestContext testContext) {
+		vertx.deployVerticle(verticle).onComplete(testContext.succeeding(id -> {
+			verticle.registerFrame(ADDRESS, (frame, information) -> {
+				received.add(new Received(frame, information));
+				first.tryComplete(received.get(0));
+			});
+			testContext.completeNow();
+		}));
+	}
+
+	@Test
+	void shouldPublishASliceWithoutCopyingIt(VertxTestContext testContext) {
+		var slice = FRAME.slice(2, 6);
+		verticle.publishFrame(ADDRESS, slice, "beacon");
+
+		first.future().onComplete(testContext.succeeding(frame -> testContext.verify(() -> {
+			assertThat(frame.frame(), is(sameInstance(slice)));
+			assertThat(frame.information().getFrameType(), is(Optional.of("beacon")));
+			assertThat(frame.information().getFrameLength(), is(4));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldSendAFrameWithAdditionalHeaders(VertxTestContext testContext) {
+		verticle.sendFrame(ADDRESS, FRAME, null, new HeaderInformation().add("station", "wuerzburg"));
+
+		first.future().onComplete(testContext.succeeding(frame -> testContext.verify(() -> {
+			assertThat(frame.frame(), is(sameInstance(FRAME)));
+			assertThat(frame.information().getFrameType(), is(Optional.empty()));
+			assertThat(frame.information().getFrameLength(), is(8));
+			assertThat(frame.information().get("station"), is("wuerzburg"));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldIgnoreMessagesWithoutABuffer(Vertx vertx, VertxTestContext testContext) {
+		vertx.eventBus().send(ADDRESS, "no frame");
+		verticle.sendFrame(ADDRESS, FRAME, "beacon");
+
+		first.future().onComplete(testContext.succeeding(frame -> testContext.verify(() -> {
+			assertThat(frame.frame(), is(sameInstance(FRAME)));
+			assertThat(received, hasSize(1));
+			testContext.completeNow();
+		})));
+	}
+
+	public static class TestVerticle extends AbstractVerticle implements WithEventBus {
+	}
+
+	private record Received(Buffer frame, HeaderInformation information) {
+	}
+
+	public final String ADDRESS = "frame-test";
+
+	public final Buffer FRAME = Buffer.buffer(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+	private final TestVerticle verticle = new TestVerticle();
+
+	private final List<Received> received = new ArrayList<>();
+
+	private final Promise<Received> first = Promise.promise();
+}
@@ -0,0 +1,233 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.api.message.JsonRecord;
+import de.wuespace.telestion.api.verticle.NoConfiguration;
+import de.wuespace.telestion.api.verticle.TelestionVerticle;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static de.wuespace.telestion.api.Eventually.eventually;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(VertxExtension.class)
+public class HandlerExecutorTest {
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+	}
+
+	@Test
+	void shouldRunHandlersOfAnnotatedVerticlesOnTheWorkerPool(Vertx vertx, VertxTestContext testContext) {
+		var verticle = new ArchiveVerticle();
+		vertx.deployVerticle(verticle)
+				.compose(id -> verticle.run(() -> {
+					verticle.<String>register(ADDRESS, message -> message.reply(Thread.currentThread().getName()));
+					return Future.succeededFuture();
+				}))
+				.compose(registered -> vertx.eventBus().<String>request(ADDRESS, "store"))
+				.compose(reply -> {
+					testContext.verify(() -> {
+						assertThat(reply.body(), startsWith("archive-"));
+						assertThat(ExecutionPolicy.of(ArchiveVerticle.class).mode(), is(ExecutionMode.WORKER));
+					});
+					return verticle.run(() -> Future.succeededFuture(verticle.handlerExecutor().metrics()));
+				})
+				.onComplete(testContext.succeeding(metrics -> testContext.verify(() -> {
+					assertThat(metrics, hasKey(ADDRESS));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldKeepHandlersOfUnannotatedVerticlesOnTheEventLoop(Vertx vertx, VertxTestContext testContext) {
+		var verticle = new TestVerticle();
+		vertx.deployVerticle(verticle)
+				.compose(id -> verticle.run(() -> {
+					verticle.<String>register(ADDRESS, message -> message.reply(Context.isOnEventLoopThread()));
+					return Future.succeededFuture();
+				}))
+				.compose(registered -> vertx.eventBus().<Boolean>request(ADDRESS, "status"))
+				.onComplete(testContext.succeeding(reply -> testContext.verify(() -> {
+					assertThat(reply.body(), is(true));
+					assertThat(ExecutionPolicy.of(TestVerticle.class), is(ExecutionPolicy.EVENT_LOOP));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldLimitTheConcurrencyAndRejectMessagesIfTheQueueIsFull(Vertx vertx, VertxTestContext testContext) {
+		var verticle = new TestVerticle();
+		var started = testContext.checkpoint(2);
+		var executor = new AtomicReference<HandlerExecutor>();
+		vertx.deployVerticle(verticle)
+				.compose(id -> verticle.run(() -> {
+					executor.set(verticle.handlerExecutor(ExecutionPolicy.worker("handler-executor-test", 4)
+							.withConcurrency(2, 1)));
+					verticle.<String>register(ADDRESS, message -> {
+						started.flag();
+						try {
+							release.await(5, TimeUnit.SECONDS);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						message.reply(message.body());
+					}, executor.get());
+					return Future.succeededFuture();
+				}))
+				.compose(registered -> {
+					var replies = Future.all(vertx.eventBus().<String>request(ADDRESS, "first"),
+							vertx.eventBus().<String>request(ADDRESS, "second"),
+							vertx.eventBus().<String>request(ADDRESS, "third"));
+					return vertx.eventBus().<String>request(ADDRESS, "rejected")
+							.transform(rejected -> {
+								testContext.verify(() -> assertThat(((ReplyException) rejected.cause()).failureCode(),
+										is(HandlerExecutor.REJECTED)));
+								return verticle.run(() ->
+										Future.succeededFuture(executor.get().metrics().get(ADDRESS)));
+							})
+							.compose(metrics -> {
+								testContext.verify(() -> assertThat(metrics,
+										is(new HandlerExecutor.Metrics(2, 1, 1, 0, 0, 1))));
+								release.countDown();
+								return replies;
+							});
+				})
+				.compose(replies -> {
+					testContext.verify(() -> assertThat(replies.<Message<String>>list().stream().map(Message::body)
+							.toList(), contains("first", "second", "third")));
+					// the handlers reply before their slot is released
+					return verticle.run(() -> eventually(vertx,
+							() -> executor.get().metrics().get(ADDRESS).active() == 0));
+				})
+				.compose(released -> verticle.run(() -> Future.succeededFuture(executor.get().metrics().get(ADDRESS))))
+				.onComplete(testContext.succeeding(metrics -> testContext.verify(() -> {
+					assertThat(metrics, is(new HandlerExecutor.Metrics(0, 0, 1, 3, 0, 1)));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldRejectMessagesAfterTheExecutorIsClosed(Vertx vertx, VertxTestContext testContext) {
+		var verticle = new TestVerticle();
+		var executor = new AtomicReference<HandlerExecutor>();
+		vertx.deployVerticle(verticle)
+				.compose(id -> verticle.run(() -> {
+					executor.set(verticle.handlerExecutor(ExecutionPolicy.worker("handler-executor-test", 4)));
+					verticle.<String>register(ADDRESS, message -> message.reply(message.body()), executor.get());
+					executor.get().close();
+					return Future.succeededFuture();
+				}))
+				.compose(closed -> vertx.eventBus().<String>request(ADDRESS, "after close"))
+				.onComplete(testContext.failing(rejected -> {
+					testContext.verify(() -> assertThat(((ReplyException) rejected).failureCode(),
+							is(HandlerExecutor.REJECTED)));
+					verticle.run(() -> Future.succeededFuture(executor.get().metrics().get(ADDRESS)))
+							.onComplete(testContext.succeeding(metrics -> testContext.verify(() -> {
+								assertThat(metrics, is(new HandlerExecutor.Metrics(0, 0, 0, 0, 0, 1)));
+								testContext.completeNow();
+							})));
+				}));
+	}
+
+	@Test
+	void shouldRunRecordHandlersOnTheExecutor(Vertx vertx, VertxTestContext testContext) {
+		var verticle = new TestVerticle();
+		vertx.deployVerticle(verticle)
+				.compose(id -> verticle.run(() -> {
+					var executor = verticle.handlerExecutor(ExecutionPolicy.worker("handler-executor-test", 4));
+					verticle.register(ADDRESS, job -> testContext.verify(() -> {
+						assertThat(job, is(new Job("store")));
+						assertThat(Thread.currentThread().getName(), startsWith("handler-executor-test"));
+						testContext.completeNow();
+					}), Job.class, executor);
+					return Future.succeededFuture();
+				}))
+				.onComplete(testContext.succeeding(registered -> verticle.publish(ADDRESS, new Job("store"))));
+	}
+
+	@Test
+	void shouldRunHandlersOnVirtualThreadsIfAvailable(Vertx vertx, VertxTestContext testContext) {
+		var verticle = new TestVerticle();
+		var executor = new AtomicReference<HandlerExecutor>();
+		vertx.deployVerticle(verticle)
+				.compose(id -> verticle.run(() -> {
+					executor.set(verticle.handlerExecutor(ExecutionPolicy.virtualThreads()));
+					verticle.<String>register(ADDRESS, message -> message.reply(Context.isOnEventLoopThread()),
+							executor.get());
+					return Future.succeededFuture();
+				}))
+				.compose(registered -> vertx.eventBus().<Boolean>request(ADDRESS, "status"))
+				.onComplete(testContext.succeeding(reply -> testContext.verify(() -> {
+					assertThat(reply.body(), is(false));
+					assertThat(executor.get().isVirtual(), is(Runtime.version().feature() >= 21));
+					executor.get().close();
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldCloseTheExecutorOfTheAnnotationWhenATelestionVerticleStops(Vertx vertx,
+			VertxTestContext testContext) {
+		var verticle = new VirtualVerticle();
+		var executor = new AtomicReference<HandlerExecutor>();
+		vertx.deployVerticle(verticle)
+				.compose(id -> verticle.run(() -> {
+					executor.set(verticle.handlerExecutor());
+					return Future.succeededFuture(id);
+				}))
+				.compose(id -> {
+					testContext.verify(() -> assertThat(executor.get().isClosed(), is(false)));
+					return vertx.undeploy(id);
+				})
+				.onComplete(testContext.succeeding(undeployed -> testContext.verify(() -> {
+					assertThat(executor.get().isClosed(), is(true));
+					testContext.completeNow();
+				})));
+	}
+
+	public static class TestVerticle extends AbstractVerticle implements WithEventBus {
+		<T> Future<T> run(Supplier<Future<T>> action) {
+			var promise = Promise.<T>promise();
+			context.runOnContext(nothing -> action.get().onComplete(promise));
+			return promise.future();
+		}
+	}
+
+	@Execution(pool = "archive", poolSize = 2)
+	public static class ArchiveVerticle extends TestVerticle {
+	}
+
+	@Execution(mode = ExecutionMode.VIRTUAL_THREAD)
+	public static class VirtualVerticle extends TelestionVerticle<NoConfiguration> implements WithEventBus {
+		<T> Future<T> run(Supplier<Future<T>> action) {
+			var promise = Promise.<T>promise();
+			context.runOnContext(nothing -> action.get().onComplete(promise));
+			return promise.future();
+		}
+	}
+
+	public record Job(@JsonProperty String name) implements JsonRecord {
+	}
+
+	private static final String ADDRESS = "handler-executor-test";
+
+	private final CountDownLatch release = new CountDownLatch(1);
+}
@@ -0,0 +1,134 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.api.message.JsonRecord;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.Checkpoint;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static de.wuespace.telestion.api.Eventually.eventually;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(VertxExtension.class)
+public class PartitionedConsumerTest {
+
+	@Test
+	void shouldHandleEqualKeysInOrderAndDifferentKeysInParallel(Vertx vertx, VertxTestContext testContext)
+			throws Exception {
+		received = testContext.checkpoint(SENSORS.size() * MESSAGES_PER_SENSOR);
+		vertx.deployVerticle(() -> new PartitionVerticle(this), new DeploymentOptions().setInstances(4))
+				.onComplete(testContext.succeeding(id -> {
+					for (var sequence = 0; sequence < MESSAGES_PER_SENSOR; sequence++) {
+						for (var sensor : SENSORS) {
+							vertx.eventBus().send(ADDRESS, new Sample(sensor, sequence).toJsonObject());
+						}
+					}
+				}));
+		assertThat(testContext.awaitCompletion(5, TimeUnit.SECONDS), is(true));
+
+		var expected = IntStream.range(0, MESSAGES_PER_SENSOR).boxed().toList();
+		synchronized (this) {
+			for (var sensor : SENSORS) {
+				assertThat(sequences.get(sensor), is(expected));
+			}
+			assertThat(contexts.size(), is(greaterThan(1)));
+		}
+
+		var consumer = PartitionedConsumer.of(vertx, ADDRESS);
+		assertThat(consumer.members(), is(4));
+		assertThat(consumer.distribution(), contains(16, 16, 16, 16));
+	}
+
+	@Test
+	void shouldRebalanceTheLanesWhenInstancesJoinAndLeave(Vertx vertx, VertxTestContext testContext) {
+		vertx.deployVerticle(() -> new PartitionVerticle(this), new DeploymentOptions())
+				.compose(first -> {
+					testContext.verify(() -> assertThat(PartitionedConsumer.of(vertx, ADDRESS).distribution(),
+							contains(64)));
+					return vertx.deployVerticle(() -> new PartitionVerticle(this),
+							new DeploymentOptions().setInstances(3)).map(first);
+				})
+				.compose(first -> {
+					testContext.verify(() -> assertThat(PartitionedConsumer.of(vertx, ADDRESS).distribution(),
+							contains(16, 16, 16, 16)));
+					return vertx.undeploy(first);
+				})
+				// the instance leaves when Vert.x ended its presence consumer
+				.compose(undeployed -> eventually(vertx, () -> PartitionedConsumer.of(vertx, ADDRESS).members() == 3))
+				.compose(left -> {
+					testContext.verify(() -> assertThat(PartitionedConsumer.of(vertx, ADDRESS).distribution(),
+							containsInAnyOrder(22, 21, 21)));
+					// another instance receives the messages once the router moved
+					var sequence = new AtomicInteger();
+					return eventually(vertx, () -> {
+						vertx.eventBus().send(ADDRESS, new Sample("moved", sequence.getAndIncrement()).toJsonObject());
+						return received() > 0;
+					});
+				})
+				.onComplete(testContext.succeedingThenComplete());
+	}
+
+	@Test
+	void shouldRemoveTheConsumerWhenTheLastInstanceLeaves(Vertx vertx, VertxTestContext testContext) {
+		vertx.deployVerticle(() -> new PartitionVerticle(this), new DeploymentOptions().setInstances(2))
+				.compose(vertx::undeploy)
+				.compose(undeployed -> eventually(vertx, () -> Objects.isNull(PartitionedConsumer.of(vertx, ADDRESS))))
+				.onComplete(testContext.succeedingThenComplete());
+	}
+
+	public record Sample(@JsonProperty String sensor, @JsonProperty int sequence) implements JsonRecord {
+	}
+
+	public static class PartitionVerticle extends AbstractVerticle implements WithEventBus {
+		PartitionVerticle(PartitionedConsumerTest test) {
+			this.test = test;
+		}
+
+		@Override
+		public void start() {
+			registerPartitioned(ADDRESS, (body, headers) -> body.sensor(), test::handle, Sample.class);
+		}
+
+		private final PartitionedConsumerTest test;
+	}
+
+	private synchronized void handle(Sample sample) {
+		sequences.computeIfAbsent(sample.sensor(), sensor -> new ArrayList<>()).add(sample.sequence());
+		contexts.add(Vertx.currentContext());
+		if (Objects.nonNull(received)) {
+			received.flag();
+		}
+	}
+
+	private synchronized int received() {
+		return sequences.values().stream().mapToInt(List::size).sum();
+	}
+
+	private static final String ADDRESS = "partitioned-consumer-test";
+	private static final List<String> SENSORS = List.of("a", "b", "c", "d", "e", "f", "g", "h");
+	private static final int MESSAGES_PER_SENSOR = 200;
+
+	private final Map<String, List<Integer>> sequences = new HashMap<>();
+	private final Set<Context> contexts = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	private Checkpoint received;
+}
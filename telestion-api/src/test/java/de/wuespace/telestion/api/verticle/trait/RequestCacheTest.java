@@ -0,0 +1,170 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.api.message.HeaderInformation;
+import de.wuespace.telestion.api.message.JsonRecord;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(VertxExtension.class)
+public class RequestCacheTest {
+
+	@BeforeEach
+	void setUp(Vertx vertx, VertxTestContext testContext) {
+		vertx.eventBus().<Object>consumer(ADDRESS, request -> {
+			var count = requests.incrementAndGet();
+			var options = count == INVALIDATING_RESPONSE ? new HeaderInformation().setCacheInvalidate().toOptions()
+					: new HeaderInformation().toOptions();
+			vertx.setTimer(20, id -> request.reply(new JsonObject().put("value", count), options));
+		});
+		vertx.deployVerticle(verticle).onComplete(testContext.succeedingThenComplete());
+	}
+
+	@Test
+	void shouldCoalesceIdenticalRequestsInFlight(VertxTestContext testContext) {
+		var cache = verticle.requestCache();
+		verticle.run(() -> Future.all(
+				cache.request(ADDRESS, new JsonObject().put("axis", "x").put("frame", 1), Value.class),
+				cache.request(ADDRESS, new JsonObject().put("frame", 1).put("axis", "x"), Value.class),
+				cache.request(ADDRESS, new JsonObject().put("frame", 2).put("axis", "x"), Value.class)
+		)).onComplete(testContext.succeeding(responses -> testContext.verify(() -> {
+			assertThat(requests.get(), is(2));
+			assertThat(responses.<ResponseMessageWrapper<Value, JsonObject>>resultAt(0),
+					is(sameInstance(responses.resultAt(1))));
+			assertThat(cache.statistics(), is(new RequestCache.Statistics(0, 1, 2, 0)));
+			assertThat(cache.size(), is(0));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldCacheResponsesForTheirTimeToLive(Vertx vertx, VertxTestContext testContext) {
+		var cache = verticle.requestCache().ttl(ADDRESS, Duration.ofMillis(300));
+
+		verticle.run(() -> cache.request(ADDRESS, "attitude", Value.class))
+				.compose(first -> verticle.run(() -> cache.request(ADDRESS, "attitude", Value.class))
+						.onSuccess(second -> testContext.verify(() -> {
+							assertThat(second, is(sameInstance(first)));
+							assertThat(requests.get(), is(1));
+						})))
+				.compose(second -> vertx.timer(400))
+				.compose(expired -> verticle.run(() -> cache.request(ADDRESS, "attitude", Value.class)))
+				.onComplete(testContext.succeeding(third -> testContext.verify(() -> {
+					assertThat(third.body().value(), is(2));
+					assertThat(cache.statistics(), is(new RequestCache.Statistics(1, 0, 2, 0)));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldInvalidateResponsesWithTheHeader(VertxTestContext testContext) {
+		var cache = verticle.requestCache().defaultTtl(Duration.ofMinutes(1));
+
+		verticle.run(() -> cache.request(ADDRESS, "attitude", Value.class))
+				.compose(cached -> verticle.run(() -> cache.request(ADDRESS, "attitude", Value.class,
+						new HeaderInformation().toOptions(), new HeaderInformation().setCacheInvalidate())))
+				.onComplete(testContext.succeeding(refreshed -> testContext.verify(() -> {
+					assertThat(refreshed.body().value(), is(2));
+					assertThat(requests.get(), is(2));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldNotShareOrCacheResponsesOfRequestsInFlightWhenInvalidated(VertxTestContext testContext) {
+		var cache = verticle.requestCache().defaultTtl(Duration.ofMinutes(1));
+
+		verticle.run(() -> Future.all(
+				cache.request(ADDRESS, "attitude", Value.class),
+				cache.request(ADDRESS, "attitude", Value.class,
+						new HeaderInformation().toOptions(), new HeaderInformation().setCacheInvalidate())
+		)).compose(responses -> {
+			testContext.verify(() -> {
+				assertThat(requests.get(), is(2));
+				assertThat(responses.<ResponseMessageWrapper<Value, JsonObject>>resultAt(0).body().value(), is(1));
+				assertThat(responses.<ResponseMessageWrapper<Value, JsonObject>>resultAt(1).body().value(), is(2));
+			});
+			// only the response of the invalidating request is cached
+			return verticle.run(() -> cache.request(ADDRESS, "attitude", Value.class))
+					.onSuccess(cached -> testContext.verify(() ->
+							assertThat(cached, is(sameInstance(responses.resultAt(1))))));
+		}).onComplete(testContext.succeeding(cached -> testContext.verify(() -> {
+			assertThat(requests.get(), is(2));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldNotCacheResponsesOfRequestsInFlightWhenTheAddressIsInvalidated(VertxTestContext testContext) {
+		var cache = verticle.requestCache().defaultTtl(Duration.ofMinutes(1));
+
+		verticle.run(() -> {
+			var response = cache.request(ADDRESS, "attitude", Value.class);
+			cache.invalidate(ADDRESS);
+			return response;
+		}).onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+			assertThat(cache.size(), is(0));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldNotCacheInvalidatingResponses(VertxTestContext testContext) {
+		var cache = verticle.requestCache().defaultTtl(Duration.ofMinutes(1));
+		requests.set(INVALIDATING_RESPONSE - 1);
+
+		verticle.run(() -> cache.request(ADDRESS, "attitude", Value.class))
+				.onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+					assertThat(cache.size(), is(0));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldEvictTheLeastRecentlyUsedResponses(VertxTestContext testContext) {
+		var cache = verticle.requestCache(2).defaultTtl(Duration.ofMinutes(1));
+
+		verticle.run(() -> cache.request(ADDRESS, "a", Value.class))
+				.compose(a -> verticle.run(() -> cache.request(ADDRESS, "b", Value.class)))
+				.compose(b -> verticle.run(() -> cache.request(ADDRESS, "a", Value.class)))
+				.compose(a -> verticle.run(() -> cache.request(ADDRESS, "c", Value.class)))
+				.compose(c -> verticle.run(() -> cache.request(ADDRESS, "a", Value.class)))
+				.onComplete(testContext.succeeding(a -> testContext.verify(() -> {
+					assertThat(cache.size(), is(2));
+					assertThat(cache.statistics(), is(new RequestCache.Statistics(2, 0, 3, 1)));
+					testContext.completeNow();
+				})));
+	}
+
+	public record Value(@JsonProperty int value) implements JsonRecord {
+	}
+
+	public static class TestVerticle extends AbstractVerticle implements WithEventBus {
+		<T> Future<T> run(Supplier<Future<T>> action) {
+			var promise = Promise.<T>promise();
+			context.runOnContext(nothing -> action.get().onComplete(promise));
+			return promise.future();
+		}
+	}
+
+	private static final String ADDRESS = "request-cache-test";
+	private static final int INVALIDATING_RESPONSE = 100;
+
+	private final AtomicInteger requests = new AtomicInteger();
+	private final TestVerticle verticle = new TestVerticle();
+}
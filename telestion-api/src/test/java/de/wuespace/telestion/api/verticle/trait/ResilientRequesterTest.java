@@ -0,0 +1,161 @@
+package de.wuespace.telestion.api.verticle.trait;
+
+import de.wuespace.telestion.api.message.HeaderInformation;
+import io.vertx.circuitbreaker.OpenCircuitException;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(VertxExtension.class)
+public class ResilientRequesterTest {
+
+	@BeforeEach
+	void setUp(Vertx vertx, VertxTestContext testContext) {
+		vertx.deployVerticle(verticle).onComplete(testContext.succeedingThenComplete());
+	}
+
+	@Test
+	void shouldRetryUntilAResponderIsAvailable(Vertx vertx, VertxTestContext testContext) {
+		// the circuit must stay closed while the retries find no handler
+		var requester = verticle.resilientRequester(POLICY.withRetries(10, Duration.ofMillis(20), Duration.ofMillis(40))
+				.withCircuitBreaker(100, Duration.ofSeconds(30), POLICY.notificationAddress()));
+		vertx.setTimer(50, id -> vertx.eventBus().consumer(ADDRESS, message -> message.reply("pong")));
+
+		verticle.run(() -> requester.<String>request(ADDRESS, "ping"))
+				.onComplete(testContext.succeeding(reply -> testContext.verify(() -> {
+					assertThat(reply.body(), is("pong"));
+					assertThat(requester.statistics().retries(), is(greaterThan(0L)));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldSendTheEarliestDeadline(Vertx vertx, VertxTestContext testContext) {
+		var requester = verticle.resilientRequester(POLICY);
+		vertx.eventBus().consumer(ADDRESS, message ->
+				message.reply(HeaderInformation.from(message).getLong(HeaderInformation.DEADLINE, -1)));
+		var upstream = Instant.now().plusMillis(500);
+
+		verticle.run(() -> requester.<Long>request(ADDRESS, "ping", Duration.ofMinutes(1)))
+				.onSuccess(own -> testContext.verify(() ->
+						assertThat(own.body(), is(greaterThan(Instant.now().plusSeconds(50).toEpochMilli())))))
+				.compose(own -> verticle.run(() -> requester.<Long>request(ADDRESS, "ping", Duration.ofMinutes(1),
+						new HeaderInformation().setDeadline(upstream))))
+				.onComplete(testContext.succeeding(propagated -> testContext.verify(() -> {
+					assertThat(propagated.body(), is(upstream.toEpochMilli()));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldFailWhenTheDeadlinePasses(Vertx vertx, VertxTestContext testContext) {
+		var requester = verticle.resilientRequester(POLICY.withAttemptTimeout(Duration.ofMillis(40)));
+		vertx.eventBus().consumer(ADDRESS, message -> {
+			// never replies
+		});
+
+		var started = System.nanoTime();
+		verticle.run(() -> requester.request(ADDRESS, "ping", Duration.ofMillis(150)))
+				.onComplete(testContext.failing(failure -> testContext.verify(() -> {
+					assertThat(failure, is(instanceOf(ReplyException.class)));
+					assertThat(((ReplyException) failure).failureType(), is(ReplyFailure.TIMEOUT));
+					assertThat(Duration.ofNanos(System.nanoTime() - started).toMillis(), is(lessThan(1000L)));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldHedgeRequestsToAStalledResponder(Vertx vertx, VertxTestContext testContext) {
+		var requester = verticle.resilientRequester(POLICY
+				.withAttemptTimeout(Duration.ofSeconds(3))
+				.withHedging(0.9, Duration.ofMillis(20)));
+		var stalled = new AtomicBoolean();
+		vertx.eventBus().consumer(ADDRESS, message -> {
+			if (!stalled.get()) {
+				message.reply("first");
+			}
+		});
+		vertx.eventBus().consumer(ADDRESS, message -> message.reply("second"));
+
+		Future<?> warmedUp = Future.succeededFuture();
+		for (int i = 0; i < 32; i++) {
+			warmedUp = warmedUp.compose(previous -> verticle.run(() -> requester.request(ADDRESS, "warm-up")));
+		}
+		var started = new AtomicLong();
+		Future<?> hedged = warmedUp.onSuccess(done -> {
+			stalled.set(true);
+			started.set(System.nanoTime());
+		});
+		for (int i = 0; i < 4; i++) {
+			hedged = hedged.compose(previous -> verticle.run(() -> requester.<String>request(ADDRESS, "ping")))
+					.onSuccess(reply -> testContext.verify(() -> assertThat(reply.body(), is("second"))));
+		}
+
+		hedged.onComplete(testContext.succeeding(done -> testContext.verify(() -> {
+			assertThat(Duration.ofNanos(System.nanoTime() - started.get()).toMillis(), is(lessThan(2000L)));
+			assertThat(requester.statistics().hedges(), is(greaterThan(0L)));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldOpenTheCircuitAfterTooManyFailures(Vertx vertx, VertxTestContext testContext) {
+		var requester = verticle.resilientRequester(POLICY.withCircuitBreaker(2, Duration.ofMinutes(1), null));
+		var received = new AtomicInteger();
+		vertx.eventBus().consumer(ADDRESS, message -> {
+			received.incrementAndGet();
+			message.fail(500, "broken");
+		});
+
+		Future<?> failed = Future.succeededFuture();
+		for (int i = 0; i < 2; i++) {
+			failed = failed.compose(previous -> verticle.run(() -> requester.request(ADDRESS, "ping"))
+					.transform(result -> {
+						testContext.verify(() -> assertThat(result.cause(), is(instanceOf(ReplyException.class))));
+						return Future.succeededFuture();
+					}));
+		}
+
+		failed.compose(previous -> verticle.run(() -> requester.request(ADDRESS, "ping")))
+				.onComplete(testContext.failing(failure -> testContext.verify(() -> {
+					assertThat(failure, is(instanceOf(OpenCircuitException.class)));
+					assertThat(received.get(), is(2));
+					requester.close();
+					testContext.completeNow();
+				})));
+	}
+
+	public static class TestVerticle extends AbstractVerticle implements WithEventBus {
+		<T> Future<T> run(Supplier<Future<T>> action) {
+			var promise = Promise.<T>promise();
+			context.runOnContext(nothing -> action.get().onComplete(promise));
+			return promise.future();
+		}
+	}
+
+	private static final String ADDRESS = "resilient-requester-test";
+
+	private static final RequestPolicy POLICY = RequestPolicy.DEFAULT
+			.withAttemptTimeout(Duration.ofSeconds(1))
+			.withHedging(0, Duration.ZERO);
+
+	private final TestVerticle verticle = new TestVerticle();
+}
@@ -0,0 +1,40 @@
+package de.wuespace.telestion.api;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Waits for state that changes without an event the test could listen to,
+ * e.g. counters that are updated after a reply was sent.
+ */
+public final class Eventually {
+
+	/**
+	 * Checks the condition right away and then every 10 ms with a timer of the current context or an event loop.
+	 *
+	 * @return a future that completes when the condition holds
+	 */
+	public static Future<Void> eventually(Vertx vertx, BooleanSupplier condition) {
+		var promise = Promise.<Void>promise();
+		check(vertx, condition, promise);
+		return promise.future();
+	}
+
+	private static void check(Vertx vertx, BooleanSupplier condition, Promise<Void> promise) {
+		try {
+			if (condition.getAsBoolean()) {
+				promise.complete();
+			} else {
+				vertx.setTimer(10, timer -> check(vertx, condition, promise));
+			}
+		} catch (RuntimeException e) {
+			promise.fail(e);
+		}
+	}
+
+	private Eventually() {
+	}
+}
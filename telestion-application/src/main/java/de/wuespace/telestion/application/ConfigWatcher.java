@@ -0,0 +1,190 @@
+package de.wuespace.telestion.application;
+
+import de.wuespace.telestion.api.verticle.TelestionConfiguration;
+import de.wuespace.telestion.api.verticle.TelestionVerticle;
+import de.wuespace.telestion.api.verticle.VerticleConfigStrategy;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <h2>Description</h2>
+ * Applies changes of the verticle configurations to the running application without redeploying everything.
+ * <p>
+ * The verticles are compared by their {@link VerticleConfig#name() name}:
+ * <ul>
+ *     <li>Removed verticles are undeployed.</li>
+ *     <li>Added verticles are deployed with the {@link DeploymentPlanner}.</li>
+ *     <li>If only the config of a {@link TelestionVerticle} changed and none of the changed properties is marked
+ *     {@link de.wuespace.telestion.api.verticle.NonReloadable non-reloadable}, the running instances receive the
+ *     updated config in
+ *     {@link TelestionVerticle#onConfigChange(TelestionConfiguration, TelestionConfiguration) onConfigChange}.</li>
+ *     <li>All other changed verticles are redeployed.</li>
+ * </ul>
+ * The running instances only receive updated configs if the verticles were deployed after
+ * {@link TelestionVerticle#enableConfigChanges(Vertx)}.
+ * Apply one update after another. The watcher is not thread-safe.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * // before the verticles are deployed
+ * TelestionVerticle.enableConfigChanges(vertx);
+ * ...
+ * var watcher = new ConfigWatcher(vertx, deployments);
+ * retriever.listen(change -> watcher.update(configurationOf(change.getNewConfiguration()).verticles()));
+ * }
+ * </pre>
+ *
+ * @see Telestion
+ */
+public final class ConfigWatcher {
+
+	/**
+	 * @param vertx       the Vert.x instance the verticles are deployed on
+	 * @param deployments the deployments of the running verticles
+	 */
+	public ConfigWatcher(Vertx vertx, List<DeploymentPlanner.Deployment> deployments) {
+		this.vertx = vertx;
+		for (var deployment : deployments) {
+			running.put(key(deployment.config(), running.keySet()), deployment);
+		}
+	}
+
+	/**
+	 * @return the deployments of the running verticles
+	 */
+	public List<DeploymentPlanner.Deployment> deployments() {
+		return List.copyOf(running.values());
+	}
+
+	/**
+	 * Compares the updated verticle configurations with the running verticles and applies the changes.
+	 *
+	 * @param verticles the updated verticle configurations
+	 * @return a future that completes when all changes are applied
+	 * or fails if at least one verticle could not be undeployed or deployed
+	 */
+	public Future<Void> update(List<VerticleConfig> verticles) {
+		var updated = new LinkedHashMap<String, VerticleConfig>();
+		for (var config : Objects.requireNonNullElse(verticles, List.<VerticleConfig>of())) {
+			updated.put(key(config, updated.keySet()), config);
+		}
+
+		var undeployments = new ArrayList<Future<?>>();
+		var keys = new IdentityHashMap<VerticleConfig, String>();
+
+		for (var entry : List.copyOf(running.entrySet())) {
+			var key = entry.getKey();
+			var deployment = entry.getValue();
+			var config = updated.get(key);
+
+			if (Objects.isNull(config)) {
+				logger.info("Undeploying removed verticle {}", deployment.name());
+				undeployments.add(undeploy(key, deployment));
+			} else if (!config.equals(deployment.config())) {
+				if (isReloadable(deployment, config)) {
+					logger.info("Reloading configuration of verticle {}", config.name());
+					vertx.eventBus().publish(TelestionVerticle.configChangeAddress(deployment.deploymentId()),
+							config.jsonConfig());
+					running.put(key, new DeploymentPlanner.Deployment(
+							config, deployment.deploymentId(), deployment.startupTime()));
+				} else {
+					logger.info("Redeploying verticle {}, because its changes cannot be reloaded", config.name());
+					undeployments.add(undeploy(key, deployment));
+					keys.put(config, key);
+				}
+			}
+		}
+
+		for (var entry : updated.entrySet()) {
+			if (!running.containsKey(entry.getKey()) && !keys.containsValue(entry.getKey())) {
+				keys.put(entry.getValue(), entry.getKey());
+			}
+		}
+
+		return Future.join(undeployments).compose(undeployed -> {
+			if (keys.isEmpty()) {
+				return Future.succeededFuture();
+			}
+
+			var deployed = running.values().stream().map(DeploymentPlanner.Deployment::name).collect(Collectors.toSet());
+			var planner = DeploymentPlanner.plan(updated.values().stream().filter(keys::containsKey).toList(), deployed);
+
+			return planner.deploy(vertx, deployment -> running.put(keys.get(deployment.config()), deployment))
+					.mapEmpty();
+		});
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private Future<Void> undeploy(String key, DeploymentPlanner.Deployment deployment) {
+		running.remove(key);
+		if (Objects.isNull(deployment.deploymentId())) {
+			return Future.succeededFuture();
+		}
+
+		return vertx.undeploy(deployment.deploymentId())
+				.onFailure(cause -> logger.error("Failed to undeploy {}", deployment.name(), cause));
+	}
+
+	/**
+	 * Checks if the running instances can apply the updated configuration themselves.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static boolean isReloadable(DeploymentPlanner.Deployment deployment, VerticleConfig updated) {
+		var old = deployment.config();
+		if (Objects.isNull(deployment.deploymentId())
+				|| !Objects.equals(old.verticle(), updated.verticle())
+				|| old.magnitude() != updated.magnitude()
+				|| !old.dependencies().equals(updated.dependencies())) {
+			return false;
+		}
+
+		try {
+			var type = Class.forName(updated.verticle(), false, Thread.currentThread().getContextClassLoader());
+			if (!TelestionVerticle.class.isAssignableFrom(type)) {
+				return false;
+			}
+
+			Class<TelestionConfiguration> configType = VerticleConfigStrategy.getConfigType((Class) type);
+			if (Objects.isNull(configType)) {
+				return false;
+			}
+
+			return VerticleConfigStrategy.isReloadable(
+					new VerticleConfigStrategy<>(old.jsonConfig(), configType).getConfig(),
+					new VerticleConfigStrategy<>(updated.jsonConfig(), configType).getConfig());
+		} catch (ClassNotFoundException | LinkageError | RuntimeException e) {
+			logger.debug("Cannot compare the configurations of {}", updated.name(), e);
+			return false;
+		}
+	}
+
+	/**
+	 * Identifies a verticle by its name and the number of verticles with the same name before it.
+	 */
+	private static String key(VerticleConfig config, Set<String> existing) {
+		var key = config.name();
+		for (int occurrence = 1; existing.contains(key); occurrence++) {
+			key = config.name() + "#" + occurrence;
+		}
+		return key;
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(ConfigWatcher.class);
+
+	private final Vertx vertx;
+	private final Map<String, DeploymentPlanner.Deployment> running = new LinkedHashMap<>();
+}
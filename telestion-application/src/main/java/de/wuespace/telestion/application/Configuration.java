@@ -5,16 +5,28 @@ import java.util.List;
 
 /**
  * The base application configuration object.
+ * <p>
+ * If {@code watch_config} is {@code true}, the application keeps watching its configuration
+ * and applies changes to the running verticles.
  *
  * @author Jan von Pichowski
+ * @see ConfigWatcher
  */
-public record Configuration(@JsonProperty String app_name, @JsonProperty List<VerticleConfig> verticles) {
+public record Configuration(@JsonProperty String app_name, @JsonProperty List<VerticleConfig> verticles,
+		@JsonProperty boolean watch_config) {
+
+	/**
+	 * Creates an application configuration without configuration watch mode.
+	 */
+	public Configuration(String app_name, List<VerticleConfig> verticles) {
+		this(app_name, verticles, false);
+	}
 
 	/**
 	 * Only for deserialization.
 	 */
 	@SuppressWarnings("unused")
 	private Configuration() {
-		this(null, null);
+		this(null, null, false);
 	}
 }
@@ -0,0 +1,259 @@
+package de.wuespace.telestion.application;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <h2>Description</h2>
+ * Plans and executes the deployment of the verticles of a {@link Configuration}.
+ * <ul>
+ *     <li>All instances of a verticle are deployed at once with {@link DeploymentOptions#setInstances(int)}.</li>
+ *     <li>A verticle is deployed as soon as all verticles it {@link VerticleConfig#depends_on() depends on}
+ *     are deployed, so independent verticles are deployed in parallel.</li>
+ *     <li>The deployment completes when all verticles are deployed
+ *     and reports the startup time of every verticle.</li>
+ * </ul>
+ * If a verticle fails to deploy, the verticles which depend on it are skipped.
+ * All other verticles are deployed anyway and the deployment fails after all of them are completed.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * DeploymentPlanner.plan(configuration.verticles())
+ *         .deploy(vertx)
+ *         .onSuccess(deployments -> logger.info("Started {} verticles", deployments.size()));
+ * }
+ * </pre>
+ *
+ * @see Telestion
+ */
+public final class DeploymentPlanner {
+
+	/**
+	 * The result of one successfully deployed verticle.
+	 *
+	 * @param config       the configuration of the deployed verticle
+	 * @param deploymentId the Vert.x deployment id or {@code null} if no instances were deployed
+	 * @param startupTime  the time between the start of the deployment and its completion
+	 */
+	public record Deployment(VerticleConfig config, String deploymentId, Duration startupTime) {
+		/**
+		 * @return the name of the verticle in the configuration
+		 */
+		public String name() {
+			return config.name();
+		}
+
+		/**
+		 * @return the number of deployed instances
+		 */
+		public int instances() {
+			return Objects.isNull(deploymentId) ? 0 : config.magnitude();
+		}
+	}
+
+	/**
+	 * Orders the verticles so that every verticle follows its dependencies.
+	 *
+	 * @param verticles the verticle configurations that should be deployed
+	 * @return the planner which deploys the verticles in that order
+	 * @throws IllegalArgumentException if a verticle depends on an unknown verticle
+	 *                                  or the dependencies contain a cycle
+	 */
+	public static DeploymentPlanner plan(List<VerticleConfig> verticles) throws IllegalArgumentException {
+		return plan(verticles, Set.of());
+	}
+
+	/**
+	 * Orders the verticles so that every verticle follows its dependencies.
+	 * Dependencies on already deployed verticles are treated as satisfied.
+	 *
+	 * @param verticles the verticle configurations that should be deployed
+	 * @param deployed  the names of the verticles which are already deployed
+	 * @return the planner which deploys the verticles in that order
+	 * @throws IllegalArgumentException if a verticle depends on an unknown verticle
+	 *                                  or the dependencies contain a cycle
+	 */
+	public static DeploymentPlanner plan(List<VerticleConfig> verticles, Set<String> deployed)
+			throws IllegalArgumentException {
+		return new DeploymentPlanner(order(Objects.requireNonNullElse(verticles, List.of()), deployed));
+	}
+
+	/**
+	 * @return the verticle configurations in an order where every verticle follows its dependencies
+	 */
+	public List<VerticleConfig> order() {
+		return order;
+	}
+
+	/**
+	 * Deploys all verticles and waits until every deployment is completed.
+	 *
+	 * @param vertx the Vert.x instance the verticles are deployed on
+	 * @return a future that completes with the deployments in the {@link #order() planned order}
+	 * or fails if at least one verticle could not be deployed
+	 */
+	public Future<List<Deployment>> deploy(Vertx vertx) {
+		return deploy(vertx, deployment -> {
+		});
+	}
+
+	/**
+	 * Deploys all verticles and waits until every deployment is completed.
+	 *
+	 * @param vertx    the Vert.x instance the verticles are deployed on
+	 * @param listener is called with every successful deployment as soon as it completes,
+	 *                 even if other verticles fail
+	 * @return a future that completes with the deployments in the {@link #order() planned order}
+	 * or fails if at least one verticle could not be deployed
+	 */
+	public Future<List<Deployment>> deploy(Vertx vertx, Consumer<Deployment> listener) {
+		var started = System.nanoTime();
+		var byName = groupByName(order);
+		var futures = new IdentityHashMap<VerticleConfig, Future<Deployment>>();
+
+		for (var config : order) {
+			var dependencies = new ArrayList<Future<Deployment>>();
+			for (var name : config.dependencies()) {
+				for (var dependency : byName.getOrDefault(name, List.of())) {
+					dependencies.add(futures.get(dependency));
+				}
+			}
+
+			futures.put(config, Future.all(dependencies).compose(
+					all -> deploy(vertx, config).onSuccess(listener::accept),
+					failure -> {
+						logger.warn("Skipping {}, because one of its dependencies {} failed",
+								config.name(), config.dependencies());
+						return Future.failedFuture(failure);
+					}
+			));
+		}
+
+		var all = order.stream().map(futures::get).toList();
+		return Future.join(all).transform(result -> {
+			var failed = order.stream().filter(config -> futures.get(config).failed()).map(VerticleConfig::name).toList();
+			if (!failed.isEmpty()) {
+				return Future.failedFuture(new IllegalStateException(
+						"Failed to deploy %d of %d verticles: %s".formatted(failed.size(), order.size(), failed),
+						result.cause()));
+			}
+
+			logger.info("Deployed {} verticles in {} ms", order.size(), millis(System.nanoTime() - started));
+			return Future.succeededFuture(all.stream().map(Future::result).toList());
+		});
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private DeploymentPlanner(List<VerticleConfig> order) {
+		this.order = order;
+	}
+
+	private static Future<Deployment> deploy(Vertx vertx, VerticleConfig config) {
+		if (config.magnitude() < 1) {
+			logger.warn("Skipping {}, because its magnitude is {}", config.name(), config.magnitude());
+			return Future.succeededFuture(new Deployment(config, null, Duration.ZERO));
+		}
+
+		logger.info("Deploying {} ({} instances)", config.name(), config.magnitude());
+		var started = System.nanoTime();
+		var options = new DeploymentOptions().setConfig(config.jsonConfig()).setInstances(config.magnitude());
+
+		return vertx.deployVerticle(config.verticle(), options)
+				.map(id -> {
+					var startupTime = Duration.ofNanos(System.nanoTime() - started);
+					logger.info("Deployed {} in {} ms", config.name(), startupTime.toMillis());
+					return new Deployment(config, id, startupTime);
+				})
+				.onFailure(cause -> logger.error("Failed to deploy {}", config.name(), cause));
+	}
+
+	/**
+	 * Sorts the verticles topologically with a depth-first search
+	 * and keeps the configured order for independent verticles.
+	 */
+	private static List<VerticleConfig> order(List<VerticleConfig> verticles, Set<String> deployed) {
+		var byName = groupByName(verticles);
+		var order = new ArrayList<VerticleConfig>(verticles.size());
+		var ordered = Collections.newSetFromMap(new IdentityHashMap<VerticleConfig, Boolean>());
+		var path = new ArrayDeque<VerticleConfig>();
+
+		for (var config : verticles) {
+			visit(config, byName, deployed, ordered, path, order);
+		}
+		return List.copyOf(order);
+	}
+
+	private static void visit(
+			VerticleConfig config,
+			Map<String, List<VerticleConfig>> byName,
+			Set<String> deployed,
+			Set<VerticleConfig> ordered,
+			Deque<VerticleConfig> path,
+			List<VerticleConfig> order) {
+		if (ordered.contains(config)) {
+			return;
+		}
+
+		// the path contains the verticles whose dependencies are currently visited
+		if (path.stream().anyMatch(visiting -> visiting == config)) {
+			var cycle = path.stream().dropWhile(visiting -> visiting != config).map(VerticleConfig::name).toList();
+			throw new IllegalArgumentException("The verticle dependencies contain a cycle: %s -> %s"
+					.formatted(String.join(" -> ", cycle), config.name()));
+		}
+
+		path.addLast(config);
+		for (var name : config.dependencies()) {
+			var dependencies = byName.get(name);
+			if (dependencies == null && deployed.contains(name)) {
+				continue;
+			}
+			if (dependencies == null) {
+				throw new IllegalArgumentException(
+						"The verticle %s depends on the unknown verticle %s".formatted(config.name(), name));
+			}
+
+			for (var dependency : dependencies) {
+				visit(dependency, byName, deployed, ordered, path, order);
+			}
+		}
+		path.removeLast();
+
+		ordered.add(config);
+		order.add(config);
+	}
+
+	private static Map<String, List<VerticleConfig>> groupByName(List<VerticleConfig> verticles) {
+		var byName = new HashMap<String, List<VerticleConfig>>();
+		for (var config : verticles) {
+			byName.computeIfAbsent(config.name(), name -> new ArrayList<>()).add(config);
+		}
+		return byName;
+	}
+
+	private static long millis(long nanos) {
+		return Duration.ofNanos(nanos).toMillis();
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(DeploymentPlanner.class);
+
+	private final List<VerticleConfig> order;
+}
@@ -1,16 +1,23 @@
 package de.wuespace.telestion.application;
 
+import de.wuespace.telestion.api.message.MessageCodecs;
+import de.wuespace.telestion.api.verticle.TelestionVerticle;
 import io.vertx.config.ConfigRetriever;
 import io.vertx.core.AbstractVerticle;
-import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
-import java.util.Collections;
+import io.vertx.core.json.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This is going to be the Telestion application. It launches the verticles which are specified in the configuration.
+ * The verticles are deployed by the {@link DeploymentPlanner} and the application starts
+ * when all of them are deployed.
+ * <p>
+ * If the configuration enables {@link Configuration#watch_config() watch_config},
+ * later changes of the configuration are applied to the running verticles by the {@link ConfigWatcher}.
  *
  * @author Jan von Pichowski
  */
@@ -18,6 +25,9 @@ public final class Telestion extends AbstractVerticle {
 
 	private static final Logger logger = LoggerFactory.getLogger(Telestion.class);
 
+	private ConfigRetriever retriever;
+	private Future<Void> pendingUpdate = Future.succeededFuture();
+
 	/**
 	 * Deploys this Telestion verticle.
 	 *
@@ -30,25 +40,73 @@ public final class Telestion extends AbstractVerticle {
 
 	@Override
 	public void start(Promise<Void> startPromise) {
-		ConfigRetriever retriever = ConfigRetriever.create(vertx);
+		MessageCodecs.register(vertx.eventBus());
+		retriever = ConfigRetriever.create(vertx);
 		retriever.getConfig(configRes -> {
 			if (configRes.failed()) {
 				logger.error("Failed to load config", configRes.cause());
 				startPromise.fail(configRes.cause());
 				return;
 			}
-			var conf = configRes.result().getJsonObject("org.telestion.configuration").mapTo(Configuration.class);
-			conf.verticles().stream().flatMap(c -> Collections.nCopies(c.magnitude(), c).stream()).forEach(v -> {
-				logger.info("Deploying {}", v.name());
-				var future = vertx.deployVerticle(v.verticle(), new DeploymentOptions().setConfig(v.jsonConfig()));
-				future.onFailure(Throwable::printStackTrace);
-			});
-			startPromise.complete();
+
+			Configuration conf;
+			DeploymentPlanner planner;
+			try {
+				conf = configurationOf(configRes.result());
+				planner = DeploymentPlanner.plan(conf.verticles());
+			} catch (IllegalArgumentException e) {
+				logger.error("Invalid verticle configuration", e);
+				startPromise.fail(e);
+				return;
+			}
+
+			if (conf.watch_config()) {
+				TelestionVerticle.enableConfigChanges(vertx);
+			}
+			planner.deploy(vertx).onSuccess(deployments -> {
+				if (conf.watch_config()) {
+					watch(new ConfigWatcher(vertx, deployments));
+				}
+			}).<Void>mapEmpty().onComplete(startPromise);
 		});
 	}
 
 	@Override
 	public void stop(Promise<Void> stopPromise) throws Exception {
+		if (retriever != null) {
+			retriever.close();
+		}
+		stopPromise.complete();
+	}
 
+	/**
+	 * Applies every change of the configuration after the previous change is applied.
+	 */
+	private void watch(ConfigWatcher watcher) {
+		logger.info("Watching the configuration for changes");
+		retriever.listen(change -> {
+			Configuration conf;
+			try {
+				conf = configurationOf(change.getNewConfiguration());
+			} catch (IllegalArgumentException e) {
+				logger.error("Ignoring invalid configuration change", e);
+				return;
+			}
+
+			pendingUpdate = pendingUpdate
+					.transform(previous -> watcher.update(conf.verticles()))
+					.onFailure(cause -> logger.error("Failed to apply configuration change", cause));
+		});
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the configuration is missing or invalid
+	 */
+	private static Configuration configurationOf(JsonObject config) {
+		var conf = config.getJsonObject("org.telestion.configuration");
+		if (conf == null) {
+			throw new IllegalArgumentException("The configuration contains no org.telestion.configuration");
+		}
+		return conf.mapTo(Configuration.class);
 	}
 }
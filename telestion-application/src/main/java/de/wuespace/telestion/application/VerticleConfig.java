@@ -3,21 +3,34 @@ package de.wuespace.telestion.application;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.vertx.core.json.JsonObject;
+import java.util.List;
 
 /**
  * The base configuration of verticles.
+ * <p>
+ * The {@code depends_on} list contains the names of other verticles which must be deployed successfully
+ * before this verticle is deployed.
+ * Verticles without dependencies between them are deployed in parallel.
  *
  * @author Jan von Pichowski
+ * @see DeploymentPlanner
  */
 public record VerticleConfig(@JsonProperty String name, @JsonProperty String verticle, @JsonProperty int magnitude,
-		@JsonProperty JsonNode config) {
+		@JsonProperty JsonNode config, @JsonProperty List<String> depends_on) {
+
+	/**
+	 * Creates a verticle configuration without any dependencies.
+	 */
+	public VerticleConfig(String name, String verticle, int magnitude, JsonNode config) {
+		this(name, verticle, magnitude, config, List.of());
+	}
 
 	/**
 	 * Only for deserialization.
 	 */
 	@SuppressWarnings("unused")
 	private VerticleConfig() {
-		this(null, null, 0, null);
+		this(null, null, 0, null, null);
 	}
 
 	/**
@@ -32,9 +45,18 @@ public record VerticleConfig(@JsonProperty String name, @JsonProperty String ver
 	/**
 	 * The config is a JsonObject which is defined by the verticle.
 	 *
-	 * @return the json representation of the config node
+	 * @return the json representation of the config node or an empty JsonObject if no config is defined
 	 */
 	public JsonObject jsonConfig() {
-		return new JsonObject(config().toString());
+		return config() == null ? new JsonObject() : new JsonObject(config().toString());
+	}
+
+	/**
+	 * The names of the verticles which must be deployed before this verticle.
+	 *
+	 * @return the names of the dependencies or an empty list if there are none
+	 */
+	public List<String> dependencies() {
+		return depends_on() == null ? List.of() : depends_on();
 	}
 }
@@ -0,0 +1,156 @@
+package de.wuespace.telestion.application;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import de.wuespace.telestion.api.verticle.NonReloadable;
+import de.wuespace.telestion.api.verticle.TelestionConfiguration;
+import de.wuespace.telestion.api.verticle.TelestionVerticle;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.junit5.Checkpoint;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(VertxExtension.class)
+public class ConfigWatcherTest {
+
+	@BeforeEach
+	void setUp(Vertx vertx, VertxTestContext testContext) {
+		TelestionVerticle.enableConfigChanges(vertx);
+		changed = null;
+		DeploymentPlanner.plan(List.of(config("sensor", 2, 8080, 0.5))).deploy(vertx)
+				.onComplete(testContext.succeeding(deployments -> {
+					watcher = new ConfigWatcher(vertx, deployments);
+					EVENTS.clear();
+					testContext.completeNow();
+				}));
+	}
+
+	@Test
+	void shouldPushReloadableChangesIntoTheRunningInstances(Vertx vertx, VertxTestContext testContext)
+			throws Exception {
+		var deploymentId = watcher.deployments().get(0).deploymentId();
+		var updated = testContext.checkpoint();
+		changed = testContext.checkpoint(2);
+
+		watcher.update(List.of(config("sensor", 2, 8080, 0.75)))
+				.onComplete(testContext.succeeding(deployments -> updated.flag()));
+
+		assertThat(testContext.awaitCompletion(5, TimeUnit.SECONDS), is(true));
+		assertThat(EVENTS, contains("change 0.5 -> 0.75", "change 0.5 -> 0.75"));
+		assertThat(watcher.deployments().get(0).deploymentId(), is(deploymentId));
+		assertThat(vertx.deploymentIDs(), contains(deploymentId));
+	}
+
+	@Test
+	void shouldRedeployOnNonReloadableChanges(Vertx vertx, VertxTestContext testContext) {
+		var deploymentId = watcher.deployments().get(0).deploymentId();
+
+		watcher.update(List.of(config("sensor", 2, 9090, 0.5)))
+				.onComplete(testContext.succeeding(deployments -> testContext.verify(() -> {
+					var redeployed = watcher.deployments().get(0).deploymentId();
+					assertThat(redeployed, is(not(deploymentId)));
+					assertThat(vertx.deploymentIDs(), contains(redeployed));
+					assertThat(EVENTS, contains("start 9090", "start 9090"));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldRedeployIfTheMagnitudeChanges(VertxTestContext testContext) {
+		watcher.update(List.of(config("sensor", 3, 8080, 0.5)))
+				.onComplete(testContext.succeeding(deployments -> testContext.verify(() -> {
+					assertThat(watcher.deployments().get(0).instances(), is(3));
+					assertThat(EVENTS, hasSize(3));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldDeployAddedAndUndeployRemovedVerticles(Vertx vertx, VertxTestContext testContext) {
+		watcher.update(List.of(config("sensor", 2, 8080, 0.5), config("monitor", 1, 7070, 0.1, "sensor")))
+				.compose(added -> {
+					testContext.verify(() -> {
+						assertThat(watcher.deployments().stream().map(DeploymentPlanner.Deployment::name).toList(),
+								contains("sensor", "monitor"));
+						assertThat(EVENTS, contains("start 7070"));
+					});
+					return watcher.update(List.of(config("monitor", 1, 7070, 0.1)));
+				})
+				.onComplete(testContext.succeeding(removed -> testContext.verify(() -> {
+					assertThat(watcher.deployments().stream().map(DeploymentPlanner.Deployment::name).toList(),
+							contains("monitor"));
+					assertThat(vertx.deploymentIDs(), hasSize(1));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldIgnoreUnchangedConfigurations(VertxTestContext testContext) {
+		var deployments = watcher.deployments();
+
+		watcher.update(List.of(config("sensor", 2, 8080, 0.5)))
+				.onComplete(testContext.succeeding(unchanged -> testContext.verify(() -> {
+					assertThat(watcher.deployments(), is(deployments));
+					assertThat(EVENTS, is(empty()));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldOnlyListenForChangesIfTheyAreEnabled(VertxTestContext testContext) {
+		var unwatched = Vertx.vertx();
+		DeploymentPlanner.plan(List.of(config("sensor", 1, 8080, 0.5))).deploy(unwatched)
+				.compose(deployments -> unwatched.eventBus().request(
+						TelestionVerticle.configChangeAddress(deployments.get(0).deploymentId()), ""))
+				.onComplete(testContext.failing(failure -> testContext.verify(() -> {
+					assertThat(((ReplyException) failure).failureType(), is(ReplyFailure.NO_HANDLERS));
+					unwatched.close().onComplete(testContext.succeedingThenComplete());
+				})));
+	}
+
+	public record SensorConfiguration(@NonReloadable @JsonProperty int port, @JsonProperty double threshold)
+			implements TelestionConfiguration {
+	}
+
+	public static class SensorVerticle extends TelestionVerticle<SensorConfiguration> {
+		@Override
+		public void onStart() {
+			EVENTS.add("start " + getConfig().port());
+		}
+
+		@Override
+		public void onConfigChange(SensorConfiguration old, SensorConfiguration updated) {
+			EVENTS.add("change " + old.threshold() + " -> " + getConfig().threshold());
+			if (Objects.nonNull(changed)) {
+				changed.flag();
+			}
+		}
+	}
+
+	private static VerticleConfig config(String name, int magnitude, int port, double threshold, String... dependsOn) {
+		var config = JsonNodeFactory.instance.objectNode().put("port", port).put("threshold", threshold);
+		return new VerticleConfig(name, SensorVerticle.class.getName(), magnitude, config, List.of(dependsOn));
+	}
+
+	private static final List<String> EVENTS = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Flagged by every configuration change of a {@link SensorVerticle} if set.
+	 */
+	private static volatile Checkpoint changed;
+
+	private ConfigWatcher watcher;
+}
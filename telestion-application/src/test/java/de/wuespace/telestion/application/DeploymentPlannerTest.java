@@ -0,0 +1,131 @@
+package de.wuespace.telestion.application;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(VertxExtension.class)
+public class DeploymentPlannerTest {
+
+	@BeforeEach
+	void setUp() {
+		STARTED.clear();
+	}
+
+	@Test
+	void shouldOrderVerticlesAfterTheirDependencies() {
+		var a = config("a", 1, "c");
+		var b = config("b", 1);
+		var c = config("c", 1, "b");
+		var d = config("d", 1);
+
+		assertThat(DeploymentPlanner.plan(List.of(a, b, c, d)).order(), contains(b, c, a, d));
+	}
+
+	@Test
+	void shouldReadTheDependenciesFromTheConfiguration() {
+		var config = new JsonObject()
+				.put("name", "monitor")
+				.put("verticle", Recording.class.getName())
+				.put("magnitude", 1)
+				.put("depends_on", new JsonArray().add("sensor"))
+				.mapTo(VerticleConfig.class);
+
+		assertThat(config.dependencies(), contains("sensor"));
+		assertThat(config.json().getJsonArray("depends_on"), is(new JsonArray().add("sensor")));
+	}
+
+	@Test
+	void shouldRejectUnknownDependencies() {
+		var exception = assertThrows(IllegalArgumentException.class,
+				() -> DeploymentPlanner.plan(List.of(config("a", 1, "missing"))));
+
+		assertThat(exception.getMessage(), containsString("missing"));
+	}
+
+	@Test
+	void shouldRejectCyclicDependencies() {
+		var verticles = List.of(config("a", 1, "b"), config("b", 1, "c"), config("c", 1, "a"));
+
+		var exception = assertThrows(IllegalArgumentException.class, () -> DeploymentPlanner.plan(verticles));
+
+		assertThat(exception.getMessage(), containsString("a -> b -> c -> a"));
+	}
+
+	@Test
+	void shouldDeployAllInstancesOfAVerticleAtOnce(Vertx vertx, VertxTestContext testContext) {
+		deploy(vertx, config("sensor", 3)).onComplete(testContext.succeeding(deployments -> testContext.verify(() -> {
+			assertThat(deployments, hasSize(1));
+			assertThat(deployments.get(0).instances(), is(3));
+			assertThat(deployments.get(0).deploymentId(), is(notNullValue()));
+			assertThat(STARTED, contains("sensor", "sensor", "sensor"));
+			assertThat(vertx.deploymentIDs(), hasSize(1));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldDeployDependenciesFirst(Vertx vertx, VertxTestContext testContext) {
+		deploy(vertx, config("consumer", 1, "producer"), config("producer", 2))
+				.onComplete(testContext.succeeding(deployments -> testContext.verify(() -> {
+					assertThat(deployments.stream().map(DeploymentPlanner.Deployment::name).toList(),
+							contains("producer", "consumer"));
+					assertThat(STARTED, contains("producer", "producer", "consumer"));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldSkipDependentsOfFailedVerticles(Vertx vertx, VertxTestContext testContext) {
+		deploy(vertx,
+				new VerticleConfig("broken", Failing.class.getName(), 1, null),
+				config("dependent", 1, "broken"),
+				config("independent", 1)
+		).onComplete(testContext.failing(failure -> testContext.verify(() -> {
+			assertThat(failure.getMessage(), containsString("[broken, dependent]"));
+			assertThat(STARTED, contains("independent"));
+			testContext.completeNow();
+		})));
+	}
+
+	public static class Recording extends AbstractVerticle {
+		@Override
+		public void start() {
+			STARTED.add(config().getString("name"));
+		}
+	}
+
+	public static class Failing extends AbstractVerticle {
+		@Override
+		public void start(Promise<Void> startPromise) {
+			startPromise.fail("broken on purpose");
+		}
+	}
+
+	private static Future<List<DeploymentPlanner.Deployment>> deploy(Vertx vertx, VerticleConfig... verticles) {
+		return DeploymentPlanner.plan(List.of(verticles)).deploy(vertx);
+	}
+
+	private static VerticleConfig config(String name, int magnitude, String... dependsOn) {
+		var config = JsonNodeFactory.instance.objectNode().put("name", name);
+		return new VerticleConfig(name, Recording.class.getName(), magnitude, config, List.of(dependsOn));
+	}
+
+	private static final List<String> STARTED = new CopyOnWriteArrayList<>();
+}
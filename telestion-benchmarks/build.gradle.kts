@@ -0,0 +1,15 @@
+plugins {
+    id("telestion-java-benchmark")
+}
+
+telestion {
+    prettyName.set("Telestion Benchmarks")
+    description.set("JMH benchmarks for the hot paths of Telestion Core")
+}
+
+dependencies {
+    implementation(project(":telestion-api"))
+    implementation(project(":telestion-services"))
+    implementation(libs.jmh.core)
+    annotationProcessor(libs.jmh.generator.annprocess)
+}
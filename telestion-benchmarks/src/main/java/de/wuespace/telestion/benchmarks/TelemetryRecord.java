@@ -0,0 +1,61 @@
+package de.wuespace.telestion.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.api.message.JsonRecord;
+
+/**
+ * A telemetry frame with 30 fields like it is sent by typical sensor verticles.
+ */
+public record TelemetryRecord(
+		@JsonProperty long time,
+		@JsonProperty long sequence,
+		@JsonProperty int spacecraftId,
+		@JsonProperty int sensorId,
+		@JsonProperty String mode,
+		@JsonProperty String source,
+		@JsonProperty double latitude,
+		@JsonProperty double longitude,
+		@JsonProperty double altitude,
+		@JsonProperty double velocityX,
+		@JsonProperty double velocityY,
+		@JsonProperty double velocityZ,
+		@JsonProperty double accelerationX,
+		@JsonProperty double accelerationY,
+		@JsonProperty double accelerationZ,
+		@JsonProperty double quaternionW,
+		@JsonProperty double quaternionX,
+		@JsonProperty double quaternionY,
+		@JsonProperty double quaternionZ,
+		@JsonProperty double gyroX,
+		@JsonProperty double gyroY,
+		@JsonProperty double gyroZ,
+		@JsonProperty double temperature,
+		@JsonProperty double pressure,
+		@JsonProperty double humidity,
+		@JsonProperty double batteryVoltage,
+		@JsonProperty double batteryCurrent,
+		@JsonProperty int signalStrength,
+		@JsonProperty boolean healthy,
+		@JsonProperty boolean safeMode
+) implements JsonRecord {
+
+	/**
+	 * Creates a telemetry frame with realistic values.
+	 *
+	 * @param sequence the sequence number of the frame
+	 * @return a new telemetry frame
+	 */
+	public static TelemetryRecord sample(long sequence) {
+		return new TelemetryRecord(
+				1_650_000_000_000L + sequence, sequence, 3, 17, "nominal", "obc-primary",
+				49.7913, 9.9534, 408_123.25,
+				7.66, -0.12, 0.03,
+				0.001, -0.0004, 9.81,
+				0.7071, 0.0, 0.7071, 0.0,
+				0.012, -0.004, 0.0007,
+				21.5, 1013.25, 0.42,
+				28.1, 1.37,
+				-67, true, false
+		);
+	}
+}
@@ -0,0 +1,89 @@
+package de.wuespace.telestion.benchmarks.message;
+
+import de.wuespace.telestion.api.message.HeaderInformation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the typed accessors of {@link HeaderInformation} with the numeric headers
+ * a typical verticle attaches to every telemetry frame.
+ * <p>
+ * {@link #addNumericHeadersAsVarargs()} keeps the boxed varargs path as baseline
+ * for the primitive overloads used in {@link #addNumericHeaders()}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeaderInformationBenchmark {
+
+	private HeaderInformation filled;
+
+	@Setup
+	public void setup() {
+		filled = new HeaderInformation()
+				.add("sequence", 123_456L)
+				.add("spacecraft", 3)
+				.add("sensor", 17)
+				.add("time", 1_650_000_000_000L)
+				.add("quality", 0.97)
+				.add("valid", true);
+	}
+
+	@Benchmark
+	public HeaderInformation addNumericHeaders() {
+		return new HeaderInformation()
+				.add("sequence", 123_456L)
+				.add("spacecraft", 3)
+				.add("sensor", 17)
+				.add("time", 1_650_000_000_000L)
+				.add("quality", 0.97);
+	}
+
+	/**
+	 * The boxed varargs path that was used for all numeric headers before the primitive overloads existed.
+	 */
+	@Benchmark
+	public HeaderInformation addNumericHeadersAsVarargs() {
+		return new HeaderInformation()
+				.add("sequence", new Long[]{123_456L})
+				.add("spacecraft", new Integer[]{3})
+				.add("sensor", new Integer[]{17})
+				.add("time", new Long[]{1_650_000_000_000L})
+				.add("quality", new Double[]{0.97});
+	}
+
+	@Benchmark
+	public HeaderInformation setNumericHeaders() {
+		return filled
+				.set("sequence", 123_457L)
+				.set("spacecraft", 3)
+				.set("quality", 0.98);
+	}
+
+	@Benchmark
+	public long getNumericHeadersWithDefault() {
+		return filled.getLong("sequence", -1L)
+				+ filled.getInt("spacecraft", -1)
+				+ filled.getInt("sensor", -1)
+				+ filled.getLong("time", -1L)
+				+ (long) filled.getDouble("quality", -1.0);
+	}
+
+	@Benchmark
+	public long getNumericHeadersAsOptional() {
+		return filled.getLong("sequence").orElse(-1L)
+				+ filled.getInt("spacecraft").orElse(-1)
+				+ filled.getInt("sensor").orElse(-1)
+				+ filled.getLong("time").orElse(-1L)
+				+ filled.getDouble("quality").map(Double::longValue).orElse(-1L);
+	}
+
+	@Benchmark
+	public boolean getBooleanHeader() {
+		return filled.getBoolean("valid", false);
+	}
+}
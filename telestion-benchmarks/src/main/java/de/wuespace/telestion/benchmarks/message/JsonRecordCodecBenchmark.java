@@ -0,0 +1,112 @@
+package de.wuespace.telestion.benchmarks.message;
+
+import de.wuespace.telestion.api.message.JsonRecord;
+import de.wuespace.telestion.benchmarks.TelemetryRecord;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the decoding and encoding throughput of a 30-field {@link TelemetryRecord}
+ * through the global {@link Json#CODEC Vert.x JSON codec} (before)
+ * and the cached readers and writers of the {@link JsonRecord} methods (after).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonRecordCodecBenchmark {
+
+	private static final int FRAME_HEADER = 16;
+
+	private TelemetryRecord record;
+	private Buffer buffer;
+	private Buffer frame;
+	private String string;
+	private JsonObject object;
+
+	@Setup
+	public void setup() {
+		JsonRecord.prepare(TelemetryRecord.class);
+		record = TelemetryRecord.sample(42);
+		buffer = record.toJsonBuffer();
+		frame = Buffer.buffer().appendBytes(new byte[FRAME_HEADER]).appendBuffer(buffer);
+		string = record.toJsonString();
+		object = record.toJsonObject();
+	}
+
+	@Benchmark
+	public TelemetryRecord decodeBufferWithJsonCodec() {
+		return Json.CODEC.fromBuffer(buffer, TelemetryRecord.class);
+	}
+
+	@Benchmark
+	public TelemetryRecord decodeBuffer() {
+		return JsonRecord.from(buffer, TelemetryRecord.class);
+	}
+
+	@Benchmark
+	public TelemetryRecord decodeFramePayloadWithCopy() {
+		return JsonRecord.from(frame.getBuffer(FRAME_HEADER, frame.length()), TelemetryRecord.class);
+	}
+
+	@Benchmark
+	public TelemetryRecord decodeFramePayload() {
+		return JsonRecord.fromSlice(frame, FRAME_HEADER, frame.length() - FRAME_HEADER, TelemetryRecord.class);
+	}
+
+	@Benchmark
+	public TelemetryRecord decodeStringWithJsonCodec() {
+		return Json.CODEC.fromString(string, TelemetryRecord.class);
+	}
+
+	@Benchmark
+	public TelemetryRecord decodeString() {
+		return JsonRecord.from(string, TelemetryRecord.class);
+	}
+
+	@Benchmark
+	public TelemetryRecord decodeJsonObjectWithJsonCodec() {
+		return Json.CODEC.fromValue(object, TelemetryRecord.class);
+	}
+
+	@Benchmark
+	public TelemetryRecord decodeJsonObject() {
+		return JsonRecord.from(object, TelemetryRecord.class);
+	}
+
+	@Benchmark
+	public Buffer encodeBufferWithJsonCodec() {
+		return Json.CODEC.toBuffer(record, false);
+	}
+
+	@Benchmark
+	public Buffer encodeBuffer() {
+		return record.toJsonBuffer();
+	}
+
+	@Benchmark
+	public String encodeStringWithJsonCodec() {
+		return Json.CODEC.toString(record, false);
+	}
+
+	@Benchmark
+	public String encodeString() {
+		return record.toJsonString();
+	}
+
+	@Benchmark
+	public JsonObject encodeJsonObjectWithJsonCodec() {
+		return JsonObject.mapFrom(record);
+	}
+
+	@Benchmark
+	public JsonObject encodeJsonObject() {
+		return record.toJsonObject();
+	}
+}
@@ -0,0 +1,57 @@
+package de.wuespace.telestion.benchmarks.message;
+
+import de.wuespace.telestion.api.message.MultiMapUtils;
+import io.vertx.core.MultiMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link MultiMapUtils#merge(MultiMap...)} with the number of header maps
+ * that the {@code publish}, {@code send} and {@code request} traits usually receive
+ * and compares it with the lazily merged {@link MultiMapUtils#compose(MultiMap...) composite view}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiMapUtilsBenchmark {
+
+	private MultiMap first;
+	private MultiMap second;
+	private MultiMap third;
+
+	@Setup
+	public void setup() {
+		first = MultiMap.caseInsensitiveMultiMap().add("sequence", "123456").add("spacecraft", "3");
+		second = MultiMap.caseInsensitiveMultiMap().add("sensor", "17").add("time", "1650000000000");
+		third = MultiMap.caseInsensitiveMultiMap().add("quality", "0.97").add("valid", "true");
+	}
+
+	@Benchmark
+	public MultiMap mergeNone() {
+		return MultiMapUtils.merge();
+	}
+
+	@Benchmark
+	public MultiMap mergeOne() {
+		return MultiMapUtils.merge(first);
+	}
+
+	@Benchmark
+	public MultiMap mergeThree() {
+		return MultiMapUtils.merge(first, second, third);
+	}
+
+	@Benchmark
+	public String mergeThreeAndRead() {
+		return MultiMapUtils.merge(first, second, third).get("sensor");
+	}
+
+	@Benchmark
+	public String composeThreeAndRead() {
+		return MultiMapUtils.compose(first, second, third).get("sensor");
+	}
+}
@@ -0,0 +1,80 @@
+package de.wuespace.telestion.benchmarks.recording;
+
+import de.wuespace.telestion.api.message.HeaderInformation;
+import de.wuespace.telestion.api.message.JsonRecord;
+import de.wuespace.telestion.benchmarks.TelemetryRecord;
+import de.wuespace.telestion.services.recording.SegmentLog;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the appends of a 30-field {@link TelemetryRecord} and of a 256 byte {@link Buffer} frame
+ * with headers to the memory-mapped segments of a {@link SegmentLog} on one thread.
+ * The log syncs every {@value #SYNC_INTERVAL} appends, which is the batch of a busy sync interval.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SegmentLogBenchmark {
+
+	public static final int SYNC_INTERVAL = 100_000;
+
+	private Path directory;
+	private SegmentLog log;
+	private TelemetryRecord record;
+	private Buffer frame;
+	private MultiMap headers;
+	private long timestamp;
+
+	@Setup
+	public void setup() throws IOException {
+		JsonRecord.prepare(TelemetryRecord.class);
+		directory = Files.createTempDirectory("telestion-segment-log-benchmark");
+		// keeps the disk usage of the benchmark bounded
+		log = SegmentLog.open(new SegmentLog.Options(directory, 64 * 1024 * 1024, 4096, 512L * 1024 * 1024,
+				Duration.ZERO));
+		record = TelemetryRecord.sample(42);
+		frame = Buffer.buffer(new byte[256]);
+		headers = new HeaderInformation().add("version", 2).add("source", "benchmark");
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		log.close();
+		try (var files = Files.walk(directory)) {
+			for (var file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(file);
+			}
+		}
+	}
+
+	@Benchmark
+	public SegmentLog.AppendResult appendRecord() {
+		return append(record);
+	}
+
+	@Benchmark
+	public SegmentLog.AppendResult appendFrame() {
+		return append(frame);
+	}
+
+	private SegmentLog.AppendResult append(Object body) {
+		var result = log.append(timestamp++, "benchmark/telemetry", headers, body);
+		// like the recorder, syncs right away if the next segment is not prepared yet
+		if (result == SegmentLog.AppendResult.NO_SEGMENT || timestamp % SYNC_INTERVAL == 0) {
+			log.sync().run();
+		}
+		return result;
+	}
+}
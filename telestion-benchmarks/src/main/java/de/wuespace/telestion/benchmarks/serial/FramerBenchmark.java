@@ -0,0 +1,113 @@
+package de.wuespace.telestion.benchmarks.serial;
+
+import de.wuespace.telestion.services.serial.Framer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast the {@link Framer framers} find and decode 256 byte frames in a 64 KiB read of a serial port.
+ * The frames are decoded in place, so every invocation first restores the encoded read with one array copy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FramerBenchmark {
+
+	public static final int READ_SIZE = 64 * 1024;
+	public static final int FRAME_SIZE = 256;
+
+	private byte[] cobs;
+	private byte[] slip;
+	private byte[] length;
+	private byte[] work;
+
+	@Setup
+	public void setup() {
+		var random = new Random(42);
+		var cobsStream = new ByteArrayOutputStream();
+		var slipStream = new ByteArrayOutputStream();
+		var lengthStream = new ByteArrayOutputStream();
+		var frame = new byte[FRAME_SIZE];
+		while (cobsStream.size() < READ_SIZE - 2 * FRAME_SIZE) {
+			random.nextBytes(frame);
+			writeCobs(cobsStream, frame);
+			writeSlip(slipStream, frame);
+			lengthStream.write(FRAME_SIZE >> 8);
+			lengthStream.write(FRAME_SIZE & 0xff);
+			lengthStream.writeBytes(frame);
+		}
+		cobs = cobsStream.toByteArray();
+		slip = slipStream.toByteArray();
+		length = lengthStream.toByteArray();
+		work = new byte[READ_SIZE];
+	}
+
+	@Benchmark
+	public int cobs(Blackhole blackhole) {
+		return decode(Framer.cobs(1024), cobs, blackhole);
+	}
+
+	@Benchmark
+	public int slip(Blackhole blackhole) {
+		return decode(Framer.slip(1024), slip, blackhole);
+	}
+
+	@Benchmark
+	public int lengthPrefix(Blackhole blackhole) {
+		return decode(Framer.lengthPrefix(2, 1024), length, blackhole);
+	}
+
+	private int decode(Framer framer, byte[] stream, Blackhole blackhole) {
+		System.arraycopy(stream, 0, work, 0, stream.length);
+		return framer.decode(work, 0, stream.length, new Framer.Sink() {
+			@Override
+			public void frame(int start, int end) {
+				blackhole.consume(end - start);
+			}
+
+			@Override
+			public void invalid() {
+				throw new IllegalStateException("invalid frame");
+			}
+		});
+	}
+
+	private static void writeCobs(ByteArrayOutputStream stream, byte[] frame) {
+		var blockStart = 0;
+		for (var i = 0; i <= frame.length; i++) {
+			if (i - blockStart == 254) {
+				stream.write(0xff);
+				stream.write(frame, blockStart, 254);
+				blockStart = i;
+			}
+			if (i == frame.length || frame[i] == 0) {
+				stream.write(i - blockStart + 1);
+				stream.write(frame, blockStart, i - blockStart);
+				blockStart = i + 1;
+			}
+		}
+		stream.write(0);
+	}
+
+	private static void writeSlip(ByteArrayOutputStream stream, byte[] frame) {
+		for (var value : frame) {
+			if (value == (byte) 0xc0) {
+				stream.write(0xdb);
+				stream.write(0xdc);
+			} else if (value == (byte) 0xdb) {
+				stream.write(0xdb);
+				stream.write(0xdd);
+			} else {
+				stream.write(value);
+			}
+		}
+		stream.write(0xc0);
+	}
+}
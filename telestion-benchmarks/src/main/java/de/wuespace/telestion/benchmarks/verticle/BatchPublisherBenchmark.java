@@ -0,0 +1,114 @@
+package de.wuespace.telestion.benchmarks.verticle;
+
+import de.wuespace.telestion.api.verticle.trait.BatchPublisher;
+import de.wuespace.telestion.api.verticle.trait.WithEventBus;
+import de.wuespace.telestion.api.verticle.trait.WithTiming;
+import de.wuespace.telestion.benchmarks.TelemetryRecord;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Vertx;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the delivery of telemetry records from one verticle to another,
+ * published one by one via {@link WithEventBus#publish(String, de.wuespace.telestion.api.message.JsonRecord)}
+ * and in batches via the {@link BatchPublisher}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchPublisherBenchmark {
+
+	public static final String SINGLE_ADDRESS = "benchmark/telemetry/single";
+	public static final String BATCH_ADDRESS = "benchmark/telemetry/batch";
+
+	public static final int RECORDS = 64;
+
+	/**
+	 * Counts the received records on both addresses.
+	 */
+	public class Consumer extends AbstractVerticle implements WithEventBus {
+		@Override
+		public void start() {
+			register(SINGLE_ADDRESS, record -> received.countDown(), TelemetryRecord.class);
+			registerBatch(BATCH_ADDRESS, batch -> {
+				for (int i = 0; i < batch.size(); i++) {
+					received.countDown();
+				}
+			}, TelemetryRecord.class);
+		}
+	}
+
+	/**
+	 * Publishes the records one by one or in batches.
+	 */
+	public static class Producer extends AbstractVerticle implements WithEventBus, WithTiming {
+		private BatchPublisher<TelemetryRecord> batchPublisher;
+
+		@Override
+		public void start() {
+			batchPublisher = BatchPublisher.create(this, RECORDS, Duration.ofMillis(10));
+		}
+
+		void publishOneByOne(TelemetryRecord[] records) {
+			context.runOnContext(v -> {
+				for (var record : records) {
+					publish(SINGLE_ADDRESS, record);
+				}
+			});
+		}
+
+		void publishInBatches(TelemetryRecord[] records) {
+			context.runOnContext(v -> {
+				for (var record : records) {
+					batchPublisher.publish(BATCH_ADDRESS, record);
+				}
+			});
+		}
+	}
+
+	private Vertx vertx;
+	private Producer producer;
+	private TelemetryRecord[] records;
+	private volatile CountDownLatch received;
+
+	@Setup
+	public void setup() throws Exception {
+		vertx = Vertx.vertx();
+		producer = new Producer();
+		vertx.deployVerticle(new Consumer()).toCompletionStage().toCompletableFuture().get();
+		vertx.deployVerticle(producer).toCompletionStage().toCompletableFuture().get();
+
+		records = new TelemetryRecord[RECORDS];
+		for (int i = 0; i < RECORDS; i++) {
+			records[i] = TelemetryRecord.sample(i);
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		vertx.close().toCompletionStage().toCompletableFuture().get();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RECORDS)
+	public void publishOneByOne() throws Exception {
+		received = new CountDownLatch(RECORDS);
+		producer.publishOneByOne(records);
+		received.await();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RECORDS)
+	public void publishInBatches() throws Exception {
+		received = new CountDownLatch(RECORDS);
+		producer.publishInBatches(records);
+		received.await();
+	}
+}
@@ -0,0 +1,69 @@
+package de.wuespace.telestion.benchmarks.verticle;
+
+import de.wuespace.telestion.api.verticle.trait.ResponseMessageWrapper;
+import de.wuespace.telestion.api.verticle.trait.WithEventBus;
+import de.wuespace.telestion.benchmarks.TelemetryRecord;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures local event bus round trips through
+ * {@link de.wuespace.telestion.api.verticle.trait.WithEventBusRequest#request(String,
+ * de.wuespace.telestion.api.message.JsonRecord, Class) WithEventBusRequest.request(address, request, responseType)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventBusRequestBenchmark {
+
+	public static final String ADDRESS = "benchmark/telemetry";
+
+	/**
+	 * Answers every telemetry request with the received record.
+	 */
+	public static class Responder extends AbstractVerticle implements WithEventBus {
+		@Override
+		public void start() {
+			register(ADDRESS, (TelemetryRecord body, Message<Object> message) ->
+					message.reply(body.toJsonObject()), TelemetryRecord.class);
+		}
+	}
+
+	/**
+	 * Sends the requests through the {@link WithEventBus} trait.
+	 */
+	public static class Requester extends AbstractVerticle implements WithEventBus {
+	}
+
+	private Vertx vertx;
+	private Requester requester;
+	private TelemetryRecord record;
+
+	@Setup
+	public void setup() throws Exception {
+		vertx = Vertx.vertx();
+		requester = new Requester();
+		vertx.deployVerticle(new Responder()).toCompletionStage().toCompletableFuture().get();
+		vertx.deployVerticle(requester).toCompletionStage().toCompletableFuture().get();
+		record = TelemetryRecord.sample(42);
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		vertx.close().toCompletionStage().toCompletableFuture().get();
+	}
+
+	@Benchmark
+	public ResponseMessageWrapper<TelemetryRecord, JsonObject> requestRoundTrip() throws Exception {
+		return requester.<TelemetryRecord, JsonObject>request(ADDRESS, record, TelemetryRecord.class)
+				.toCompletionStage().toCompletableFuture().get();
+	}
+}
@@ -0,0 +1,73 @@
+package de.wuespace.telestion.benchmarks.verticle;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.api.verticle.TelestionConfiguration;
+import de.wuespace.telestion.api.verticle.TelestionVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the startup of {@value #INSTANCES} instances of a {@link TelestionVerticle}
+ * whose typed configuration is merged with the default configuration on every start.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VerticleStartupBenchmark {
+
+	public static final int INSTANCES = 1000;
+
+	public record Configuration(
+			@JsonProperty String address,
+			@JsonProperty int capacity,
+			@JsonProperty double threshold,
+			@JsonProperty boolean enabled
+	) implements TelestionConfiguration {
+		public Configuration() {
+			this("benchmark/startup", 64, 0.5, true);
+		}
+	}
+
+	public static class ConfiguredVerticle extends TelestionVerticle<Configuration> {
+		@Override
+		public void onStart() {
+			getConfig();
+		}
+	}
+
+	private Vertx vertx;
+	private DeploymentOptions options;
+	private String deploymentId;
+
+	@Setup
+	public void setup() {
+		vertx = Vertx.vertx();
+		options = new DeploymentOptions()
+				.setInstances(INSTANCES)
+				.setConfig(new JsonObject().put("capacity", 128).put("enabled", false));
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		vertx.close().toCompletionStage().toCompletableFuture().get();
+	}
+
+	@TearDown(Level.Invocation)
+	public void undeploy() throws Exception {
+		vertx.undeploy(deploymentId).toCompletionStage().toCompletableFuture().get();
+	}
+
+	@Benchmark
+	public String deployInstances() throws Exception {
+		deploymentId = vertx.deployVerticle(ConfiguredVerticle.class, options)
+				.toCompletionStage().toCompletableFuture().get();
+		return deploymentId;
+	}
+}
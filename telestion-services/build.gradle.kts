@@ -12,7 +12,10 @@ dependencies {
     implementation(libs.vertx.web)
     implementation(libs.vertx.circuitbreaker)
     implementation(libs.jserialcomm)
+    implementation(libs.hdrhistogram)
+    implementation(libs.jackson.dataformat.cbor)
 
+    testImplementation(testFixtures(project(":telestion-api")))
     testImplementation(libs.junit.jupiter.api)
     testImplementation(libs.hamcrest.core)
     testImplementation(libs.hamcrest.library)
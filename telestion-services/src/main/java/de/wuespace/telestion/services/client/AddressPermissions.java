@@ -0,0 +1,138 @@
+package de.wuespace.telestion.services.client;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Decides which event bus addresses the bridge clients may use.
+ * <p>
+ * The permitted addresses are compiled into a prefix trie over their {@code /}-separated segments,
+ * so a check walks the segments of the address once, independent of the number of permitted addresses.
+ * The results are memoized per address, because the clients use the same few addresses over and over.
+ * At most {@value #MAX_MEMOIZED} results are kept, and the least recently used ones are forgotten.
+ * <p>
+ * The permitted addresses are compared literally. A permission with sub addresses additionally permits every
+ * address below it, e.g. {@code telemetry} permits {@code telemetry/position}, but not {@code telemetry-raw}.
+ * <p>
+ * The permissions are not thread-safe. Use them on the context of the verticle.
+ *
+ * @see WebClientBridge.Configuration#outboundPermitted()
+ */
+final class AddressPermissions implements Predicate<String> {
+
+	/**
+	 * @return permissions that only permit the given addresses
+	 */
+	static AddressPermissions exact(Collection<String> addresses) {
+		return new AddressPermissions(addresses, false);
+	}
+
+	/**
+	 * @return permissions that permit the given addresses and all addresses below them
+	 */
+	static AddressPermissions withSubAddresses(Collection<String> addresses) {
+		return new AddressPermissions(addresses, true);
+	}
+
+	/**
+	 * @return {@code true} if the address is permitted
+	 */
+	@Override
+	public boolean test(String address) {
+		if (Objects.isNull(address)) {
+			return false;
+		}
+
+		var memoized = results.get(address);
+		if (Objects.nonNull(memoized)) {
+			hits++;
+			return memoized;
+		}
+		misses++;
+		var permitted = match(address);
+		results.put(address, permitted);
+		return permitted;
+	}
+
+	/**
+	 * @return the memoization statistics of the checks
+	 */
+	WebClientBridge.PermissionMetrics metrics() {
+		return new WebClientBridge.PermissionMetrics(hits, misses, results.size());
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private AddressPermissions(Collection<String> addresses, boolean subAddresses) {
+		for (var address : addresses) {
+			var node = root;
+			for (var segment : address.split("/", -1)) {
+				node = node.children.computeIfAbsent(segment, key -> new Node());
+			}
+			node.permitted = true;
+			node.subAddresses |= subAddresses;
+		}
+	}
+
+	private boolean match(String address) {
+		var node = root;
+		var start = 0;
+		while (true) {
+			var end = address.indexOf('/', start);
+			node = node.children.get(end < 0 ? address.substring(start) : address.substring(start, end));
+			if (Objects.isNull(node)) {
+				return false;
+			}
+			if (end < 0) {
+				return node.permitted;
+			}
+			if (node.subAddresses && isSubAddress(address, end + 1)) {
+				return true;
+			}
+			start = end + 1;
+		}
+	}
+
+	/**
+	 * @return {@code true} if the rest of the address from the index on is a valid sub address
+	 */
+	private static boolean isSubAddress(String address, int index) {
+		if (index >= address.length()) {
+			return false;
+		}
+		for (var i = index; i < address.length(); i++) {
+			if (Character.isWhitespace(address.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * A segment of the permitted addresses.
+	 */
+	private static final class Node {
+		private final Map<String, Node> children = new HashMap<>();
+		private boolean permitted;
+		private boolean subAddresses;
+	}
+
+	private static final int MAX_MEMOIZED = 4096;
+
+	private final Node root = new Node();
+	private final Map<String, Boolean> results = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+			return size() > MAX_MEMOIZED;
+		}
+	};
+
+	private long hits;
+	private long misses;
+}
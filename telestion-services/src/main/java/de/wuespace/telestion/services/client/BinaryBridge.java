@@ -0,0 +1,294 @@
+package de.wuespace.telestion.services.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.VertxModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bridges the event bus to WebSocket clients with binary frames.
+ * <p>
+ * The clients speak the protocol of the Vert.x SockJS event bus bridge
+ * ({@code send}, {@code publish}, {@code register}, {@code unregister} and {@code ping}),
+ * but every envelope is encoded in CBOR and sent in a binary frame.
+ * {@link Buffer} bodies are transferred as CBOR byte strings without a Base64 detour.
+ * Text frames with JSON envelopes are accepted as well, e.g. for debugging.
+ * <p>
+ * The permissions are the same as for the SockJS bridge.
+ * Clients may additionally reply to the messages they received with a reply address.
+ * The received messages pass the {@link ClientQueue} of the client before they are written.
+ *
+ * @see WebClientBridge.Configuration#binaryFrames()
+ */
+final class BinaryBridge {
+
+	/**
+	 * @param vertx             the Vert.x instance whose event bus is bridged
+	 * @param inboundPermitted  decides which addresses the clients may send to
+	 * @param outboundPermitted decides which addresses the clients may register on
+	 * @param deltaEncoders     creates the delta encoder of a new client or returns {@code null} to disable it
+	 * @param queueOptions      the conflation and queue options of the clients
+	 */
+	BinaryBridge(
+			Vertx vertx,
+			Predicate<String> inboundPermitted,
+			Predicate<String> outboundPermitted,
+			Supplier<DeltaEncoder> deltaEncoders,
+			ClientQueue.Options queueOptions) {
+		this.vertx = vertx;
+		this.inboundPermitted = inboundPermitted;
+		this.outboundPermitted = outboundPermitted;
+		this.deltaEncoders = deltaEncoders;
+		this.queueOptions = queueOptions;
+	}
+
+	/**
+	 * Serves the bridge protocol on the WebSocket until it is closed.
+	 */
+	void handle(ServerWebSocket socket) {
+		var client = new Client(socket, deltaEncoders.get());
+		clients.put(socket, client);
+		socket.binaryMessageHandler(frame -> client.receive(decode(frame)));
+		socket.textMessageHandler(text -> client.receive(decode(text)));
+		socket.closeHandler(nothing -> {
+			clients.remove(socket);
+			client.close();
+		});
+	}
+
+	/**
+	 * @return the queue metrics of the connected clients
+	 */
+	List<WebClientBridge.ClientMetrics> metrics() {
+		return clients.values().stream().map(client -> client.queue.metrics(TRANSPORT)).toList();
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	@SuppressWarnings("unchecked")
+	private static JsonObject decode(Buffer frame) {
+		try {
+			return new JsonObject((Map<String, Object>) mapper.readValue(frame.getBytes(), Map.class));
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static JsonObject decode(String text) {
+		try {
+			return new JsonObject(text);
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Converts decoded CBOR values into the types the event bus knows.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Object toEventBus(Object value) {
+		if (value instanceof Map<?, ?> map) {
+			return new JsonObject((Map<String, Object>) map);
+		}
+		if (value instanceof List<?> list) {
+			return new JsonArray(list);
+		}
+		if (value instanceof byte[] bytes) {
+			return Buffer.buffer(bytes);
+		}
+		return value;
+	}
+
+	/**
+	 * Converts event bus bodies into types that CBOR encodes natively.
+	 */
+	private static Object toFrame(Object body) {
+		return body instanceof Buffer buffer ? buffer.getBytes() : body;
+	}
+
+	private static JsonObject error(String body) {
+		return new JsonObject().put("type", "err").put("body", body);
+	}
+
+	private static JsonObject replyFailure(String replyAddress, Throwable failure) {
+		var envelope = new JsonObject().put("type", "err").put("address", replyAddress)
+				.put("message", failure.getMessage());
+		if (failure instanceof ReplyException exception) {
+			envelope.put("failureCode", exception.failureCode())
+					.put("failureType", exception.failureType().name());
+		}
+		return envelope;
+	}
+
+	/**
+	 * The registrations and pending replies of one connected client.
+	 */
+	private final class Client {
+		Client(ServerWebSocket socket, DeltaEncoder deltaEncoder) {
+			this.socket = socket;
+			this.deltaEncoder = deltaEncoder;
+			this.queue = new ClientQueue(vertx, socket, String.valueOf(socket.remoteAddress()), queueOptions,
+					this::send);
+		}
+
+		void receive(JsonObject envelope) {
+			if (Objects.isNull(envelope)) {
+				write(error("invalid_json"));
+				return;
+			}
+
+			var type = envelope.getString("type", "");
+			var address = envelope.getString("address");
+			if (type.equals("ping")) {
+				write(new JsonObject().put("type", "pong"));
+				return;
+			}
+			if (Objects.isNull(address)) {
+				write(error("missing_address"));
+				return;
+			}
+
+			switch (type) {
+				case "register" -> register(address);
+				case "unregister" -> unregister(address);
+				case "send", "publish" -> send(address, envelope, type.equals("publish"));
+				default -> write(error("invalid_type"));
+			}
+		}
+
+		void close() {
+			queue.close();
+			registrations.values().forEach(MessageConsumer::unregister);
+			registrations.clear();
+		}
+
+		private void register(String address) {
+			if (!outboundPermitted.test(address)) {
+				write(error("access_denied"));
+				return;
+			}
+			registrations.computeIfAbsent(address,
+					key -> vertx.eventBus().consumer(address, message -> deliver(address, message)));
+		}
+
+		private void unregister(String address) {
+			var registration = registrations.remove(address);
+			if (Objects.nonNull(registration)) {
+				registration.unregister();
+				if (Objects.nonNull(deltaEncoder)) {
+					deltaEncoder.reset(address);
+				}
+			}
+		}
+
+		private void send(String address, JsonObject envelope, boolean publish) {
+			if (!pendingReplies.remove(address) && !inboundPermitted.test(address)) {
+				write(error("access_denied"));
+				return;
+			}
+
+			var options = new DeliveryOptions();
+			var headers = envelope.getJsonObject("headers");
+			if (Objects.nonNull(headers)) {
+				headers.forEach(header -> options.addHeader(header.getKey(), String.valueOf(header.getValue())));
+			}
+			var body = toEventBus(envelope.getValue("body"));
+
+			var replyAddress = envelope.getString("replyAddress");
+			if (publish) {
+				vertx.eventBus().publish(address, body, options);
+			} else if (Objects.isNull(replyAddress)) {
+				vertx.eventBus().send(address, body, options);
+			} else {
+				vertx.eventBus().request(address, body, options)
+						.onSuccess(reply -> deliver(replyAddress, reply))
+						.onFailure(failure -> write(replyFailure(replyAddress, failure)));
+			}
+		}
+
+		private void deliver(String address, Message<?> message) {
+			var envelope = new JsonObject().put("type", "rec").put("address", address).put("body", message.body());
+			if (Objects.nonNull(message.replyAddress())) {
+				envelope.put("replyAddress", message.replyAddress());
+				pendingReplies.add(message.replyAddress());
+				if (pendingReplies.size() > MAX_PENDING_REPLIES) {
+					pendingReplies.remove(pendingReplies.iterator().next());
+				}
+			}
+			if (!message.headers().isEmpty()) {
+				var headers = new JsonObject();
+				message.headers().forEach(header -> headers.put(header.getKey(), header.getValue()));
+				envelope.put("headers", headers);
+			}
+			queue.offer(envelope);
+		}
+
+		/**
+		 * Writes a {@code rec} envelope that left the queue.
+		 */
+		private void send(JsonObject envelope) {
+			// replies are sent to one-time addresses and have no previous value
+			if (Objects.nonNull(deltaEncoder) && registrations.containsKey(envelope.getString("address"))) {
+				deltaEncoder.encode(envelope);
+			}
+			envelope.put("body", toFrame(envelope.getValue("body")));
+			write(envelope);
+		}
+
+		private void write(JsonObject envelope) {
+			if (socket.isClosed()) {
+				return;
+			}
+			try {
+				socket.writeFinalBinaryFrame(Buffer.buffer(mapper.writeValueAsBytes(envelope.getMap())));
+			} catch (IOException e) {
+				logger.warn("Cannot encode the message on address {} for a binary bridge client",
+						envelope.getString("address"), e);
+			}
+		}
+
+		private final ServerWebSocket socket;
+		private final DeltaEncoder deltaEncoder;
+		private final ClientQueue queue;
+		private final Map<String, MessageConsumer<Object>> registrations = new HashMap<>();
+		private final LinkedHashSet<String> pendingReplies = new LinkedHashSet<>();
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(BinaryBridge.class);
+
+	/**
+	 * The binary mapper that is configured like the Vert.x JSON mapper.
+	 */
+	private static final ObjectMapper mapper = CBORMapper.builder().addModule(new VertxModule()).build();
+	private static final String TRANSPORT = "binary";
+	private static final int MAX_PENDING_REPLIES = 1024;
+
+	private final Vertx vertx;
+	private final Predicate<String> inboundPermitted;
+	private final Predicate<String> outboundPermitted;
+	private final Supplier<DeltaEncoder> deltaEncoders;
+	private final ClientQueue.Options queueOptions;
+	private final Map<ServerWebSocket, Client> clients = new IdentityHashMap<>();
+}
@@ -0,0 +1,171 @@
+package de.wuespace.telestion.services.client;
+
+import de.wuespace.telestion.api.message.JsonRecord;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * The bounded send queue of one bridge client, which conflates the outbound messages per address.
+ * <p>
+ * Within a {@link Options#window() window}, only the latest message per address is sent,
+ * or per address and {@link Options#keyField() key field} of the JSON body, e.g. per sensor on a shared address.
+ * A newer message replaces the queued one on its position in the queue.
+ * Messages which expect a reply are never conflated.
+ * <p>
+ * The messages are only written while the write queue of the socket is not full.
+ * Otherwise, they stay in the queue until the socket drains, and are conflated in the meantime.
+ * If the queue is full, the oldest message is dropped, so a slow client never holds more than
+ * {@link Options#maxQueued() maxQueued} messages on the server.
+ * <p>
+ * The queue is not thread-safe. Use it on the context of the socket.
+ *
+ * @see WebClientBridge.Configuration#conflationWindow()
+ */
+final class ClientQueue {
+
+	/**
+	 * @param window    the time in milliseconds in which the messages are conflated,
+	 *                  {@code 0} sends them immediately and only conflates while the socket is busy
+	 * @param keyField  the field of the JSON bodies that distinguishes the values on one address,
+	 *                  an empty string conflates per address only
+	 * @param maxQueued the maximum number of queued messages per client
+	 */
+	record Options(long window, String keyField, int maxQueued) {
+	}
+
+	/**
+	 * @param vertx         the Vert.x instance which schedules the flushes
+	 * @param socket        the socket of the client whose write queue is observed
+	 * @param remoteAddress the remote address of the client for the metrics
+	 * @param options       the conflation and queue options
+	 * @param writer        encodes and writes a {@code rec} envelope to the socket
+	 */
+	ClientQueue(
+			Vertx vertx,
+			WriteStream<Buffer> socket,
+			String remoteAddress,
+			Options options,
+			Consumer<JsonObject> writer) {
+		this.vertx = vertx;
+		this.socket = socket;
+		this.remoteAddress = remoteAddress;
+		this.options = options;
+		this.maxQueued = Math.max(1, options.maxQueued());
+		this.writer = writer;
+		socket.drainHandler(nothing -> flush());
+	}
+
+	/**
+	 * Queues the {@code rec} envelope of a message and sends it when the window closes and the socket is writable.
+	 */
+	void offer(JsonObject envelope) {
+		if (closed) {
+			return;
+		}
+		if (options.window() <= 0 && pending.isEmpty() && !socket.writeQueueFull()) {
+			write(envelope);
+			return;
+		}
+
+		var key = key(envelope);
+		if (pending.containsKey(key)) {
+			conflated++;
+		} else if (pending.size() >= maxQueued) {
+			var stale = pending.keySet().iterator();
+			stale.next();
+			stale.remove();
+			dropped++;
+		}
+		pending.put(key, envelope);
+		peakQueued = Math.max(peakQueued, pending.size());
+
+		if (options.window() <= 0) {
+			flush();
+		} else if (timer < 0) {
+			timer = vertx.setTimer(options.window(), id -> {
+				timer = -1;
+				flush();
+			});
+		}
+	}
+
+	/**
+	 * Discards the queued messages and stops sending.
+	 */
+	void close() {
+		closed = true;
+		pending.clear();
+		if (timer >= 0) {
+			vertx.cancelTimer(timer);
+			timer = -1;
+		}
+	}
+
+	/**
+	 * @param transport the transport of the client, e.g. {@code sockjs} or {@code binary}
+	 * @return the current metrics of the queue
+	 */
+	WebClientBridge.ClientMetrics metrics(String transport) {
+		return new WebClientBridge.ClientMetrics(transport, remoteAddress, pending.size(), peakQueued, sent,
+				conflated, dropped);
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private void flush() {
+		var iterator = pending.values().iterator();
+		while (!closed && iterator.hasNext() && !socket.writeQueueFull()) {
+			var envelope = iterator.next();
+			iterator.remove();
+			write(envelope);
+		}
+	}
+
+	private void write(JsonObject envelope) {
+		writer.accept(envelope);
+		sent++;
+	}
+
+	/**
+	 * @return the key under which the envelope is conflated
+	 */
+	private Object key(JsonObject envelope) {
+		if (envelope.containsKey("replyAddress")) {
+			// every request needs its own reply
+			return new Object();
+		}
+
+		var address = envelope.getString("address");
+		if (options.keyField().isEmpty()) {
+			return address;
+		}
+		var body = envelope.getValue("body");
+		var value = body instanceof JsonObject object ? object.getValue(options.keyField())
+				: body instanceof JsonRecord record ? record.toJsonObject().getValue(options.keyField())
+				: null;
+		return Objects.isNull(value) ? address : address + "\u0000" + value;
+	}
+
+	private final Vertx vertx;
+	private final WriteStream<Buffer> socket;
+	private final String remoteAddress;
+	private final Options options;
+	private final int maxQueued;
+	private final Consumer<JsonObject> writer;
+	private final LinkedHashMap<Object, JsonObject> pending = new LinkedHashMap<>();
+
+	private long timer = -1;
+	private boolean closed;
+	private int peakQueued;
+	private long sent;
+	private long conflated;
+	private long dropped;
+}
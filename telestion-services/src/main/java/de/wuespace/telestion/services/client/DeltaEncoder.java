@@ -0,0 +1,134 @@
+package de.wuespace.telestion.services.client;
+
+import de.wuespace.telestion.api.message.JsonRecord;
+import io.vertx.core.json.JsonObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Encodes the outbound messages of one bridge client as JSON merge patches (RFC 7386) against the previous message
+ * on the same address, so repeated {@link JsonRecord} shapes only transfer their changed fields.
+ * <p>
+ * The first message of an address and every {@code keyframeInterval}-th message afterwards is sent in full.
+ * A patch is only sent if it contains fewer fields than the full message.
+ * Patched envelopes contain the header {@value #DELTA_HEADER} with the value {@value #MERGE_PATCH},
+ * so the client applies the body to its last value of the address.
+ * Like merge patches in general, a property that changes to {@code null} is removed on the client.
+ * <p>
+ * The encoder remembers at most {@value #MAX_ADDRESSES} addresses and forgets the least recently used ones.
+ * It is not thread-safe.
+ *
+ * @see WebClientBridge.Configuration#deltaEncoding()
+ */
+final class DeltaEncoder {
+
+	/**
+	 * The header which marks envelopes whose body is a patch.
+	 */
+	static final String DELTA_HEADER = "telestion-delta";
+
+	/**
+	 * The value of the {@value #DELTA_HEADER} header for JSON merge patches.
+	 */
+	static final String MERGE_PATCH = "merge-patch";
+
+	/**
+	 * @param keyframeInterval every n-th message of an address is sent in full
+	 */
+	DeltaEncoder(int keyframeInterval) {
+		this.keyframeInterval = Math.max(1, keyframeInterval);
+	}
+
+	/**
+	 * Replaces the body of the bridge envelope with a patch against the previous body of its address if possible.
+	 *
+	 * @param envelope the {@code rec} envelope with the address, body and headers of a message
+	 */
+	void encode(JsonObject envelope) {
+		var body = asJsonObject(envelope.getValue("body"));
+		if (Objects.isNull(body)) {
+			return;
+		}
+
+		var address = envelope.getString("address");
+		var previous = previousBodies.get(address);
+		var keyframe = Objects.isNull(previous) || previous.sinceKeyframe + 1 >= keyframeInterval;
+		previousBodies.put(address, new Previous(body, keyframe ? 0 : previous.sinceKeyframe + 1));
+		if (keyframe) {
+			envelope.put("body", body);
+			return;
+		}
+
+		var patch = diff(previous.body, body);
+		if (patch.size() >= body.size()) {
+			envelope.put("body", body);
+			return;
+		}
+
+		var headers = envelope.getJsonObject("headers");
+		if (Objects.isNull(headers)) {
+			headers = new JsonObject();
+			envelope.put("headers", headers);
+		}
+		headers.put(DELTA_HEADER, MERGE_PATCH);
+		envelope.put("body", patch);
+	}
+
+	/**
+	 * Forgets the previous body of the address, so its next message is sent in full.
+	 */
+	void reset(String address) {
+		previousBodies.remove(address);
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * @return the merge patch which turns the previous into the current object
+	 */
+	private static JsonObject diff(JsonObject previous, JsonObject current) {
+		var patch = new JsonObject();
+		for (var key : current.fieldNames()) {
+			var value = current.getValue(key);
+			var old = previous.getValue(key);
+			if (!previous.containsKey(key) || !Objects.equals(old, value)) {
+				patch.put(key, old instanceof JsonObject oldObject && value instanceof JsonObject object
+						? diff(oldObject, object)
+						: value);
+			}
+		}
+		for (var key : previous.fieldNames()) {
+			if (!current.containsKey(key)) {
+				patch.putNull(key);
+			}
+		}
+		return patch;
+	}
+
+	private static JsonObject asJsonObject(Object body) {
+		if (body instanceof JsonObject object) {
+			return object;
+		}
+		if (body instanceof JsonRecord record) {
+			return record.toJsonObject();
+		}
+		return null;
+	}
+
+	private record Previous(JsonObject body, int sinceKeyframe) {
+	}
+
+	private static final int MAX_ADDRESSES = 1024;
+
+	private final int keyframeInterval;
+	private final Map<String, Previous> previousBodies = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Previous> eldest) {
+			return size() > MAX_ADDRESSES;
+		}
+	};
+}
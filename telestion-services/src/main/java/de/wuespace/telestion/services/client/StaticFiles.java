@@ -0,0 +1,332 @@
+package de.wuespace.telestion.services.client;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.FileProps;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.RoutingContext;
+
+import java.net.URLConnection;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Serves the static files of the web client for production.
+ * <ul>
+ *     <li>Every response has an {@code ETag} and a {@code Last-Modified} header,
+ *     so browsers revalidate their copy and receive {@code 304 Not Modified} if it is still fresh.</li>
+ *     <li>Files whose name matches the {@link Options#immutableAssets() immutable asset pattern},
+ *     e.g. bundles with a content hash like {@code main.3f2a9c1b.js}, may be cached for a year without
+ *     revalidation. All other files must be revalidated.</li>
+ *     <li>If the client accepts it, a precompressed {@code .br} or {@code .gz} sibling of the file is sent
+ *     instead, so the server never compresses static files on the fly.</li>
+ *     <li>Small files are kept in a size-bounded in-memory cache. Larger files are sent with
+ *     {@link io.vertx.core.http.HttpServerResponse#sendFile(String) sendFile}, which transfers them
+ *     zero-copy on unencrypted connections.</li>
+ * </ul>
+ * The resolved files are remembered for the {@link Options#cacheEntryTimeout() cache entry timeout},
+ * so changes on the disk become visible after it at the latest.
+ * Requests for missing files are passed to the next handler.
+ * <p>
+ * The handler is not thread-safe. Use it on the context of the verticle which created the HTTP server.
+ *
+ * @see WebClientBridge.Configuration#staticCaching()
+ */
+final class StaticFiles implements Handler<RoutingContext> {
+
+	/**
+	 * The {@code Cache-Control} header of immutable assets.
+	 */
+	static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+	/**
+	 * The {@code Cache-Control} header of all other files.
+	 */
+	static final String REVALIDATE = "no-cache";
+
+	/**
+	 * @param webRoot           the directory in the file system or on the class path that contains the files
+	 * @param immutableAssets   the file names that change their name whenever their content changes
+	 * @param precompressed     send precompressed {@code .br} and {@code .gz} siblings if the client accepts them
+	 * @param cacheSize         the maximum number of bytes in the in-memory cache, {@code 0} disables it
+	 * @param cacheEntryTimeout the time in milliseconds after which a file is resolved again
+	 */
+	record Options(String webRoot, Pattern immutableAssets, boolean precompressed, long cacheSize,
+			long cacheEntryTimeout) {
+	}
+
+	StaticFiles(Vertx vertx, Options options) {
+		this.vertx = vertx;
+		this.options = options;
+		this.maxCachedFileSize = options.cacheSize() / CACHED_FILE_FRACTION;
+	}
+
+	@Override
+	public void handle(RoutingContext context) {
+		var request = context.request();
+		if (request.method() != HttpMethod.GET && request.method() != HttpMethod.HEAD) {
+			context.next();
+			return;
+		}
+
+		var path = context.normalizedPath();
+		if (path.contains("..") || path.indexOf('\0') >= 0) {
+			context.fail(403);
+			return;
+		}
+		if (path.endsWith("/")) {
+			path += INDEX;
+		}
+
+		var encodings = acceptedEncodings(request);
+		var key = path + "|" + String.join(",", encodings);
+		var entry = entries.get(key);
+		if (Objects.nonNull(entry) && System.currentTimeMillis() - entry.resolvedAt() < options.cacheEntryTimeout()) {
+			respond(context, entry);
+			return;
+		}
+		if (Objects.nonNull(entry)) {
+			evict(key);
+		}
+
+		var name = path.substring(path.lastIndexOf('/') + 1);
+		resolve(options.webRoot() + path, encodings, 0)
+				.compose(resolved -> Objects.isNull(resolved) ? Future.succeededFuture() : load(name, resolved))
+				.onSuccess(loaded -> {
+					if (Objects.isNull(loaded)) {
+						context.next();
+						return;
+					}
+					cache(key, loaded);
+					respond(context, loaded);
+				})
+				.onFailure(context::fail);
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * @return the precompressed encodings the client accepts, most preferred first
+	 */
+	private List<String> acceptedEncodings(HttpServerRequest request) {
+		var header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		var encodings = new ArrayList<String>(2);
+		if (!options.precompressed() || Objects.isNull(header)) {
+			return encodings;
+		}
+
+		for (var encoding : ENCODINGS) {
+			for (var token : header.split(",")) {
+				var parameters = token.split(";");
+				if (parameters[0].trim().equalsIgnoreCase(encoding) && !isRefused(parameters)) {
+					encodings.add(encoding);
+				}
+			}
+		}
+		return encodings;
+	}
+
+	/**
+	 * @return {@code true} if the parameters of an accepted encoding contain the quality {@code 0}
+	 */
+	private static boolean isRefused(String[] parameters) {
+		for (var i = 1; i < parameters.length; i++) {
+			if (REFUSED.matcher(parameters[i].trim()).matches()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Finds the first existing variant of the file, starting with the precompressed siblings.
+	 *
+	 * @return the variant or {@code null} if the file does not exist
+	 */
+	private Future<Variant> resolve(String file, List<String> encodings, int index) {
+		var encoding = index < encodings.size() ? encodings.get(index) : null;
+		var candidate = Objects.isNull(encoding) ? file : file + EXTENSIONS.get(encoding);
+		return vertx.fileSystem().exists(candidate)
+				.compose(exists -> exists ? vertx.fileSystem().props(candidate) : Future.<FileProps>succeededFuture())
+				.compose(props -> {
+					if (Objects.nonNull(props) && props.isRegularFile()) {
+						return Future.succeededFuture(new Variant(candidate, encoding, props));
+					}
+					return Objects.isNull(encoding) ? Future.succeededFuture() : resolve(file, encodings, index + 1);
+				});
+	}
+
+	/**
+	 * Reads the variant into memory if it fits into the cache.
+	 */
+	private Future<Entry> load(String name, Variant variant) {
+		var props = variant.props();
+		var encodingTag = Objects.isNull(variant.encoding()) ? "" : "-" + variant.encoding();
+		var etag = "\"%x-%x%s\"".formatted(props.size(), props.lastModifiedTime(), encodingTag);
+		var cacheControl = options.immutableAssets().matcher(name).matches() ? IMMUTABLE : REVALIDATE;
+		var contentType = contentType(name);
+
+		var entry = new Entry(variant.file(), variant.encoding(), contentType, cacheControl, etag,
+				props.lastModifiedTime(), props.size(), null, System.currentTimeMillis());
+		if (props.size() > maxCachedFileSize) {
+			return Future.succeededFuture(entry);
+		}
+		return vertx.fileSystem().readFile(variant.file()).map(entry::withContent);
+	}
+
+	private void respond(RoutingContext context, Entry entry) {
+		var request = context.request();
+		var response = context.response();
+		response.putHeader(HttpHeaders.ETAG, entry.etag())
+				.putHeader(HttpHeaders.LAST_MODIFIED, HTTP_DATE.format(Instant.ofEpochMilli(entry.lastModified())))
+				.putHeader(HttpHeaders.CACHE_CONTROL, entry.cacheControl());
+		if (options.precompressed()) {
+			response.putHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		}
+		if (Objects.nonNull(entry.contentType())) {
+			response.putHeader(HttpHeaders.CONTENT_TYPE, entry.contentType());
+		}
+		if (Objects.nonNull(entry.encoding())) {
+			// keeps the HTTP server from compressing it again
+			response.putHeader(HttpHeaders.CONTENT_ENCODING, entry.encoding());
+		}
+
+		if (isFresh(request, entry)) {
+			response.setStatusCode(304).end();
+		} else if (request.method() == HttpMethod.HEAD) {
+			response.putHeader(HttpHeaders.CONTENT_LENGTH, Long.toString(entry.size())).end();
+		} else if (Objects.nonNull(entry.content())) {
+			response.end(entry.content());
+		} else {
+			response.sendFile(entry.file()).onFailure(context::fail);
+		}
+	}
+
+	/**
+	 * @return {@code true} if the copy of the client is still fresh
+	 */
+	private static boolean isFresh(HttpServerRequest request, Entry entry) {
+		var ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+		if (Objects.nonNull(ifNoneMatch)) {
+			return ifNoneMatch.trim().equals("*") || List.of(ifNoneMatch.split(",")).stream()
+					.map(String::trim)
+					.map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+					.anyMatch(entry.etag()::equals);
+		}
+
+		var ifModifiedSince = request.getHeader(HttpHeaders.IF_MODIFIED_SINCE);
+		if (Objects.isNull(ifModifiedSince)) {
+			return false;
+		}
+		try {
+			var since = ZonedDateTime.parse(ifModifiedSince, HTTP_DATE).toInstant().toEpochMilli();
+			// HTTP dates have a precision of seconds
+			return entry.lastModified() / 1000 <= since / 1000;
+		} catch (DateTimeParseException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return the media type of the file name with the charset of text files or {@code null} if it is unknown
+	 */
+	private static String contentType(String name) {
+		var extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+		var contentType = WEB_TYPES.getOrDefault(extension, URLConnection.guessContentTypeFromName(name));
+		if (Objects.nonNull(contentType) && contentType.startsWith("text/")) {
+			contentType += ";charset=UTF-8";
+		}
+		return contentType;
+	}
+
+	/**
+	 * Remembers the entry and evicts the least recently used ones until the cache fits into its bounds.
+	 */
+	private void cache(String key, Entry entry) {
+		evict(key);
+		entries.put(key, entry);
+		cachedBytes += entry.cachedBytes();
+		var eldest = entries.entrySet().iterator();
+		while ((cachedBytes > options.cacheSize() || entries.size() > MAX_ENTRIES) && eldest.hasNext()) {
+			var evicted = eldest.next().getValue();
+			eldest.remove();
+			cachedBytes -= evicted.cachedBytes();
+		}
+	}
+
+	private void evict(String key) {
+		var evicted = entries.remove(key);
+		if (Objects.nonNull(evicted)) {
+			cachedBytes -= evicted.cachedBytes();
+		}
+	}
+
+	/**
+	 * An existing file, which is either the requested file or one of its precompressed siblings.
+	 */
+	private record Variant(String file, String encoding, FileProps props) {
+	}
+
+	/**
+	 * The resolved response of a request path, with the content if it is cached in memory.
+	 */
+	private record Entry(
+			String file,
+			String encoding,
+			String contentType,
+			String cacheControl,
+			String etag,
+			long lastModified,
+			long size,
+			Buffer content,
+			long resolvedAt) {
+		Entry withContent(Buffer content) {
+			return new Entry(file, encoding, contentType, cacheControl, etag, lastModified, size, content, resolvedAt);
+		}
+
+		long cachedBytes() {
+			return Objects.isNull(content) ? 0 : size;
+		}
+	}
+
+	private static final String INDEX = "index.html";
+	private static final List<String> ENCODINGS = List.of("br", "gzip");
+	private static final Map<String, String> EXTENSIONS = Map.of("br", ".br", "gzip", ".gz");
+	/**
+	 * The media types of web files which the JDK does not know.
+	 */
+	private static final Map<String, String> WEB_TYPES = Map.of("mjs", "text/javascript", "map", "application/json",
+			"wasm", "application/wasm", "woff", "font/woff", "woff2", "font/woff2", "ttf", "font/ttf",
+			"otf", "font/otf", "ico", "image/x-icon", "webmanifest", "application/manifest+json");
+	private static final Pattern REFUSED = Pattern.compile("q\\s*=\\s*0(\\.0*)?");
+	private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+	/**
+	 * Files larger than this fraction of the cache are sent from the disk.
+	 */
+	private static final long CACHED_FILE_FRACTION = 16;
+	private static final int MAX_ENTRIES = 4096;
+
+	private final Vertx vertx;
+	private final Options options;
+	private final long maxCachedFileSize;
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long cachedBytes;
+}
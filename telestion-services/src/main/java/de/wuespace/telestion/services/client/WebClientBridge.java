@@ -3,15 +3,31 @@ package de.wuespace.telestion.services.client;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import de.wuespace.telestion.api.verticle.TelestionConfiguration;
 import de.wuespace.telestion.api.verticle.TelestionVerticle;
+import io.vertx.core.Handler;
 import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.bridge.BridgeEventType;
 import io.vertx.ext.bridge.PermittedOptions;
 import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.StaticHandler;
+import io.vertx.ext.web.handler.sockjs.BridgeEvent;
 import io.vertx.ext.web.handler.sockjs.SockJSBridgeOptions;
 import io.vertx.ext.web.handler.sockjs.SockJSHandler;
+import io.vertx.ext.web.handler.sockjs.SockJSSocket;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * The WebClient bridge is a verticle which uses SockJS-WebSockets to extend the vertx.eventBus() to an HTTP-Server.
@@ -54,40 +70,159 @@ import java.util.List;
  * 	.addOutboundPermitted(new PermittedOptions().setAddressRegex("(<Address>)(\/(\S+))?"));}</pre>
  * Which results in permission granted to all messages to the given address optionally suffixed with e.g. "/className.
  *
+ * <p>
+ * To reduce the bandwidth of high-frequency messages, the bridge supports three options:
+ * <ul>
+ *     <li>{@link Configuration#compression() compression} negotiates permessage-deflate on WebSocket connections
+ *     and compresses HTTP responses, e.g. of the SockJS fallback transports.</li>
+ *     <li>{@link Configuration#binaryFrames() binaryFrames} serves the event bus bridge protocol
+ *     with CBOR-encoded binary frames on a plain WebSocket at {@value #BINARY_BRIDGE_PATH}.</li>
+ *     <li>{@link Configuration#deltaEncoding() deltaEncoding} sends JSON objects and records as JSON merge patches
+ *     against the previous message of the address per client.
+ *     Patched messages contain the header {@code telestion-delta: merge-patch}.</li>
+ * </ul>
+ * <p>
+ * Every client has a bounded send queue which conflates the outbound messages.
+ * Within the {@link Configuration#conflationWindow() conflationWindow}, only the latest message per address,
+ * or per address and {@link Configuration#conflationKey() conflationKey} of the body, is sent.
+ * A client whose socket is busy keeps at most {@link Configuration#maxQueuedMessages() maxQueuedMessages}
+ * and loses the stale ones first. The queue metrics per client are available via {@link #clientMetrics()}
+ * and, if configured, as JSON on the {@link Configuration#clientMetricsPath() clientMetricsPath}.
+ * <p>
+ * The static files of the web client are served from the {@link Configuration#webRoot() webRoot}.
+ * By default, browsers must fetch them again on every request, which is handy during development.
+ * With {@link Configuration#staticCaching() staticCaching}, they are served for production with
+ * {@code ETag}/{@code Last-Modified} revalidation, immutable caching of hashed asset names,
+ * precompressed {@code .br}/{@code .gz} siblings and a size-bounded in-memory cache.
+ *
  * @author Jan Tischhoefer (@jantischhoefer), Jan von Pichovski (@jvpichovski), Ludwig Richter (@fussel178)
  * @see <a href="../../../../../../../README.md">README.md</a> for more information
  */
 public class WebClientBridge extends TelestionVerticle<WebClientBridge.Configuration> {
 
+	/**
+	 * The path of the WebSocket which bridges the event bus with binary frames.
+	 */
+	public static final String BINARY_BRIDGE_PATH = "/binary-bridge";
+
 	/**
 	 * The bridge configuration.
 	 *
-	 * @param host              of the host on which the HTTP-Server should run
-	 * @param port              on which the HTTP-Server should listen
-	 * @param inboundPermitted  permitted eventbus addresses for inbound connections
-	 * @param outboundPermitted permitted eventbus addresses for outbound connections
+	 * @param host                  of the host on which the HTTP-Server should run
+	 * @param port                  on which the HTTP-Server should listen
+	 * @param inboundPermitted      permitted eventbus addresses for inbound connections
+	 * @param outboundPermitted     permitted eventbus addresses for outbound connections, including their sub addresses
+	 * @param compression           compress WebSocket messages with permessage-deflate and HTTP responses
+	 * @param compressionLevel      the deflate compression level from {@code 1} (fastest) to {@code 9} (smallest)
+	 * @param binaryFrames          serve the bridge with CBOR-encoded binary frames on {@value #BINARY_BRIDGE_PATH}
+	 * @param deltaEncoding         send JSON objects as merge patches against the previous message of the address
+	 * @param deltaKeyframeInterval every n-th message of an address is sent in full despite the delta encoding
+	 * @param conflationWindow      the time in milliseconds in which only the latest message per address is sent
+	 *                              to a client, {@code 0} only conflates while the client is busy
+	 * @param conflationKey         the field of JSON bodies which distinguishes the values on one address,
+	 *                              an empty string conflates per address only
+	 * @param maxQueuedMessages     the maximum number of queued messages per client, older ones are dropped
+	 * @param clientMetricsPath     the path that serves the client metrics as JSON, an empty string disables it
+	 * @param webRoot               the directory in the file system or on the class path with the static files
+	 * @param staticCaching         serve the static files with HTTP caching, precompression and in-memory caching
+	 * @param immutableAssetPattern the file names which contain a content hash and never change,
+	 *                              so browsers may cache them for a year without revalidation
+	 * @param precompressed         send precompressed {@code .br} and {@code .gz} siblings of static files
+	 * @param staticCacheSize       the maximum number of bytes of static files in memory, {@code 0} disables it
+	 * @param staticCacheTimeout    the time in milliseconds after which a static file is looked up again
 	 */
 	public record Configuration(
 			@JsonProperty String host,
 			@JsonProperty int port,
 			@JsonProperty List<String> inboundPermitted,
-			@JsonProperty List<String> outboundPermitted
+			@JsonProperty List<String> outboundPermitted,
+			@JsonProperty boolean compression,
+			@JsonProperty int compressionLevel,
+			@JsonProperty boolean binaryFrames,
+			@JsonProperty boolean deltaEncoding,
+			@JsonProperty int deltaKeyframeInterval,
+			@JsonProperty long conflationWindow,
+			@JsonProperty String conflationKey,
+			@JsonProperty int maxQueuedMessages,
+			@JsonProperty String clientMetricsPath,
+			@JsonProperty String webRoot,
+			@JsonProperty boolean staticCaching,
+			@JsonProperty String immutableAssetPattern,
+			@JsonProperty boolean precompressed,
+			@JsonProperty long staticCacheSize,
+			@JsonProperty long staticCacheTimeout
 	) implements TelestionConfiguration {
 		public Configuration() {
-			this("127.0.0.1", 9870, Collections.emptyList(), Collections.emptyList());
+			this("127.0.0.1", 9870, Collections.emptyList(), Collections.emptyList(), false, 6, false, false, 100,
+					0, "", 256, "", "webroot", false, ".+[.-][0-9a-f]{8,}\\.\\w+", true, 16 * 1024 * 1024, 10_000);
 		}
 	}
 
+	/**
+	 * The send queue metrics of a connected client.
+	 *
+	 * @param transport     the transport of the client, either {@code sockjs} or {@code binary}
+	 * @param remoteAddress the remote address of the client
+	 * @param queued        the number of currently queued messages
+	 * @param peakQueued    the maximum number of queued messages
+	 * @param sent          the number of sent messages
+	 * @param conflated     the number of messages that were replaced by a newer one before they were sent
+	 * @param dropped       the number of messages that were dropped because the queue was full
+	 */
+	public record ClientMetrics(
+			String transport,
+			String remoteAddress,
+			int queued,
+			int peakQueued,
+			long sent,
+			long conflated,
+			long dropped) {
+	}
+
+	/**
+	 * The memoization statistics of the address permission checks.
+	 *
+	 * @param hits     the number of checks answered from memory
+	 * @param misses   the number of checks that walked the permission trie
+	 * @param memoized the number of currently memoized addresses
+	 */
+	public record PermissionMetrics(long hits, long misses, int memoized) {
+	}
+
 	@Override
 	public void onStart(Promise<Void> startPromise) throws Exception {
+		inboundPermitted = AddressPermissions.exact(getConfig().inboundPermitted());
+		outboundPermitted = AddressPermissions.withSubAddresses(getConfig().outboundPermitted());
+
 		var router = Router.router(vertx);
+		if (!getConfig().clientMetricsPath().isEmpty()) {
+			router.get(getConfig().clientMetricsPath()).handler(context -> context.json(new JsonObject()
+					.put("clients", clientMetrics())
+					.put("permissions", permissionMetrics())));
+		}
+		if (getConfig().binaryFrames()) {
+			binaryBridge = new BinaryBridge(vertx, inboundPermitted, outboundPermitted, this::deltaEncoder,
+					queueOptions());
+			router.route(BINARY_BRIDGE_PATH).handler(context -> context.request().toWebSocket()
+					.onSuccess(binaryBridge::handle)
+					.onFailure(context::fail));
+		}
 		// handle "/bridge" route via SockJS bridge handler
-		router.route("/bridge")
+		router.route("/bridge/*")
 				.subRouter(bridgeHandler(getConfig().inboundPermitted(), getConfig().outboundPermitted()));
 		// handle remaining via static handler
 		router.route().handler(staticHandler());
 
-		var server = vertx.createHttpServer().requestHandler(router);
+		var compression = getConfig().compression();
+		var level = getConfig().compressionLevel();
+		var options = new HttpServerOptions()
+				.setCompressionSupported(compression)
+				.setCompressionLevel(level)
+				.setPerMessageWebSocketCompressionSupported(compression)
+				.setPerFrameWebSocketCompressionSupported(compression)
+				.setWebSocketCompressionLevel(level);
+
+		var server = vertx.createHttpServer(options).requestHandler(router);
 		server.listen(getConfig().port(), getConfig().host())
 				.onSuccess(s -> {
 					logger.info("Eventbus TCP Bridge listening on {}:{}", getConfig().host(), getConfig().port());
@@ -96,6 +231,29 @@ public class WebClientBridge extends TelestionVerticle<WebClientBridge.Configura
 				.onFailure(startPromise::fail);
 	}
 
+	/**
+	 * Call it on the context of the verticle.
+	 *
+	 * @return the send queue metrics of all connected clients
+	 */
+	public List<ClientMetrics> clientMetrics() {
+		var metrics = new ArrayList<ClientMetrics>();
+		sockJsClients.values().forEach(client -> metrics.add(client.queue().metrics(SOCKJS_TRANSPORT)));
+		if (Objects.nonNull(binaryBridge)) {
+			metrics.addAll(binaryBridge.metrics());
+		}
+		return metrics;
+	}
+
+	/**
+	 * Call it on the context of the verticle.
+	 *
+	 * @return the memoization statistics of the {@code inbound} and {@code outbound} permission checks
+	 */
+	public Map<String, PermissionMetrics> permissionMetrics() {
+		return Map.of("inbound", inboundPermitted.metrics(), "outbound", outboundPermitted.metrics());
+	}
+
 	/**
 	 * Creates a sockJSHandler using vertx.
 	 *
@@ -104,16 +262,83 @@ public class WebClientBridge extends TelestionVerticle<WebClientBridge.Configura
 	private Router bridgeHandler(List<String> inboundPermitted, List<String> outboundPermitted) {
 		logger.info("Inbound permitted: " + inboundPermitted);
 		logger.info("Outbound permitted: " + outboundPermitted);
-		SockJSBridgeOptions sockJsBridgeOptions = new SockJSBridgeOptions();
-		inboundPermitted
-				.forEach(addr -> sockJsBridgeOptions.addInboundPermitted(new PermittedOptions().setAddress(addr)));
-		outboundPermitted
-				.forEach(addr -> sockJsBridgeOptions.addOutboundPermitted(new PermittedOptions().setAddressRegex(
-						"(" + addr + ")(\\/(\\S+))?"
-				)));
+		// permit all addresses, so the bridge does not match them against regular expressions per message;
+		// handleBridgeEvent checks the permissions once per registration and sent message instead
+		SockJSBridgeOptions sockJsBridgeOptions = new SockJSBridgeOptions()
+				.addInboundPermitted(new PermittedOptions())
+				.addOutboundPermitted(new PermittedOptions());
 
 		SockJSHandler sockJsHandler = SockJSHandler.create(vertx);
-		return sockJsHandler.bridge(sockJsBridgeOptions);
+		return sockJsHandler.bridge(sockJsBridgeOptions, this::handleBridgeEvent);
+	}
+
+	/**
+	 * Checks the permissions of the SockJS clients
+	 * and passes the messages the bridge sends to them through their send queues and delta encoders.
+	 */
+	private void handleBridgeEvent(BridgeEvent event) {
+		var socket = event.socket();
+		var client = sockJsClients.get(socket);
+		var address = Objects.isNull(event.getRawMessage()) ? null : event.getRawMessage().getString("address");
+		if (event.type() == BridgeEventType.SOCKET_CREATED) {
+			sockJsClients.put(socket, sockJsClient(socket));
+		} else if (event.type() == BridgeEventType.SOCKET_CLOSED && Objects.nonNull(client)) {
+			sockJsClients.remove(socket);
+			client.queue().close();
+		} else if (event.type() == BridgeEventType.SEND || event.type() == BridgeEventType.PUBLISH) {
+			// clients may reply to the messages they received
+			var reply = Objects.nonNull(client) && client.pendingReplies().remove(address);
+			event.complete(reply || inboundPermitted.test(address));
+			return;
+		} else if (event.type() == BridgeEventType.REGISTER) {
+			var permitted = outboundPermitted.test(address);
+			if (permitted && Objects.nonNull(client)) {
+				client.registrations().add(address);
+			}
+			event.complete(permitted);
+			return;
+		} else if (event.type() == BridgeEventType.RECEIVE && Objects.nonNull(client)) {
+			var replyAddress = event.getRawMessage().getString("replyAddress");
+			if (Objects.nonNull(replyAddress)) {
+				client.awaitReply(replyAddress);
+			}
+			// the queue writes the message itself, so the bridge must not
+			client.queue().offer(event.getRawMessage());
+			event.complete(false);
+			return;
+		} else if (event.type() == BridgeEventType.UNREGISTER && Objects.nonNull(client)) {
+			client.registrations().remove(address);
+			if (Objects.nonNull(client.deltaEncoder())) {
+				client.deltaEncoder().reset(address);
+			}
+		}
+		event.complete(true);
+	}
+
+	private SockJsClient sockJsClient(SockJSSocket socket) {
+		var deltaEncoder = deltaEncoder();
+		var registrations = new HashSet<String>();
+		var queue = new ClientQueue(vertx, socket, String.valueOf(socket.remoteAddress()), queueOptions(),
+				envelope -> {
+					// replies are sent to one-time addresses and have no previous value
+					if (Objects.nonNull(deltaEncoder) && registrations.contains(envelope.getString("address"))) {
+						deltaEncoder.encode(envelope);
+					}
+					socket.write(Buffer.buffer(envelope.encode()));
+				});
+		return new SockJsClient(queue, deltaEncoder, registrations, new LinkedHashSet<>());
+	}
+
+	private ClientQueue.Options queueOptions() {
+		return new ClientQueue.Options(getConfig().conflationWindow(), getConfig().conflationKey(),
+				getConfig().maxQueuedMessages());
+	}
+
+	/**
+	 * @return a new delta encoder for a client or {@code null} if the delta encoding is disabled
+	 */
+	private DeltaEncoder deltaEncoder() {
+		return getConfig().deltaEncoding() ? new DeltaEncoder(getConfig().deltaKeyframeInterval()) : null;
 	}
 
 	/**
@@ -121,9 +346,36 @@ public class WebClientBridge extends TelestionVerticle<WebClientBridge.Configura
 	 * HTML-Page explaining how to use the WidgetBridge or to redirect users to the right url:<br>
 	 * <a href="http://localhost:8080">localhost:8080</a>
 	 *
-	 * @return {@link StaticHandler}
+	 * @return {@link StaticFiles} for production or {@link StaticHandler} without caching
 	 */
-	private StaticHandler staticHandler() {
-		return StaticHandler.create().setCachingEnabled(false);
+	private Handler<RoutingContext> staticHandler() {
+		if (!getConfig().staticCaching()) {
+			return StaticHandler.create(getConfig().webRoot()).setCachingEnabled(false);
+		}
+		var webRoot = getConfig().webRoot().replaceAll("/+$", "");
+		return new StaticFiles(vertx, new StaticFiles.Options(webRoot,
+				Pattern.compile(getConfig().immutableAssetPattern()), getConfig().precompressed(),
+				getConfig().staticCacheSize(), getConfig().staticCacheTimeout()));
 	}
+
+	/**
+	 * The send queue, delta encoder, registered addresses and reply addresses of a SockJS client.
+	 */
+	private record SockJsClient(ClientQueue queue, DeltaEncoder deltaEncoder, Set<String> registrations,
+			LinkedHashSet<String> pendingReplies) {
+		void awaitReply(String replyAddress) {
+			pendingReplies.add(replyAddress);
+			if (pendingReplies.size() > MAX_PENDING_REPLIES) {
+				pendingReplies.remove(pendingReplies.iterator().next());
+			}
+		}
+	}
+
+	private static final String SOCKJS_TRANSPORT = "sockjs";
+	private static final int MAX_PENDING_REPLIES = 1024;
+
+	private final Map<SockJSSocket, SockJsClient> sockJsClients = new IdentityHashMap<>();
+	private AddressPermissions inboundPermitted;
+	private AddressPermissions outboundPermitted;
+	private BinaryBridge binaryBridge;
 }
@@ -1,31 +1,341 @@
 package de.wuespace.telestion.services.logging;
 
-import de.wuespace.telestion.api.verticle.NoConfiguration;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.api.message.JsonRecord;
+import de.wuespace.telestion.api.verticle.NonReloadable;
+import de.wuespace.telestion.api.verticle.TelestionConfiguration;
 import de.wuespace.telestion.api.verticle.TelestionVerticle;
+import de.wuespace.telestion.services.util.RingBuffer;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryContext;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * A verticle which logs the message traffic.
+ * <p>
+ * Every message can be sampled and its body truncated per address, see {@link Configuration}.
+ * <p>
+ * In the asynchronous mode the event bus interceptors copy the address and the headers of the message
+ * into a descriptor together with its body and put it into a bounded lock-free {@link RingBuffer}.
+ * Immutable bodies are passed by reference and other bodies are copied.
+ * A dedicated worker thread formats, truncates and writes the log,
+ * so the event loop is neither blocked by the conversion of large bodies nor by the log appenders.
+ * The worker sleeps while the buffer is empty and is woken up by the interceptors.
+ * If the buffer is full, the message is not logged and counted as dropped.
+ * The dropped messages are reported in the log and in the {@link #metrics() metrics}.
  *
  * @author Jan von Pichowski (@jvpichovski), Cedric Boes (@cb0s), Ludwig Richter (@fussel178)
  * @see io.vertx.core.eventbus.EventBus
  */
-public final class MessageLogger extends TelestionVerticle<NoConfiguration> {
+public final class MessageLogger extends TelestionVerticle<MessageLogger.Configuration> {
+
+	/**
+	 * @param async          logs the messages on a dedicated worker thread instead of the event loop
+	 * @param bufferCapacity the number of messages the asynchronous mode buffers before it drops messages
+	 * @param sampleRate     the fraction of messages that are logged, between {@code 0.0} and {@code 1.0}
+	 * @param sampleRates    the sample rates of specific addresses which override the {@code sampleRate}
+	 * @param maxBodyLength  the maximum number of logged body characters or {@code -1} for the full body
+	 * @param maxBodyLengths the maximum body lengths of specific addresses which override the {@code maxBodyLength}
+	 */
+	public record Configuration(
+			@NonReloadable @JsonProperty boolean async,
+			@NonReloadable @JsonProperty int bufferCapacity,
+			@JsonProperty double sampleRate,
+			@JsonProperty Map<String, Double> sampleRates,
+			@JsonProperty int maxBodyLength,
+			@JsonProperty Map<String, Integer> maxBodyLengths
+	) implements TelestionConfiguration {
+		public Configuration() {
+			this(false, 8192, 1.0, Map.of(), -1, Map.of());
+		}
+	}
+
+	/**
+	 * A snapshot of the counters of the message logger.
+	 *
+	 * @param logged     the number of logged messages
+	 * @param sampledOut the number of messages that were skipped by the sampling
+	 * @param dropped    the number of messages that were dropped, because the buffer was full
+	 * @param buffered   the number of messages that wait in the buffer
+	 */
+	public record Metrics(long logged, long sampledOut, long dropped, int buffered) {
+	}
 
 	@Override
 	public void onStart() throws Exception {
-		vertx.eventBus().addOutboundInterceptor(interceptor -> {
-			try (var ignored = MessageMDC.putCloseable(null, interceptor.message())) {
-				logger.info("Outbound message to {}: {}", interceptor.message().address(),
-						interceptor.body().toString());
+		rules = Rules.of(getConfig());
+
+		if (getConfig().async()) {
+			buffer = new RingBuffer<>(getConfig().bufferCapacity());
+			running = true;
+			worker = new Thread(this::drain, "telestion-message-logger");
+			worker.setDaemon(true);
+			worker.start();
+		}
+
+		vertx.eventBus().addOutboundInterceptor(outboundInterceptor);
+		vertx.eventBus().addInboundInterceptor(inboundInterceptor);
+	}
+
+	@Override
+	public void onStop(Promise<Void> stopPromise) throws Exception {
+		vertx.eventBus().removeOutboundInterceptor(outboundInterceptor);
+		vertx.eventBus().removeInboundInterceptor(inboundInterceptor);
+
+		if (Objects.isNull(worker)) {
+			stopPromise.complete();
+			return;
+		}
+
+		// let the worker write the remaining messages without blocking the event loop
+		running = false;
+		LockSupport.unpark(worker);
+		vertx.<Void>executeBlocking(() -> {
+			worker.join(STOP_TIMEOUT.toMillis());
+			return null;
+		}, false).onComplete(stopPromise);
+	}
+
+	@Override
+	public void onConfigChange(Configuration old, Configuration updated) {
+		rules = Rules.of(updated);
+	}
+
+	/**
+	 * @return a snapshot of the counters of the message logger
+	 */
+	public Metrics metrics() {
+		return new Metrics(logged.sum(), sampledOut.sum(), dropped.sum(),
+				Objects.isNull(buffer) ? 0 : buffer.size());
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * The elements of a message which are logged.
+	 * The worker must not access the message itself, because it may still be delivered on the event loop.
+	 */
+	private record Entry(
+			boolean outbound,
+			String address,
+			String replyAddress,
+			boolean send,
+			MultiMap headers,
+			Object body,
+			int maxBodyLength) {
+		/**
+		 * Takes the elements of a message which is logged on the same thread.
+		 */
+		static Entry of(boolean outbound, Message<?> message, Object body, int maxBodyLength) {
+			return new Entry(outbound, message.address(), message.replyAddress(), message.isSend(),
+					message.headers(), body, maxBodyLength);
+		}
+
+		/**
+		 * Copies the elements of a message which is logged by the worker.
+		 * Only the cheap copies happen here, the body is converted into a string by the worker.
+		 */
+		static Entry copyOf(boolean outbound, Message<?> message, Object body, int maxBodyLength) {
+			var headers = message.headers().isEmpty()
+					? null
+					: MultiMap.caseInsensitiveMultiMap().addAll(message.headers());
+			if (Objects.isNull(body) || body instanceof JsonRecord || IMMUTABLE_BODIES.contains(body.getClass())) {
+				return new Entry(outbound, message.address(), message.replyAddress(), message.isSend(),
+						headers, body, maxBodyLength);
+			}
+
+			Object copy;
+			if (body instanceof Buffer buffer && (maxBodyLength < 0 || buffer.length() <= maxBodyLength)) {
+				copy = buffer.copy();
+			} else if (body instanceof JsonObject json) {
+				copy = json.copy();
+			} else if (body instanceof JsonArray json) {
+				copy = json.copy();
+			} else {
+				// truncated buffers only decode their head and other bodies may change after they were sent
+				return new Entry(outbound, message.address(), message.replyAddress(), message.isSend(),
+						headers, format(body, maxBodyLength), -1);
+			}
+			return new Entry(outbound, message.address(), message.replyAddress(), message.isSend(),
+					headers, copy, maxBodyLength);
+		}
+	}
+
+	private record Rule(double sampleRate, int maxBodyLength) {
+		boolean sample() {
+			return sampleRate >= 1.0 || sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+		}
+	}
+
+	/**
+	 * The sampling and truncation rules resolved once per configuration,
+	 * so an intercepted message only needs a single map lookup.
+	 */
+	private record Rules(Rule fallback, Map<String, Rule> byAddress) {
+		static Rules of(Configuration config) {
+			var sampleRates = Objects.requireNonNullElse(config.sampleRates(), Map.<String, Double>of());
+			var maxBodyLengths = Objects.requireNonNullElse(config.maxBodyLengths(), Map.<String, Integer>of());
+
+			var byAddress = new HashMap<String, Rule>();
+			for (var address : sampleRates.keySet()) {
+				byAddress.put(address, rule(config, sampleRates, maxBodyLengths, address));
+			}
+			for (var address : maxBodyLengths.keySet()) {
+				byAddress.put(address, rule(config, sampleRates, maxBodyLengths, address));
 			}
-			interceptor.next();
-		});
-		vertx.eventBus().addInboundInterceptor(interceptor -> {
-			try (var ignored = MessageMDC.putCloseable(null, interceptor.message())) {
-				logger.info("Inbound message to {}: {}", interceptor.message().address(),
-						interceptor.body().toString());
+			return new Rules(new Rule(config.sampleRate(), config.maxBodyLength()), byAddress);
+		}
+
+		Rule of(String address) {
+			return byAddress.isEmpty() ? fallback : byAddress.getOrDefault(address, fallback);
+		}
+
+		private static Rule rule(
+				Configuration config,
+				Map<String, Double> sampleRates,
+				Map<String, Integer> maxBodyLengths,
+				String address) {
+			return new Rule(
+					Objects.requireNonNullElse(sampleRates.get(address), config.sampleRate()),
+					Objects.requireNonNullElse(maxBodyLengths.get(address), config.maxBodyLength()));
+		}
+	}
+
+	private Handler<DeliveryContext<Object>> interceptor(boolean outbound) {
+		return context -> {
+			var message = context.message();
+			var rule = rules.of(message.address());
+
+			if (!rule.sample()) {
+				sampledOut.increment();
+			} else if (Objects.isNull(buffer)) {
+				write(Entry.of(outbound, message, context.body(), rule.maxBodyLength()));
+			} else if (!buffer.offer(Entry.copyOf(outbound, message, context.body(), rule.maxBodyLength()))) {
+				dropped.increment();
+			} else if (idle) {
+				LockSupport.unpark(worker);
 			}
-			interceptor.next();
-		});
+
+			context.next();
+		};
 	}
+
+	/**
+	 * The loop of the worker thread which writes the buffered messages until the verticle stops.
+	 */
+	private void drain() {
+		var reported = 0L;
+		var lastReport = System.nanoTime();
+
+		while (true) {
+			var entry = buffer.poll();
+			if (Objects.nonNull(entry)) {
+				write(entry);
+			}
+
+			if (System.nanoTime() - lastReport >= REPORT_INTERVAL.toNanos() || Objects.isNull(entry)) {
+				reported = reportDropped(reported);
+				lastReport = System.nanoTime();
+			}
+
+			if (Objects.isNull(entry)) {
+				if (!running) {
+					return;
+				}
+				// the interceptors check the flag after they appended to the buffer, so no wake-up is lost
+				idle = true;
+				if (buffer.size() == 0 && running) {
+					LockSupport.park(this);
+				}
+				idle = false;
+			}
+		}
+	}
+
+	private long reportDropped(long reported) {
+		var total = dropped.sum();
+		if (total > reported) {
+			logger.warn("Dropped {} messages, because the message log buffer is full "
+							+ "(capacity {}, {} dropped in total)", total - reported, buffer.capacity(), total);
+		}
+		return total;
+	}
+
+	private void write(Entry entry) {
+		var headers = Objects.isNull(entry.headers()) || entry.headers().isEmpty() ? "" : entry.headers().toString();
+		var body = format(entry.body(), entry.maxBodyLength());
+		try (var ignored = MessageMDC.putCloseable(null, entry.address(), entry.replyAddress(), entry.send(),
+				headers, body)) {
+			logger.info(entry.outbound() ? "Outbound message to {}: {}" : "Inbound message to {}: {}",
+					entry.address(), body);
+		}
+		logged.increment();
+	}
+
+	/**
+	 * Converts the body into a string of at most {@code maxBodyLength} characters.
+	 * {@link JsonRecord JSON records} which are delivered as instance are logged as JSON.
+	 */
+	static String format(Object body, int maxBodyLength) {
+		if (Objects.isNull(body)) {
+			return null;
+		}
+
+		String text;
+		try {
+			// avoids the decoding of large binary bodies
+			text = body instanceof Buffer buffer && maxBodyLength >= 0 && buffer.length() > maxBodyLength
+					? buffer.getString(0, maxBodyLength) + "... (" + buffer.length() + " bytes)"
+					: body instanceof JsonRecord record ? record.toJsonString() : body.toString();
+		} catch (RuntimeException e) {
+			return "<unavailable: " + e + ">";
+		}
+
+		if (maxBodyLength < 0 || text.length() <= maxBodyLength || body instanceof Buffer) {
+			return text;
+		}
+		return text.substring(0, maxBodyLength) + "... (" + text.length() + " characters)";
+	}
+
+	/**
+	 * The body types of the event bus which cannot change after the message was sent.
+	 */
+	private static final Set<Class<?>> IMMUTABLE_BODIES = Set.of(String.class, Boolean.class, Character.class,
+			Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class);
+
+	private static final Duration REPORT_INTERVAL = Duration.ofSeconds(1);
+	private static final Duration STOP_TIMEOUT = Duration.ofSeconds(5);
+
+	private final Handler<DeliveryContext<Object>> outboundInterceptor = interceptor(true);
+	private final Handler<DeliveryContext<Object>> inboundInterceptor = interceptor(false);
+
+	private final LongAdder logged = new LongAdder();
+	private final LongAdder sampledOut = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+
+	private volatile Rules rules;
+
+	private RingBuffer<Entry> buffer;
+	private Thread worker;
+	private volatile boolean running;
+
+	/**
+	 * {@code true} while the worker is about to sleep or sleeps, because the buffer is empty.
+	 */
+	private volatile boolean idle;
 }
@@ -1,15 +1,26 @@
 package de.wuespace.telestion.services.logging;
 
+import de.wuespace.telestion.api.message.JsonRecord;
 import io.vertx.core.eventbus.Message;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.MDC;
 import de.wuespace.telestion.services.util.SafeCloseable;
 
 /**
  * An MDC implementation for the {@link Message} object.
+ * <p>
+ * The cheap elements of a message are put to the MDC store immediately. The expensive elements, i.e. the
+ * <code>headers</code> and the <code>body</code>, are only rendered when a log event passes the log level
+ * and is going to be written. This requires the {@link MessageMDCFilter} which is installed automatically
+ * if Logback is the logging backend. Without the filter, all elements are rendered immediately.
  *
  * @author Jan von Pichowski, Cedric Boes
  * @see MDC
  * @see Message
+ * @see MessageMDCFilter
  */
 public final class MessageMDC {
 
@@ -25,7 +36,7 @@ public final class MessageMDC {
 	 */
 	public static SafeCloseable putCloseable(String key, Message<?> message) {
 		put(key, message);
-		return () -> remove(key);
+		return closeable(key);
 	}
 
 	/**
@@ -35,9 +46,9 @@ public final class MessageMDC {
 	 * <ul>
 	 * <li>address</li>
 	 * <li>replyAddress</li>
-	 * <li>headers</li>
+	 * <li>headers (rendered lazily)</li>
 	 * <li>send</li>
-	 * <li>body</li>
+	 * <li>body (rendered lazily)</li>
 	 * </ul>
 	 * <br>
 	 * The key is either the name of the objects, if the key is <code>null</code> or <code>key.name</code>.
@@ -46,18 +57,97 @@ public final class MessageMDC {
 	 * @param message {@link Message} to store
 	 */
 	public static void put(String key, Message<?> message) {
+		put(key, message, null, false);
+	}
+
+	/**
+	 * Puts a message object with an already formatted body to the MDC store and returns a {@link SafeCloseable}
+	 * like {@link MessageMDC#putCloseable(String, Message)}.
+	 *
+	 * @param key     to identify the {@link Message} in the store
+	 * @param message {@link Message} to store
+	 * @param body    the formatted (e.g. truncated) body of the message
+	 * @return A {@link SafeCloseable} which can remove the key if {@link SafeCloseable#close() close()} is called
+	 */
+	public static SafeCloseable putCloseable(String key, Message<?> message, String body) {
+		put(key, message, body);
+		return closeable(key);
+	}
+
+	/**
+	 * Puts a message object with an already formatted body to the MDC store
+	 * like {@link MessageMDC#put(String, Message)}.
+	 * Use this if the body string is truncated or was created on another thread.
+	 *
+	 * @param key     to identify the {@link Message} in the store
+	 * @param message {@link Message} to store
+	 * @param body    the formatted (e.g. truncated) body of the message
+	 */
+	public static void put(String key, Message<?> message, String body) {
+		put(key, message, body, true);
+	}
+
+	/**
+	 * Puts the already copied and formatted elements of a message to the MDC store and returns a
+	 * {@link SafeCloseable} like {@link MessageMDC#putCloseable(String, Message)}.
+	 * Use this on a thread which doesn't handle the message, because a {@link Message} must not be read
+	 * concurrently to its delivery.
+	 *
+	 * @param key          to identify the message in the store
+	 * @param address      the address of the message
+	 * @param replyAddress the reply address of the message
+	 * @param send         {@code true} if the message was sent and not published
+	 * @param headers      the formatted headers of the message
+	 * @param body         the formatted (e.g. truncated) body of the message
+	 * @return A {@link SafeCloseable} which can remove the key if {@link SafeCloseable#close() close()} is called
+	 */
+	public static SafeCloseable putCloseable(
+			String key,
+			String address,
+			String replyAddress,
+			boolean send,
+			String headers,
+			String body) {
+		var deferred = DEFERRED.get().get(key);
+		if (Objects.nonNull(deferred)) {
+			deferred.reset();
+		}
+
 		String prefix = (key == null ? "" : key + ".");
-		MDC.put(prefix + "address", message.address());
-		MDC.put(prefix + "replyAddress", message.replyAddress());
-		MDC.put(prefix + "headers", message.toString());
-		MDC.put(prefix + "send", Boolean.toString(message.isSend()));
-		MDC.put(prefix + "body", message.body() == null ? null : message.body().toString());
+		MDC.put(prefix + ADDRESS, address);
+		MDC.put(prefix + REPLY_ADDRESS, replyAddress);
+		MDC.put(prefix + SEND, Boolean.toString(send));
+		MDC.put(prefix + HEADERS, headers);
+		MDC.put(prefix + BODY, body);
+		return closeable(key);
+	}
+
+	/**
+	 * Returns the value of an element in the MDC store and renders it, if it is deferred.
+	 *
+	 * @param key the full key of the element, e.g. <code>body</code> or <code>key.body</code>
+	 * @return the value of the element or <code>null</code> if it is not in the store
+	 */
+	public static String get(String key) {
+		var separator = key.lastIndexOf('.');
+		var deferred = DEFERRED.get().get(separator < 0 ? null : key.substring(0, separator));
+		if (Objects.nonNull(deferred) && deferred.isPending()) {
+			switch (key.substring(separator + 1)) {
+				case HEADERS:
+					return deferred.message.toString();
+				case BODY:
+					return deferred.body();
+				default:
+			}
+		}
+		return MDC.get(key);
 	}
 
 	/**
 	 * Same as {@link MDC#clear()}.
 	 */
 	public static void clear() {
+		DEFERRED.get().clear();
 		MDC.clear();
 	}
 
@@ -67,12 +157,115 @@ public final class MessageMDC {
 	 * @param key identifies the {@link Message} to remove
 	 */
 	public static void remove(String key) {
+		var deferred = DEFERRED.get().get(key);
+		if (Objects.nonNull(deferred)) {
+			deferred.reset();
+		}
 		String prefix = (key == null ? "" : key + ".");
-		MDC.remove(prefix + "address");
-		MDC.remove(prefix + "replyAddress");
-		MDC.remove(prefix + "headers");
-		MDC.remove(prefix + "send");
-		MDC.remove(prefix + "body");
+		MDC.remove(prefix + ADDRESS);
+		MDC.remove(prefix + REPLY_ADDRESS);
+		MDC.remove(prefix + HEADERS);
+		MDC.remove(prefix + SEND);
+		MDC.remove(prefix + BODY);
 	}
 
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Renders the deferred elements of the current thread into the MDC store.
+	 * Called by the {@link MessageMDCFilter} before a log event is created.
+	 */
+	static void render() {
+		var deferred = DEFERRED.get();
+		if (deferred.isEmpty()) {
+			return;
+		}
+
+		for (var entry : deferred.entrySet()) {
+			var element = entry.getValue();
+			if (element.isPending()) {
+				String prefix = (entry.getKey() == null ? "" : entry.getKey() + ".");
+				MDC.put(prefix + HEADERS, element.message.toString());
+				MDC.put(prefix + BODY, element.body());
+				element.rendered = true;
+			}
+		}
+	}
+
+	private static void put(String key, Message<?> message, String body, boolean formatted) {
+		String prefix = (key == null ? "" : key + ".");
+		MDC.put(prefix + ADDRESS, message.address());
+		MDC.put(prefix + REPLY_ADDRESS, message.replyAddress());
+		MDC.put(prefix + SEND, Boolean.toString(message.isSend()));
+
+		if (MessageMDCFilter.isActive()) {
+			MDC.remove(prefix + HEADERS);
+			MDC.remove(prefix + BODY);
+			// the elements are reused per key and thread, so deferring a message does not allocate
+			DEFERRED.get().computeIfAbsent(key, name -> new Deferred()).set(message, body, formatted);
+		} else {
+			MDC.put(prefix + HEADERS, message.toString());
+			MDC.put(prefix + BODY, formatted ? body : render(message.body()));
+		}
+	}
+
+	/**
+	 * Returns the shared {@link SafeCloseable} of the key, so no closeable is allocated per message.
+	 */
+	private static SafeCloseable closeable(String key) {
+		return key == null ? REMOVE_UNNAMED : CLOSEABLES.computeIfAbsent(key, name -> () -> remove(name));
+	}
+
+	private static String render(Object body) {
+		if (body instanceof JsonRecord record) {
+			return record.toJsonString();
+		}
+		return body == null ? null : body.toString();
+	}
+
+	/**
+	 * A message whose headers and body are not rendered yet.
+	 */
+	private static final class Deferred {
+		void set(Message<?> message, String body, boolean formatted) {
+			this.message = message;
+			this.body = body;
+			this.formatted = formatted;
+			this.rendered = false;
+		}
+
+		void reset() {
+			set(null, null, false);
+		}
+
+		boolean isPending() {
+			return message != null && !rendered;
+		}
+
+		String body() {
+			return formatted ? body : render(message.body());
+		}
+
+		private Message<?> message;
+		private String body;
+		private boolean formatted;
+		private boolean rendered;
+	}
+
+	private static final String ADDRESS = "address";
+	private static final String REPLY_ADDRESS = "replyAddress";
+	private static final String HEADERS = "headers";
+	private static final String SEND = "send";
+	private static final String BODY = "body";
+
+	private static final SafeCloseable REMOVE_UNNAMED = () -> remove(null);
+	private static final Map<String, SafeCloseable> CLOSEABLES = new ConcurrentHashMap<>();
+
+	private static final ThreadLocal<Map<String, Deferred>> DEFERRED = ThreadLocal.withInitial(HashMap::new);
+
+	static {
+		MessageMDCFilter.install();
+	}
 }
@@ -0,0 +1,91 @@
+package de.wuespace.telestion.services.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+
+/**
+ * <h2>Description</h2>
+ * A Logback {@link TurboFilter} which renders the deferred elements of the {@link MessageMDC}
+ * into the MDC store, right before a log event that passes the log level is created.
+ * Log events which are filtered out never render a message body.
+ * <p>
+ * The filter doesn't filter anything itself and always returns {@link FilterReply#NEUTRAL}.
+ * Because the elements are in the MDC store before the event is created,
+ * they are available in all appenders and encoders, e.g. with <code>%X{body}</code>.
+ *
+ * <h2>Usage</h2>
+ * The {@link MessageMDC} installs the filter automatically.
+ * If your Logback configuration is reloaded at runtime, add it to the configuration instead:
+ * <pre>
+ * {@code
+ * <configuration>
+ *     <turboFilter class="de.wuespace.telestion.services.logging.MessageMDCFilter"/>
+ *     ...
+ * </configuration>
+ * }
+ * </pre>
+ *
+ * @see MessageMDC
+ */
+public final class MessageMDCFilter extends TurboFilter {
+
+	@Override
+	public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+		// isEnabled() calls have no format and never create an event
+		if (format != null && logger.isEnabledFor(level)) {
+			MessageMDC.render();
+		}
+		return FilterReply.NEUTRAL;
+	}
+
+	@Override
+	public void start() {
+		if (!isStarted()) {
+			active.incrementAndGet();
+		}
+		super.start();
+	}
+
+	@Override
+	public void stop() {
+		if (isStarted()) {
+			active.decrementAndGet();
+		}
+		super.stop();
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * @return {@code true} if at least one filter renders the deferred elements
+	 */
+	static boolean isActive() {
+		return active.get() > 0;
+	}
+
+	/**
+	 * Adds a filter to the Logback context if Logback is the logging backend and the filter is missing.
+	 */
+	static synchronized void install() {
+		if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)
+				|| context.getTurboFilterList().stream().anyMatch(MessageMDCFilter.class::isInstance)) {
+			return;
+		}
+
+		var filter = new MessageMDCFilter();
+		filter.setContext(context);
+		filter.setName(MessageMDCFilter.class.getSimpleName());
+		filter.start();
+		context.addTurboFilter(filter);
+	}
+
+	private static final AtomicInteger active = new AtomicInteger();
+}
@@ -0,0 +1,99 @@
+package de.wuespace.telestion.services.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.AtomicHistogram;
+
+/**
+ * The metrics of the messages to one address of the event bus.
+ * <p>
+ * All counters and histograms are lock-free and record without allocations.
+ * The histograms are created on their first recorded value, so unused distributions don't use memory.
+ *
+ * @see MessageMetrics
+ */
+final class AddressMetrics {
+
+	/**
+	 * A distribution of values in a lock-free HDR histogram together with their sum.
+	 */
+	static final class Distribution {
+
+		Distribution(long highestTrackableValue) {
+			this.highestTrackableValue = highestTrackableValue;
+		}
+
+		void record(long value) {
+			var histogram = this.histogram.get();
+			if (histogram == null) {
+				this.histogram.compareAndSet(null, new AtomicHistogram(highestTrackableValue, SIGNIFICANT_DIGITS));
+				histogram = this.histogram.get();
+			}
+
+			var clamped = Math.max(0, Math.min(value, highestTrackableValue));
+			histogram.recordValue(clamped);
+			sum.add(clamped);
+		}
+
+		/**
+		 * @return a consistent enough copy of the histogram or {@code null} if no value was recorded yet
+		 */
+		AtomicHistogram snapshot() {
+			var histogram = this.histogram.get();
+			return histogram == null ? null : histogram.copy();
+		}
+
+		long sum() {
+			return sum.sum();
+		}
+
+		private static final int SIGNIFICANT_DIGITS = 2;
+
+		private final long highestTrackableValue;
+		private final AtomicReference<AtomicHistogram> histogram = new AtomicReference<>();
+		private final LongAdder sum = new LongAdder();
+	}
+
+	AddressMetrics(String address) {
+		this.address = address;
+	}
+
+	final String address;
+
+	final LongAdder sent = new LongAdder();
+	final LongAdder received = new LongAdder();
+
+	/**
+	 * The body sizes in bytes.
+	 */
+	final Distribution bodySize = new Distribution(MAX_BODY_SIZE);
+
+	/**
+	 * The execution times of the handlers in microseconds.
+	 */
+	final Distribution handlerTime = new Distribution(MAX_LATENCY);
+
+	/**
+	 * The delays between sending and handling in microseconds.
+	 */
+	final Distribution queueDelay = new Distribution(MAX_LATENCY);
+
+	/**
+	 * The round-trip times of requests in microseconds.
+	 */
+	final Distribution roundTrip = new Distribution(MAX_LATENCY);
+
+	/**
+	 * Counts the sent messages to select the ones with a send timestamp.
+	 */
+	final AtomicLong stamps = new AtomicLong();
+
+	/**
+	 * The number of sent messages with a send timestamp which are not received yet.
+	 */
+	final AtomicLong pendingStamps = new AtomicLong();
+
+	private static final long MAX_BODY_SIZE = 64L * 1024 * 1024;
+	private static final long MAX_LATENCY = 60L * 1000 * 1000;
+}
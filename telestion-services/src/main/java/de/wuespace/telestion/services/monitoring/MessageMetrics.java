@@ -0,0 +1,367 @@
+package de.wuespace.telestion.services.monitoring;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.api.verticle.TelestionConfiguration;
+import de.wuespace.telestion.api.verticle.TelestionVerticle;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryContext;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.ext.web.Router;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * A verticle which collects metrics of the message traffic per address of the event bus
+ * and serves them over HTTP in the Prometheus text format.
+ * <p>
+ * For every address it records:
+ * <ul>
+ *     <li>the number of sent and received messages</li>
+ *     <li>the body size of sent {@link Buffer}, {@link String} and {@code byte[]} messages</li>
+ *     <li>the execution time of the handlers</li>
+ *     <li>the queueing delay between sending a message and the entry of the handler</li>
+ *     <li>the round-trip time of requests until their reply arrives</li>
+ * </ul>
+ * The latencies are recorded in lock-free HDR histograms, and no object is allocated per message.
+ * Only every {@link Configuration#queueDelaySampleInterval() n-th} message per address
+ * gets a send timestamp header to measure the queueing delay.
+ * All replies are collected under the address {@value #REPLY_ADDRESS}. Addresses beyond
+ * {@link Configuration#maxAddresses()} are collected under the address {@value #OTHER_ADDRESS}.
+ * <p>
+ * Other verticles can contribute their metrics to the scrape with a {@link MetricsSource}.
+ * <p>
+ * Deploy only one instance, because every instance intercepts all messages.
+ *
+ * @see HystrixMetrics
+ */
+public final class MessageMetrics extends TelestionVerticle<MessageMetrics.Configuration> {
+
+	/**
+	 * The header that contains the send time of a sampled message in nanoseconds since the epoch.
+	 */
+	public static final String SEND_TIME_HEADER = "telestion-send-time";
+
+	/**
+	 * The address under which the metrics of all replies are collected.
+	 */
+	public static final String REPLY_ADDRESS = "__vertx.reply";
+
+	/**
+	 * The address under which the metrics of the addresses beyond the limit are collected.
+	 */
+	public static final String OTHER_ADDRESS = "__other";
+
+	/**
+	 * @param host                     the host the HTTP server listens on
+	 * @param port                     the port the HTTP server listens on
+	 * @param path                     the path that serves the metrics
+	 * @param maxAddresses             the maximum number of addresses with separate metrics
+	 * @param queueDelaySampleInterval every n-th message per address measures its queueing delay,
+	 *                                 {@code 0} disables the measurement
+	 */
+	public record Configuration(
+			@JsonProperty String host,
+			@JsonProperty int port,
+			@JsonProperty String path,
+			@JsonProperty int maxAddresses,
+			@JsonProperty int queueDelaySampleInterval
+	) implements TelestionConfiguration {
+		public Configuration() {
+			this("0.0.0.0", 9100, "/metrics", 256, 16);
+		}
+	}
+
+	/**
+	 * Adds a source whose metrics are included in the scrape of the metrics verticle on the Vert.x instance.
+	 * A source with the same name is replaced.
+	 *
+	 * @param vertx  the Vert.x instance of the metrics verticle
+	 * @param name   the unique name of the source
+	 * @param source the source of the metrics
+	 */
+	public static void addSource(Vertx vertx, String name, MetricsSource source) {
+		sources(vertx).put(name, source);
+	}
+
+	/**
+	 * Removes the source with the name from the scrape of the metrics verticle on the Vert.x instance.
+	 *
+	 * @param vertx the Vert.x instance of the metrics verticle
+	 * @param name  the unique name of the source
+	 */
+	public static void removeSource(Vertx vertx, String name) {
+		sources(vertx).remove(name);
+	}
+
+	@Override
+	public void onStart(Promise<Void> startPromise) throws Exception {
+		maxAddresses = getConfig().maxAddresses();
+		queueDelaySampleInterval = getConfig().queueDelaySampleInterval();
+
+		vertx.eventBus().addOutboundInterceptor(outboundInterceptor);
+		vertx.eventBus().addInboundInterceptor(inboundInterceptor);
+
+		var router = Router.router(vertx);
+		router.get(getConfig().path()).handler(context -> context.response()
+				.putHeader("Content-Type", CONTENT_TYPE)
+				.end(scrape()));
+
+		server = vertx.createHttpServer();
+		server.requestHandler(router).listen(getConfig().port(), getConfig().host())
+				.onSuccess(s -> logger.info("Serving metrics on {}:{}{}", getConfig().host(), s.actualPort(),
+						getConfig().path()))
+				.<Void>mapEmpty()
+				.onComplete(startPromise);
+	}
+
+	@Override
+	public void onStop(Promise<Void> stopPromise) throws Exception {
+		vertx.eventBus().removeOutboundInterceptor(outboundInterceptor);
+		vertx.eventBus().removeInboundInterceptor(inboundInterceptor);
+		server.close().onComplete(stopPromise);
+	}
+
+	/**
+	 * @return the current metrics in the Prometheus text format
+	 */
+	public String scrape() {
+		var snapshot = Stream.concat(addresses.values().stream(), Stream.of(replies, others))
+				.sorted(Comparator.comparing(metrics -> metrics.address))
+				.toList();
+		var text = new StringBuilder(4096);
+
+		writeCounter(text, "telestion_eventbus_messages_sent_total", "The number of messages sent to an address.",
+				snapshot, metrics -> metrics.sent.sum());
+		writeCounter(text, "telestion_eventbus_messages_received_total",
+				"The number of messages received by the handlers of an address.",
+				snapshot, metrics -> metrics.received.sum());
+		writeSummary(text, "telestion_eventbus_body_size_bytes", "The body size of the sent messages.",
+				snapshot, metrics -> metrics.bodySize, 1.0);
+		writeSummary(text, "telestion_eventbus_handler_seconds", "The execution time of the handlers.",
+				snapshot, metrics -> metrics.handlerTime, MICROS_TO_SECONDS);
+		writeSummary(text, "telestion_eventbus_queue_delay_seconds",
+				"The delay between sending a message and the entry of its handler.",
+				snapshot, metrics -> metrics.queueDelay, MICROS_TO_SECONDS);
+		writeSummary(text, "telestion_eventbus_request_seconds", "The round-trip time of requests.",
+				snapshot, metrics -> metrics.roundTrip, MICROS_TO_SECONDS);
+		if (Objects.nonNull(vertx)) {
+			writeSources(text);
+		}
+
+		return text.toString();
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private void intercept(DeliveryContext<Object> context, boolean outbound) {
+		var message = context.message();
+		var address = message.address();
+
+		var reply = address.startsWith(REPLY_PREFIX);
+		if (!outbound) {
+			// the pending requests also detect replies to reply addresses of other cluster nodes
+			reply = pending.complete(address, System.nanoTime()) || reply;
+		}
+		var metrics = reply ? replies : metricsOf(address);
+
+		if (outbound) {
+			metrics.sent.increment();
+
+			var size = sizeOf(context.body());
+			if (size >= 0) {
+				metrics.bodySize.record(size);
+			}
+
+			var replyAddress = message.replyAddress();
+			if (Objects.nonNull(replyAddress)) {
+				pending.add(replyAddress, metrics, System.nanoTime());
+			}
+
+			if (queueDelaySampleInterval > 0 && metrics.stamps.getAndIncrement() % queueDelaySampleInterval == 0) {
+				message.headers().set(SEND_TIME_HEADER, Long.toString(epochNanos()));
+				metrics.pendingStamps.incrementAndGet();
+			}
+
+			context.next();
+			return;
+		}
+
+		metrics.received.increment();
+
+		// only look for a send timestamp if one is expected, because reading the headers may allocate them
+		if (metrics.pendingStamps.get() > 0) {
+			var sendTime = message.headers().get(SEND_TIME_HEADER);
+			if (Objects.nonNull(sendTime)) {
+				metrics.pendingStamps.getAndUpdate(count -> Math.max(0, count - 1));
+				metrics.queueDelay.record((epochNanos() - parseLong(sendTime)) / 1000);
+			}
+		}
+
+		var started = System.nanoTime();
+		try {
+			context.next();
+		} finally {
+			metrics.handlerTime.record((System.nanoTime() - started) / 1000);
+		}
+	}
+
+	private AddressMetrics metricsOf(String address) {
+		var metrics = addresses.get(address);
+		if (Objects.nonNull(metrics)) {
+			return metrics;
+		}
+		if (addresses.size() >= maxAddresses) {
+			return others;
+		}
+		return addresses.computeIfAbsent(address, AddressMetrics::new);
+	}
+
+	private static long sizeOf(Object body) {
+		if (body instanceof Buffer buffer) {
+			return buffer.length();
+		}
+		if (body instanceof String string) {
+			return string.length();
+		}
+		if (body instanceof byte[] bytes) {
+			return bytes.length;
+		}
+		return -1;
+	}
+
+	private static long parseLong(String value) {
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			return epochNanos();
+		}
+	}
+
+	/**
+	 * @return the current time in nanoseconds since the epoch with the resolution of {@link System#nanoTime()}
+	 */
+	private static long epochNanos() {
+		return EPOCH_OFFSET + System.nanoTime();
+	}
+
+	private static void writeCounter(
+			StringBuilder text,
+			String name,
+			String help,
+			List<AddressMetrics> snapshot,
+			ToLongFunction<AddressMetrics> counter) {
+		writeHeader(text, name, help, "counter");
+		for (var metrics : snapshot) {
+			text.append(name).append("{address=\"").append(escape(metrics.address)).append("\"} ")
+					.append(counter.applyAsLong(metrics)).append('\n');
+		}
+	}
+
+	private static void writeSummary(
+			StringBuilder text,
+			String name,
+			String help,
+			List<AddressMetrics> snapshot,
+			Function<AddressMetrics, AddressMetrics.Distribution> distribution,
+			double scale) {
+		writeHeader(text, name, help, "summary");
+		for (var metrics : snapshot) {
+			var histogram = distribution.apply(metrics).snapshot();
+			if (Objects.isNull(histogram)) {
+				continue;
+			}
+
+			var label = "address=\"" + escape(metrics.address) + "\"";
+			for (var quantile : QUANTILES) {
+				text.append(name).append('{').append(label).append(",quantile=\"").append(quantile).append("\"} ")
+						.append(histogram.getValueAtPercentile(quantile * 100) * scale).append('\n');
+			}
+			text.append(name).append("_sum{").append(label).append("} ")
+					.append(distribution.apply(metrics).sum() * scale).append('\n');
+			text.append(name).append("_count{").append(label).append("} ")
+					.append(histogram.getTotalCount()).append('\n');
+		}
+	}
+
+	/**
+	 * Writes the samples of the added sources grouped by their metric.
+	 */
+	private void writeSources(StringBuilder text) {
+		var families = new TreeMap<String, List<MetricsSource.Sample>>();
+		for (var source : sources(vertx).entrySet()) {
+			try {
+				for (var sample : source.getValue().collect()) {
+					families.computeIfAbsent(sample.name(), name -> new ArrayList<>()).add(sample);
+				}
+			} catch (RuntimeException e) {
+				logger.warn("Cannot collect the metrics of the source {}", source.getKey(), e);
+			}
+		}
+
+		for (var family : families.values()) {
+			var first = family.get(0);
+			writeHeader(text, first.name(), first.help(), first.type());
+			for (var sample : family) {
+				text.append(sample.name());
+				if (!sample.labels().isEmpty()) {
+					text.append('{');
+					var separator = "";
+					for (var label : sample.labels().entrySet()) {
+						text.append(separator).append(label.getKey()).append("=\"").append(escape(label.getValue()))
+								.append('"');
+						separator = ",";
+					}
+					text.append('}');
+				}
+				text.append(' ').append(sample.value()).append('\n');
+			}
+		}
+	}
+
+	private static LocalMap<String, MetricsSource> sources(Vertx vertx) {
+		return vertx.sharedData().getLocalMap(SOURCES_MAP);
+	}
+
+	private static void writeHeader(StringBuilder text, String name, String help, String type) {
+		text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static String escape(String label) {
+		return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+
+	private static final String REPLY_PREFIX = "__vertx.reply.";
+	private static final String SOURCES_MAP = "telestion-metrics-sources";
+	private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+	private static final double MICROS_TO_SECONDS = 1e-6;
+	private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+	private static final long EPOCH_OFFSET = System.currentTimeMillis() * 1_000_000 - System.nanoTime();
+	private static final int PENDING_REQUESTS = 4096;
+
+	private final Handler<DeliveryContext<Object>> outboundInterceptor = context -> intercept(context, true);
+	private final Handler<DeliveryContext<Object>> inboundInterceptor = context -> intercept(context, false);
+
+	private final Map<String, AddressMetrics> addresses = new ConcurrentHashMap<>();
+	private final AddressMetrics replies = new AddressMetrics(REPLY_ADDRESS);
+	private final AddressMetrics others = new AddressMetrics(OTHER_ADDRESS);
+	private final PendingRequests pending = new PendingRequests(PENDING_REQUESTS);
+
+	private HttpServer server;
+	private int maxAddresses;
+	private int queueDelaySampleInterval;
+}
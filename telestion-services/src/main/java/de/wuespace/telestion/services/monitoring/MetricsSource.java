@@ -0,0 +1,37 @@
+package de.wuespace.telestion.services.monitoring;
+
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contributes the metrics of another verticle to the Prometheus scrape of the {@link MessageMetrics}.
+ * <p>
+ * Add a source with {@link MessageMetrics#addSource(io.vertx.core.Vertx, String, MetricsSource)} when the verticle
+ * starts and remove it with {@link MessageMetrics#removeSource(io.vertx.core.Vertx, String)} when it stops.
+ * The sources are collected on the context of the metrics server, so they must be thread-safe.
+ *
+ * @see MessageMetrics
+ */
+@FunctionalInterface
+public interface MetricsSource extends Shareable {
+
+	/**
+	 * A sample of a metric.
+	 * The samples of all sources with the same name are written as one metric family.
+	 *
+	 * @param name   the name of the metric, e.g. {@code telestion_replay_messages_total}
+	 * @param help   the description of the metric
+	 * @param type   the Prometheus type of the metric, e.g. {@code counter} or {@code gauge}
+	 * @param labels the labels which distinguish the samples of the metric
+	 * @param value  the current value
+	 */
+	record Sample(String name, String help, String type, Map<String, String> labels, double value) {
+	}
+
+	/**
+	 * @return the current samples of the source
+	 */
+	List<Sample> collect();
+}
@@ -0,0 +1,61 @@
+package de.wuespace.telestion.services.monitoring;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed-size, lock-free table of the requests which wait for their reply, indexed by the reply address.
+ * <p>
+ * Nothing is allocated when a request is added or completed. If two pending requests share a slot,
+ * the older one is overwritten and its round-trip time is not measured.
+ * Requests that never receive a reply are overwritten eventually.
+ *
+ * @see MessageMetrics
+ */
+final class PendingRequests {
+
+	/**
+	 * @param capacity the number of slots, rounded up to the next power of two
+	 */
+	PendingRequests(int capacity) {
+		var size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+		this.mask = size - 1;
+		this.replyAddresses = new AtomicReferenceArray<>(size);
+		this.metrics = new AtomicReferenceArray<>(size);
+		this.started = new AtomicLongArray(size);
+	}
+
+	void add(String replyAddress, AddressMetrics target, long startedNanos) {
+		var index = replyAddress.hashCode() & mask;
+		started.set(index, startedNanos);
+		metrics.set(index, target);
+		// the reply address is written last, so a reader only sees completely written slots
+		replyAddresses.set(index, replyAddress);
+	}
+
+	/**
+	 * Completes the request if the address is the reply address of a pending request
+	 * and records its round-trip time.
+	 *
+	 * @return {@code true} if the address belongs to a pending request
+	 */
+	boolean complete(String address, long nowNanos) {
+		var index = address.hashCode() & mask;
+		var replyAddress = replyAddresses.get(index);
+		if (replyAddress == null || !replyAddress.equals(address)) {
+			return false;
+		}
+
+		var target = metrics.get(index);
+		var startedNanos = started.get(index);
+		if (replyAddresses.compareAndSet(index, replyAddress, null)) {
+			target.roundTrip.record((nowNanos - startedNanos) / 1000);
+		}
+		return true;
+	}
+
+	private final int mask;
+	private final AtomicReferenceArray<String> replyAddresses;
+	private final AtomicReferenceArray<AddressMetrics> metrics;
+	private final AtomicLongArray started;
+}
@@ -0,0 +1,180 @@
+package de.wuespace.telestion.services.recording;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.api.verticle.NonReloadable;
+import de.wuespace.telestion.api.verticle.TelestionConfiguration;
+import de.wuespace.telestion.api.verticle.TelestionVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A verticle which records the messages on the configured addresses durably on the disk.
+ * <p>
+ * The messages are appended with their headers and the time of their arrival to a {@link SegmentLog}
+ * of memory-mapped segments. The body of a {@link de.wuespace.telestion.api.message.JsonRecord JsonRecord}
+ * is stored in the binary form of the {@link de.wuespace.telestion.api.message.JsonRecordMessageCodec
+ * JsonRecordMessageCodec}, i.e. its class name and its CBOR encoding, see {@link SegmentFormat}.
+ * Appending a message is a memory copy on the event loop.
+ * Every {@link Configuration#syncInterval() sync interval} the written records are forced to the disk on a worker,
+ * so at most the messages of one interval are lost if the machine crashes.
+ * The next segment is preallocated by the same task. If it is not ready when a segment is full,
+ * e.g. because the disk is full, the messages are counted as {@link Metrics#failures() failures}
+ * instead of blocking the event loop.
+ * <p>
+ * Read the recordings with a {@link RecordingReader}.
+ *
+ * @see SegmentLog
+ */
+public final class MessageRecorder extends TelestionVerticle<MessageRecorder.Configuration> {
+
+	/**
+	 * @param directory     the directory of the recorded segments
+	 * @param addresses     the addresses whose messages are recorded
+	 * @param segmentSize   the size of a segment in bytes, which is also the maximum size of a message
+	 * @param indexInterval the number of bytes between two entries of the time index of a segment
+	 * @param syncInterval  the time in milliseconds between two syncs of the written messages to the disk
+	 * @param retentionSize the maximum size of all segments in bytes, {@code 0} keeps them regardless of their size
+	 * @param retentionAge  the maximum age of the recorded messages in milliseconds,
+	 *                      {@code 0} keeps them regardless of their age
+	 */
+	@NonReloadable
+	public record Configuration(
+			@JsonProperty String directory,
+			@JsonProperty List<String> addresses,
+			@JsonProperty int segmentSize,
+			@JsonProperty int indexInterval,
+			@JsonProperty long syncInterval,
+			@JsonProperty long retentionSize,
+			@JsonProperty long retentionAge
+	) implements TelestionConfiguration {
+		public Configuration() {
+			this("recordings", List.of(), 64 * 1024 * 1024, 4096, 1000, 0, 0);
+		}
+	}
+
+	/**
+	 * A snapshot of the counters of the recorder.
+	 *
+	 * @param recorded the number of recorded messages
+	 * @param bytes    the number of recorded bytes
+	 * @param syncs    the number of completed syncs to the disk
+	 * @param segments the number of segments on the disk
+	 * @param failures the number of messages that could not be recorded
+	 */
+	public record Metrics(long recorded, long bytes, long syncs, int segments, long failures) {
+	}
+
+	/**
+	 * @return the current time in microseconds since the epoch with the resolution of {@link System#nanoTime()}
+	 */
+	public static long epochMicros() {
+		return EPOCH_OFFSET + System.nanoTime() / 1000;
+	}
+
+	@Override
+	public void onStart(Promise<Void> startPromise) throws Exception {
+		var config = getConfig();
+		var options = new SegmentLog.Options(Path.of(config.directory()), config.segmentSize(),
+				config.indexInterval(), config.retentionSize(), Duration.ofMillis(config.retentionAge()));
+
+		vertx.executeBlocking(() -> SegmentLog.open(options))
+				.compose(opened -> {
+					log = opened;
+					var registrations = new ArrayList<Future<Void>>();
+					for (var address : Objects.requireNonNullElse(config.addresses(), List.<String>of())) {
+						var consumer = vertx.eventBus().consumer(address, this::record);
+						var registered = Promise.<Void>promise();
+						consumer.completionHandler(registered);
+						consumers.add(consumer);
+						registrations.add(registered.future());
+					}
+					timer = vertx.setPeriodic(config.syncInterval(), id -> sync());
+					logger.info("Recording {} addresses to {}", consumers.size(), options.directory().toAbsolutePath());
+					return Future.all(registrations);
+				})
+				.<Void>mapEmpty()
+				.onComplete(startPromise);
+	}
+
+	@Override
+	public void onStop(Promise<Void> stopPromise) throws Exception {
+		if (Objects.isNull(log)) {
+			stopPromise.complete();
+			return;
+		}
+
+		vertx.cancelTimer(timer);
+		Future.all(consumers.stream().map(MessageConsumer::unregister).toList())
+				// after all pending syncs
+				.compose(unregistered -> vertx.<Void>executeBlocking(() -> {
+					log.close();
+					return null;
+				}, true))
+				.onComplete(stopPromise);
+	}
+
+	/**
+	 * @return a snapshot of the counters of the recorder
+	 */
+	public Metrics metrics() {
+		if (Objects.isNull(log)) {
+			return new Metrics(0, 0, 0, 0, failures);
+		}
+		var metrics = log.metrics();
+		return new Metrics(metrics.appended(), metrics.bytes(), metrics.syncs(), metrics.segments(), failures);
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private void record(Message<Object> message) {
+		try {
+			var result = log.append(epochMicros(), message.address(), message.headers(), message.body());
+			if (result == SegmentLog.AppendResult.TOO_LARGE) {
+				failures++;
+				logger.warn("Cannot record a message on {}, because it is larger than a segment", message.address());
+			} else if (result == SegmentLog.AppendResult.NO_SEGMENT) {
+				// the sync task prepares the next segment on a worker and logs why it cannot
+				failures++;
+				sync();
+			}
+		} catch (RuntimeException e) {
+			failures++;
+			logger.error("Cannot record a message on {}", message.address(), e);
+		}
+	}
+
+	private void sync() {
+		if (syncing) {
+			return;
+		}
+		syncing = true;
+		var task = log.sync();
+		vertx.<Void>executeBlocking(() -> {
+			task.run();
+			return null;
+		}, true).onComplete(result -> {
+			syncing = false;
+			if (result.failed()) {
+				logger.error("Cannot sync the recorded messages to the disk", result.cause());
+			}
+		});
+	}
+
+	private static final long EPOCH_OFFSET = System.currentTimeMillis() * 1000 - System.nanoTime() / 1000;
+
+	private final List<MessageConsumer<Object>> consumers = new ArrayList<>();
+
+	private SegmentLog log;
+	private long timer;
+	private boolean syncing;
+	private long failures;
+}
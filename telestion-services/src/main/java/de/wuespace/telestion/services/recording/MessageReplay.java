@@ -0,0 +1,361 @@
+package de.wuespace.telestion.services.recording;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.api.message.HeaderInformation;
+import de.wuespace.telestion.api.message.JsonRecord;
+import de.wuespace.telestion.api.verticle.NonReloadable;
+import de.wuespace.telestion.api.verticle.TelestionConfiguration;
+import de.wuespace.telestion.api.verticle.TelestionVerticle;
+import de.wuespace.telestion.api.verticle.trait.WithEventBusPublish;
+import de.wuespace.telestion.services.monitoring.MessageMetrics;
+import de.wuespace.telestion.services.monitoring.MetricsSource;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A verticle which replays the recorded messages of a time range on the event bus,
+ * e.g. to feed the telemetry of a pass through the same verticles again after an anomaly.
+ * <p>
+ * The messages are read with a {@link RecordingReader}, which seeks to the start of the range with the time index
+ * of the segments, and are published with their original headers via {@link WithEventBusPublish}.
+ * {@link JsonRecord JSON records} are published as instances of their recorded type.
+ * Every replayed message additionally has the header {@value ReplayFlowControl#REPLAY_HEADER}.
+ * <p>
+ * With a {@link Configuration#speed() speed} of {@code 1.0} the messages are published with their recorded
+ * intervals, with {@code 10.0} ten times as fast and with {@code 0} as fast as possible.
+ * In every mode, a consumer has at most {@link Configuration#maxInFlight() maxInFlight} replayed messages
+ * per address that it has not handled yet. Otherwise, the replay pauses until it catches up,
+ * so a replay never floods the consumers.
+ * <p>
+ * The replay starts when the verticle is deployed. Its throughput, its lag behind the recorded intervals
+ * and the number of unhandled messages are included in the scrape of the {@link MessageMetrics}.
+ *
+ * @see MessageRecorder
+ */
+public final class MessageReplay extends TelestionVerticle<MessageReplay.Configuration>
+		implements WithEventBusPublish {
+
+	/**
+	 * @param directory     the directory of the recorded segments
+	 * @param from          the start of the time range as an ISO-8601 instant, an empty string starts at the beginning
+	 * @param to            the end of the time range as an ISO-8601 instant, an empty string ends with the messages
+	 *                      recorded before the replay started
+	 * @param speed         the factor by which the replay is faster than the recording,
+	 *                      {@code 0} replays as fast as possible
+	 * @param addresses     the addresses whose messages are replayed, an empty list replays all addresses
+	 * @param addressPrefix the prefix of the addresses the messages are published to,
+	 *                      e.g. {@code replay/} to keep them apart from live traffic
+	 * @param maxInFlight   the maximum number of replayed messages per address that a consumer has not handled yet
+	 * @param batchSize     the number of messages that are read from the disk at once
+	 * @param stallTimeout  the time in milliseconds after which a consumer without progress no longer holds
+	 *                      the replay back
+	 */
+	@NonReloadable
+	public record Configuration(
+			@JsonProperty String directory,
+			@JsonProperty String from,
+			@JsonProperty String to,
+			@JsonProperty double speed,
+			@JsonProperty List<String> addresses,
+			@JsonProperty String addressPrefix,
+			@JsonProperty int maxInFlight,
+			@JsonProperty int batchSize,
+			@JsonProperty long stallTimeout
+	) implements TelestionConfiguration {
+		public Configuration() {
+			this("recordings", "", "", 1.0, List.of(), "", 1024, 1024, 10000);
+		}
+	}
+
+	/**
+	 * A snapshot of the progress of the replay.
+	 *
+	 * @param replayed the number of replayed messages
+	 * @param position the recording time of the last replayed message in microseconds since the epoch
+	 * @param lag      the time in microseconds the last message was published after its paced time
+	 * @param inFlight the maximum number of replayed messages of a consumer on an address that it has not handled yet
+	 * @param pauses   the number of times the replay paused for a consumer
+	 * @param finished {@code true} if all messages of the range are replayed
+	 */
+	public record Metrics(long replayed, long position, long lag, long inFlight, long pauses, boolean finished) {
+	}
+
+	@Override
+	public void onStart(Promise<Void> startPromise) throws Exception {
+		var config = getConfig();
+		speed = config.speed();
+		batchSize = Math.max(1, config.batchSize());
+		addressPrefix = Objects.requireNonNullElse(config.addressPrefix(), "");
+		filter = Set.copyOf(Objects.requireNonNullElse(config.addresses(), List.<String>of()));
+		var directory = Path.of(config.directory());
+		var from = parseInstant(config.from(), 0);
+		to = parseInstant(config.to(), MessageRecorder.epochMicros());
+
+		flow = new ReplayFlowControl(context, deploymentID(), config.maxInFlight(),
+				TimeUnit.MILLISECONDS.toNanos(config.stallTimeout()), this::pump);
+		vertx.eventBus().addInboundInterceptor(flow.interceptor());
+		MessageMetrics.addSource(vertx, metricsSource(), this::samples);
+
+		vertx.executeBlocking(() -> RecordingReader.open(directory, from, to))
+				.onSuccess(opened -> {
+					reader = opened;
+					logger.info("Replaying {} from {} to {} at {}", directory.toAbsolutePath(),
+							config.from().isEmpty() ? "the beginning" : config.from(),
+							config.to().isEmpty() ? "the end" : config.to(),
+							speed > 0 ? speed + "x speed" : "maximum speed");
+					fetch();
+				})
+				.<Void>mapEmpty()
+				.onComplete(startPromise);
+	}
+
+	@Override
+	public void onStop(Promise<Void> stopPromise) throws Exception {
+		stopped = true;
+		cancelTimer();
+		vertx.eventBus().removeInboundInterceptor(flow.interceptor());
+		flow.close();
+		MessageMetrics.removeSource(vertx, metricsSource());
+
+		if (Objects.isNull(reader)) {
+			stopPromise.complete();
+			return;
+		}
+		// after the pending reads
+		vertx.<Void>executeBlocking(() -> {
+			reader.close();
+			return null;
+		}, true).onComplete(stopPromise);
+	}
+
+	/**
+	 * @return a snapshot of the progress of the replay
+	 */
+	public Metrics metrics() {
+		return new Metrics(replayed, position, lag, Objects.isNull(flow) ? 0 : flow.inFlight(), pauses, finished);
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Publishes the read messages until the next one is due later, a consumer must catch up,
+	 * or the next batch must be read first.
+	 */
+	private void pump() {
+		cancelTimer();
+		while (!stopped) {
+			if (pending.size() <= batchSize / 2) {
+				fetch();
+			}
+			var message = pending.peek();
+			if (Objects.isNull(message)) {
+				if (exhausted && !finished) {
+					finished = true;
+					logger.info("Replayed {} messages", replayed);
+				}
+				return;
+			}
+
+			var now = System.nanoTime();
+			if (speed > 0) {
+				if (!started) {
+					started = true;
+					startedAt = now;
+					startedPosition = message.timestamp();
+				}
+				var due = startedAt + (long) ((message.timestamp() - startedPosition) * 1000 / speed);
+				if (due > now) {
+					schedule(due - now);
+					return;
+				}
+				lag = (now - due) / 1000;
+			}
+
+			var address = addressPrefix + message.address();
+			if (flow.isCongested(address)) {
+				pauses++;
+				flow.pause();
+				// also notices consumers that stalled or never appear
+				schedule(STALL_CHECK_INTERVAL);
+				return;
+			}
+
+			pending.poll();
+			publish(address, message);
+		}
+	}
+
+	private void publish(String address, RecordedMessage message) {
+		var headers = message.headers();
+		// the send time of the recording would distort the queueing delay
+		headers.remove(MessageMetrics.SEND_TIME_HEADER);
+		headers.set(ReplayFlowControl.REPLAY_HEADER, flow.tag(address));
+
+		var body = message.body();
+		var frameType = headers.get(HeaderInformation.FRAME_TYPE);
+		if (body instanceof JsonRecord record) {
+			publish(address, record, headers);
+		} else if (body instanceof Buffer frame && Objects.nonNull(frameType)) {
+			publishFrame(address, frame, frameType, headers);
+		} else {
+			publish(address, body, headers);
+		}
+
+		replayed++;
+		position = message.timestamp();
+	}
+
+	/**
+	 * Reads the next batch of messages on a worker.
+	 * <p>
+	 * A short batch only ends the replay if the reader passed the end of the range. Otherwise, it reached the messages
+	 * that are still being recorded and reads again after the {@link #POLL_INTERVAL poll interval},
+	 * until the end of the range is older than the last read by the {@link #LIVE_END_GRACE grace period}.
+	 */
+	private void fetch() {
+		if (fetching || exhausted || stopped) {
+			return;
+		}
+		fetching = true;
+		var readAt = MessageRecorder.epochMicros();
+		vertx.executeBlocking(() -> read(reader, filter, batchSize), true)
+				.onComplete(result -> {
+					fetching = false;
+					if (result.failed()) {
+						logger.error("Cannot read the recorded messages, stopping the replay", result.cause());
+						exhausted = true;
+					} else {
+						pending.addAll(result.result());
+						exhausted = reader.isFinished();
+						if (!exhausted && result.result().size() < batchSize) {
+							// the recorder stamps the messages with their arrival, so none of the range can follow
+							exhausted = readAt - to > LIVE_END_GRACE;
+							if (!exhausted) {
+								poll();
+							}
+						}
+					}
+					pump();
+				});
+	}
+
+	/**
+	 * Reads again after the poll interval, while the replay waits at the live end of the recording.
+	 */
+	private void poll() {
+		fetching = true;
+		vertx.setTimer(TimeUnit.NANOSECONDS.toMillis(POLL_INTERVAL), id -> {
+			fetching = false;
+			fetch();
+		});
+	}
+
+	/**
+	 * @return the next messages of the range on the addresses, fewer than the count at the end of the range
+	 */
+	private static List<RecordedMessage> read(RecordingReader reader, Set<String> addresses, int count)
+			throws IOException {
+		var batch = new ArrayList<RecordedMessage>(count);
+		while (batch.size() < count) {
+			var message = reader.next();
+			if (Objects.isNull(message)) {
+				break;
+			}
+			if (addresses.isEmpty() || addresses.contains(message.address())) {
+				batch.add(message);
+			}
+		}
+		return batch;
+	}
+
+	private void schedule(long delayNanos) {
+		cancelTimer();
+		timer = vertx.setTimer(Math.max(1, TimeUnit.NANOSECONDS.toMillis(delayNanos)), id -> {
+			timer = -1;
+			pump();
+		});
+	}
+
+	private void cancelTimer() {
+		if (timer >= 0) {
+			vertx.cancelTimer(timer);
+			timer = -1;
+		}
+	}
+
+	private List<MetricsSource.Sample> samples() {
+		var labels = Map.of("replay", deploymentID());
+		var metrics = metrics();
+		return List.of(
+				new MetricsSource.Sample("telestion_replay_messages_total", "The number of replayed messages.",
+						"counter", labels, metrics.replayed()),
+				new MetricsSource.Sample("telestion_replay_position_seconds",
+						"The recording time of the last replayed message.", "gauge", labels,
+						metrics.position() * MICROS_TO_SECONDS),
+				new MetricsSource.Sample("telestion_replay_lag_seconds",
+						"The time the last message was replayed after its paced time.", "gauge", labels,
+						metrics.lag() * MICROS_TO_SECONDS),
+				new MetricsSource.Sample("telestion_replay_in_flight_messages",
+						"The maximum number of replayed messages a consumer has not handled yet.", "gauge", labels,
+						metrics.inFlight()),
+				new MetricsSource.Sample("telestion_replay_pauses_total",
+						"The number of times the replay paused for a consumer.", "counter", labels, metrics.pauses()),
+				new MetricsSource.Sample("telestion_replay_finished", "1 if all messages are replayed.", "gauge",
+						labels, metrics.finished() ? 1 : 0));
+	}
+
+	private String metricsSource() {
+		return "replay/" + deploymentID();
+	}
+
+	/**
+	 * @return the instant in microseconds since the epoch or the fallback if it is empty
+	 */
+	private static long parseInstant(String value, long fallback) {
+		if (Objects.isNull(value) || value.isEmpty()) {
+			return fallback;
+		}
+		var instant = Instant.parse(value);
+		return TimeUnit.SECONDS.toMicros(instant.getEpochSecond()) + TimeUnit.NANOSECONDS.toMicros(instant.getNano());
+	}
+
+	private static final long STALL_CHECK_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+	private static final long POLL_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+	private static final long LIVE_END_GRACE = TimeUnit.MILLISECONDS.toMicros(100);
+	private static final double MICROS_TO_SECONDS = 1e-6;
+
+	private final ArrayDeque<RecordedMessage> pending = new ArrayDeque<>();
+
+	private ReplayFlowControl flow;
+	private RecordingReader reader;
+	private Set<String> filter;
+	private long to;
+	private double speed;
+	private int batchSize;
+	private String addressPrefix;
+	private long timer = -1;
+	private boolean fetching;
+	private boolean exhausted;
+	private boolean stopped;
+	private boolean started;
+	private long startedAt;
+	private long startedPosition;
+
+	private volatile long replayed;
+	private volatile long position;
+	private volatile long lag;
+	private volatile long pauses;
+	private volatile boolean finished;
+}
@@ -0,0 +1,16 @@
+package de.wuespace.telestion.services.recording;
+
+import io.vertx.core.MultiMap;
+
+/**
+ * A message that was read from a recording.
+ *
+ * @param timestamp the time when the message was recorded in microseconds since the epoch
+ * @param address   the address the message was sent to
+ * @param headers   the headers of the message
+ * @param body      the body of the message, which is a {@link de.wuespace.telestion.api.message.JsonRecord JsonRecord}
+ *                  of the recorded type if its class is available
+ * @see RecordingReader
+ */
+public record RecordedMessage(long timestamp, String address, MultiMap headers, Object body) {
+}
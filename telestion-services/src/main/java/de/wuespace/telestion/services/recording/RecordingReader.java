@@ -0,0 +1,245 @@
+package de.wuespace.telestion.services.recording;
+
+import de.wuespace.telestion.services.util.SafeCloseable;
+import io.vertx.core.buffer.Buffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads the messages of a time range from the segments of a {@link SegmentLog}.
+ * <p>
+ * The reader starts in the segment that contains the start of the range, and seeks to the last index entry before
+ * it, so only the records between this entry and the start are skipped. Then it reads the records in order
+ * until their timestamp exceeds the end of the range.
+ * <p>
+ * The reader may read the segments while they are written. If it reaches the end of the written records,
+ * {@link #next()} returns {@code null} until newer records are appended.
+ * A record with an invalid length or checksum, e.g. of a crashed recorder, ends its segment.
+ * <p>
+ * The reader is not thread-safe and its methods block on the file system. Use it on a worker.
+ *
+ * @see SegmentLog
+ */
+public final class RecordingReader implements SafeCloseable {
+
+	/**
+	 * @param directory the directory of the segments
+	 * @param from      the start of the range in microseconds since the epoch (inclusive)
+	 * @param to        the end of the range in microseconds since the epoch (inclusive)
+	 */
+	public static RecordingReader open(Path directory, long from, long to) throws IOException {
+		return new RecordingReader(directory, from, to);
+	}
+
+	/**
+	 * @return the next message in the range or {@code null} if no further message is written yet
+	 * or the range is {@link #isFinished() finished}
+	 */
+	public RecordedMessage next() throws IOException {
+		while (!finished) {
+			if (Objects.isNull(log) && !openNext()) {
+				return null;
+			}
+			var message = read();
+			if (Objects.nonNull(message) || finished) {
+				return message;
+			}
+			// the last segment may still be written, all others are complete
+			if (!hasNewerSegment()) {
+				return null;
+			}
+			log = null;
+			index = null;
+		}
+		return null;
+	}
+
+	/**
+	 * @return {@code true} if a message after the end of the range was reached
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+
+	@Override
+	public void close() {
+		finished = true;
+		log = null;
+		index = null;
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private RecordingReader(Path directory, long from, long to) throws IOException {
+		this.directory = directory;
+		this.from = from;
+		this.to = to;
+		this.finished = from > to;
+
+		// the first segment that may contain the start, since a segment is named after its first record
+		var segments = SegmentFormat.list(directory);
+		for (var name : segments) {
+			if (name >= from) {
+				break;
+			}
+			segment = name - 1;
+		}
+	}
+
+	/**
+	 * Opens the segment after the current one and seeks to the start of the range.
+	 *
+	 * @return {@code false} if there is no further segment
+	 */
+	private boolean openNext() throws IOException {
+		for (var name : SegmentFormat.list(directory)) {
+			if (name <= segment) {
+				continue;
+			}
+			segment = name;
+			try {
+				log = map(SegmentFormat.log(directory, name));
+				index = Files.exists(SegmentFormat.index(directory, name))
+						? map(SegmentFormat.index(directory, name))
+						: null;
+			} catch (NoSuchFileException e) {
+				// deleted by the retention in the meantime
+				continue;
+			}
+			if (log.limit() < SegmentFormat.HEADER_SIZE || log.getInt(0) != SegmentFormat.MAGIC) {
+				logger.warn("Skipping the segment {} in {}, because it is no segment", name, directory);
+				continue;
+			}
+			position = seek();
+			return true;
+		}
+		return false;
+	}
+
+	private boolean hasNewerSegment() throws IOException {
+		var segments = SegmentFormat.list(directory);
+		return !segments.isEmpty() && segments.get(segments.size() - 1) > segment;
+	}
+
+	/**
+	 * @return the position of the last indexed record before the start of the range
+	 */
+	private int seek() {
+		if (Objects.isNull(index)) {
+			return SegmentFormat.HEADER_SIZE;
+		}
+
+		// the written entries are followed by empty ones with the position 0
+		var low = 0;
+		var high = index.limit() / SegmentFormat.INDEX_ENTRY;
+		while (low < high) {
+			var middle = (low + high) >>> 1;
+			if (index.getInt(middle * SegmentFormat.INDEX_ENTRY + 8) != 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+
+		var entries = low;
+		low = 0;
+		high = entries;
+		while (low < high) {
+			var middle = (low + high) >>> 1;
+			if (index.getLong(middle * SegmentFormat.INDEX_ENTRY) < from) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low == 0 ? SegmentFormat.HEADER_SIZE : index.getInt((low - 1) * SegmentFormat.INDEX_ENTRY + 8);
+	}
+
+	/**
+	 * @return the next message of the range in the current segment or {@code null} at its end
+	 */
+	private RecordedMessage read() {
+		while (position + SegmentFormat.RECORD_PREFIX <= log.limit()) {
+			var start = position;
+			var length = log.getInt(start);
+			var end = start + SegmentFormat.RECORD_PREFIX + length;
+			if (length <= 0 || end > log.limit()) {
+				return null;
+			}
+
+			if (!isValid(start, length)) {
+				logger.warn("Skipping the rest of the segment {} in {}, because the record at {} is corrupt",
+						segment, directory, start);
+				position = log.limit();
+				return null;
+			}
+			var timestamp = log.getLong(start + SegmentFormat.RECORD_PREFIX);
+			if (timestamp > to) {
+				finished = true;
+				return null;
+			}
+			position = end;
+			if (timestamp >= from) {
+				return decode(start, end, timestamp);
+			}
+		}
+		return null;
+	}
+
+	private boolean isValid(int start, int length) {
+		var record = log.duplicate().limit(start + SegmentFormat.RECORD_PREFIX + length)
+				.position(start + SegmentFormat.RECORD_PREFIX);
+		checksum.reset();
+		checksum.update(record);
+		return (int) checksum.getValue() == log.getInt(start + 4);
+	}
+
+	private RecordedMessage decode(int start, int end, long timestamp) {
+		var type = log.get(start + SegmentFormat.RECORD_PREFIX + 8);
+		var addressPosition = start + SegmentFormat.RECORD_PREFIX + 11;
+		var addressLength = log.getShort(addressPosition - 2);
+		var address = SegmentFormat.string(log, addressPosition, addressLength);
+		var headersPosition = addressPosition + addressLength;
+		var headers = SegmentFormat.decodeHeaders(log, headersPosition + 4);
+		var bodyPosition = headersPosition + 4 + log.getInt(headersPosition);
+
+		var body = new byte[end - bodyPosition];
+		log.get(bodyPosition, body);
+		return new RecordedMessage(timestamp, address, headers, SegmentFormat.decodeBody(type, Buffer.buffer(body)));
+	}
+
+	private static MappedByteBuffer map(Path file) throws IOException {
+		try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(RecordingReader.class);
+
+	private final Path directory;
+	private final long from;
+	private final long to;
+	private final CRC32C checksum = new CRC32C();
+
+	/**
+	 * The name of the current segment.
+	 */
+	private long segment = Long.MIN_VALUE;
+	private ByteBuffer log;
+	private ByteBuffer index;
+	private int position;
+	private boolean finished;
+}
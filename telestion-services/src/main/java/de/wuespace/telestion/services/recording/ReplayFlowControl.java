@@ -0,0 +1,252 @@
+package de.wuespace.telestion.services.recording;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number of replayed messages that the consumers have not handled yet.
+ * <p>
+ * Every replayed message is tagged with the id of the replay and its sequence number on its address.
+ * An inbound interceptor observes which sequence numbers the handlers have finished, separately for every context
+ * that runs handlers, because the handlers on one context share its queue.
+ * The progress of a context is kept in its {@link Context#get(Object) data}, which its duplicates share.
+ * The interceptor only reads the headers of published messages on the addresses of the replay.
+ * A message may only be published while every context which consumes its address has finished all but
+ * {@code maxInFlight} of the messages on the address.
+ * <p>
+ * A context which does not finish any message for the stall timeout, e.g. because its consumer was unregistered,
+ * no longer holds the replay back. The same applies to an address without any consumer.
+ * <p>
+ * All methods except the interceptor must be called on the context of the replay.
+ *
+ * @see MessageReplay
+ */
+final class ReplayFlowControl {
+
+	/**
+	 * The header that contains the id of the replay and the sequence number of a replayed message,
+	 * separated by a colon.
+	 */
+	static final String REPLAY_HEADER = "telestion-replay";
+
+	/**
+	 * @param context      the context of the replay
+	 * @param replayId     the unique id of the replay
+	 * @param maxInFlight  the maximum number of unfinished messages per consumer context and address
+	 * @param stallTimeout the time in nanoseconds after which a consumer without progress is ignored
+	 * @param resume       continues the replay after a pause, runs on the context of the replay
+	 */
+	ReplayFlowControl(Context context, String replayId, int maxInFlight, long stallTimeout, Runnable resume) {
+		this.context = context;
+		this.prefix = replayId + ":";
+		this.maxInFlight = Math.max(1, maxInFlight);
+		this.stallTimeout = stallTimeout;
+		this.resume = resume;
+	}
+
+	/**
+	 * @return the inbound interceptor which observes the finished messages
+	 */
+	Handler<DeliveryContext<Object>> interceptor() {
+		return interceptor;
+	}
+
+	/**
+	 * Assigns the next sequence number on the address to a message that is published now.
+	 *
+	 * @return the value of the {@link #REPLAY_HEADER replay header} of the message
+	 */
+	String tag(String address) {
+		return prefix + addresses.computeIfAbsent(address, key -> new AddressState()).published.incrementAndGet();
+	}
+
+	/**
+	 * @return {@code true} if a consumer of the address has too many unfinished messages
+	 */
+	boolean isCongested(String address) {
+		var state = addresses.get(address);
+		if (Objects.isNull(state)) {
+			return false;
+		}
+
+		var now = System.nanoTime();
+		var published = state.published.get();
+		var consumed = false;
+		for (var iterator = lanes.iterator(); iterator.hasNext(); ) {
+			var lane = iterator.next();
+			var finished = lane.finished.get(address);
+			if (Objects.isNull(finished)) {
+				continue;
+			}
+			consumed = true;
+			if (published - finished.get() < maxInFlight) {
+				continue;
+			}
+			if (now - lane.progressed > stallTimeout) {
+				logger.warn("A consumer of {} did not handle replayed messages for {} ms, replaying without it",
+						address, stallTimeout / 1_000_000);
+				iterator.remove();
+				continue;
+			}
+			return true;
+		}
+
+		if (consumed || state.unconsumed || published < maxInFlight) {
+			state.waitingSince = 0;
+			return false;
+		}
+		// waits for the first consumer to finish a message
+		if (state.waitingSince == 0) {
+			state.waitingSince = now;
+		} else if (now - state.waitingSince > stallTimeout) {
+			logger.info("No consumer handles the replayed messages on {}, replaying them without backpressure",
+					address);
+			state.unconsumed = true;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Resumes the replay when a consumer finishes a message.
+	 */
+	void pause() {
+		waiting.set(true);
+	}
+
+	/**
+	 * @return the maximum number of unfinished messages of a consumer context on an address
+	 */
+	long inFlight() {
+		var max = 0L;
+		for (var lane : lanes) {
+			for (var finished : lane.finished.entrySet()) {
+				var state = addresses.get(finished.getKey());
+				if (Objects.nonNull(state)) {
+					max = Math.max(max, state.published.get() - finished.getValue().get());
+				}
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Removes the progress of the replay from the data of the consumer contexts.
+	 * Must be called after the {@link #interceptor() interceptor} is removed from the event bus.
+	 */
+	void close() {
+		for (var lane : lanes) {
+			if (Objects.nonNull(lane.context)) {
+				lane.context.remove(laneKey);
+			}
+		}
+		lanes.clear();
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private void intercept(DeliveryContext<Object> delivery) {
+		var message = delivery.message();
+		// replayed messages are always published, the headers of other messages are not looked at
+		if (message.isSend() || !addresses.containsKey(message.address())) {
+			delivery.next();
+			return;
+		}
+
+		var tag = message.headers().get(REPLAY_HEADER);
+		if (Objects.isNull(tag) || !tag.startsWith(prefix)) {
+			delivery.next();
+			return;
+		}
+
+		try {
+			delivery.next();
+		} finally {
+			finish(message.address(), Long.parseLong(tag, prefix.length(), tag.length(), 10));
+		}
+	}
+
+	/**
+	 * Records that a handler on the current context finished the message with the sequence number.
+	 */
+	private void finish(String address, long sequence) {
+		var lane = lane();
+		lane.finished.computeIfAbsent(address, key -> new AtomicLong()).accumulateAndGet(sequence, Math::max);
+		lane.progressed = System.nanoTime();
+
+		var state = addresses.get(address);
+		var relieved = Objects.isNull(state) || state.published.get() - sequence < maxInFlight / 2 + 1;
+		if (relieved && waiting.compareAndSet(true, false)) {
+			context.runOnContext(nothing -> resume.run());
+		}
+	}
+
+	/**
+	 * @return the lane of the current context, which is added again if it was ignored after a stall
+	 */
+	private Lane lane() {
+		var current = Vertx.currentContext();
+		if (Objects.isNull(current)) {
+			lanes.add(detached);
+			return detached;
+		}
+
+		// every message is handled on a duplicate of the context of its consumer, which shares its data
+		Lane lane = current.get(laneKey);
+		if (Objects.isNull(lane)) {
+			lane = new Lane(current);
+			current.put(laneKey, lane);
+		}
+		lanes.add(lane);
+		return lane;
+	}
+
+	/**
+	 * The finished messages of the handlers on one context.
+	 */
+	private static final class Lane {
+		private Lane(Context context) {
+			this.context = context;
+		}
+
+		private final Context context;
+		private final Map<String, AtomicLong> finished = new ConcurrentHashMap<>();
+		private volatile long progressed;
+	}
+
+	/**
+	 * The published messages on one address.
+	 */
+	private static final class AddressState {
+		private final AtomicLong published = new AtomicLong();
+		private long waitingSince;
+		private boolean unconsumed;
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(ReplayFlowControl.class);
+
+	private final Context context;
+	private final String prefix;
+	private final int maxInFlight;
+	private final long stallTimeout;
+	private final Runnable resume;
+	private final Handler<DeliveryContext<Object>> interceptor = this::intercept;
+	private final Object laneKey = new Object();
+	private final Lane detached = new Lane(null);
+	private final Set<Lane> lanes = ConcurrentHashMap.newKeySet();
+	private final Map<String, AddressState> addresses = new ConcurrentHashMap<>();
+	private final AtomicBoolean waiting = new AtomicBoolean();
+}
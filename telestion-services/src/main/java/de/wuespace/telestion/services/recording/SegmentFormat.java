@@ -0,0 +1,219 @@
+package de.wuespace.telestion.services.recording;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import de.wuespace.telestion.api.message.JsonRecord;
+import de.wuespace.telestion.api.message.JsonRecordMessageCodec;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.VertxModule;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The file format of the recorded segments.
+ * <p>
+ * A segment consists of a log file {@code <first timestamp>.log} and a sparse time index {@code <first timestamp>.idx}
+ * which are both preallocated and memory-mapped. The timestamps are microseconds since the epoch.
+ * <p>
+ * The log file starts with a header (magic, version, first timestamp) followed by the records:
+ * <pre>
+ * int    length of the rest of the record
+ * int    CRC32C of the rest of the record
+ * long   timestamp
+ * byte   body type
+ * short  address length, address (UTF-8)
+ * int    headers length, headers (short count, per entry: short key length, key, int value length, value)
+ * bytes  body
+ * </pre>
+ * The body of a {@link JsonRecord} is stored in the binary encoding of the {@link JsonRecordMessageCodec},
+ * which contains its class name, so it can be decoded into the same type again.
+ * A zero length marks the end of the written records.
+ * The index contains an entry (long timestamp, int position) every {@code indexInterval} bytes of the log.
+ * Its first empty entry, with position {@code 0}, marks its end.
+ */
+final class SegmentFormat {
+
+	static final int MAGIC = 0x544C4F47;
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 16;
+	static final int RECORD_PREFIX = 8;
+	static final int INDEX_ENTRY = 12;
+
+	static final byte NULL = 0;
+	static final byte JSON = 1;
+	static final byte BUFFER = 2;
+	static final byte STRING = 3;
+	static final byte RECORD = 4;
+
+	static final String LOG_EXTENSION = ".log";
+	static final String INDEX_EXTENSION = ".idx";
+
+	/**
+	 * @return the first timestamps of all segments in the directory in ascending order
+	 */
+	static List<Long> list(Path directory) throws IOException {
+		var segments = new ArrayList<Long>();
+		if (!Files.isDirectory(directory)) {
+			return segments;
+		}
+		try (var files = Files.list(directory)) {
+			files.map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+					.filter(Matcher::matches)
+					.forEach(matcher -> segments.add(Long.parseLong(matcher.group(1))));
+		}
+		segments.sort(null);
+		return segments;
+	}
+
+	static Path log(Path directory, long firstTimestamp) {
+		return directory.resolve("%020d%s".formatted(firstTimestamp, LOG_EXTENSION));
+	}
+
+	static Path index(Path directory, long firstTimestamp) {
+		return directory.resolve("%020d%s".formatted(firstTimestamp, INDEX_EXTENSION));
+	}
+
+	static byte bodyType(Object body) {
+		if (Objects.isNull(body)) {
+			return NULL;
+		}
+		if (body instanceof Buffer || body instanceof byte[]) {
+			return BUFFER;
+		}
+		if (body instanceof JsonRecord) {
+			return RECORD;
+		}
+		return body instanceof String ? STRING : JSON;
+	}
+
+	/**
+	 * @return the encoded body with a backing array
+	 */
+	static Buffer encodeBody(Object body) {
+		if (Objects.isNull(body)) {
+			return EMPTY;
+		}
+		if (body instanceof Buffer buffer) {
+			return buffer;
+		}
+		if (body instanceof byte[] bytes) {
+			return Buffer.buffer(bytes);
+		}
+		if (body instanceof String string) {
+			return Buffer.buffer(string.getBytes(StandardCharsets.UTF_8));
+		}
+		if (body instanceof JsonRecord record) {
+			var encoded = Buffer.buffer(RECORD_CAPACITY);
+			JsonRecordMessageCodec.INSTANCE.encodeToWire(encoded, record);
+			return encoded;
+		}
+		if (body instanceof JsonObject object) {
+			return object.toBuffer();
+		}
+		if (body instanceof JsonArray array) {
+			return array.toBuffer();
+		}
+		return Json.encodeToBuffer(body);
+	}
+
+	static Object decodeBody(byte type, Buffer body) {
+		return switch (type) {
+			case BUFFER -> body;
+			case STRING -> body.toString(StandardCharsets.UTF_8);
+			case JSON -> Json.decodeValue(body);
+			case RECORD -> decodeRecord(body);
+			default -> null;
+		};
+	}
+
+	/**
+	 * Appends the headers to the target in the format of the records.
+	 */
+	static void encodeHeaders(MultiMap headers, ByteBuffer target) {
+		var countPosition = target.position();
+		var count = 0;
+		target.putShort((short) 0);
+		for (var header : headers) {
+			var key = header.getKey().getBytes(StandardCharsets.UTF_8);
+			var value = header.getValue().getBytes(StandardCharsets.UTF_8);
+			target.putShort((short) key.length).put(key).putInt(value.length).put(value);
+			count++;
+		}
+		target.putShort(countPosition, (short) count);
+	}
+
+	/**
+	 * @return the number of bytes the headers need in the format of the records
+	 */
+	static int headersSize(MultiMap headers) {
+		var size = 2;
+		for (var header : headers) {
+			// UTF-8 needs at most three bytes per UTF-16 char
+			size += 2 + header.getKey().length() * 3 + 4 + header.getValue().length() * 3;
+		}
+		return size;
+	}
+
+	static MultiMap decodeHeaders(ByteBuffer source, int position) {
+		var headers = MultiMap.caseInsensitiveMultiMap();
+		var count = source.getShort(position);
+		position += 2;
+		for (var i = 0; i < count; i++) {
+			var keyLength = source.getShort(position);
+			var key = string(source, position + 2, keyLength);
+			position += 2 + keyLength;
+			var valueLength = source.getInt(position);
+			var value = string(source, position + 4, valueLength);
+			position += 4 + valueLength;
+			headers.add(key, value);
+		}
+		return headers;
+	}
+
+	static String string(ByteBuffer source, int position, int length) {
+		var bytes = new byte[length];
+		source.get(position, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return the decoded {@link JsonRecord} or its content as JSON if its class is not available
+	 */
+	@SuppressWarnings("unchecked")
+	private static Object decodeRecord(Buffer body) {
+		try {
+			return JsonRecordMessageCodec.INSTANCE.decodeFromWire(0, body);
+		} catch (DecodeException e) {
+			var payload = 4 + body.getInt(0) + 4;
+			try {
+				return new JsonObject((Map<String, Object>) cbor.readValue(body.getBytes(payload, body.length()),
+						Map.class));
+			} catch (IOException cause) {
+				throw new DecodeException("Cannot decode the recorded JSON record: " + cause.getMessage(), cause);
+			}
+		}
+	}
+
+	private SegmentFormat() {
+	}
+
+	private static final Pattern SEGMENT_NAME = Pattern.compile("(\\d{20})\\" + LOG_EXTENSION);
+	private static final Buffer EMPTY = Buffer.buffer(0);
+	private static final int RECORD_CAPACITY = 512;
+	private static final ObjectMapper cbor = CBORMapper.builder().addModule(new VertxModule()).build();
+}
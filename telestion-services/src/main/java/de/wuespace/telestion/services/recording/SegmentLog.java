@@ -0,0 +1,494 @@
+package de.wuespace.telestion.services.recording;
+
+import de.wuespace.telestion.services.util.SafeCloseable;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only log of event bus messages in memory-mapped segments.
+ * <p>
+ * Every segment is preallocated with the {@link Options#segmentSize() segment size} and mapped into memory,
+ * so an append is a plain memory copy without a system call. When a record does not fit into the active segment,
+ * the spare segment is renamed and becomes the active one. The spare segment is written with zeros ahead of time
+ * in the {@link #sync() sync task}, so the file system allocates its blocks on a worker and a full disk is noticed
+ * there instead of as a fault in the mapped memory. The appending thread never allocates a segment itself.
+ * If no spare segment is ready yet, e.g. because the disk is full, the record is rejected with
+ * {@link AppendResult#NO_SEGMENT} until the next sync task prepared one.
+ * The records are only durable after the next {@link #sync()}, which forces the written ranges of all segments
+ * to the disk at once. Thus, the costs of an fsync are shared by all records of the interval.
+ * <p>
+ * Every segment has a sparse time index with an entry every {@link Options#indexInterval() index interval} bytes,
+ * which lets the {@link RecordingReader} seek to a timestamp without scanning the whole segment.
+ * Old segments are deleted on {@link #sync()} if the log exceeds the {@link Options#retentionSize() retention size}
+ * or their records are older than the {@link Options#retentionAge() retention age}.
+ * The active segment is never deleted.
+ * <p>
+ * The log is not thread-safe. Append and sync on one thread,
+ * and only run the returned sync tasks elsewhere and one after another.
+ *
+ * @see SegmentFormat
+ * @see MessageRecorder
+ */
+public final class SegmentLog implements SafeCloseable {
+
+	/**
+	 * @param directory     the directory of the segments
+	 * @param segmentSize   the size of a segment in bytes, which is also the maximum size of a record
+	 * @param indexInterval the number of bytes between two entries of the time index
+	 * @param retentionSize the maximum size of all segments in bytes, {@code 0} keeps them regardless of their size
+	 * @param retentionAge  the maximum age of the records, {@link Duration#ZERO} keeps them regardless of their age
+	 */
+	public record Options(Path directory, int segmentSize, int indexInterval, long retentionSize,
+			Duration retentionAge) {
+	}
+
+	/**
+	 * The outcome of an {@link #append(long, String, MultiMap, Object) append}.
+	 */
+	public enum AppendResult {
+		/**
+		 * The record was written to the active segment.
+		 */
+		APPENDED,
+		/**
+		 * The record is larger than a segment and can never be appended.
+		 */
+		TOO_LARGE,
+		/**
+		 * The record needs a new segment, but no spare segment is ready.
+		 * Run a {@link #sync() sync task}, which prepares the next one.
+		 */
+		NO_SEGMENT
+	}
+
+	/**
+	 * A snapshot of the counters of the log.
+	 *
+	 * @param appended the number of appended records
+	 * @param bytes    the number of appended bytes
+	 * @param syncs    the number of completed syncs
+	 * @param segments the number of segments on the disk
+	 */
+	public record Metrics(long appended, long bytes, long syncs, int segments) {
+	}
+
+	/**
+	 * Opens the log in the directory and creates the directory if necessary.
+	 * The first append starts a new segment, so existing segments are never modified.
+	 * Blocks the calling thread while the first segment is preallocated.
+	 */
+	public static SegmentLog open(Options options) throws IOException {
+		var minSegmentSize = SegmentFormat.HEADER_SIZE + SegmentFormat.RECORD_PREFIX;
+		if (options.segmentSize() <= minSegmentSize || options.indexInterval() <= 0) {
+			throw new IllegalArgumentException("The segment size must exceed %d bytes and the index interval 0 bytes"
+					.formatted(minSegmentSize));
+		}
+
+		Files.createDirectories(options.directory());
+		var retained = new ArrayDeque<Retained>();
+		for (var name : SegmentFormat.list(options.directory())) {
+			var index = SegmentFormat.index(options.directory(), name);
+			var size = Files.size(SegmentFormat.log(options.directory(), name))
+					+ (Files.exists(index) ? Files.size(index) : 0);
+			retained.add(new Retained(name, size));
+		}
+
+		var log = new SegmentLog(options, retained);
+		log.prepare();
+		return log;
+	}
+
+	/**
+	 * Appends a record to the active segment.
+	 * The timestamps must not decrease. A smaller timestamp is replaced by the last one.
+	 *
+	 * @param timestamp the timestamp of the record in microseconds since the epoch
+	 * @param address   the address of the message
+	 * @param headers   the headers of the message
+	 * @param body      the body of the message
+	 * @return whether the record was appended or why it was rejected
+	 * @throws UncheckedIOException if the spare segment cannot be renamed or the disk is full
+	 */
+	public AppendResult append(long timestamp, String address, MultiMap headers, Object body) {
+		var encodedBody = SegmentFormat.encodeBody(body);
+		var encodedAddress = addressBytes(address);
+		var headersSize = headers.isEmpty() ? 2 : SegmentFormat.headersSize(headers);
+		var maxLength = SegmentFormat.RECORD_PREFIX + 8 + 1 + 2 + encodedAddress.length + 4 + headersSize
+				+ encodedBody.length();
+		if (SegmentFormat.HEADER_SIZE + maxLength > options.segmentSize()) {
+			return AppendResult.TOO_LARGE;
+		}
+
+		timestamp = Math.max(timestamp, lastTimestamp);
+		if ((Objects.isNull(active) || active.position + maxLength > options.segmentSize()) && !roll(timestamp)) {
+			return AppendResult.NO_SEGMENT;
+		}
+
+		try {
+			write(timestamp, SegmentFormat.bodyType(body), encodedAddress, headers, encodedBody);
+		} catch (InternalError e) {
+			// the file system cannot back a page of the mapping, e.g. because the disk is full
+			dirty.add(active);
+			active = null;
+			throw new UncheckedIOException(new IOException(
+					"Cannot write to the segment in " + options.directory() + ", the disk may be full", e));
+		}
+		appended++;
+		return AppendResult.APPENDED;
+	}
+
+	/**
+	 * Collects the written ranges of all segments and the expired segments.
+	 * Call it on the appending thread and run the returned task on a worker, because it blocks until the ranges
+	 * are written to the disk and the expired segments are deleted. The task also preallocates the next segment,
+	 * if the last one was used.
+	 *
+	 * @return the task that forces the written ranges to the disk and deletes the expired segments
+	 */
+	public Runnable sync() {
+		var task = flush();
+		return () -> {
+			task.run();
+			prepare();
+		};
+	}
+
+	/**
+	 * @return a snapshot of the counters of the log
+	 */
+	public Metrics metrics() {
+		return new Metrics(appended, bytes, syncs.get(), retained.size());
+	}
+
+	/**
+	 * Forces all written records to the disk and deletes the spare segment. Blocks the calling thread.
+	 */
+	@Override
+	public void close() {
+		flush().run();
+		active = null;
+		spare = null;
+		delete(spareLog());
+		delete(spareIndex());
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	private SegmentLog(Options options, ArrayDeque<Retained> retained) {
+		this.options = options;
+		this.retained = retained;
+		this.indexSize = (options.segmentSize() / options.indexInterval() + 2) * SegmentFormat.INDEX_ENTRY;
+	}
+
+	private void write(long timestamp, byte bodyType, byte[] encodedAddress, MultiMap headers, Buffer encodedBody) {
+		var segment = active;
+		var start = segment.position;
+		var out = segment.writer;
+		out.position(start + SegmentFormat.RECORD_PREFIX);
+		out.putLong(timestamp)
+				.put(bodyType)
+				.putShort((short) encodedAddress.length)
+				.put(encodedAddress);
+		var headersPosition = out.position();
+		out.putInt(0);
+		if (headers.isEmpty()) {
+			out.putShort((short) 0);
+		} else {
+			SegmentFormat.encodeHeaders(headers, out);
+		}
+		out.putInt(headersPosition, out.position() - headersPosition - 4);
+		out.put(bodyBytes(encodedBody), 0, encodedBody.length());
+		var end = out.position();
+
+		out.limit(end).position(start + SegmentFormat.RECORD_PREFIX);
+		checksum.reset();
+		checksum.update(out);
+		out.limit(out.capacity());
+		out.putInt(start + 4, (int) checksum.getValue());
+		// the length comes last and makes the record visible to readers
+		out.putInt(start, end - start - SegmentFormat.RECORD_PREFIX);
+
+		if (segment.indexed == 0 || start - segment.lastIndexed >= options.indexInterval()) {
+			var entry = segment.indexed * SegmentFormat.INDEX_ENTRY;
+			segment.index.putLong(entry, timestamp);
+			segment.index.putInt(entry + 8, start);
+			segment.indexed++;
+			segment.lastIndexed = start;
+		}
+
+		segment.position = end;
+		lastTimestamp = timestamp;
+		bytes += end - start;
+	}
+
+	/**
+	 * Copies the body into the reused scratch array.
+	 */
+	private byte[] bodyBytes(Buffer body) {
+		if (scratch.length < body.length()) {
+			scratch = new byte[Math.max(body.length(), Math.min(2 * scratch.length, options.segmentSize()))];
+		}
+		body.getBytes(0, body.length(), scratch, 0);
+		return scratch;
+	}
+
+	/**
+	 * @return the task that forces the written ranges to the disk and deletes the expired segments
+	 */
+	private Runnable flush() {
+		var ranges = new ArrayList<Range>(dirty.size() + 1);
+		for (var segment : dirty) {
+			ranges.add(segment.dirtyRange());
+		}
+		dirty.clear();
+		if (Objects.nonNull(active) && active.position > active.synced) {
+			ranges.add(active.dirtyRange());
+		}
+		var expired = expire();
+
+		return () -> {
+			for (var range : ranges) {
+				range.force();
+			}
+			for (var name : expired) {
+				delete(name);
+			}
+			syncs.incrementAndGet();
+		};
+	}
+
+	/**
+	 * Preallocates the spare segment if there is none. Runs on a worker.
+	 */
+	private void prepare() {
+		if (Objects.nonNull(spare)) {
+			return;
+		}
+
+		try {
+			var log = allocate(spareLog(), options.segmentSize());
+			var index = allocate(spareIndex(), indexSize);
+			spare = new Spare(log, index);
+		} catch (IOException e) {
+			logger.warn("Cannot preallocate the next segment in {}", options.directory(), e);
+			delete(spareLog());
+			delete(spareIndex());
+		}
+	}
+
+	/**
+	 * Starts a new segment from the spare segment, whose name is the timestamp of its first record.
+	 *
+	 * @return {@code false} if no spare segment is ready
+	 */
+	private boolean roll(long timestamp) {
+		var next = spare;
+		if (Objects.isNull(next)) {
+			return false;
+		}
+
+		var name = retained.isEmpty() ? timestamp : Math.max(timestamp, retained.getLast().name() + 1);
+		var logFile = SegmentFormat.log(options.directory(), name);
+		var indexFile = SegmentFormat.index(options.directory(), name);
+		try {
+			// only renames the files, the mappings stay valid
+			Files.move(spareIndex(), indexFile, StandardCopyOption.ATOMIC_MOVE);
+			Files.move(spareLog(), logFile, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			// the segment is not retained, so nothing else would delete a renamed file
+			delete(indexFile);
+			delete(logFile);
+			throw new UncheckedIOException("Cannot create the segment " + name + " in " + options.directory(), e);
+		} finally {
+			// the sync task only prepares the next spare segment after the files are moved
+			spare = null;
+		}
+		next.log().putInt(0, SegmentFormat.MAGIC).putInt(4, SegmentFormat.VERSION).putLong(8, timestamp);
+
+		if (Objects.nonNull(active)) {
+			dirty.add(active);
+		}
+		active = new Segment(next.log(), next.index());
+		retained.add(new Retained(name, (long) options.segmentSize() + indexSize));
+		return true;
+	}
+
+	/**
+	 * @return the names of the segments that exceed the retention, which are no longer retained
+	 */
+	private List<Long> expire() {
+		var expired = new ArrayList<Long>();
+		var retainedSize = retained.stream().mapToLong(Retained::size).sum();
+		var minTimestamp = options.retentionAge().isZero() ? Long.MIN_VALUE
+				: System.currentTimeMillis() * 1000 - options.retentionAge().toNanos() / 1000;
+
+		// the active segment is always the last one
+		while (retained.size() > (Objects.isNull(active) ? 0 : 1)) {
+			var iterator = retained.iterator();
+			var oldest = iterator.next();
+			// the records of a segment are older than the first record of the next one
+			var newer = iterator.hasNext() ? iterator.next().name() : Long.MAX_VALUE;
+			var tooLarge = options.retentionSize() > 0 && retainedSize > options.retentionSize();
+			if (!tooLarge && newer >= minTimestamp) {
+				break;
+			}
+			retained.removeFirst();
+			retainedSize -= oldest.size();
+			expired.add(oldest.name());
+		}
+		return expired;
+	}
+
+	private void delete(long name) {
+		try {
+			Files.deleteIfExists(SegmentFormat.log(options.directory(), name));
+			Files.deleteIfExists(SegmentFormat.index(options.directory(), name));
+		} catch (IOException e) {
+			logger.warn("Cannot delete the expired segment {} in {}", name, options.directory(), e);
+		}
+	}
+
+	private static void delete(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			logger.warn("Cannot delete the unused segment file {}", file, e);
+		}
+	}
+
+	private Path spareLog() {
+		return options.directory().resolve(SPARE_NAME + SegmentFormat.LOG_EXTENSION);
+	}
+
+	private Path spareIndex() {
+		return options.directory().resolve(SPARE_NAME + SegmentFormat.INDEX_EXTENSION);
+	}
+
+	private byte[] addressBytes(String address) {
+		var encoded = addresses.get(address);
+		if (Objects.isNull(encoded)) {
+			if (addresses.size() >= MAX_ADDRESSES) {
+				addresses.clear();
+			}
+			encoded = address.getBytes(StandardCharsets.UTF_8);
+			addresses.put(address, encoded);
+		}
+		return encoded;
+	}
+
+	/**
+	 * Creates the file with the given size and maps it into memory.
+	 * The file is written with zeros, because the blocks of a sparse file are only allocated
+	 * when a page of the mapping is first written, and a full disk would then fault the appending thread.
+	 */
+	private static MappedByteBuffer allocate(Path file, int size) throws IOException {
+		try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			var zeros = ByteBuffer.allocate(Math.min(size, ALLOCATION_CHUNK));
+			var position = 0L;
+			while (position < size) {
+				zeros.clear().limit((int) Math.min(zeros.capacity(), size - position));
+				position += channel.write(zeros, position);
+			}
+			// the mapping stays valid after the channel is closed
+			return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		}
+	}
+
+	/**
+	 * A segment on the disk, with the size it occupies.
+	 */
+	private record Retained(long name, long size) {
+	}
+
+	/**
+	 * The mappings of a preallocated segment which is not used yet.
+	 */
+	private record Spare(MappedByteBuffer log, MappedByteBuffer index) {
+	}
+
+	/**
+	 * A written range of a segment that is not forced to the disk yet.
+	 */
+	private record Range(MappedByteBuffer log, int logFrom, int logTo, MappedByteBuffer index, int indexTo) {
+		void force() {
+			// only the original mapping knows its file, so its views cannot force it
+			log.force(logFrom, logTo - logFrom);
+			index.force(0, indexTo);
+		}
+	}
+
+	/**
+	 * A mapped segment that is written.
+	 */
+	private static final class Segment {
+		Segment(MappedByteBuffer log, MappedByteBuffer index) {
+			this.log = log;
+			this.index = index;
+			this.writer = log.duplicate();
+		}
+
+		Range dirtyRange() {
+			var range = new Range(log, synced, position, index, indexed * SegmentFormat.INDEX_ENTRY);
+			synced = position;
+			return range;
+		}
+
+		private final MappedByteBuffer log;
+		private final MappedByteBuffer index;
+		private final ByteBuffer writer;
+
+		private int position = SegmentFormat.HEADER_SIZE;
+		private int synced;
+		private int indexed;
+		private int lastIndexed;
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(SegmentLog.class);
+	private static final int MAX_ADDRESSES = 1024;
+	private static final int ALLOCATION_CHUNK = 1 << 20;
+	private static final String SPARE_NAME = "spare";
+
+	private final Options options;
+	private final ArrayDeque<Retained> retained;
+	private final int indexSize;
+	private final List<Segment> dirty = new ArrayList<>();
+	private final Map<String, byte[]> addresses = new HashMap<>();
+	private final CRC32C checksum = new CRC32C();
+	private final AtomicLong syncs = new AtomicLong();
+
+	private Segment active;
+	private byte[] scratch = new byte[256];
+
+	/**
+	 * Prepared by the sync tasks on a worker and taken by the appending thread.
+	 */
+	private volatile Spare spare;
+	private long lastTimestamp = Long.MIN_VALUE;
+	private long appended;
+	private long bytes;
+}
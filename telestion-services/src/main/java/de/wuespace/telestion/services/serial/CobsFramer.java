@@ -0,0 +1,50 @@
+package de.wuespace.telestion.services.serial;
+
+/**
+ * Finds frames which are encoded with Consistent Overhead Byte Stuffing and end with a zero byte.
+ * <p>
+ * The encoded frame consists of blocks. Every block starts with a code byte {@code n},
+ * followed by {@code n - 1} data bytes and an implicit zero byte, which is omitted for the last block
+ * and for blocks with the code {@code 0xFF}.
+ * The decoded frame is never longer than the encoded one, so it is decoded in place by moving the data bytes
+ * of every block to the front.
+ *
+ * @see Framer#cobs(int)
+ */
+final class CobsFramer extends DelimitedFramer {
+
+	CobsFramer(int maxFrameSize) {
+		super(1, maxFrameSize);
+	}
+
+	@Override
+	int find(byte[] bytes, int start, int end) {
+		for (var i = start; i < end; i++) {
+			if (bytes[i] == 0) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	int unframe(byte[] bytes, int start, int end) {
+		var read = start;
+		var write = start;
+		while (read < end) {
+			var code = bytes[read] & 0xff;
+			var blockEnd = read + code;
+			if (blockEnd > end) {
+				return -1;
+			}
+
+			System.arraycopy(bytes, read + 1, bytes, write, code - 1);
+			write += code - 1;
+			read = blockEnd;
+			if (code != 0xff && read < end) {
+				bytes[write++] = 0;
+			}
+		}
+		return write - start;
+	}
+}
@@ -0,0 +1,74 @@
+package de.wuespace.telestion.services.serial;
+
+/**
+ * The base of the framers whose frames end with a delimiter.
+ * <p>
+ * Empty frames are skipped, so senders may send a delimiter in front of every frame to flush line noise.
+ * If no delimiter follows within the maximum frame size, the bytes up to the next delimiter are discarded.
+ */
+abstract class DelimitedFramer implements Framer {
+
+	DelimitedFramer(int delimiterLength, int maxFrameSize) {
+		if (maxFrameSize < 1) {
+			throw new IllegalArgumentException("The maximum frame size must be positive, but was " + maxFrameSize);
+		}
+		this.delimiterLength = delimiterLength;
+		this.maxFrameSize = maxFrameSize;
+	}
+
+	@Override
+	public int decode(byte[] bytes, int start, int end, Sink sink) {
+		int delimiter;
+		while ((delimiter = find(bytes, start, end)) >= 0) {
+			if (discarding || delimiter - start > maxFrameSize) {
+				if (!discarding) {
+					sink.invalid();
+				}
+				discarding = false;
+			} else if (delimiter > start) {
+				var length = unframe(bytes, start, delimiter);
+				if (length < 0) {
+					sink.invalid();
+				} else {
+					sink.frame(start, start + length);
+				}
+			}
+			start = delimiter + delimiterLength;
+		}
+
+		if (end - start > maxFrameSize) {
+			if (!discarding) {
+				sink.invalid();
+				discarding = true;
+			}
+			// keeps a delimiter which is not received completely
+			return Math.max(start, end - delimiterLength + 1);
+		}
+		return start;
+	}
+
+	@Override
+	public void reset() {
+		discarding = false;
+	}
+
+	/**
+	 * @return the index of the next delimiter in the range or {@code -1} if there is none
+	 */
+	abstract int find(byte[] bytes, int start, int end);
+
+	/**
+	 * Decodes the frame in the range in place.
+	 *
+	 * @return the number of decoded bytes or {@code -1} if the frame is malformed
+	 */
+	abstract int unframe(byte[] bytes, int start, int end);
+
+	private final int delimiterLength;
+	private final int maxFrameSize;
+
+	/**
+	 * {@code true} while the bytes up to the next delimiter belong to a frame that is too large.
+	 */
+	private boolean discarding;
+}
@@ -0,0 +1,43 @@
+package de.wuespace.telestion.services.serial;
+
+/**
+ * Finds frames which end with a sequence of bytes, e.g. the lines of a text protocol.
+ * The frames do not contain the delimiter.
+ *
+ * @see Framer#delimiter(byte[], int)
+ */
+final class DelimiterFramer extends DelimitedFramer {
+
+	DelimiterFramer(byte[] delimiter, int maxFrameSize) {
+		super(delimiter.length, maxFrameSize);
+		if (delimiter.length == 0) {
+			throw new IllegalArgumentException("The delimiter must not be empty");
+		}
+		this.delimiter = delimiter.clone();
+	}
+
+	@Override
+	int find(byte[] bytes, int start, int end) {
+		var first = delimiter[0];
+		search:
+		for (var i = start; i <= end - delimiter.length; i++) {
+			if (bytes[i] != first) {
+				continue;
+			}
+			for (var j = 1; j < delimiter.length; j++) {
+				if (bytes[i + j] != delimiter[j]) {
+					continue search;
+				}
+			}
+			return i;
+		}
+		return -1;
+	}
+
+	@Override
+	int unframe(byte[] bytes, int start, int end) {
+		return end - start;
+	}
+
+	private final byte[] delimiter;
+}
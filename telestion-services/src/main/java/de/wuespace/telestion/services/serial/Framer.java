@@ -0,0 +1,87 @@
+package de.wuespace.telestion.services.serial;
+
+/**
+ * Finds the frames in a stream of bytes, e.g. from a serial port.
+ * <p>
+ * A framer works on the bytes of a buffer that are received but not yet part of a frame
+ * and reports every complete frame as a range of the same buffer.
+ * Encoded frames, e.g. with COBS or SLIP, are decoded in place, so a frame never needs a buffer of its own.
+ * The bytes of an incomplete frame stay untouched until the rest of the frame is received.
+ * <p>
+ * Framers keep the state of a stream between calls and therefore must only be used by one thread.
+ *
+ * @see SerialSource
+ */
+public interface Framer {
+
+	/**
+	 * Receives the frames which a {@link Framer} finds.
+	 */
+	interface Sink {
+
+		/**
+		 * Receives the frame in the range of the buffer.
+		 *
+		 * @param start the index of the first byte of the frame
+		 * @param end   the index after the last byte of the frame
+		 */
+		void frame(int start, int end);
+
+		/**
+		 * Notes that a malformed frame or a frame larger than the maximum frame size was discarded.
+		 */
+		void invalid();
+	}
+
+	/**
+	 * @param lengthSize   the number of bytes of the big-endian length in front of every frame, between 1 and 4
+	 * @param maxFrameSize the maximum number of bytes of a frame without its length
+	 * @return a framer for frames which are prefixed with their length
+	 */
+	static Framer lengthPrefix(int lengthSize, int maxFrameSize) {
+		return new LengthPrefixFramer(lengthSize, maxFrameSize);
+	}
+
+	/**
+	 * @param maxFrameSize the maximum number of encoded bytes of a frame
+	 * @return a framer for frames which are encoded with Consistent Overhead Byte Stuffing and end with a zero byte
+	 */
+	static Framer cobs(int maxFrameSize) {
+		return new CobsFramer(maxFrameSize);
+	}
+
+	/**
+	 * @param maxFrameSize the maximum number of encoded bytes of a frame
+	 * @return a framer for frames which are encoded with the Serial Line Internet Protocol (RFC 1055)
+	 */
+	static Framer slip(int maxFrameSize) {
+		return new SlipFramer(maxFrameSize);
+	}
+
+	/**
+	 * @param delimiter    the bytes which end every frame, e.g. {@code \r\n}
+	 * @param maxFrameSize the maximum number of bytes of a frame without the delimiter
+	 * @return a framer for frames which end with a delimiter
+	 */
+	static Framer delimiter(byte[] delimiter, int maxFrameSize) {
+		return new DelimiterFramer(delimiter, maxFrameSize);
+	}
+
+	/**
+	 * Reports the complete frames in the range of the buffer to the sink.
+	 *
+	 * @param bytes the buffer
+	 * @param start the index of the first byte which is not part of a reported frame yet
+	 * @param end   the index after the last received byte
+	 * @param sink  the sink which receives the frames
+	 * @return the index of the first byte which is not part of a reported or discarded frame,
+	 * the next call must start there
+	 */
+	int decode(byte[] bytes, int start, int end, Sink sink);
+
+	/**
+	 * Forgets the state of the stream, e.g. after the stream was reconnected.
+	 */
+	default void reset() {
+	}
+}
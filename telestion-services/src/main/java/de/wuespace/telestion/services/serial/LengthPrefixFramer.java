@@ -0,0 +1,47 @@
+package de.wuespace.telestion.services.serial;
+
+/**
+ * Finds frames which are prefixed with their big-endian length.
+ * <p>
+ * A length larger than the maximum frame size means that the stream is out of sync.
+ * The framer then skips single bytes until it finds a valid length again.
+ *
+ * @see Framer#lengthPrefix(int, int)
+ */
+final class LengthPrefixFramer implements Framer {
+
+	LengthPrefixFramer(int lengthSize, int maxFrameSize) {
+		if (lengthSize < 1 || lengthSize > 4) {
+			throw new IllegalArgumentException("The length size must be between 1 and 4, but was " + lengthSize);
+		}
+		this.lengthSize = lengthSize;
+		this.maxFrameSize = maxFrameSize;
+	}
+
+	@Override
+	public int decode(byte[] bytes, int start, int end, Sink sink) {
+		while (end - start >= lengthSize) {
+			var length = 0L;
+			for (var i = 0; i < lengthSize; i++) {
+				length = length << 8 | bytes[start + i] & 0xff;
+			}
+
+			if (length > maxFrameSize) {
+				sink.invalid();
+				start++;
+				continue;
+			}
+
+			var frameEnd = start + lengthSize + (int) length;
+			if (frameEnd > end) {
+				break;
+			}
+			sink.frame(start + lengthSize, frameEnd);
+			start = frameEnd;
+		}
+		return start;
+	}
+
+	private final int lengthSize;
+	private final int maxFrameSize;
+}
@@ -0,0 +1,385 @@
+package de.wuespace.telestion.services.serial;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fazecast.jSerialComm.SerialPort;
+import com.fazecast.jSerialComm.SerialPortInvalidPortException;
+import de.wuespace.telestion.api.verticle.NonReloadable;
+import de.wuespace.telestion.api.verticle.TelestionConfiguration;
+import de.wuespace.telestion.api.verticle.TelestionVerticle;
+import de.wuespace.telestion.api.verticle.trait.WithEventBusPublish;
+import de.wuespace.telestion.services.monitoring.MessageMetrics;
+import de.wuespace.telestion.services.monitoring.MetricsSource;
+import de.wuespace.telestion.services.util.RingBuffer;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A verticle which receives the frames of a serial port and publishes them on the event bus.
+ * <p>
+ * A dedicated thread reads the port into one large, reused array and finds the frames with a {@link Framer}
+ * ({@code length}, {@code cobs}, {@code slip} or {@code delimiter}). The frames are decoded in place
+ * and copied once into a {@link Buffer} of their own size, which is published with
+ * {@link WithEventBusPublish#publishFrame}. So the reading thread never allocates more than the frames themselves,
+ * and a frame that a consumer keeps does not hold on to the whole read array.
+ * <p>
+ * The reading thread hands the frames to the event loop through a bounded queue.
+ * If the event loop falls behind, the frames which do not fit into the queue are dropped and counted,
+ * so a burst on the port never blocks the reading thread and never fills the heap.
+ * The counters are available via {@link #metrics()} and in the scrape of the {@link MessageMetrics}.
+ * <p>
+ * If the port cannot be opened or is disconnected, it is reopened after the reconnect interval.
+ *
+ * @see Framer
+ */
+public final class SerialSource extends TelestionVerticle<SerialSource.Configuration>
+		implements WithEventBusPublish {
+
+	/**
+	 * @param port              the system name of the serial port, e.g. {@code /dev/ttyUSB0} or {@code COM3}
+	 * @param baudRate          the baud rate of the port
+	 * @param dataBits          the number of data bits per character
+	 * @param stopBits          the number of stop bits per character, {@code 1} or {@code 2}
+	 * @param parity            the parity of the characters, {@code none}, {@code odd}, {@code even},
+	 *                          {@code mark} or {@code space}
+	 * @param framing           the framing of the stream, {@code length}, {@code cobs}, {@code slip}
+	 *                          or {@code delimiter}
+	 * @param lengthSize        the number of bytes of the length in front of the frames for the {@code length} framing
+	 * @param delimiter         the hexadecimal bytes which end the frames for the {@code delimiter} framing
+	 * @param maxFrameSize      the maximum number of bytes of a frame on the wire
+	 * @param address           the address the frames are published to
+	 * @param frameType         the type of the published frames
+	 * @param bufferSize        the size of the array the port is read into,
+	 *                          at least twice the maximum frame size
+	 * @param queueCapacity     the maximum number of frames that wait for the event loop
+	 * @param readTimeout       the time in milliseconds after which a read returns without bytes
+	 * @param reconnectInterval the time in milliseconds between two attempts to open the port
+	 */
+	@NonReloadable
+	public record Configuration(
+			@JsonProperty String port,
+			@JsonProperty int baudRate,
+			@JsonProperty int dataBits,
+			@JsonProperty int stopBits,
+			@JsonProperty String parity,
+			@JsonProperty String framing,
+			@JsonProperty int lengthSize,
+			@JsonProperty String delimiter,
+			@JsonProperty int maxFrameSize,
+			@JsonProperty String address,
+			@JsonProperty String frameType,
+			@JsonProperty int bufferSize,
+			@JsonProperty int queueCapacity,
+			@JsonProperty int readTimeout,
+			@JsonProperty long reconnectInterval
+	) implements TelestionConfiguration {
+		public Configuration() {
+			this("/dev/ttyUSB0", 115200, 8, 1, "none", "cobs", 2, "0a", 1024, "serial", "serial",
+					64 * 1024, 4096, 100, 1000);
+		}
+	}
+
+	/**
+	 * A snapshot of the counters of the source.
+	 *
+	 * @param bytes     the number of received bytes
+	 * @param frames    the number of received frames
+	 * @param invalid   the number of discarded malformed or too large frames
+	 * @param dropped   the number of frames dropped because the queue to the event loop was full
+	 * @param published the number of published frames
+	 * @param queued    the number of frames that wait for the event loop
+	 * @param connected {@code true} if the port is open
+	 */
+	public record Metrics(long bytes, long frames, long invalid, long dropped, long published, int queued,
+			boolean connected) {
+	}
+
+	/**
+	 * Opens the stream of received bytes.
+	 */
+	@FunctionalInterface
+	public interface Connector {
+
+		/**
+		 * @param config the configuration of the source
+		 * @return the stream of the port, which closes the port when it is closed
+		 * @throws IOException if the port cannot be opened
+		 */
+		InputStream connect(Configuration config) throws IOException;
+	}
+
+	/**
+	 * Creates a source which reads the configured serial port with jSerialComm.
+	 */
+	public SerialSource() {
+		this(SerialSource::openPort);
+	}
+
+	/**
+	 * Creates a source which reads the streams of the connector instead of a serial port,
+	 * e.g. a TCP connection to a serial device server.
+	 *
+	 * @param connector opens the stream of received bytes
+	 */
+	public SerialSource(Connector connector) {
+		this.connector = connector;
+	}
+
+	@Override
+	public void onStart() throws Exception {
+		var config = getConfig();
+		var framer = framer(config);
+		var bufferSize = Math.max(config.bufferSize(), 2 * config.maxFrameSize() + 8);
+		queue = new RingBuffer<>(config.queueCapacity());
+
+		running = true;
+		reader = new Thread(new Reader(config, framer, bufferSize), "telestion-serial-" + config.port());
+		reader.setDaemon(true);
+		reader.start();
+		MessageMetrics.addSource(vertx, metricsSource(), this::samples);
+	}
+
+	@Override
+	public void onStop(Promise<Void> stopPromise) throws Exception {
+		running = false;
+		MessageMetrics.removeSource(vertx, metricsSource());
+		// unblocks the reading thread
+		reader.interrupt();
+		vertx.<Void>executeBlocking(() -> {
+			close(input);
+			reader.join(TimeUnit.SECONDS.toMillis(5));
+			return null;
+		}).onComplete(stopPromise);
+	}
+
+	/**
+	 * @return a snapshot of the counters of the source
+	 */
+	public Metrics metrics() {
+		return new Metrics(bytes, frames, invalid, dropped, published, Objects.isNull(queue) ? 0 : queue.size(),
+				Objects.nonNull(input));
+	}
+
+	///////////////////////////////////////////////////////////////////////////
+	// private
+	///////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Reads the port on the dedicated thread.
+	 */
+	private final class Reader implements Runnable, Framer.Sink {
+
+		private Reader(Configuration config, Framer framer, int bufferSize) {
+			this.config = config;
+			this.framer = framer;
+			this.data = new byte[bufferSize];
+		}
+
+		@Override
+		public void run() {
+			while (running) {
+				try {
+					input = connector.connect(config);
+					logger.info("Receiving frames from {}", config.port());
+					read(input);
+				} catch (IOException e) {
+					if (running) {
+						logger.warn("Cannot read from {}, reconnecting in {} ms", config.port(),
+								config.reconnectInterval(), e);
+					}
+				} finally {
+					close(input);
+					input = null;
+				}
+
+				if (!running) {
+					return;
+				}
+				try {
+					Thread.sleep(config.reconnectInterval());
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		}
+
+		@Override
+		public void frame(int start, int end) {
+			frames++;
+			if (queue.offer(Buffer.buffer(end - start).appendBytes(data, start, end - start))) {
+				offered = true;
+			} else {
+				dropped++;
+			}
+		}
+
+		@Override
+		public void invalid() {
+			invalid++;
+		}
+
+		private void read(InputStream input) throws IOException {
+			// the received bytes which are not part of a frame yet
+			var start = 0;
+			var end = 0;
+			framer.reset();
+
+			while (running) {
+				if (end == data.length) {
+					var remaining = end - start;
+					System.arraycopy(data, start, data, 0, remaining);
+					start = 0;
+					end = remaining;
+				}
+
+				var count = input.read(data, end, data.length - end);
+				if (count < 0) {
+					throw new EOFException("The stream of " + config.port() + " ended");
+				}
+				end += count;
+				bytes += count;
+				start = framer.decode(data, start, end, this);
+
+				if (start == end) {
+					start = 0;
+					end = 0;
+				}
+				if (offered) {
+					offered = false;
+					wakeUp();
+				}
+			}
+		}
+
+		private final Configuration config;
+		private final Framer framer;
+		private final byte[] data;
+		private boolean offered;
+	}
+
+	private void wakeUp() {
+		if (draining.compareAndSet(false, true)) {
+			context.runOnContext(nothing -> drain());
+		}
+	}
+
+	/**
+	 * Publishes the queued frames on the event loop.
+	 */
+	private void drain() {
+		draining.set(false);
+		var config = getConfig();
+		// leaves the event loop to other handlers during long bursts
+		for (var i = queue.capacity(); i > 0; i--) {
+			var frame = queue.poll();
+			if (Objects.isNull(frame)) {
+				return;
+			}
+			publishFrame(config.address(), frame, config.frameType());
+			published++;
+		}
+		wakeUp();
+	}
+
+	private List<MetricsSource.Sample> samples() {
+		var labels = Map.of("port", getConfig().port());
+		var metrics = metrics();
+		return List.of(
+				new MetricsSource.Sample("telestion_serial_received_bytes_total",
+						"The number of bytes received from the serial port.", "counter", labels, metrics.bytes()),
+				new MetricsSource.Sample("telestion_serial_frames_total",
+						"The number of frames received from the serial port.", "counter", labels, metrics.frames()),
+				new MetricsSource.Sample("telestion_serial_invalid_frames_total",
+						"The number of malformed or too large frames.", "counter", labels, metrics.invalid()),
+				new MetricsSource.Sample("telestion_serial_dropped_frames_total",
+						"The number of frames dropped because the event loop fell behind.", "counter", labels,
+						metrics.dropped()),
+				new MetricsSource.Sample("telestion_serial_queued_frames",
+						"The number of frames that wait for the event loop.", "gauge", labels, metrics.queued()),
+				new MetricsSource.Sample("telestion_serial_connected", "1 if the serial port is open.", "gauge",
+						labels, metrics.connected() ? 1 : 0));
+	}
+
+	private String metricsSource() {
+		return "serial/" + deploymentID();
+	}
+
+	private static Framer framer(Configuration config) {
+		return switch (config.framing()) {
+			case "length" -> Framer.lengthPrefix(config.lengthSize(), config.maxFrameSize());
+			case "cobs" -> Framer.cobs(config.maxFrameSize());
+			case "slip" -> Framer.slip(config.maxFrameSize());
+			case "delimiter" -> Framer.delimiter(HexFormat.of().parseHex(config.delimiter()), config.maxFrameSize());
+			default -> throw new IllegalArgumentException("Unknown framing " + config.framing()
+					+ ", expected length, cobs, slip or delimiter");
+		};
+	}
+
+	private static InputStream openPort(Configuration config) throws IOException {
+		SerialPort port;
+		try {
+			port = SerialPort.getCommPort(config.port());
+		} catch (SerialPortInvalidPortException e) {
+			throw new IOException("Unknown serial port " + config.port(), e);
+		}
+
+		var stopBits = config.stopBits() == 2 ? SerialPort.TWO_STOP_BITS : SerialPort.ONE_STOP_BIT;
+		var parity = switch (config.parity()) {
+			case "none" -> SerialPort.NO_PARITY;
+			case "odd" -> SerialPort.ODD_PARITY;
+			case "even" -> SerialPort.EVEN_PARITY;
+			case "mark" -> SerialPort.MARK_PARITY;
+			case "space" -> SerialPort.SPACE_PARITY;
+			default -> throw new IllegalArgumentException("Unknown parity " + config.parity());
+		};
+		port.setComPortParameters(config.baudRate(), config.dataBits(), stopBits, parity);
+		// returns regularly to notice that the verticle stops
+		port.setComPortTimeouts(SerialPort.TIMEOUT_READ_SEMI_BLOCKING, config.readTimeout(), 0);
+		if (!port.openPort()) {
+			throw new IOException("Cannot open serial port " + config.port());
+		}
+
+		return new FilterInputStream(port.getInputStreamWithSuppressedTimeoutExceptions()) {
+			@Override
+			public void close() {
+				port.closePort();
+			}
+		};
+	}
+
+	private void close(InputStream stream) {
+		if (Objects.isNull(stream)) {
+			return;
+		}
+		try {
+			stream.close();
+		} catch (IOException e) {
+			logger.debug("Cannot close the stream of {}", getConfig().port(), e);
+		}
+	}
+
+	private final Connector connector;
+	private final AtomicBoolean draining = new AtomicBoolean();
+
+	private RingBuffer<Buffer> queue;
+	private Thread reader;
+	private volatile InputStream input;
+	private volatile boolean running;
+
+	// written by the reading thread only
+	private volatile long bytes;
+	private volatile long frames;
+	private volatile long invalid;
+	private volatile long dropped;
+
+	private volatile long published;
+}
@@ -0,0 +1,59 @@
+package de.wuespace.telestion.services.serial;
+
+/**
+ * Finds frames which are encoded with the Serial Line Internet Protocol (RFC 1055).
+ * <p>
+ * Frames end with {@code END (0xC0)}. Inside a frame, {@code END} is escaped as {@code ESC ESC_END}
+ * and {@code ESC (0xDB)} as {@code ESC ESC_ESC}.
+ * The frame is decoded in place by moving the runs between the escape sequences to the front,
+ * so a frame without escape sequences is not moved at all.
+ *
+ * @see Framer#slip(int)
+ */
+final class SlipFramer extends DelimitedFramer {
+
+	static final byte END = (byte) 0xc0;
+	static final byte ESC = (byte) 0xdb;
+	static final byte ESC_END = (byte) 0xdc;
+	static final byte ESC_ESC = (byte) 0xdd;
+
+	SlipFramer(int maxFrameSize) {
+		super(1, maxFrameSize);
+	}
+
+	@Override
+	int find(byte[] bytes, int start, int end) {
+		for (var i = start; i < end; i++) {
+			if (bytes[i] == END) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	int unframe(byte[] bytes, int start, int end) {
+		var write = start;
+		var run = start;
+		for (var read = start; read < end; read++) {
+			if (bytes[read] != ESC) {
+				continue;
+			}
+			if (read + 1 == end) {
+				return -1;
+			}
+
+			var escaped = bytes[read + 1];
+			if (escaped != ESC_END && escaped != ESC_ESC) {
+				return -1;
+			}
+			System.arraycopy(bytes, run, bytes, write, read - run);
+			write += read - run;
+			bytes[write++] = escaped == ESC_END ? END : ESC;
+			run = ++read + 1;
+		}
+
+		System.arraycopy(bytes, run, bytes, write, end - run);
+		return write + end - run - start;
+	}
+}
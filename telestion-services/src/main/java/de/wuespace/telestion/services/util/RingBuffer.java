@@ -0,0 +1,129 @@
+package de.wuespace.telestion.services.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <h2>Description</h2>
+ * A bounded, lock-free queue for many producers and a single consumer.
+ * <p>
+ * Producers never block: {@link #offer(Object)} returns {@code false} if the buffer is full,
+ * so the producer can count or drop the element instead of waiting.
+ * Every slot carries a sequence number which tells producers and the consumer
+ * if the slot is free or contains a published element.
+ * <p>
+ * Only one thread at a time may call {@link #poll()}.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * var buffer = new RingBuffer<Event>(1024);
+ * // on any thread
+ * if (!buffer.offer(event)) {
+ *     dropped.increment();
+ * }
+ * // on the consumer thread
+ * Event next;
+ * while ((next = buffer.poll()) != null) {
+ *     handle(next);
+ * }
+ * }
+ * </pre>
+ *
+ * @param <E> the type of the buffered elements
+ */
+public final class RingBuffer<E> {
+
+	/**
+	 * @param capacity the minimal number of elements the buffer can hold,
+	 *                 rounded up to the next power of two
+	 */
+	public RingBuffer(int capacity) {
+		if (capacity < 1 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("The capacity must be between 1 and 2^30, but was " + capacity);
+		}
+
+		var size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+
+		this.mask = size - 1;
+		this.elements = new AtomicReferenceArray<>(size);
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * Appends the element if the buffer has space left.
+	 *
+	 * @param element the element to append
+	 * @return {@code true} if the element was appended, {@code false} if the buffer is full
+	 */
+	public boolean offer(E element) {
+		while (true) {
+			var position = tail.get();
+			var index = (int) position & mask;
+			var difference = sequences.get(index) - position;
+
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					elements.lazySet(index, element);
+					// publish the element to the consumer
+					sequences.lazySet(index, position + 1);
+					return true;
+				}
+			} else if (difference < 0) {
+				return false;
+			}
+			// another producer claimed the slot, try the next one
+		}
+	}
+
+	/**
+	 * Removes the oldest element. Must only be called by the single consumer.
+	 *
+	 * @return the oldest element or {@code null} if the buffer is empty
+	 */
+	public E poll() {
+		var position = head;
+		var index = (int) position & mask;
+		if (sequences.get(index) != position + 1) {
+			return null;
+		}
+
+		var element = elements.get(index);
+		elements.lazySet(index, null);
+		// release the slot for the producers of the next round
+		sequences.lazySet(index, position + mask + 1);
+		head = position + 1;
+		return element;
+	}
+
+	/**
+	 * @return the number of elements the buffer can hold
+	 */
+	public int capacity() {
+		return mask + 1;
+	}
+
+	/**
+	 * @return the approximate number of buffered elements
+	 */
+	public int size() {
+		return (int) Math.max(0, Math.min(tail.get() - head, capacity()));
+	}
+
+	private final int mask;
+	private final AtomicReferenceArray<E> elements;
+	private final AtomicLongArray sequences;
+	private final AtomicLong tail = new AtomicLong();
+
+	/**
+	 * Only accessed by the consumer, except for the approximate {@link #size()}.
+	 */
+	private volatile long head;
+}
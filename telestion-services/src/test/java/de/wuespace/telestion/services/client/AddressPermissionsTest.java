@@ -0,0 +1,59 @@
+package de.wuespace.telestion.services.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class AddressPermissionsTest {
+
+	@Test
+	void shouldOnlyPermitExactAddresses() {
+		var permissions = AddressPermissions.exact(List.of("command", "config/set"));
+
+		assertThat(permissions.test("command"), is(true));
+		assertThat(permissions.test("config/set"), is(true));
+		assertThat(permissions.test("config"), is(false));
+		assertThat(permissions.test("command/reboot"), is(false));
+		assertThat(permissions.test("commander"), is(false));
+		assertThat(permissions.test(null), is(false));
+	}
+
+	@Test
+	void shouldPermitSubAddresses() {
+		var permissions = AddressPermissions.withSubAddresses(List.of("telemetry", "system/status"));
+
+		assertThat(permissions.test("telemetry"), is(true));
+		assertThat(permissions.test("telemetry/position"), is(true));
+		assertThat(permissions.test("telemetry/position/de.wuespace.Position"), is(true));
+		assertThat(permissions.test("system/status/battery"), is(true));
+		assertThat(permissions.test("system"), is(false));
+		assertThat(permissions.test("system/log"), is(false));
+		assertThat(permissions.test("telemetry-raw"), is(false));
+		assertThat(permissions.test("telemetry/"), is(false));
+		assertThat(permissions.test("telemetry/with space"), is(false));
+	}
+
+	@Test
+	void shouldCompareAddressesLiterally() {
+		var permissions = AddressPermissions.withSubAddresses(List.of("de.wuespace.Telemetry"));
+
+		assertThat(permissions.test("de.wuespace.Telemetry/position"), is(true));
+		assertThat(permissions.test("deXwuespace.Telemetry"), is(false));
+	}
+
+	@Test
+	void shouldMemoizeTheResults() {
+		var permissions = AddressPermissions.withSubAddresses(List.of("telemetry"));
+
+		permissions.test("telemetry/position");
+		permissions.test("telemetry/position");
+		permissions.test("secret");
+		permissions.test("secret");
+		permissions.test("secret");
+
+		assertThat(permissions.metrics(), is(new WebClientBridge.PermissionMetrics(3, 2, 2)));
+	}
+}
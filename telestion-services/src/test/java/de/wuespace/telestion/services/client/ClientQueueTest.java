@@ -0,0 +1,170 @@
+package de.wuespace.telestion.services.client;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.junit5.RunTestOnContext;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.wuespace.telestion.api.Eventually.eventually;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(VertxExtension.class)
+public class ClientQueueTest {
+
+	@RegisterExtension
+	final RunTestOnContext runTestOnContext = new RunTestOnContext();
+
+	@BeforeEach
+	void setUp() {
+		vertx = runTestOnContext.vertx();
+	}
+
+	@Test
+	void shouldWriteImmediatelyIfTheClientIsIdle() {
+		var queue = queue(new ClientQueue.Options(0, "", 4));
+
+		queue.offer(envelope("position", 1));
+		queue.offer(envelope("position", 2));
+
+		assertThat(written(), contains(envelope("position", 1), envelope("position", 2)));
+		assertThat(queue.metrics("binary"), is(new WebClientBridge.ClientMetrics("binary", "client", 0, 0, 2, 0, 0)));
+	}
+
+	@Test
+	void shouldConflateAndDropStaleMessagesWhileTheClientIsBusy() {
+		var queue = queue(new ClientQueue.Options(0, "", 2));
+		socket.full = true;
+
+		queue.offer(envelope("position", 1));
+		queue.offer(envelope("position", 2));
+		queue.offer(envelope("battery", 3));
+		queue.offer(envelope("temperature", 4));
+		assertThat(written(), is(empty()));
+
+		socket.full = false;
+		socket.drainHandler.handle(null);
+
+		assertThat(written(), contains(envelope("battery", 3), envelope("temperature", 4)));
+		assertThat(queue.metrics("binary"), is(new WebClientBridge.ClientMetrics("binary", "client", 0, 2, 2, 1, 1)));
+	}
+
+	@Test
+	void shouldSendTheLatestValuePerKeyWithinTheWindow(VertxTestContext testContext) {
+		var queue = queue(new ClientQueue.Options(50, "sensor", 16));
+
+		queue.offer(envelope("temperature", "a", 1));
+		queue.offer(envelope("temperature", "b", 2));
+		queue.offer(envelope("temperature", "a", 3));
+		queue.offer(envelope("temperature", "a", 4).put("replyAddress", "reply-1"));
+		queue.offer(envelope("temperature", "a", 5).put("replyAddress", "reply-2"));
+		assertThat(written(), is(empty()));
+
+		eventually(vertx, () -> !written().isEmpty())
+				.onComplete(testContext.succeeding(flushed -> testContext.verify(() -> {
+					assertThat(written(), contains(
+							envelope("temperature", "a", 3),
+							envelope("temperature", "b", 2),
+							envelope("temperature", "a", 4).put("replyAddress", "reply-1"),
+							envelope("temperature", "a", 5).put("replyAddress", "reply-2")));
+					assertThat(queue.metrics("sockjs").conflated(), is(1L));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldDiscardTheQueuedMessagesWhenClosed(VertxTestContext testContext) {
+		var queue = queue(new ClientQueue.Options(50, "", 16));
+
+		queue.offer(envelope("position", 1));
+		queue.close();
+		queue.offer(envelope("position", 2));
+
+		// waits for the end of the window
+		vertx.timer(100).onComplete(testContext.succeeding(windowEnded -> testContext.verify(() -> {
+			assertThat(written(), is(empty()));
+			testContext.completeNow();
+		})));
+	}
+
+	/**
+	 * A socket whose write queue is full on demand.
+	 */
+	private static class FakeSocket implements WriteStream<Buffer> {
+		@Override
+		public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+			return this;
+		}
+
+		@Override
+		public Future<Void> write(Buffer data) {
+			return Future.succeededFuture();
+		}
+
+		@Override
+		public void write(Buffer data, Handler<AsyncResult<Void>> handler) {
+		}
+
+		@Override
+		public void end(Handler<AsyncResult<Void>> handler) {
+		}
+
+		@Override
+		public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+			return this;
+		}
+
+		@Override
+		public boolean writeQueueFull() {
+			return full;
+		}
+
+		@Override
+		public WriteStream<Buffer> drainHandler(Handler<Void> handler) {
+			drainHandler = handler;
+			return this;
+		}
+
+		private volatile boolean full;
+		private Handler<Void> drainHandler;
+	}
+
+	private ClientQueue queue(ClientQueue.Options options) {
+		return new ClientQueue(vertx, socket, "client", options, envelope -> {
+			synchronized (this) {
+				written.add(envelope);
+			}
+		});
+	}
+
+	private synchronized List<JsonObject> written() {
+		return new ArrayList<>(written);
+	}
+
+	private static JsonObject envelope(String address, int value) {
+		return new JsonObject().put("type", "rec").put("address", address).put("body", value);
+	}
+
+	private static JsonObject envelope(String address, String sensor, int value) {
+		return new JsonObject().put("type", "rec").put("address", address)
+				.put("body", new JsonObject().put("sensor", sensor).put("value", value));
+	}
+
+	private final FakeSocket socket = new FakeSocket();
+	private final List<JsonObject> written = new ArrayList<>();
+
+	private Vertx vertx;
+}
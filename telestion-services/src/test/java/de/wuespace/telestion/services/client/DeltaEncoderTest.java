@@ -0,0 +1,83 @@
+package de.wuespace.telestion.services.client;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.api.message.JsonRecord;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class DeltaEncoderTest {
+
+	@Test
+	void shouldSendTheFirstMessageInFull() {
+		var envelope = envelope(new Position(1, 2, 3));
+
+		new DeltaEncoder(100).encode(envelope);
+
+		assertThat(envelope.getJsonObject("body"), is(new JsonObject().put("x", 1).put("y", 2).put("z", 3)));
+		assertThat(envelope.containsKey("headers"), is(false));
+	}
+
+	@Test
+	void shouldSendOnlyTheChangedFields() {
+		var encoder = new DeltaEncoder(100);
+		encoder.encode(envelope(new Position(1, 2, 3)));
+
+		var envelope = envelope(new Position(1, 2, 4));
+		encoder.encode(envelope);
+
+		assertThat(envelope.getJsonObject("body"), is(new JsonObject().put("z", 4)));
+		assertThat(envelope.getJsonObject("headers").getString(DeltaEncoder.DELTA_HEADER),
+				is(DeltaEncoder.MERGE_PATCH));
+	}
+
+	@Test
+	void shouldPatchNestedObjectsAndRemoveMissingFields() {
+		var encoder = new DeltaEncoder(100);
+		encoder.encode(envelope(new JsonObject().put("id", 7).put("mode", "idle").put("state", "ok")
+				.put("attitude", new JsonObject().put("roll", 1).put("pitch", 2))));
+
+		var envelope = envelope(new JsonObject().put("id", 7).put("mode", "idle")
+				.put("attitude", new JsonObject().put("roll", 1).put("pitch", 3)));
+		encoder.encode(envelope);
+
+		assertThat(envelope.getJsonObject("body"), is(new JsonObject().putNull("state")
+				.put("attitude", new JsonObject().put("pitch", 3))));
+	}
+
+	@Test
+	void shouldSendKeyframesAndLargePatchesInFull() {
+		var encoder = new DeltaEncoder(3);
+		encoder.encode(envelope(new Position(1, 2, 3)));
+		encoder.encode(envelope(new Position(1, 2, 4)));
+
+		var changedEverything = envelope(new Position(2, 3, 5));
+		encoder.encode(changedEverything);
+		var keyframe = envelope(new Position(2, 3, 6));
+		encoder.encode(keyframe);
+
+		assertThat(changedEverything.getJsonObject("body").size(), is(3));
+		assertThat(keyframe.getJsonObject("body"), is(new JsonObject().put("x", 2).put("y", 3).put("z", 6)));
+		assertThat(keyframe.containsKey("headers"), is(false));
+	}
+
+	@Test
+	void shouldPassOtherBodiesThrough() {
+		var encoder = new DeltaEncoder(100);
+		encoder.encode(envelope("status"));
+		var envelope = envelope("status");
+
+		encoder.encode(envelope);
+
+		assertThat(envelope.getString("body"), is("status"));
+	}
+
+	public record Position(@JsonProperty int x, @JsonProperty int y, @JsonProperty int z) implements JsonRecord {
+	}
+
+	private static JsonObject envelope(Object body) {
+		return new JsonObject().put("type", "rec").put("address", "position").put("body", body);
+	}
+}
@@ -0,0 +1,143 @@
+package de.wuespace.telestion.services.client;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(VertxExtension.class)
+public class StaticFilesTest {
+
+	@BeforeEach
+	void setUp(Vertx vertx, VertxTestContext testContext) throws Exception {
+		Files.writeString(webRoot.resolve("index.html"), "<html></html>");
+		Files.writeString(webRoot.resolve("main.0123abcd.js"), "console.log('telestion');");
+		Files.write(webRoot.resolve("main.0123abcd.js.br"), new byte[]{1, 2, 3});
+		Files.writeString(webRoot.resolve("style.css"), "body {}");
+		Files.write(webRoot.resolve("style.css.gz"), new byte[]{4, 5, 6});
+		Files.write(webRoot.resolve("telemetry.bin"), new byte[4096]);
+
+		var config = new JsonObject()
+				.put("port", PORT)
+				.put("webRoot", webRoot.toString())
+				.put("staticCaching", true)
+				.put("staticCacheSize", 16 * 1024);
+		client = vertx.createHttpClient();
+		// the extension closes the instance after each test, so the next test can bind the same port
+		vertx.deployVerticle(new WebClientBridge(), new DeploymentOptions().setConfig(config))
+				.onComplete(testContext.succeedingThenComplete());
+	}
+
+	@Test
+	void shouldRevalidateFilesWithTheirETagOrModificationTime(VertxTestContext testContext) {
+		get("/", MultiMap.caseInsensitiveMultiMap()).compose(response -> {
+			testContext.verify(() -> {
+				assertThat(response.statusCode(), is(200));
+				assertThat(response.getHeader("Content-Type"), is("text/html;charset=UTF-8"));
+				assertThat(response.getHeader("Cache-Control"), is(StaticFiles.REVALIDATE));
+				assertThat(response.body().result().toString(), is("<html></html>"));
+			});
+
+			var etag = response.getHeader("ETag");
+			var lastModified = response.getHeader("Last-Modified");
+			return Future.all(
+					get("/index.html", MultiMap.caseInsensitiveMultiMap().add("If-None-Match", etag)),
+					get("/index.html", MultiMap.caseInsensitiveMultiMap().add("If-Modified-Since", lastModified)),
+					get("/index.html", MultiMap.caseInsensitiveMultiMap().add("If-None-Match", "\"outdated\"")));
+		}).onComplete(testContext.succeeding(responses -> testContext.verify(() -> {
+			assertThat(responses.<HttpClientResponse>resultAt(0).statusCode(), is(304));
+			assertThat(responses.<HttpClientResponse>resultAt(1).statusCode(), is(304));
+			assertThat(responses.<HttpClientResponse>resultAt(2).statusCode(), is(200));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldServePrecompressedSiblingsAndCacheHashedAssetsForever(VertxTestContext testContext) {
+		get("/main.0123abcd.js", MultiMap.caseInsensitiveMultiMap().add("Accept-Encoding", "gzip, br"))
+				.onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+					assertThat(response.getHeader("Content-Encoding"), is("br"));
+					assertThat(response.getHeader("Content-Type"), is("text/javascript;charset=UTF-8"));
+					assertThat(response.getHeader("Cache-Control"), is(StaticFiles.IMMUTABLE));
+					assertThat(response.getHeader("Vary"), is("accept-encoding"));
+					assertThat(response.body().result(), is(Buffer.buffer(new byte[]{1, 2, 3})));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldRespectTheAcceptedEncodings(VertxTestContext testContext) {
+		Future.all(
+				get("/style.css", MultiMap.caseInsensitiveMultiMap().add("Accept-Encoding", "br, gzip")),
+				get("/main.0123abcd.js", MultiMap.caseInsensitiveMultiMap().add("Accept-Encoding", "br;q=0"))
+		).onComplete(testContext.succeeding(responses -> testContext.verify(() -> {
+			HttpClientResponse gzip = responses.resultAt(0);
+			assertThat(gzip.getHeader("Content-Encoding"), is("gzip"));
+			assertThat(gzip.body().result(), is(Buffer.buffer(new byte[]{4, 5, 6})));
+
+			HttpClientResponse refused = responses.resultAt(1);
+			assertThat(refused.getHeader("Content-Encoding"), is(nullValue()));
+			assertThat(refused.body().result().toString(), is("console.log('telestion');"));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldSendLargeFilesFromTheDisk(VertxTestContext testContext) {
+		get("/telemetry.bin", MultiMap.caseInsensitiveMultiMap())
+				.compose(response -> {
+					testContext.verify(() -> assertThat(response.body().result().length(), is(4096)));
+					return client.request(HttpMethod.HEAD, PORT, "127.0.0.1", "/telemetry.bin")
+							.compose(request -> request.send());
+				})
+				.onComplete(testContext.succeeding(head -> testContext.verify(() -> {
+					assertThat(head.getHeader("Content-Length"), is("4096"));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldPassMissingFilesOn(VertxTestContext testContext) {
+		get("/missing.js", MultiMap.caseInsensitiveMultiMap())
+				.onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+					assertThat(response.statusCode(), is(404));
+					testContext.completeNow();
+				})));
+	}
+
+	/**
+	 * @return a future that completes with the response when its body is received
+	 */
+	private Future<HttpClientResponse> get(String path, MultiMap headers) {
+		return client.request(HttpMethod.GET, PORT, "127.0.0.1", path)
+				.compose(request -> {
+					request.headers().addAll(headers);
+					return request.send();
+				})
+				.compose(response -> response.body().map(response));
+	}
+
+	private static final int PORT = 19872;
+
+	@TempDir
+	Path webRoot;
+
+	private HttpClient client;
+}
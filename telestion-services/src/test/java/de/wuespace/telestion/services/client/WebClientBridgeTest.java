@@ -0,0 +1,310 @@
+package de.wuespace.telestion.services.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.http.WebSocketClientOptions;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.VertxModule;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(VertxExtension.class)
+public class WebClientBridgeTest {
+
+	@BeforeEach
+	void setUp(Vertx vertx, VertxTestContext testContext) {
+		var config = new JsonObject()
+				.put("port", PORT)
+				.put("inboundPermitted", new JsonArray().add("command"))
+				.put("outboundPermitted", new JsonArray().add("telemetry"))
+				.put("compression", true)
+				.put("binaryFrames", true)
+				.put("deltaEncoding", true)
+				.put("clientMetricsPath", "/client-metrics");
+		// the extension closes the instance after each test, so the next test can bind the same port
+		vertx.deployVerticle(new WebClientBridge(), new DeploymentOptions().setConfig(config))
+				.compose(id -> vertx.createWebSocketClient(
+						new WebSocketClientOptions().setTryUsePerMessageCompression(true)
+				).connect(PORT, "127.0.0.1", WebClientBridge.BINARY_BRIDGE_PATH))
+				.onComplete(testContext.succeeding(connected -> {
+					// the handshake headers are only available in the first handler
+					extensions = connected.headers().get("sec-websocket-extensions");
+					socket = connected;
+					socket.binaryMessageHandler(frame -> received.add(decode(frame)));
+					testContext.completeNow();
+				}));
+	}
+
+	@Test
+	void shouldNegotiateTheWebSocketCompression() {
+		assertThat(extensions, containsString("permessage-deflate"));
+	}
+
+	@Test
+	void shouldSendBinaryFramesWithMergePatches(Vertx vertx, VertxTestContext testContext) {
+		write(new JsonObject().put("type", "register").put("address", "telemetry/position"))
+				.compose(registered -> roundTrip(testContext))
+				.compose(handled -> {
+					var position = new JsonObject().put("x", 1).put("y", 2);
+					vertx.eventBus().publish("telemetry/position", position.copy().put("z", 3));
+					vertx.eventBus().publish("telemetry/position", position.copy().put("z", 4));
+					return received.next();
+				})
+				.compose(full -> {
+					testContext.verify(() -> {
+						assertThat(full.getString("type"), is("rec"));
+						assertThat(full.getString("address"), is("telemetry/position"));
+						assertThat(full.getJsonObject("body"),
+								is(new JsonObject().put("x", 1).put("y", 2).put("z", 3)));
+					});
+					return received.next();
+				})
+				.onComplete(testContext.succeeding(patch -> testContext.verify(() -> {
+					assertThat(patch.getJsonObject("body"), is(new JsonObject().put("z", 4)));
+					assertThat(patch.getJsonObject("headers").getString(DeltaEncoder.DELTA_HEADER),
+							is(DeltaEncoder.MERGE_PATCH));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldTransferBuffersAsByteStrings(Vertx vertx, VertxTestContext testContext) {
+		write(new JsonObject().put("type", "register").put("address", "telemetry"))
+				.compose(registered -> roundTrip(testContext))
+				.compose(handled -> {
+					vertx.eventBus().publish("telemetry", Buffer.buffer(new byte[]{1, 2, 3}));
+					return received.next();
+				})
+				.onComplete(testContext.succeeding(envelope -> testContext.verify(() -> {
+					assertThat(envelope.getBinary("body"), is(new byte[]{1, 2, 3}));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldForwardRequestsAndTheirReplies(Vertx vertx, VertxTestContext testContext) {
+		vertx.eventBus().<JsonObject>consumer("command", message -> message.reply(message.body().put("done", true)));
+
+		write(new JsonObject().put("type", "send").put("address", "command").put("replyAddress", "reply-1")
+				.put("body", new JsonObject().put("name", "reboot")))
+				.compose(sent -> received.next())
+				.onComplete(testContext.succeeding(reply -> testContext.verify(() -> {
+					assertThat(reply.getString("address"), is("reply-1"));
+					assertThat(reply.getJsonObject("body"),
+							is(new JsonObject().put("name", "reboot").put("done", true)));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldDenyAddressesThatAreNotPermitted(VertxTestContext testContext) {
+		var denied = new JsonObject().put("type", "err").put("body", "access_denied");
+
+		write(new JsonObject().put("type", "register").put("address", "secret"))
+				.compose(registered -> received.next())
+				.compose(error -> {
+					testContext.verify(() -> assertThat(error, is(denied)));
+					return write(new JsonObject().put("type", "send").put("address", "telemetry")
+							.put("body", "forged"));
+				})
+				.compose(sent -> received.next())
+				.onComplete(testContext.succeeding(error -> testContext.verify(() -> {
+					assertThat(error, is(denied));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldSendMergePatchesOverSockJs(Vertx vertx, VertxTestContext testContext) {
+		var frames = new Frames();
+		// SockJS serves its protocol without framing on the raw WebSocket endpoint
+		vertx.createWebSocketClient().connect(PORT, "127.0.0.1", "/bridge/websocket").compose(sockJs -> {
+			sockJs.binaryMessageHandler(frame -> frames.add(frame.toJsonObject()));
+			return sockJs.writeTextMessage(new JsonObject().put("type", "register").put("address", "telemetry")
+							.encode())
+					// the SockJS bridge answers pings silently, so wait for a denied message instead
+					.compose(registered -> sockJs.writeTextMessage(new JsonObject().put("type", "send")
+							.put("address", "secret").encode()));
+		}).compose(sent -> frames.next()).compose(error -> {
+			testContext.verify(() -> assertThat(error.getString("type"), is("err")));
+			vertx.eventBus().publish("telemetry", new JsonObject().put("mode", "idle").put("voltage", 12));
+			vertx.eventBus().publish("telemetry", new JsonObject().put("mode", "idle").put("voltage", 11));
+			return frames.next();
+		}).compose(full -> {
+			testContext.verify(() -> assertThat(full.getJsonObject("body").size(), is(2)));
+			return frames.next();
+		}).onComplete(testContext.succeeding(patch -> testContext.verify(() -> {
+			assertThat(patch.getJsonObject("body"), is(new JsonObject().put("voltage", 11)));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldSendRepliesOverSockJsInFull(Vertx vertx, VertxTestContext testContext) {
+		vertx.eventBus().<JsonObject>consumer("command", message -> message.reply(message.body().put("done", true)));
+		var frames = new Frames();
+
+		vertx.createWebSocketClient().connect(PORT, "127.0.0.1", "/bridge/websocket").compose(sockJs -> {
+			sockJs.binaryMessageHandler(frame -> frames.add(frame.toJsonObject()));
+			Future<?> replied = Future.succeededFuture();
+			for (var i = 0; i < 2; i++) {
+				replied = replied
+						.compose(previous -> sockJs.writeTextMessage(new JsonObject().put("type", "send")
+								.put("address", "command").put("replyAddress", "reply-1")
+								.put("body", new JsonObject().put("name", "reboot")).encode()))
+						.compose(sent -> frames.next())
+						.onSuccess(reply -> testContext.verify(() -> {
+							assertThat(reply.getString("address"), is("reply-1"));
+							assertThat(reply.getJsonObject("body"),
+									is(new JsonObject().put("name", "reboot").put("done", true)));
+							assertThat(reply.getJsonObject("headers"), is(nullValue()));
+						}));
+			}
+			return replied;
+		}).onComplete(testContext.succeedingThenComplete());
+	}
+
+	@Test
+	void shouldCheckThePermissionsOfSockJsClients(Vertx vertx, VertxTestContext testContext) {
+		var frames = new Frames();
+
+		vertx.createWebSocketClient().connect(PORT, "127.0.0.1", "/bridge/websocket").compose(sockJs -> {
+			sockJs.binaryMessageHandler(frame -> frames.add(frame.toJsonObject()));
+			return sockJs.writeTextMessage(new JsonObject().put("type", "register").put("address", "secret").encode())
+					.compose(registered -> frames.next())
+					.compose(error -> {
+						testContext.verify(() -> assertThat(error.getString("type"), is("err")));
+						return sockJs.writeTextMessage(new JsonObject().put("type", "register")
+								.put("address", "telemetry/mode").encode());
+					})
+					.compose(registered -> sockJs.writeTextMessage(new JsonObject().put("type", "send")
+							.put("address", "secret").encode()))
+					.compose(sent -> frames.next())
+					.compose(error -> {
+						testContext.verify(() -> assertThat(error.getString("type"), is("err")));
+						// clients may reply to requests although the reply address is not permitted
+						var reply = vertx.eventBus().<String>request("telemetry/mode", "current?");
+						return frames.next()
+								.compose(request -> sockJs.writeTextMessage(new JsonObject().put("type", "send")
+										.put("address", request.getString("replyAddress")).put("body", "idle")
+										.encode()))
+								.compose(sent -> reply);
+					});
+		}).onComplete(testContext.succeeding(reply -> testContext.verify(() -> {
+			assertThat(reply.body(), is("idle"));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldServeTheClientMetrics(Vertx vertx, VertxTestContext testContext) {
+		write(new JsonObject().put("type", "register").put("address", "telemetry"))
+				.compose(registered -> roundTrip(testContext))
+				.compose(handled -> {
+					vertx.eventBus().publish("telemetry", "status");
+					return received.next();
+				})
+				.compose(status -> vertx.createHttpClient()
+						.request(HttpMethod.GET, PORT, "127.0.0.1", "/client-metrics"))
+				.compose(request -> request.send())
+				.compose(HttpClientResponse::body)
+				.onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+					var clients = response.toJsonObject().getJsonArray("clients");
+					assertThat(clients.size(), is(1));
+					assertThat(clients.getJsonObject(0).getString("transport"), is("binary"));
+					assertThat(clients.getJsonObject(0).getLong("sent"), is(1L));
+					assertThat(clients.getJsonObject(0).getLong("dropped"), is(0L));
+					var outbound = response.toJsonObject().getJsonObject("permissions").getJsonObject("outbound");
+					assertThat(outbound.getLong("misses"), is(1L));
+					testContext.completeNow();
+				})));
+	}
+
+	/**
+	 * Hands the received frames in order to the tests that wait for them.
+	 */
+	private static final class Frames {
+		synchronized void add(JsonObject frame) {
+			var waiting = waitingFor.poll();
+			if (Objects.isNull(waiting)) {
+				frames.add(frame);
+			} else {
+				waiting.complete(frame);
+			}
+		}
+
+		/**
+		 * @return a future that completes with the next frame that is not taken yet
+		 */
+		synchronized Future<JsonObject> next() {
+			var frame = frames.poll();
+			if (Objects.nonNull(frame)) {
+				return Future.succeededFuture(frame);
+			}
+			var waiting = Promise.<JsonObject>promise();
+			waitingFor.add(waiting);
+			return waiting.future();
+		}
+
+		private final Queue<JsonObject> frames = new ArrayDeque<>();
+		private final Queue<Promise<JsonObject>> waitingFor = new ArrayDeque<>();
+	}
+
+	/**
+	 * @return a future that completes when the bridge handled all previous frames
+	 */
+	private Future<Void> roundTrip(VertxTestContext testContext) {
+		return write(new JsonObject().put("type", "ping"))
+				.compose(sent -> received.next())
+				.map(pong -> {
+					testContext.verify(() -> assertThat(pong.getString("type"), is("pong")));
+					return null;
+				});
+	}
+
+	private Future<Void> write(JsonObject envelope) {
+		try {
+			return socket.writeFinalBinaryFrame(Buffer.buffer(mapper.writeValueAsBytes(envelope.getMap())));
+		} catch (JsonProcessingException e) {
+			return Future.failedFuture(e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static JsonObject decode(Buffer frame) {
+		try {
+			return new JsonObject((Map<String, Object>) mapper.readValue(frame.getBytes(), Map.class));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static final int PORT = 19870;
+	private static final ObjectMapper mapper = CBORMapper.builder().addModule(new VertxModule()).build();
+
+	private final Frames received = new Frames();
+
+	private WebSocket socket;
+	private String extensions;
+}
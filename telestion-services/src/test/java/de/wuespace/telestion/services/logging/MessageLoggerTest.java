@@ -0,0 +1,125 @@
+package de.wuespace.telestion.services.logging;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.api.message.JsonRecord;
+import de.wuespace.telestion.api.message.JsonRecordMessageCodec;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static de.wuespace.telestion.api.Eventually.eventually;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(VertxExtension.class)
+public class MessageLoggerTest {
+
+	@Test
+	void shouldLogSampledMessagesAsynchronously(Vertx vertx, VertxTestContext testContext) {
+		var logger = new MessageLogger();
+		var config = new JsonObject()
+				.put("async", true)
+				.put("sampleRates", new JsonObject().put("quiet", 0.0));
+
+		vertx.deployVerticle(logger, new DeploymentOptions().setConfig(config)).compose(id -> {
+			vertx.eventBus().consumer("loud", message -> {
+			});
+			vertx.eventBus().consumer("quiet", message -> {
+			});
+			for (int i = 0; i < 10; i++) {
+				vertx.eventBus().send("loud", "message " + i);
+				vertx.eventBus().send("quiet", "message " + i);
+			}
+			// the worker logs the messages on its own thread
+			return eventually(vertx, () -> logger.metrics().logged() >= 20);
+		}).onComplete(testContext.succeeding(logged -> testContext.verify(() -> {
+			assertThat(logger.metrics().logged(), is(20L));
+			assertThat(logger.metrics().sampledOut(), is(20L));
+			assertThat(logger.metrics().dropped(), is(0L));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldLogBodiesWhichChangeAfterTheyWereSent(Vertx vertx, VertxTestContext testContext) {
+		var logger = new MessageLogger();
+		var config = new JsonObject()
+				.put("async", true)
+				.put("maxBodyLengths", new JsonObject().put("short", 4));
+
+		vertx.deployVerticle(logger, new DeploymentOptions().setConfig(config)).compose(id -> {
+			var buffer = Buffer.buffer("binary body");
+			var json = new JsonObject().put("value", 1);
+			vertx.eventBus().publish("long", buffer);
+			vertx.eventBus().publish("short", buffer);
+			vertx.eventBus().publish("long", json);
+			vertx.eventBus().publish("long", new Position(1.5, 2.0),
+					JsonRecordMessageCodec.attach(vertx, new DeliveryOptions()));
+			// the worker formats its own copies of the bodies
+			buffer.setString(0, "changed");
+			json.put("value", 2);
+			return eventually(vertx, () -> logger.metrics().logged() >= 4);
+		}).onComplete(testContext.succeeding(logged -> testContext.verify(() -> {
+			assertThat(logger.metrics().logged(), is(4L));
+			assertThat(logger.metrics().dropped(), is(0L));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldWakeUpTheIdleWorkerForNewMessages(Vertx vertx, VertxTestContext testContext) {
+		var logger = new MessageLogger();
+		vertx.eventBus().consumer("loud", message -> {
+		});
+
+		Future<?> logged = vertx.deployVerticle(logger,
+				new DeploymentOptions().setConfig(new JsonObject().put("async", true)));
+		for (int i = 1; i <= 3; i++) {
+			var count = 2L * i;
+			// gives the worker time to fall asleep
+			logged = logged.compose(previous -> vertx.timer(50)).compose(asleep -> {
+				vertx.eventBus().send("loud", "message " + count);
+				return eventually(vertx, () -> logger.metrics().logged() >= count);
+			});
+		}
+		logged.onComplete(testContext.succeedingThenComplete());
+	}
+
+	@Test
+	void shouldStopInterceptingAfterUndeployment(Vertx vertx, VertxTestContext testContext) {
+		var logger = new MessageLogger();
+		vertx.deployVerticle(logger, new DeploymentOptions().setConfig(new JsonObject().put("async", true)))
+				.compose(vertx::undeploy)
+				.onComplete(testContext.succeeding(undeployed -> testContext.verify(() -> {
+					vertx.eventBus().send("loud", "message");
+
+					assertThat(logger.metrics(), is(new MessageLogger.Metrics(0, 0, 0, 0)));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldTruncateTheBody() {
+		assertThat(MessageLogger.format("abcdef", -1), is("abcdef"));
+		assertThat(MessageLogger.format("abcdef", 6), is("abcdef"));
+		assertThat(MessageLogger.format("abcdef", 3), is("abc... (6 characters)"));
+		assertThat(MessageLogger.format(Buffer.buffer("abcdef"), 2), is("ab... (6 bytes)"));
+		assertThat(MessageLogger.format(null, 3), is(nullValue()));
+	}
+
+	@Test
+	void shouldLogRecordInstancesAsJson() {
+		assertThat(MessageLogger.format(new Position(1.5, 2.0), -1), is("{\"x\":1.5,\"y\":2.0}"));
+		assertThat(MessageLogger.format(new Position(1.5, 2.0), 6), is("{\"x\":1... (17 characters)"));
+	}
+
+	public record Position(@JsonProperty double x, @JsonProperty double y) implements JsonRecord {
+	}
+}
@@ -0,0 +1,93 @@
+package de.wuespace.telestion.services.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import io.vertx.core.eventbus.Message;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MessageMDCTest {
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		filter.start();
+
+		message = mock(Message.class);
+		when(message.address()).thenReturn("address");
+		when(message.body()).thenReturn(body);
+
+		renders.set(0);
+		logger.setLevel(Level.WARN);
+	}
+
+	@AfterEach
+	void tearDown() {
+		MessageMDC.clear();
+		filter.stop();
+	}
+
+	@Test
+	void shouldNotRenderTheBodyWhenPutting() {
+		try (var ignored = MessageMDC.putCloseable("message", message)) {
+			assertThat(renders.get(), is(0));
+			assertThat(MessageMDC.get("message.body"), is("rendered body"));
+			assertThat(renders.get(), is(1));
+		}
+
+		assertThat(MessageMDC.get("message.body"), is(nullValue()));
+	}
+
+	@Test
+	void shouldRenderTheBodyOnlyForEnabledLogEvents() {
+		MessageMDC.put(null, message);
+
+		filter.decide(null, logger, Level.INFO, "filtered out", null, null);
+		assertThat(renders.get(), is(0));
+
+		filter.decide(null, logger, Level.WARN, null, null, null);
+		assertThat(renders.get(), is(0));
+
+		filter.decide(null, logger, Level.WARN, "logged", null, null);
+		filter.decide(null, logger, Level.ERROR, "logged again", null, null);
+		assertThat(renders.get(), is(1));
+	}
+
+	@Test
+	void shouldUseTheFormattedBody() {
+		MessageMDC.put(null, message, "formatted");
+
+		assertThat(MessageMDC.get("body"), is("formatted"));
+		assertThat(renders.get(), is(0));
+	}
+
+	@Test
+	void shouldReuseTheCloseables() {
+		assertThat(MessageMDC.putCloseable("message", message),
+				is(sameInstance(MessageMDC.putCloseable("message", message))));
+		assertThat(MessageMDC.putCloseable(null, message), is(sameInstance(MessageMDC.putCloseable(null, message))));
+	}
+
+	private static final AtomicInteger renders = new AtomicInteger();
+
+	private final Object body = new Object() {
+		@Override
+		public String toString() {
+			renders.incrementAndGet();
+			return "rendered body";
+		}
+	};
+
+	private final MessageMDCFilter filter = new MessageMDCFilter();
+	private final ch.qos.logback.classic.Logger logger = new LoggerContext().getLogger(MessageMDCTest.class);
+
+	private Message<Object> message;
+}
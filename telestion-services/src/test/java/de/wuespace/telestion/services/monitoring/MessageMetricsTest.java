@@ -0,0 +1,151 @@
+package de.wuespace.telestion.services.monitoring;
+
+import de.wuespace.telestion.api.verticle.trait.WithEventBusPublish;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.Map;
+
+import static de.wuespace.telestion.api.Eventually.eventually;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(VertxExtension.class)
+public class MessageMetricsTest {
+
+	@BeforeEach
+	void setUp(Vertx vertx, VertxTestContext testContext) {
+		this.vertx = vertx;
+		var config = new JsonObject().put("port", PORT).put("maxAddresses", 3).put("queueDelaySampleInterval", 1);
+		// the extension closes the instance after each test, so the next test can bind the same port
+		vertx.deployVerticle(metrics, new DeploymentOptions().setConfig(config))
+				.onComplete(testContext.succeedingThenComplete());
+	}
+
+	@Test
+	void shouldCountMessagesAndBodySizes(VertxTestContext testContext) {
+		vertx.eventBus().consumer("sensor", message -> {
+		});
+		vertx.eventBus().send("sensor", Buffer.buffer(new byte[100]));
+		vertx.eventBus().send("sensor", Buffer.buffer(new byte[100]));
+
+		metric("telestion_eventbus_messages_received_total{address=\"sensor\"} 2")
+				.onComplete(testContext.succeeding(received -> testContext.verify(() -> {
+					var text = metrics.scrape();
+					assertThat(text, containsString("telestion_eventbus_messages_sent_total{address=\"sensor\"} 2\n"));
+					assertThat(text, containsString(
+							"telestion_eventbus_body_size_bytes{address=\"sensor\",quantile=\"0.5\"} 100.0\n"));
+					assertThat(text,
+							containsString("telestion_eventbus_body_size_bytes_count{address=\"sensor\"} 2\n"));
+					assertThat(text,
+							containsString("telestion_eventbus_handler_seconds_count{address=\"sensor\"} 2\n"));
+					assertThat(text,
+							containsString("telestion_eventbus_queue_delay_seconds_count{address=\"sensor\"} 2\n"));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldMeasureTheRoundTripTimeOfRequests(VertxTestContext testContext) {
+		vertx.eventBus().consumer("echo", message -> message.reply(message.body()));
+
+		Future<?> requested = Future.succeededFuture();
+		for (int i = 0; i < 5; i++) {
+			requested = requested.compose(previous -> vertx.eventBus().request("echo", "ping"));
+		}
+
+		requested.onComplete(testContext.succeeding(replied -> testContext.verify(() -> {
+			var text = metrics.scrape();
+			assertThat(text, containsString("telestion_eventbus_request_seconds_count{address=\"echo\"} 5\n"));
+			assertThat(text, containsString("telestion_eventbus_messages_sent_total{address=\"__vertx.reply\"} 5\n"));
+			assertThat(text, not(containsString("__vertx.reply.")));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldCollectAddressesBeyondTheLimit() {
+		for (int i = 0; i < 5; i++) {
+			vertx.eventBus().publish("address-" + i, "message");
+		}
+
+		var text = metrics.scrape();
+		assertThat(text, containsString("telestion_eventbus_messages_sent_total{address=\"address-2\"} 1\n"));
+		assertThat(text, not(containsString("address-3")));
+		assertThat(text, containsString("telestion_eventbus_messages_sent_total{address=\"__other\"} 2\n"));
+	}
+
+	@Test
+	void shouldServeTheMetricsOverHttp(VertxTestContext testContext) {
+		vertx.eventBus().publish("sensor", "message");
+
+		vertx.createHttpClient().request(HttpMethod.GET, PORT, "localhost", "/metrics")
+				.compose(request -> request.send())
+				.compose(r -> r.body().map(body -> r.getHeader("Content-Type") + "\n" + body))
+				.onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+					assertThat(response, startsWith("text/plain; version=0.0.4"));
+					assertThat(response, containsString("# TYPE telestion_eventbus_messages_sent_total counter\n"));
+					assertThat(response,
+							containsString("telestion_eventbus_messages_sent_total{address=\"sensor\"} 1\n"));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldStampMessagesWhichArePublishedWithoutHeaders(VertxTestContext testContext) {
+		var publisher = new Publisher();
+		vertx.eventBus().consumer("sensor", message -> {
+		});
+
+		vertx.deployVerticle(publisher).compose(id -> {
+			publisher.publish("sensor", "first", new MultiMap[0]);
+			publisher.publish("sensor", "second", new MultiMap[0]);
+			return metric("telestion_eventbus_queue_delay_seconds_count{address=\"sensor\"} 2");
+		}).onComplete(testContext.succeedingThenComplete());
+	}
+
+	@Test
+	void shouldIncludeTheMetricsOfTheSources() {
+		MessageMetrics.addSource(vertx, "first", () -> List.of(
+				new MetricsSource.Sample("telestion_test_total", "A test counter.", "counter", Map.of("name", "a"), 1)));
+		MessageMetrics.addSource(vertx, "second", () -> List.of(
+				new MetricsSource.Sample("telestion_test_total", "A test counter.", "counter", Map.of("name", "b"), 2)));
+
+		var text = metrics.scrape();
+		assertThat(text, containsString("# TYPE telestion_test_total counter\n"));
+		assertThat(text.indexOf("# TYPE telestion_test_total"), is(text.lastIndexOf("# TYPE telestion_test_total")));
+		assertThat(text, containsString("telestion_test_total{name=\"a\"} 1.0\n"));
+		assertThat(text, containsString("telestion_test_total{name=\"b\"} 2.0\n"));
+
+		MessageMetrics.removeSource(vertx, "first");
+		assertThat(metrics.scrape(), not(containsString("telestion_test_total{name=\"a\"}")));
+	}
+
+	/**
+	 * @return a future that completes when the scraped metrics contain the line
+	 */
+	private Future<Void> metric(String line) {
+		return eventually(vertx, () -> metrics.scrape().contains(line));
+	}
+
+	public static class Publisher extends AbstractVerticle implements WithEventBusPublish {
+	}
+
+	private static final int PORT = 19100;
+
+	private final MessageMetrics metrics = new MessageMetrics();
+
+	private Vertx vertx;
+}
@@ -0,0 +1,96 @@
+package de.wuespace.telestion.services.recording;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.api.message.HeaderInformation;
+import de.wuespace.telestion.api.message.JsonRecord;
+import de.wuespace.telestion.api.message.JsonRecordMessageCodec;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static de.wuespace.telestion.api.Eventually.eventually;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(VertxExtension.class)
+public class MessageRecorderTest {
+
+	@BeforeEach
+	void setUp(Vertx vertx, VertxTestContext testContext) {
+		var config = new JsonObject()
+				.put("directory", directory.toString())
+				.put("addresses", new JsonArray().add("position").add("status"))
+				.put("segmentSize", 1 << 16)
+				.put("syncInterval", 50);
+		vertx.deployVerticle(recorder, new DeploymentOptions().setConfig(config))
+				.onComplete(testContext.succeeding(id -> {
+					deployment = id;
+					testContext.completeNow();
+				}));
+	}
+
+	@Test
+	void shouldRecordMessagesWithTheirHeaders(Vertx vertx, VertxTestContext testContext) {
+		var start = MessageRecorder.epochMicros();
+		var information = new HeaderInformation().add("version", 2);
+		vertx.eventBus().publish("position", new Position(1, 2, 3),
+				JsonRecordMessageCodec.attach(vertx, information.toOptions()));
+		vertx.eventBus().publish("status", "nominal");
+		vertx.eventBus().publish("ignored", "not recorded");
+
+		eventually(vertx, () -> recorder.metrics().recorded() >= 2)
+				.compose(recorded -> vertx.undeploy(deployment))
+				.onComplete(testContext.succeeding(undeployed -> testContext.verify(() -> {
+					var messages = new ArrayList<RecordedMessage>();
+					try (var reader = RecordingReader.open(directory, start, Long.MAX_VALUE)) {
+						RecordedMessage message;
+						while ((message = reader.next()) != null) {
+							messages.add(message);
+						}
+					}
+
+					assertThat(messages, hasSize(2));
+					assertThat(messages.get(0).address(), is("position"));
+					assertThat(messages.get(0).body(), is(new Position(1, 2, 3)));
+					assertThat(new HeaderInformation(messages.get(0).headers()).getInt("version", 0), is(2));
+					assertThat(messages.get(0).timestamp(), is(greaterThanOrEqualTo(start)));
+					assertThat(messages.get(1).address(), is("status"));
+					assertThat(messages.get(1).body(), is("nominal"));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldSyncPeriodically(Vertx vertx, VertxTestContext testContext) {
+		vertx.eventBus().publish("status", "nominal");
+
+		eventually(vertx, () -> recorder.metrics().recorded() >= 1 && recorder.metrics().syncs() > 0)
+				.onComplete(testContext.succeeding(synced -> testContext.verify(() -> {
+					var metrics = recorder.metrics();
+					assertThat(metrics.recorded(), is(1L));
+					assertThat(metrics.segments(), is(1));
+					assertThat(metrics.failures(), is(0L));
+					testContext.completeNow();
+				})));
+	}
+
+	public record Position(@JsonProperty int x, @JsonProperty int y, @JsonProperty int z) implements JsonRecord {
+	}
+
+	@TempDir
+	Path directory;
+
+	private final MessageRecorder recorder = new MessageRecorder();
+
+	private String deployment;
+}
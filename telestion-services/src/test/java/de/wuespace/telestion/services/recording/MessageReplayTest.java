@@ -0,0 +1,228 @@
+package de.wuespace.telestion.services.recording;
+
+import de.wuespace.telestion.api.message.HeaderInformation;
+import de.wuespace.telestion.services.monitoring.MessageMetrics;
+import de.wuespace.telestion.services.recording.MessageRecorderTest.Position;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static de.wuespace.telestion.api.Eventually.eventually;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(VertxExtension.class)
+public class MessageReplayTest {
+
+	@Test
+	void shouldReplayATimeRangeWithTheOriginalHeaders(Vertx vertx, VertxTestContext testContext) throws Exception {
+		record(100, 1000);
+		var received = new CopyOnWriteArrayList<Message<Object>>();
+		vertx.eventBus().consumer("replay/position", received::add);
+
+		var replay = new MessageReplay();
+		deploy(vertx, replay, new JsonObject()
+				.put("from", instant(START + 20 * 1000))
+				.put("to", instant(START + 59 * 1000))
+				.put("addresses", new JsonArray().add("position"))
+				.put("speed", 0))
+				.compose(id -> eventually(vertx, () -> replay.metrics().finished()))
+				// every second message is on the position address
+				.compose(finished -> eventually(vertx, () -> received.size() >= 20))
+				.onComplete(testContext.succeeding(replayed -> testContext.verify(() -> {
+					assertThat(received, hasSize(20));
+					for (var i = 0; i < received.size(); i++) {
+						var message = received.get(i);
+						assertThat(message.body(), is(new Position(20 + 2 * i, 0, 0)));
+						assertThat(new HeaderInformation(message.headers()).getInt("version", 0), is(2));
+						assertThat(message.headers().get(MessageMetrics.SEND_TIME_HEADER), is(nullValue()));
+						assertThat(message.headers().get(ReplayFlowControl.REPLAY_HEADER), endsWith(":" + (i + 1)));
+					}
+					assertThat(replay.metrics().replayed(), is(20L));
+					assertThat(replay.metrics().position(), is(START + 58 * 1000));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldKeepTheRecordedIntervals(Vertx vertx, VertxTestContext testContext) throws Exception {
+		record(11, 50_000);
+		var received = new CopyOnWriteArrayList<Message<Object>>();
+		vertx.eventBus().consumer("replay/status", received::add);
+
+		var start = System.nanoTime();
+		var replay = new MessageReplay();
+		deploy(vertx, replay, new JsonObject().put("addresses", new JsonArray().add("status")).put("speed", 1.0))
+				.compose(id -> eventually(vertx, () -> replay.metrics().finished()))
+				.onComplete(testContext.succeeding(finished -> testContext.verify(() -> {
+					var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+					// the status messages are recorded 100 ms apart
+					assertThat(received, hasSize(5));
+					assertThat(elapsed.toMillis(), is(greaterThanOrEqualTo(380L)));
+					assertThat(replay.metrics().lag(), is(lessThan(TimeUnit.SECONDS.toMicros(1))));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldWaitForSlowConsumers(Vertx vertx, VertxTestContext testContext) throws Exception {
+		record(600, 1);
+		var replay = new MessageReplay();
+		var handled = new AtomicLong();
+		var maxUnhandled = new AtomicLong();
+
+		vertx.deployVerticle(new AbstractVerticle() {
+			@Override
+			public void start() {
+				vertx.eventBus().consumer("replay/position", message -> {
+					var current = handled.incrementAndGet();
+					maxUnhandled.accumulateAndGet(replay.metrics().replayed() - current, Math::max);
+					// keeps the event loop of the consumer busy
+					busy(1);
+				});
+			}
+		}).compose(consumer -> deploy(vertx, replay, new JsonObject()
+				.put("addresses", new JsonArray().add("position"))
+				.put("speed", 0)
+				.put("maxInFlight", 16)
+				.put("batchSize", 64))
+		).compose(id -> eventually(vertx, () -> replay.metrics().finished() && handled.get() == 300))
+				.onComplete(testContext.succeeding(finished -> testContext.verify(() -> {
+					assertThat(maxUnhandled.get(), is(lessThanOrEqualTo(32L)));
+					assertThat(replay.metrics().pauses(), is(greaterThan(0L)));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldFollowTheRecordingUntilTheEndOfTheRange(Vertx vertx, VertxTestContext testContext) throws Exception {
+		var received = new CopyOnWriteArrayList<Message<Object>>();
+		vertx.eventBus().consumer("replay/status", received::add);
+		var log = SegmentLog.open(new SegmentLog.Options(directory, 1 << 16, 512, 0, Duration.ZERO));
+		var now = MessageRecorder.epochMicros();
+		log.append(now, "status", MultiMap.caseInsensitiveMultiMap(), "first");
+
+		var replay = new MessageReplay();
+		deploy(vertx, replay, new JsonObject()
+				.put("to", instant(now + TimeUnit.MILLISECONDS.toMicros(500)))
+				.put("speed", 0))
+				.compose(id -> eventually(vertx, () -> received.size() >= 1))
+				.compose(first -> vertx.timer(200))
+				.compose(waited -> {
+					// the short batch at the live end of the recording does not end the replay
+					testContext.verify(() -> assertThat(replay.metrics().finished(), is(false)));
+					log.append(MessageRecorder.epochMicros(), "status", MultiMap.caseInsensitiveMultiMap(), "second");
+					return eventually(vertx, () -> received.size() >= 2);
+				})
+				.compose(second -> eventually(vertx, () -> replay.metrics().finished()))
+				.andThen(finished -> log.close())
+				.onComplete(testContext.succeeding(finished -> testContext.verify(() -> {
+					assertThat(received, hasSize(2));
+					assertThat(received.get(1).body(), is("second"));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldReplayWithoutConsumers(Vertx vertx, VertxTestContext testContext) throws Exception {
+		record(200, 1);
+
+		var replay = new MessageReplay();
+		deploy(vertx, replay, new JsonObject()
+				.put("speed", 0)
+				.put("maxInFlight", 16)
+				.put("stallTimeout", 100))
+				.compose(id -> eventually(vertx, () -> replay.metrics().finished()))
+				.onComplete(testContext.succeeding(finished -> testContext.verify(() -> {
+					assertThat(replay.metrics().replayed(), is(200L));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldExposeTheProgressAsMetrics(Vertx vertx, VertxTestContext testContext) throws Exception {
+		record(10, 1000);
+		var metrics = new MessageMetrics();
+		var replay = new MessageReplay();
+
+		vertx.deployVerticle(metrics, new DeploymentOptions().setConfig(new JsonObject().put("port", 19101)))
+				.compose(monitoring -> deploy(vertx, replay, new JsonObject().put("speed", 0)))
+				.compose(id -> eventually(vertx, () -> replay.metrics().finished()))
+				.compose(finished -> {
+					var text = metrics.scrape();
+					var labels = "{replay=\"" + replay.deploymentID() + "\"}";
+					testContext.verify(() -> {
+						assertThat(text, containsString("# TYPE telestion_replay_messages_total counter\n"));
+						assertThat(text, containsString("telestion_replay_messages_total" + labels + " 10.0\n"));
+						assertThat(text, containsString("telestion_replay_finished" + labels + " 1.0\n"));
+					});
+					return vertx.undeploy(replay.deploymentID());
+				})
+				.onComplete(testContext.succeeding(undeployed -> testContext.verify(() -> {
+					assertThat(metrics.scrape(), not(containsString("telestion_replay_messages_total")));
+					testContext.completeNow();
+				})));
+	}
+
+	/**
+	 * Records the count of messages at the interval in microseconds, alternately on {@code position} and
+	 * {@code status}.
+	 */
+	private void record(int count, long interval) throws Exception {
+		var options = new SegmentLog.Options(directory, 1 << 16, 512, 0, Duration.ZERO);
+		try (var log = SegmentLog.open(options)) {
+			for (var i = 0; i < count; i++) {
+				var headers = MultiMap.caseInsensitiveMultiMap()
+						.add("version", "2")
+						.add(MessageMetrics.SEND_TIME_HEADER, "1");
+				var address = i % 2 == 0 ? "position" : "status";
+				var body = i % 2 == 0 ? new Position(i, 0, 0) : "nominal";
+				// like the recorder, syncs if the log needs the next segment
+				if (log.append(START + i * interval, address, headers, body) == SegmentLog.AppendResult.NO_SEGMENT) {
+					log.sync().run();
+					log.append(START + i * interval, address, headers, body);
+				}
+			}
+		}
+	}
+
+	private Future<String> deploy(Vertx vertx, MessageReplay replay, JsonObject config) {
+		config.put("directory", directory.toString()).put("addressPrefix", "replay/");
+		return vertx.deployVerticle(replay, new DeploymentOptions().setConfig(config));
+	}
+
+	private static String instant(long micros) {
+		return Instant.ofEpochSecond(0, micros * 1000).toString();
+	}
+
+	private static void busy(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static final long START = TimeUnit.SECONDS.toMicros(Instant.parse("2026-01-01T00:00:00Z").getEpochSecond());
+
+	@TempDir
+	Path directory;
+}
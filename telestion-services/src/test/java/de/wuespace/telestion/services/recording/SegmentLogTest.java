@@ -0,0 +1,220 @@
+package de.wuespace.telestion.services.recording;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.wuespace.telestion.services.recording.SegmentLog.AppendResult.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SegmentLogTest {
+
+	@Test
+	void shouldReadTheAppendedMessages() throws Exception {
+		try (var log = SegmentLog.open(options(1 << 16, 0))) {
+			var headers = MultiMap.caseInsensitiveMultiMap().add("version", "1").add("tag", "a").add("tag", "b");
+			assertThat(log.append(10, "json", headers, new JsonObject().put("x", 1)), is(APPENDED));
+			assertThat(log.append(11, "buffer", MultiMap.caseInsensitiveMultiMap(), Buffer.buffer("raw")),
+					is(APPENDED));
+			assertThat(log.append(12, "string", MultiMap.caseInsensitiveMultiMap(), "text"), is(APPENDED));
+			assertThat(log.append(13, "null", MultiMap.caseInsensitiveMultiMap(), null), is(APPENDED));
+		}
+
+		var messages = readAll(0, Long.MAX_VALUE);
+		assertThat(messages, hasSize(4));
+		assertThat(messages.get(0).timestamp(), is(10L));
+		assertThat(messages.get(0).address(), is("json"));
+		assertThat(messages.get(0).body(), is(new JsonObject().put("x", 1)));
+		assertThat(messages.get(0).headers().get("version"), is("1"));
+		assertThat(messages.get(0).headers().getAll("tag"), contains("a", "b"));
+		assertThat(messages.get(1).body(), is(Buffer.buffer("raw")));
+		assertThat(messages.get(2).body(), is("text"));
+		assertThat(messages.get(3).body(), is(nullValue()));
+	}
+
+	@Test
+	void shouldReadATimeRangeAcrossSegments() throws Exception {
+		try (var log = SegmentLog.open(options(4096, 0))) {
+			for (var i = 0; i < 1000; i++) {
+				append(log, 1000 + i, new JsonObject().put("i", i));
+			}
+			assertThat(log.metrics().appended(), is(1000L));
+			assertThat(log.metrics().segments(), is(greaterThan(5)));
+		}
+
+		var messages = readAll(1500, 1599);
+		assertThat(messages, hasSize(100));
+		assertThat(messages.get(0).timestamp(), is(1500L));
+		assertThat(messages.get(99).timestamp(), is(1599L));
+		for (var i = 1; i < messages.size(); i++) {
+			assertThat(messages.get(i).timestamp(), is(messages.get(i - 1).timestamp() + 1));
+		}
+	}
+
+	@Test
+	void shouldReadWhileTheLogIsWritten() throws Exception {
+		try (var log = SegmentLog.open(options(1 << 16, 0));
+				var reader = RecordingReader.open(directory, 0, Long.MAX_VALUE)) {
+			assertThat(reader.next(), is(nullValue()));
+			log.append(1, "sensor", MultiMap.caseInsensitiveMultiMap(), "first");
+			assertThat(reader.next().body(), is("first"));
+			assertThat(reader.next(), is(nullValue()));
+			log.append(2, "sensor", MultiMap.caseInsensitiveMultiMap(), "second");
+			assertThat(reader.next().body(), is("second"));
+			assertThat(reader.isFinished(), is(false));
+		}
+	}
+
+	@Test
+	void shouldDeleteTheOldestSegmentsBeyondTheRetentionSize() throws Exception {
+		try (var log = SegmentLog.open(options(4096, 3 * 4096))) {
+			for (var i = 0; i < 1000; i++) {
+				append(log, i, new JsonObject().put("i", i));
+				if (i % 100 == 0) {
+					log.sync().run();
+				}
+			}
+			log.sync().run();
+			assertThat(log.metrics().segments(), is(2));
+		}
+
+		assertThat(SegmentFormat.list(directory), hasSize(2));
+		var messages = readAll(0, Long.MAX_VALUE);
+		assertThat(messages, is(not(empty())));
+		assertThat(messages.get(messages.size() - 1).timestamp(), is(999L));
+	}
+
+	@Test
+	void shouldDeleteSegmentsBeyondTheRetentionAge() throws Exception {
+		var now = System.currentTimeMillis() * 1000;
+		var options = new SegmentLog.Options(directory, 4096, 512, 0, Duration.ofHours(1));
+		try (var log = SegmentLog.open(options)) {
+			var old = now - Duration.ofHours(2).toNanos() / 1000;
+			for (var i = 0; i < 200; i++) {
+				append(log, old + i, new JsonObject().put("i", i));
+			}
+			append(log, now, "now");
+			log.sync().run();
+			assertThat(log.metrics().segments(), is(1));
+		}
+
+		// only the active segment remains
+		var messages = readAll(0, Long.MAX_VALUE);
+		assertThat(messages.size(), is(lessThan(100)));
+		assertThat(messages.get(messages.size() - 1).body(), is("now"));
+	}
+
+	@Test
+	void shouldUseTheSpareSegmentPreparedBySync() throws Exception {
+		var spare = directory.resolve("spare" + SegmentFormat.LOG_EXTENSION);
+		try (var log = SegmentLog.open(options(4096, 0))) {
+			assertThat(Files.size(spare), is(4096L));
+			log.append(1, "sensor", MultiMap.caseInsensitiveMultiMap(), "first");
+			assertThat(Files.exists(spare), is(false));
+			assertThat(Files.size(SegmentFormat.log(directory, 1)), is(4096L));
+
+			log.sync().run();
+			assertThat(Files.size(spare), is(4096L));
+			log.append(2, "sensor", MultiMap.caseInsensitiveMultiMap(), Buffer.buffer(new byte[2000]));
+			assertThat(Files.size(spare), is(4096L));
+			log.append(3, "sensor", MultiMap.caseInsensitiveMultiMap(), Buffer.buffer(new byte[2000]));
+			assertThat(Files.exists(spare), is(false));
+			assertThat(SegmentFormat.list(directory), contains(1L, 3L));
+		}
+
+		assertThat(Files.exists(spare), is(false));
+		assertThat(readAll(0, Long.MAX_VALUE), hasSize(3));
+	}
+
+	@Test
+	void shouldRejectMessagesUntilTheNextSegmentIsPrepared() throws Exception {
+		try (var log = SegmentLog.open(options(4096, 0))) {
+			var body = Buffer.buffer(new byte[2500]);
+			assertThat(log.append(1, "sensor", MultiMap.caseInsensitiveMultiMap(), body), is(APPENDED));
+			assertThat(log.append(2, "sensor", MultiMap.caseInsensitiveMultiMap(), body), is(NO_SEGMENT));
+			assertThat(log.append(3, "sensor", MultiMap.caseInsensitiveMultiMap(), "small"), is(APPENDED));
+			// the appending thread does not create any files itself
+			try (var files = Files.list(directory)) {
+				assertThat(files.count(), is(2L));
+			}
+
+			log.sync().run();
+			assertThat(log.append(4, "sensor", MultiMap.caseInsensitiveMultiMap(), body), is(APPENDED));
+			assertThat(log.metrics().appended(), is(3L));
+		}
+
+		assertThat(SegmentFormat.list(directory), contains(1L, 4L));
+	}
+
+	@Test
+	void shouldRejectMessagesLargerThanASegment() throws Exception {
+		try (var log = SegmentLog.open(options(4096, 0))) {
+			assertThat(log.append(1, "large", MultiMap.caseInsensitiveMultiMap(), Buffer.buffer(new byte[5000])),
+					is(TOO_LARGE));
+			assertThat(log.metrics().appended(), is(0L));
+		}
+	}
+
+	@Test
+	void shouldStopAtACorruptRecord() throws Exception {
+		try (var log = SegmentLog.open(options(1 << 16, 0))) {
+			log.append(1, "sensor", MultiMap.caseInsensitiveMultiMap(), "intact");
+			log.append(2, "sensor", MultiMap.caseInsensitiveMultiMap(), "corrupt");
+		}
+
+		var file = SegmentFormat.log(directory, SegmentFormat.list(directory).get(0));
+		try (var channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ)) {
+			var record = ByteBuffer.allocate(4);
+			channel.read(record, SegmentFormat.HEADER_SIZE);
+			// flips a byte in the body of the second record
+			var second = SegmentFormat.HEADER_SIZE + SegmentFormat.RECORD_PREFIX + record.flip().getInt();
+			channel.write(ByteBuffer.wrap(new byte[]{'X'}), second + SegmentFormat.RECORD_PREFIX + 20);
+		}
+
+		var messages = readAll(0, Long.MAX_VALUE);
+		assertThat(messages, hasSize(1));
+		assertThat(messages.get(0).body(), is("intact"));
+	}
+
+	/**
+	 * Appends like the {@link MessageRecorder}, which syncs if the log needs the next segment.
+	 */
+	private static void append(SegmentLog log, long timestamp, Object body) {
+		var headers = MultiMap.caseInsensitiveMultiMap();
+		if (log.append(timestamp, "sensor", headers, body) == NO_SEGMENT) {
+			log.sync().run();
+			assertThat(log.append(timestamp, "sensor", headers, body), is(APPENDED));
+		}
+	}
+
+	private SegmentLog.Options options(int segmentSize, long retentionSize) {
+		return new SegmentLog.Options(directory, segmentSize, 512, retentionSize, Duration.ZERO);
+	}
+
+	private List<RecordedMessage> readAll(long from, long to) throws IOException {
+		var messages = new ArrayList<RecordedMessage>();
+		try (var reader = RecordingReader.open(directory, from, to)) {
+			RecordedMessage message;
+			while ((message = reader.next()) != null) {
+				messages.add(message);
+			}
+		}
+		return messages;
+	}
+
+	@TempDir
+	Path directory;
+}
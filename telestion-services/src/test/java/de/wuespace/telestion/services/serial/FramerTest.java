@@ -0,0 +1,165 @@
+package de.wuespace.telestion.services.serial;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class FramerTest {
+
+	@Test
+	void shouldDecodeCobsFramesInPlace() {
+		var first = new byte[]{0x11, 0x00, 0x00, 0x22};
+		var second = new byte[300];
+		for (var i = 0; i < second.length; i++) {
+			second[i] = (byte) (i % 7 == 0 ? 0 : i);
+		}
+		var stream = concat(cobs(first), new byte[]{0}, cobs(second), new byte[]{0}, cobs(new byte[0]), new byte[]{0});
+
+		var frames = new Frames(stream);
+		var consumed = Framer.cobs(1024).decode(stream, 0, stream.length, frames);
+
+		assertThat(consumed, is(stream.length));
+		assertThat(frames.frames, hasSize(3));
+		assertThat(frames.frames.get(0), is(first));
+		assertThat(frames.frames.get(1), is(second));
+		assertThat(frames.frames.get(2), is(new byte[0]));
+		assertThat(frames.invalid, is(0));
+	}
+
+	@Test
+	void shouldWaitForTheRestOfAFrame() {
+		var stream = concat(cobs(new byte[]{1, 2, 3}), new byte[]{0}, cobs(new byte[]{4, 5, 6}), new byte[]{0});
+		var framer = Framer.cobs(1024);
+		var frames = new Frames(stream);
+
+		var consumed = framer.decode(stream, 0, stream.length - 2, frames);
+		assertThat(consumed, is(5));
+		assertThat(frames.frames, hasSize(1));
+		consumed = framer.decode(stream, consumed, stream.length, frames);
+		assertThat(consumed, is(stream.length));
+		assertThat(frames.frames.get(1), is(new byte[]{4, 5, 6}));
+	}
+
+	@Test
+	void shouldUnescapeSlipFrames() {
+		var stream = new byte[]{
+				SlipFramer.END, 1, SlipFramer.ESC, SlipFramer.ESC_END, 2, SlipFramer.ESC, SlipFramer.ESC_ESC, 3,
+				SlipFramer.END, 4, 5, SlipFramer.END, 6, SlipFramer.ESC, 7, SlipFramer.END
+		};
+
+		var frames = new Frames(stream);
+		var consumed = Framer.slip(1024).decode(stream, 0, stream.length, frames);
+
+		assertThat(consumed, is(stream.length));
+		assertThat(frames.frames, contains(
+				new byte[]{1, SlipFramer.END, 2, SlipFramer.ESC, 3},
+				new byte[]{4, 5}));
+		assertThat(frames.invalid, is(1));
+	}
+
+	@Test
+	void shouldSplitAtTheDelimiter() {
+		var stream = "first\r\nsecond\r\n\r\nthi".getBytes(StandardCharsets.US_ASCII);
+
+		var frames = new Frames(stream);
+		var consumed = Framer.delimiter(new byte[]{'\r', '\n'}, 1024).decode(stream, 0, stream.length, frames);
+
+		assertThat(consumed, is(stream.length - 3));
+		assertThat(frames.strings(), contains("first", "second"));
+	}
+
+	@Test
+	void shouldDiscardFramesLargerThanTheMaximum() {
+		var stream = "ok\nmuch too long\nok again\n".getBytes(StandardCharsets.US_ASCII);
+		var framer = Framer.delimiter(new byte[]{'\n'}, 8);
+		var frames = new Frames(stream);
+
+		// the long frame is not complete yet
+		var consumed = framer.decode(stream, 0, 14, frames);
+		assertThat(consumed, is(14));
+		assertThat(frames.invalid, is(1));
+		consumed = framer.decode(stream, consumed, stream.length, frames);
+
+		assertThat(consumed, is(stream.length));
+		assertThat(frames.strings(), contains("ok", "ok again"));
+		assertThat(frames.invalid, is(1));
+	}
+
+	@Test
+	void shouldReadTheLengthPrefix() {
+		var stream = new byte[]{0, 3, 1, 2, 3, (byte) 0xff, (byte) 0xff, 0, 0, 0, 2, 4};
+
+		var frames = new Frames(stream);
+		var consumed = Framer.lengthPrefix(2, 16).decode(stream, 0, stream.length, frames);
+
+		assertThat(frames.frames, contains(new byte[]{1, 2, 3}, new byte[0]));
+		// skips the invalid length byte by byte
+		assertThat(frames.invalid, is(2));
+		assertThat(consumed, is(stream.length - 3));
+	}
+
+	private static final class Frames implements Framer.Sink {
+
+		private Frames(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		@Override
+		public void frame(int start, int end) {
+			frames.add(Arrays.copyOfRange(bytes, start, end));
+		}
+
+		@Override
+		public void invalid() {
+			invalid++;
+		}
+
+		private List<String> strings() {
+			return frames.stream().map(frame -> new String(frame, StandardCharsets.US_ASCII)).toList();
+		}
+
+		private final List<byte[]> frames = new ArrayList<>();
+		private int invalid;
+		private final byte[] bytes;
+	}
+
+	/**
+	 * Encodes the frame with COBS, without the trailing zero byte.
+	 */
+	static byte[] cobs(byte[] frame) {
+		var encoded = new ByteArrayOutputStream();
+		var block = new ByteArrayOutputStream();
+		for (var value : frame) {
+			if (value == 0) {
+				encoded.write(block.size() + 1);
+				encoded.writeBytes(block.toByteArray());
+				block.reset();
+			} else {
+				block.write(value);
+				if (block.size() == 254) {
+					encoded.write(0xff);
+					encoded.writeBytes(block.toByteArray());
+					block.reset();
+				}
+			}
+		}
+		encoded.write(block.size() + 1);
+		encoded.writeBytes(block.toByteArray());
+		return encoded.toByteArray();
+	}
+
+	static byte[] concat(byte[]... parts) {
+		var stream = new ByteArrayOutputStream();
+		for (var part : parts) {
+			stream.writeBytes(part);
+		}
+		return stream.toByteArray();
+	}
+}
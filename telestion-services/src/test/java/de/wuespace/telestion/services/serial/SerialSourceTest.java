@@ -0,0 +1,154 @@
+package de.wuespace.telestion.services.serial;
+
+import de.wuespace.telestion.api.message.HeaderInformation;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.wuespace.telestion.api.Eventually.eventually;
+import static de.wuespace.telestion.services.serial.FramerTest.cobs;
+import static de.wuespace.telestion.services.serial.FramerTest.concat;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(VertxExtension.class)
+public class SerialSourceTest {
+
+	@AfterEach
+	void tearDown(VertxTestContext testContext) {
+		vertx.close().onComplete(testContext.succeedingThenComplete());
+	}
+
+	@Test
+	void shouldPublishTheFramesOfTheStream(VertxTestContext testContext) throws Exception {
+		vertx = Vertx.vertx();
+		var port = new PipedOutputStream();
+		var input = new PipedInputStream(port, 1 << 16);
+		var received = new CopyOnWriteArrayList<Message<Buffer>>();
+		vertx.eventBus().<Buffer>consumer("downlink", received::add);
+
+		var stream = concat(new byte[]{0}, cobs(new byte[]{1, 0, 2}), new byte[]{0},
+				cobs(new byte[]{3, 4}), new byte[]{0}, cobs(new byte[]{5}), new byte[]{0});
+		deploy(new JsonObject().put("framing", "cobs").put("frameType", "ccsds"), config -> input)
+				.compose(source -> {
+					// splits the second frame
+					write(port, stream, 0, 8);
+					return eventually(vertx, () -> received.size() == 1).map(source);
+				})
+				.compose(source -> {
+					write(port, stream, 8, stream.length - 8);
+					return eventually(vertx, () -> received.size() == 3).map(source);
+				})
+				.onComplete(testContext.succeeding(source -> testContext.verify(() -> {
+					assertThat(received.get(0).body(), is(Buffer.buffer(new byte[]{1, 0, 2})));
+					assertThat(received.get(1).body(), is(Buffer.buffer(new byte[]{3, 4})));
+					assertThat(received.get(2).body(), is(Buffer.buffer(new byte[]{5})));
+					assertThat(received.get(0).headers().get(HeaderInformation.FRAME_TYPE), is("ccsds"));
+
+					var metrics = source.metrics();
+					assertThat(metrics.bytes(), is((long) stream.length));
+					assertThat(metrics.frames(), is(3L));
+					assertThat(metrics.published(), is(3L));
+					assertThat(metrics.connected(), is(true));
+					testContext.completeNow();
+				})));
+	}
+
+	@Test
+	void shouldDropFramesWhileTheEventLoopFallsBehind(VertxTestContext testContext) throws Exception {
+		vertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(1));
+		var port = new PipedOutputStream();
+		var input = new PipedInputStream(port, 1 << 16);
+		var idle = new PipedInputStream(new PipedOutputStream());
+		var received = new CopyOnWriteArrayList<Message<Buffer>>();
+		vertx.eventBus().<Buffer>consumer("downlink", received::add);
+		// the reader connects again after it has framed the whole stream
+		var reconnected = new CountDownLatch(1);
+		var connections = new AtomicInteger();
+
+		deploy(new JsonObject().put("framing", "length").put("lengthSize", 1).put("queueCapacity", 4)
+				.put("reconnectInterval", 10), config -> {
+			if (connections.getAndIncrement() == 0) {
+				return input;
+			}
+			reconnected.countDown();
+			return idle;
+		}).compose(source -> {
+			// blocks the only event loop until the reader has framed the stream
+			vertx.runOnContext(nothing -> testContext.verify(() -> {
+				for (var i = 0; i < 100; i++) {
+					port.write(new byte[]{1, (byte) i});
+				}
+				port.close();
+				assertThat(reconnected.await(5, TimeUnit.SECONDS), is(true));
+				assertThat(source.metrics().frames(), is(100L));
+				assertThat(source.metrics().dropped(), is(96L));
+				assertThat(source.metrics().queued(), is(4));
+			}));
+			return eventually(vertx, () -> received.size() == 4).map(source);
+		}).onComplete(testContext.succeeding(source -> testContext.verify(() -> {
+			assertThat(received.get(3).body(), is(Buffer.buffer(new byte[]{3})));
+			assertThat(source.metrics().published(), is(4L));
+			testContext.completeNow();
+		})));
+	}
+
+	@Test
+	void shouldReconnectAfterTheStreamEnds(VertxTestContext testContext) throws Exception {
+		vertx = Vertx.vertx();
+		var connections = new AtomicInteger();
+		var idle = new PipedInputStream(new PipedOutputStream());
+		var received = new CopyOnWriteArrayList<String>();
+		vertx.eventBus().<Buffer>consumer("downlink", message -> received.add(message.body().toString()));
+
+		deploy(new JsonObject().put("framing", "delimiter").put("delimiter", "0a")
+				.put("reconnectInterval", 10), config -> switch (connections.getAndIncrement()) {
+			case 0 -> new ByteArrayInputStream("first\nsec".getBytes());
+			case 1 -> throw new IOException("The port is unplugged");
+			case 2 -> new ByteArrayInputStream("second\n".getBytes());
+			default -> idle;
+		}).compose(source -> eventually(vertx, () -> received.size() == 2).compose(two -> {
+			// the incomplete frame of the first connection is discarded
+			testContext.verify(() -> assertThat(received, contains("first", "second")));
+			// the second stream may still count as connected until it ends
+			return eventually(vertx, () -> connections.get() >= 4 && source.metrics().connected());
+		})).onComplete(testContext.succeedingThenComplete());
+	}
+
+	private Future<SerialSource> deploy(JsonObject config, SerialSource.Connector connector) {
+		var source = new SerialSource(connector);
+		config.put("port", "test").put("address", "downlink");
+		return vertx.deployVerticle(source, new DeploymentOptions().setConfig(config)).map(source);
+	}
+
+	private static void write(OutputStream port, byte[] bytes, int offset, int length) {
+		try {
+			port.write(bytes, offset, length);
+			port.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private Vertx vertx;
+}
@@ -0,0 +1,82 @@
+package de.wuespace.telestion.services.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RingBufferTest {
+
+	@Test
+	void shouldRoundTheCapacityUpToAPowerOfTwo() {
+		assertThat(new RingBuffer<>(1).capacity(), is(1));
+		assertThat(new RingBuffer<>(5).capacity(), is(8));
+		assertThat(new RingBuffer<>(1024).capacity(), is(1024));
+		assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(0));
+	}
+
+	@Test
+	void shouldPollInInsertionOrder() {
+		var buffer = new RingBuffer<Integer>(4);
+		for (int round = 0; round < 3; round++) {
+			assertThat(buffer.offer(1), is(true));
+			assertThat(buffer.offer(2), is(true));
+			assertThat(buffer.size(), is(2));
+
+			assertThat(buffer.poll(), is(1));
+			assertThat(buffer.poll(), is(2));
+			assertThat(buffer.poll(), is(nullValue()));
+		}
+	}
+
+	@Test
+	void shouldRejectElementsIfFull() {
+		var buffer = new RingBuffer<Integer>(2);
+		assertThat(buffer.offer(1), is(true));
+		assertThat(buffer.offer(2), is(true));
+		assertThat(buffer.offer(3), is(false));
+
+		assertThat(buffer.poll(), is(1));
+		assertThat(buffer.offer(3), is(true));
+		assertThat(buffer.poll(), is(2));
+		assertThat(buffer.poll(), is(3));
+	}
+
+	@Test
+	void shouldDeliverEveryAcceptedElementOfConcurrentProducers() throws Exception {
+		var buffer = new RingBuffer<Integer>(64);
+		var producers = 4;
+		var perProducer = 50_000;
+		var accepted = new AtomicInteger();
+		var done = new CountDownLatch(producers);
+
+		for (int p = 0; p < producers; p++) {
+			var offset = p * perProducer;
+			new Thread(() -> {
+				for (int i = 0; i < perProducer; i++) {
+					if (buffer.offer(offset + i)) {
+						accepted.incrementAndGet();
+					}
+				}
+				done.countDown();
+			}).start();
+		}
+
+		var received = new ArrayList<Integer>();
+		while (done.getCount() > 0 || buffer.size() > 0) {
+			var element = buffer.poll();
+			if (element != null) {
+				received.add(element);
+			}
+		}
+
+		assertThat(received, hasSize(accepted.get()));
+		assertThat(new HashSet<>(received), hasSize(accepted.get()));
+	}
+}